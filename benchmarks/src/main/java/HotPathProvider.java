@@ -0,0 +1,184 @@
+import benchmarks.HotPath;
+import benchmarks.HotPaths;
+
+import java.awt.*;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Builds the {@link HotPath}s measured by the JMH benchmarks out of the drone system's own classes.
+ * It lives in the default package, next to them, and is found through the service registration
+ * for {@link HotPaths}.
+ *
+ * Every operation cycles through a fixed set of pre-built inputs with a shared counter, so
+ * several threads can run it at once and none of the inputs are built while measuring.
+ */
+public class HotPathProvider implements HotPaths {
+
+    /** Number of pre-built fires or messages each operation cycles through; a power of two. */
+    private static final int INPUTS = 256;
+    /** Size of the simulated map. */
+    private static final int MAP_WIDTH = 1000, MAP_HEIGHT = 600;
+    /** Maximum payload capacity of a drone; mirrors the Scheduler. */
+    private static final int MAX_PAYLOAD = 15;
+    /** Severity levels, sampled uniformly. */
+    private static final String[] SEVERITIES = {"Low", "Moderate", "High"};
+    /** Drone requests cycled through by {@link #receiveDroneRequest(int)}. */
+    private static final String[] REQUESTS = {"GET_TASK:3", "NOTIFY_ARRIVED:3", "UPDATE_LOCATION:3:120:80", "RETURN_TO_SCHEDULER:3:0"};
+
+    @Override
+    public HotPath findClosestDrone(int fleetSize, long seed) {
+        Random random = new Random(seed);
+        FireEventList eventList = new FireEventList();
+        DroneFleet fleet = new DroneFleet(eventList);
+        InetAddress address = InetAddress.getLoopbackAddress();
+        for (int id = 1; id <= fleetSize; id++) {
+            DroneData drone = new DroneData(id, new Point(random.nextInt(MAP_WIDTH), random.nextInt(MAP_HEIGHT)), MAX_PAYLOAD, address, 7000 + id);
+            fleet.addDrone(id, drone);
+            drone.setHasRequested(true);
+        }
+        Scheduler scheduler = newScheduler(fleet, eventList);
+        FireIncidentEvent[] fires = fires(random);
+        AtomicInteger next = new AtomicInteger();
+        return new HotPath() {
+            @Override
+            public int run() {
+                DroneData drone = scheduler.findClosestDrone(fires[next.getAndIncrement() & (INPUTS - 1)]);
+                if (drone == null) {
+                    // Every drone is claimed by another thread for the moment.
+                    return -1;
+                }
+                drone.setAtBase(true);
+                drone.setHasRequested(true);
+                return drone.getDroneID();
+            }
+
+            @Override
+            public void close() {
+                closeMetrics(scheduler);
+            }
+        };
+    }
+
+    @Override
+    public HotPath cycleFireEvent(int queueDepth, long seed) {
+        Random random = new Random(seed);
+        FireEventList eventList = new FireEventList();
+        for (int i = 0; i < queueDepth; i++) {
+            eventList.addEvent(fire(random, i + 1));
+        }
+        return () -> {
+            FireIncidentEvent event = eventList.removeEvent();
+            if (event == null) {
+                // Other threads hold every queued event for the moment.
+                return -1;
+            }
+            eventList.addEvent(event);
+            return event.getZoneId();
+        };
+    }
+
+    @Override
+    public HotPath receiveDroneRequest(int capacity) {
+        DroneRequestBuffer buffer = new DroneRequestBuffer(capacity);
+        InetSocketAddress sender = new InetSocketAddress(InetAddress.getLoopbackAddress(), 7003);
+        byte[][] requests = new byte[REQUESTS.length][];
+        for (int i = 0; i < REQUESTS.length; i++) {
+            requests[i] = REQUESTS[i].getBytes(StandardCharsets.US_ASCII);
+        }
+        AtomicInteger next = new AtomicInteger();
+        return () -> {
+            int slot;
+            try {
+                slot = buffer.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return -1;
+            }
+            buffer.slot(slot).put(requests[next.getAndIncrement() & (REQUESTS.length - 1)]);
+            buffer.commit(slot, sender);
+            // Under contention the oldest request may be another thread's; handle whichever it is.
+            int ready = buffer.poll();
+            ByteBuffer request = buffer.request(ready);
+            int droneID = MessageCodec.type(request) + MessageCodec.id(request);
+            buffer.release(ready);
+            return droneID;
+        };
+    }
+
+    @Override
+    public HotPath parseFireEvent(long seed) {
+        Random random = new Random(seed);
+        String[][] messages = new String[INPUTS][];
+        for (int i = 0; i < INPUTS; i++) {
+            messages[i] = fire(random, i + 1).toString().split(":");
+        }
+        AtomicInteger next = new AtomicInteger();
+        return () -> Scheduler.getFireIncidentEvent(messages[next.getAndIncrement() & (INPUTS - 1)]).getWaterNeeded();
+    }
+
+    @Override
+    public HotPath formatTask(long seed) {
+        Random random = new Random(seed);
+        FireEventList eventList = new FireEventList();
+        Scheduler scheduler = newScheduler(new DroneFleet(eventList), eventList);
+        DroneData drone = new DroneData(42, new Point(0, 0), MAX_PAYLOAD, InetAddress.getLoopbackAddress(), 7042);
+        FireIncidentEvent[] fires = fires(random);
+        AtomicInteger next = new AtomicInteger();
+        return new HotPath() {
+            @Override
+            public int run() {
+                try {
+                    return scheduler.sendTaskToDrone(drone, fires[next.getAndIncrement() & (INPUTS - 1)]).length();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public void close() {
+                closeMetrics(scheduler);
+            }
+        };
+    }
+
+    /**
+     * Creates a Scheduler that sends nothing, so no sockets are involved.
+     */
+    private static Scheduler newScheduler(DroneFleet fleet, FireEventList eventList) {
+        return new Scheduler(fleet, new DroneRequestBuffer(), eventList, new InProgressEvents(), (message, address, port) -> {
+        });
+    }
+
+    private static void closeMetrics(Scheduler scheduler) {
+        try {
+            scheduler.getMetricsLogger().close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static FireIncidentEvent[] fires(Random random) {
+        FireIncidentEvent[] fires = new FireIncidentEvent[INPUTS];
+        for (int i = 0; i < INPUTS; i++) {
+            fires[i] = fire(random, i + 1);
+        }
+        return fires;
+    }
+
+    /**
+     * Creates a fire in its own 100 by 100 zone at a random spot on the map.
+     */
+    private static FireIncidentEvent fire(Random random, int zoneId) {
+        int x = random.nextInt(MAP_WIDTH - 100), y = random.nextInt(MAP_HEIGHT - 100);
+        Zone zone = new Zone(zoneId, x, y, x + 100, y + 100);
+        String time = String.format("14:%02d:%02d", random.nextInt(60), random.nextInt(60));
+        return new FireIncidentEvent(time, zoneId, "FIRE_DETECTED", SEVERITIES[random.nextInt(3)], zone, 5 + random.nextInt(41), "NO_FAULT", "N/A");
+    }
+}
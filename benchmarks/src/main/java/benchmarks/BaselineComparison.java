@@ -0,0 +1,120 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compares a JMH run against a stored baseline, both in JMH's CSV result format, and reports
+ * every benchmark that got slower.
+ *
+ * Results are matched by benchmark name, mode, thread count and parameters. A result counts as a
+ * regression when it is worse than the baseline by more than the threshold and by more than the
+ * two results' error margins combined, so run-to-run noise is not reported. Scores in throughput
+ * mode are better when higher; every other mode measures time, which is better when lower.
+ *
+ * Usage: {@code java -cp benchmarks.jar benchmarks.BaselineComparison baseline.csv results.csv [threshold%]}.
+ * The exit status is 1 if any benchmark regressed.
+ */
+public class BaselineComparison {
+
+    /** Default slowdown, in percent, tolerated before a benchmark is reported as a regression. */
+    private static final double DEFAULT_THRESHOLD_PERCENT = 5;
+
+    /**
+     * One row of a JMH CSV result file.
+     */
+    record Result(String key, String mode, double score, double error, String unit) {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: BaselineComparison baseline.csv results.csv [threshold%]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD_PERCENT;
+        Map<String, Result> baseline = read(Path.of(args[0]));
+        Map<String, Result> current = read(Path.of(args[1]));
+
+        int regressions = 0;
+        for (Result result : current.values()) {
+            Result before = baseline.get(result.key());
+            if (before == null) {
+                System.out.printf("%-90s %12.3f %s  (new)%n", result.key(), result.score(), result.unit());
+                continue;
+            }
+            double change = 100 * (result.score() - before.score()) / before.score();
+            double worse = result.mode().equals("thrpt") ? -change : change;
+            boolean regressed = worse > threshold
+                    && Math.abs(result.score() - before.score()) > result.error() + before.error();
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-90s %12.3f -> %12.3f %s  %+6.1f%%%s%n", result.key(), before.score(), result.score(),
+                    result.unit(), change, regressed ? "  REGRESSION" : "");
+        }
+        System.out.println(regressions + " regression(s) beyond " + threshold + "%");
+        System.exit(regressions > 0 ? 1 : 0);
+    }
+
+    /**
+     * Reads a JMH CSV result file, keyed by benchmark, mode, threads and parameters.
+     */
+    static Map<String, Result> read(Path file) throws IOException {
+        List<String> lines = Files.readAllLines(file);
+        List<String> header = split(lines.get(0));
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (String line : lines.subList(1, lines.size())) {
+            if (line.isBlank()) {
+                continue;
+            }
+            List<String> row = split(line);
+            StringBuilder key = new StringBuilder(row.get(header.indexOf("Benchmark")));
+            String mode = row.get(header.indexOf("Mode"));
+            key.append(' ').append(mode).append(" threads=").append(row.get(header.indexOf("Threads")));
+            for (int i = 0; i < header.size(); i++) {
+                if (header.get(i).startsWith("Param: ") && i < row.size() && !row.get(i).isEmpty()) {
+                    key.append(' ').append(header.get(i).substring("Param: ".length())).append('=').append(row.get(i));
+                }
+            }
+            double score = number(row.get(header.indexOf("Score")));
+            double error = number(row.get(header.indexOf("Score Error (99.9%)")));
+            results.put(key.toString(), new Result(key.toString(), mode, score, error, row.get(header.indexOf("Unit"))));
+        }
+        return results;
+    }
+
+    /**
+     * Splits a CSV line on commas outside quotes, removing the quotes.
+     */
+    private static List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (char c : line.toCharArray()) {
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (c == ',' && !quoted) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * Parses a score, which JMH leaves as NaN when there were too few samples for an error.
+     */
+    private static double number(String value) {
+        String trimmed = value.trim().toLowerCase(Locale.ROOT);
+        return trimmed.isEmpty() || trimmed.equals("nan") ? 0 : Double.parseDouble(trimmed);
+    }
+}
@@ -0,0 +1,45 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Background threads that run a {@link HotPath} in a loop while the benchmark thread measures it,
+ * so the cost of contending for the same monitor or buffer is part of the score.
+ */
+final class Contention {
+
+    private final List<Thread> threads = new ArrayList<>();
+    private volatile boolean running = true;
+
+    /**
+     * Starts the given number of threads running the operation.
+     *
+     * @param path    the operation to contend on
+     * @param threads the number of background threads; zero measures the operation uncontended
+     */
+    Contention(HotPath path, int threads) {
+        for (int i = 0; i < threads; i++) {
+            Thread thread = new Thread(() -> {
+                while (running) {
+                    path.run();
+                }
+            }, "Contender-" + (i + 1));
+            thread.setDaemon(true);
+            this.threads.add(thread);
+            thread.start();
+        }
+    }
+
+    /**
+     * Stops the background threads and waits for them to finish.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    void stop() throws InterruptedException {
+        running = false;
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+}
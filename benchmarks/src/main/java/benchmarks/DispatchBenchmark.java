@@ -0,0 +1,44 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures {@code Scheduler.findClosestDrone}: the spatial lookup of the nearest available drone
+ * and claiming it, which runs under the Scheduler's monitor for every drone dispatched.
+ */
+@State(Scope.Benchmark)
+public class DispatchBenchmark extends HotPathBenchmark {
+
+    /** Number of drones in the fleet, all available. */
+    @Param({"10", "100", "1000", "10000"})
+    public int fleetSize;
+
+    /** Number of background threads dispatching from the same Scheduler. */
+    @Param({"0", "1", "3"})
+    public int contention;
+
+    private HotPath findClosestDrone;
+    private Contention contenders;
+
+    @Setup
+    public void setUp() {
+        findClosestDrone = HotPaths.load().findClosestDrone(fleetSize, SEED);
+        contenders = new Contention(findClosestDrone, contention);
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        contenders.stop();
+        findClosestDrone.close();
+    }
+
+    @Benchmark
+    public int findClosestDrone() {
+        return findClosestDrone.run();
+    }
+}
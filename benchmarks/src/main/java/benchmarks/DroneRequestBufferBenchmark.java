@@ -0,0 +1,44 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures a drone request's trip through {@code DroneRequestBuffer}: acquiring a slot, decoding
+ * the text request into it on commit, then polling, reading and releasing it.
+ */
+@State(Scope.Benchmark)
+public class DroneRequestBufferBenchmark extends HotPathBenchmark {
+
+    /** Number of slots in the buffer. */
+    @Param({"16", "64"})
+    public int capacity;
+
+    /** Number of background threads passing requests through the same buffer. */
+    @Param({"0", "1", "3"})
+    public int contention;
+
+    private HotPath receiveDroneRequest;
+    private Contention contenders;
+
+    @Setup
+    public void setUp() {
+        receiveDroneRequest = HotPaths.load().receiveDroneRequest(capacity);
+        contenders = new Contention(receiveDroneRequest, contention);
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        contenders.stop();
+        receiveDroneRequest.close();
+    }
+
+    @Benchmark
+    public int receiveDroneRequest() {
+        return receiveDroneRequest.run();
+    }
+}
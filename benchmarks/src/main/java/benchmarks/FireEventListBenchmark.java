@@ -0,0 +1,45 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures {@code FireEventList.addEvent} and {@code removeEvent} at a steady queue depth: the
+ * highest-priority event is taken off and added back, as the dispatcher does when it cannot
+ * cover a fire.
+ */
+@State(Scope.Benchmark)
+public class FireEventListBenchmark extends HotPathBenchmark {
+
+    /** Number of fire events queued. */
+    @Param({"16", "256", "4096"})
+    public int queueDepth;
+
+    /** Number of background threads cycling events through the same list. */
+    @Param({"0", "1", "3"})
+    public int contention;
+
+    private HotPath cycleFireEvent;
+    private Contention contenders;
+
+    @Setup
+    public void setUp() {
+        cycleFireEvent = HotPaths.load().cycleFireEvent(queueDepth, SEED);
+        contenders = new Contention(cycleFireEvent, contention);
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        contenders.stop();
+        cycleFireEvent.close();
+    }
+
+    @Benchmark
+    public int removeAndAddEvent() {
+        return cycleFireEvent.run();
+    }
+}
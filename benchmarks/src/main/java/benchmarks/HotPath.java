@@ -0,0 +1,23 @@
+package benchmarks;
+
+/**
+ * One operation on a Scheduler hot path, set up and ready to be run repeatedly.
+ *
+ * Implementations are safe to run from several threads at once, so the same operation can be
+ * measured with other threads contending for it.
+ */
+public interface HotPath {
+
+    /**
+     * Runs the operation once.
+     *
+     * @return a value derived from the result, for the benchmark to consume
+     */
+    int run();
+
+    /**
+     * Releases anything the operation holds open.
+     */
+    default void close() {
+    }
+}
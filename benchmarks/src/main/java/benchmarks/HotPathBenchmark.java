@@ -0,0 +1,26 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Run settings shared by every hot path benchmark: average time per operation in nanoseconds,
+ * over one fork with five one-second warm-up and measurement iterations. Every benchmark draws
+ * its inputs from the same seed, so runs are comparable with the stored baseline.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public abstract class HotPathBenchmark {
+
+    /** Seed the drone positions, fires and messages are drawn from. */
+    protected static final long SEED = 3303;
+}
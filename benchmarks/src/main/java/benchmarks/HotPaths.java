@@ -0,0 +1,69 @@
+package benchmarks;
+
+import java.util.ServiceLoader;
+
+/**
+ * Creates the {@link HotPath}s the benchmarks measure.
+ *
+ * The drone system lives in the default package, which JMH benchmarks cannot import. The
+ * operations are therefore built by a provider in the default package, {@code HotPathProvider},
+ * registered as a service and looked up here once per trial.
+ */
+public interface HotPaths {
+
+    /**
+     * Finds and claims the closest available drone to a fire with {@code Scheduler.findClosestDrone},
+     * then makes it available again so the fleet stays the same size.
+     *
+     * @param fleetSize the number of drones in the fleet
+     * @param seed      the seed drone and fire positions are drawn from
+     * @return the operation, returning the claimed drone's ID
+     */
+    HotPath findClosestDrone(int fleetSize, long seed);
+
+    /**
+     * Takes the highest-priority event off a {@code FireEventList} and adds it back with
+     * {@code addEvent}, so the list stays at the same depth.
+     *
+     * @param queueDepth the number of events queued
+     * @param seed       the seed event zones and severities are drawn from
+     * @return the operation, returning the moved event's zone ID
+     */
+    HotPath cycleFireEvent(int queueDepth, long seed);
+
+    /**
+     * Receives a text drone request into a {@code DroneRequestBuffer} slot, then polls, reads and
+     * releases it, the way the Scheduler's listener and dispatcher do.
+     *
+     * @param capacity the number of slots in the buffer
+     * @return the operation, returning the request's drone ID
+     */
+    HotPath receiveDroneRequest(int capacity);
+
+    /**
+     * Parses a fire incident datagram with {@code Scheduler.getFireIncidentEvent}.
+     *
+     * @param seed the seed the fire events are drawn from
+     * @return the operation, returning the parsed water needed
+     */
+    HotPath parseFireEvent(long seed);
+
+    /**
+     * Formats a task message with {@code Scheduler.sendTaskToDrone}.
+     *
+     * @param seed the seed the fire events are drawn from
+     * @return the operation, returning the task's length
+     */
+    HotPath formatTask(long seed);
+
+    /**
+     * Returns the registered provider.
+     *
+     * @return the hot path provider
+     * @throws IllegalStateException if no provider is on the class path
+     */
+    static HotPaths load() {
+        return ServiceLoader.load(HotPaths.class).findFirst()
+                .orElseThrow(() -> new IllegalStateException("No HotPaths provider registered"));
+    }
+}
@@ -0,0 +1,41 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures the text protocol's per-message work: parsing a fire incident datagram with
+ * {@code Scheduler.getFireIncidentEvent}, and formatting a task with {@code Scheduler.sendTaskToDrone}.
+ */
+@State(Scope.Benchmark)
+public class MessageBenchmark extends HotPathBenchmark {
+
+    private HotPath parseFireEvent;
+    private HotPath formatTask;
+
+    @Setup
+    public void setUp() {
+        HotPaths paths = HotPaths.load();
+        parseFireEvent = paths.parseFireEvent(SEED);
+        formatTask = paths.formatTask(SEED);
+    }
+
+    @TearDown
+    public void tearDown() {
+        parseFireEvent.close();
+        formatTask.close();
+    }
+
+    @Benchmark
+    public int parseFireEvent() {
+        return parseFireEvent.run();
+    }
+
+    @Benchmark
+    public int formatTask() {
+        return formatTask.run();
+    }
+}
@@ -0,0 +1,53 @@
+/**
+ * AssigningTask state represents the scheduler when it is assigning drones to tasks.
+ */
+class AssigningTask implements SchedulerState {
+    /**
+     * In AssigningTask, processing a new fire request is not performed.
+     *
+     * @param context   the state machine context
+     * @param scheduler the scheduler instance
+     */
+    public void processFireRequest(SchedulerStateMachine context, Scheduler scheduler) {}
+
+    /**
+     * In AssigningTask, no additional task assignment is performed.
+     *
+     * @param context   the state machine context
+     * @param scheduler the scheduler instance
+     */
+    public void assignTask(SchedulerStateMachine context, Scheduler scheduler) {}
+
+    /**
+     * Transitions to the WaitingForDrones state to wait for drone responses.
+     *
+     * @param context   the state machine context
+     * @param scheduler the scheduler instance
+     */
+    public void waitForDrones(SchedulerStateMachine context, Scheduler scheduler) {
+        context.setState("WaitingForDrones");
+    }
+
+    /**
+     * No transition to idle occurs in AssigningTask.
+     *
+     * @param context   the state machine context
+     * @param scheduler the scheduler instance
+     */
+    public void returnToIdle(SchedulerStateMachine context, Scheduler scheduler) {}
+
+    /**
+     * No fault handling is performed in AssigningTask.
+     *
+     * @param context   the state machine context
+     * @param scheduler the scheduler instance
+     */
+    public void handleFault(SchedulerStateMachine context, Scheduler scheduler) {}
+
+    /**
+     * Displays the current state as assigning drones to a task.
+     */
+    public void displayState() {
+        LOG.debug("[State]: Assigning drones to task.");
+    }
+}
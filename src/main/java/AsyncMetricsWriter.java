@@ -0,0 +1,215 @@
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The {@code AsyncMetricsWriter} class writes per-fire metrics rows to a CSV file on its own
+ * thread, so that callers never wait on the disk.
+ *
+ * Callers publish fixed-size records into a lock-free ring buffer: a record is claimed with a
+ * compare-and-set on the ring's tail, its fields are written into the claimed slot, and the slot
+ * is then marked published. A single background writer drains every published record into one
+ * large buffered write and flushes the file at most once per flush interval; while the ring is
+ * empty it parks until a caller publishes a record. When the writer
+ * falls a whole ring behind, new records are dropped and counted rather than making the caller
+ * wait.
+ *
+ * Closing sets a bit in the tail, so no record can be claimed afterwards and the writer knows
+ * exactly which records were claimed before it: it writes all of them, waiting for any still
+ * being filled in, before it stops.
+ */
+public class AsyncMetricsWriter {
+
+    /** Default number of records the ring holds. */
+    public static final int DEFAULT_CAPACITY = 4096;
+    /** Default time between flushes of the file, in milliseconds. */
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 1000;
+    /** Number of long fields in a record: fire ID, zone ID, response time and extinguish time. */
+    private static final int FIELDS = 4;
+    /** Bit set in the tail once the writer is closed. */
+    private static final long CLOSED = Long.MIN_VALUE;
+
+    private final BufferedWriter writer;
+    private final long flushIntervalNanos;
+    /** Ring capacity minus one; the capacity is a power of two. */
+    private final int mask;
+    /** Record fields, {@link #FIELDS} consecutive longs per slot. */
+    private final long[] records;
+    /** Sequence number last published in each slot; a slot is readable once it holds the expected sequence. */
+    private final AtomicLongArray published;
+    /** Sequence number the next record will be claimed with, with {@link #CLOSED} set once closed. */
+    private final AtomicLong tail = new AtomicLong();
+    /** Sequence number of the next record the writer will read. */
+    private volatile long head = 0;
+    /** Number of records dropped because the ring was full. */
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread thread;
+    /** Whether the writer is parked, or about to park, on an empty ring, so callers know to wake it. */
+    private volatile boolean writerIdle = false;
+
+    /**
+     * Opens a metrics file, writes its header and starts the writer thread.
+     *
+     * @param filename           the CSV file, truncated if it exists
+     * @param capacity           the number of records the ring holds, rounded up to a power of two
+     * @param flushIntervalMillis the longest time a written record waits before the file is flushed
+     * @throws IOException if the file cannot be opened
+     */
+    public AsyncMetricsWriter(String filename, int capacity, long flushIntervalMillis) throws IOException {
+        writer = new BufferedWriter(new FileWriter(filename), 64 * 1024);
+        writer.write("FireID,ZoneID,ResponseTime(ms),ExtinguishTime(ms)\n");
+        writer.flush();
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        mask = size - 1;
+        records = new long[size * FIELDS];
+        published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            published.set(i, -1);
+        }
+        flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        thread = new Thread(this::drainLoop, "Metrics writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Opens a metrics file with the default capacity and flush interval.
+     *
+     * @param filename the CSV file, truncated if it exists
+     * @throws IOException if the file cannot be opened
+     */
+    public AsyncMetricsWriter(String filename) throws IOException {
+        this(filename, DEFAULT_CAPACITY, DEFAULT_FLUSH_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Publishes a metrics row without waiting. Safe to call from any number of threads.
+     *
+     * @param fireID         the ID of the fire incident
+     * @param zoneID         the zone where the fire occurred
+     * @param responseTime   the response time, in ms
+     * @param extinguishTime the extinguish time, in ms
+     * @return true if the row was queued; false if the ring was full and the row was dropped
+     */
+    public boolean publish(int fireID, int zoneID, long responseTime, long extinguishTime) {
+        long sequence;
+        do {
+            sequence = tail.get();
+            if ((sequence & CLOSED) != 0 || sequence - head > mask) {
+                dropped.incrementAndGet();
+                return false;
+            }
+        } while (!tail.compareAndSet(sequence, sequence + 1));
+
+        int slot = (int) sequence & mask;
+        int base = slot * FIELDS;
+        records[base] = fireID;
+        records[base + 1] = zoneID;
+        records[base + 2] = responseTime;
+        records[base + 3] = extinguishTime;
+        // The volatile store makes the fields visible to the writer before the slot is seen as
+        // published, and orders it before the idle check so a parking writer is always woken.
+        published.set(slot, sequence);
+        if (writerIdle) {
+            LockSupport.unpark(thread);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of rows dropped because the writer had fallen a whole ring behind.
+     *
+     * @return the number of dropped rows
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * Stops accepting rows, writes every row already accepted, and closes the file.
+     *
+     * @throws IOException if the file cannot be written or closed
+     */
+    public void close() throws IOException {
+        long claimed;
+        do {
+            claimed = tail.get();
+        } while ((claimed & CLOSED) == 0 && !tail.compareAndSet(claimed, claimed | CLOSED));
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writer.close();
+    }
+
+    /**
+     * Drains published records into the file until the writer is closed, flushing at most once
+     * per flush interval while records keep arriving. Between records the writer parks, until the
+     * next flush is due if rows are unflushed, or until a caller publishes otherwise.
+     */
+    private void drainLoop() {
+        StringBuilder batch = new StringBuilder(8 * 1024);
+        long lastFlush = System.nanoTime();
+        boolean unflushed = false;
+        try {
+            while (true) {
+                long claimed = tail.get();
+                boolean stopping = (claimed & CLOSED) != 0;
+                int drained = drain(batch);
+                if (drained > 0) {
+                    writer.append(batch);
+                    batch.setLength(0);
+                    unflushed = true;
+                }
+                long now = System.nanoTime();
+                if (unflushed && (now - lastFlush >= flushIntervalNanos || stopping)) {
+                    writer.flush();
+                    lastFlush = now;
+                    unflushed = false;
+                }
+                if (stopping && head == (claimed & ~CLOSED)) {
+                    return;
+                }
+                if (drained == 0) {
+                    writerIdle = true;
+                    if (published.get((int) head & mask) != head) {
+                        if (unflushed) {
+                            LockSupport.parkNanos(lastFlush + flushIntervalNanos - now);
+                        } else {
+                            LockSupport.park();
+                        }
+                    }
+                    writerIdle = false;
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Formats every consecutive published record into the batch and frees their slots.
+     *
+     * @return the number of records drained
+     */
+    private int drain(StringBuilder batch) {
+        long next = head;
+        int drained = 0;
+        int slot;
+        while (published.get(slot = (int) next & mask) == next) {
+            int base = slot * FIELDS;
+            batch.append(records[base]).append(',').append(records[base + 1]).append(',')
+                    .append(records[base + 2]).append(',').append(records[base + 3]).append('\n');
+            next++;
+            drained++;
+        }
+        head = next;
+        return drained;
+    }
+}
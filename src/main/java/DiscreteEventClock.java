@@ -0,0 +1,184 @@
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code DiscreteEventClock} class runs a scenario as a discrete-event simulation. Time only
+ * moves when the next pending event is run, and it jumps straight to that event's time, so hours
+ * of simulated activity take as long as the events themselves take to process.
+ *
+ * Events due at the same time run in the order they were scheduled, and everything runs on the
+ * thread calling {@link #run()}, so a simulation that only waits through this clock is
+ * deterministic. {@link #sleep(long)} never blocks: it runs the events due before the caller
+ * wakes, on the caller's thread, and returns with the clock at the wake-up time. Event-driven
+ * code should still prefer scheduling its continuation, which keeps the events from nesting.
+ */
+public class DiscreteEventClock implements SimulationClock {
+
+    /** Pending events, ordered by time and then by scheduling order. */
+    private final PriorityQueue<Event> events = new PriorityQueue<>();
+    /** Current simulated time, in nanoseconds. */
+    private long now;
+    /** Sequence number keeping events due at the same time in scheduling order. */
+    private long nextSequence = 0;
+    /** Number of events run so far. */
+    private long eventsRun = 0;
+
+    /**
+     * Constructs a clock starting at simulated time zero.
+     */
+    public DiscreteEventClock() {
+        this(0);
+    }
+
+    /**
+     * Constructs a clock starting at the given simulated time.
+     *
+     * @param startMillis the initial simulated time, in milliseconds
+     */
+    public DiscreteEventClock(long startMillis) {
+        this.now = TimeUnit.MILLISECONDS.toNanos(startMillis);
+    }
+
+    @Override
+    public synchronized long currentTimeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(now);
+    }
+
+    @Override
+    public synchronized long nanoTime() {
+        return now;
+    }
+
+    /**
+     * Lets the given amount of simulated time pass without blocking: runs every event due before
+     * the wake-up time on the calling thread, then advances the clock to it.
+     */
+    @Override
+    public void sleep(long millis) {
+        long wakeUp;
+        synchronized (this) {
+            wakeUp = now + TimeUnit.MILLISECONDS.toNanos(Math.max(0, millis));
+        }
+        runUntilNanos(wakeUp);
+    }
+
+    /**
+     * Schedules a task at the current simulated time plus the delay.
+     */
+    @Override
+    public synchronized Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        Event event = new Event(now + Math.max(0, unit.toNanos(delay)), nextSequence++, task);
+        events.add(event);
+        return event;
+    }
+
+    /**
+     * Runs the next pending event, first advancing the simulated time to the event's time.
+     *
+     * @return true if an event was run; false if none is pending
+     */
+    public boolean step() {
+        Event next;
+        synchronized (this) {
+            do {
+                next = events.poll();
+            } while (next != null && next.cancelled);
+            if (next == null) {
+                return false;
+            }
+            now = next.time;
+            next.ran = true;
+            eventsRun++;
+        }
+        next.task.run();
+        return true;
+    }
+
+    /**
+     * Runs events until none is pending, including the events scheduled along the way.
+     */
+    public void run() {
+        while (step()) {
+            // Each step jumps straight to the next event.
+        }
+    }
+
+    /**
+     * Runs every event due up to the given simulated time, then advances the clock to that time.
+     *
+     * @param millis the simulated time to run until, in milliseconds
+     */
+    public void runUntil(long millis) {
+        runUntilNanos(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    /**
+     * Runs every event due up to the given simulated time, then advances the clock to that time.
+     */
+    private void runUntilNanos(long end) {
+        while (true) {
+            synchronized (this) {
+                while (!events.isEmpty() && events.peek().cancelled) {
+                    events.poll();
+                }
+                if (events.isEmpty() || events.peek().time > end) {
+                    now = Math.max(now, end);
+                    return;
+                }
+            }
+            step();
+        }
+    }
+
+    /**
+     * Returns the number of pending events, including cancelled events not yet discarded.
+     *
+     * @return the number of pending events
+     */
+    public synchronized int pending() {
+        return events.size();
+    }
+
+    /**
+     * Returns the number of events run so far.
+     *
+     * @return the number of events run
+     */
+    public synchronized long getEventsRun() {
+        return eventsRun;
+    }
+
+    /**
+     * A scheduled event, doubling as the caller's cancellation handle.
+     */
+    private class Event implements Comparable<Event>, Timeout {
+        final long time;
+        final long sequence;
+        final Runnable task;
+        boolean cancelled = false;
+        boolean ran = false;
+
+        Event(long time, long sequence, Runnable task) {
+            this.time = time;
+            this.sequence = sequence;
+            this.task = task;
+        }
+
+        @Override
+        public boolean cancel() {
+            synchronized (DiscreteEventClock.this) {
+                if (cancelled || ran) {
+                    return false;
+                }
+                cancelled = true;
+                return true;
+            }
+        }
+
+        @Override
+        public int compareTo(Event other) {
+            int byTime = Long.compare(time, other.time);
+            return byTime != 0 ? byTime : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+import java.util.Arrays;
+
+/**
+ * The {@code DroneAssignmentSolver} class solves the min-cost assignment problem used by the
+ * Scheduler's batch dispatch mode: given a cost matrix of task slots (rows) by drones (columns),
+ * it pairs every row with a distinct column so that the total cost is minimal.
+ *
+ * It implements the Hungarian algorithm with row and column potentials, which runs in
+ * O(n^2 * m) time for an n x m matrix with n &lt;= m. Wider-than-tall matrices are solved
+ * as given; taller-than-wide matrices are transposed so that every drone gets a slot.
+ */
+public class DroneAssignmentSolver {
+
+    /**
+     * Computes a min-cost assignment.
+     *
+     * @param cost cost[row][col] of assigning a row to a column; every row must have the same length
+     * @return for each row, the index of its assigned column, or -1 if the row is left unassigned
+     *         (only possible when there are more rows than columns)
+     */
+    public static int[] solve(double[][] cost) {
+        int rows = cost.length;
+        if (rows == 0) {
+            return new int[0];
+        }
+        int cols = cost[0].length;
+        if (cols == 0) {
+            int[] none = new int[rows];
+            Arrays.fill(none, -1);
+            return none;
+        }
+        if (rows <= cols) {
+            return solveWide(cost, rows, cols);
+        }
+
+        // More rows than columns: assign every column to a row instead.
+        double[][] transposed = new double[cols][rows];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                transposed[c][r] = cost[r][c];
+            }
+        }
+        int[] colToRow = solveWide(transposed, cols, rows);
+        int[] rowToCol = new int[rows];
+        Arrays.fill(rowToCol, -1);
+        for (int c = 0; c < cols; c++) {
+            rowToCol[colToRow[c]] = c;
+        }
+        return rowToCol;
+    }
+
+    /**
+     * Hungarian algorithm for a matrix with no more rows than columns.
+     * Arrays are 1-indexed internally; index 0 is a virtual column used to grow augmenting paths.
+     */
+    private static int[] solveWide(double[][] cost, int rows, int cols) {
+        double[] rowPotential = new double[rows + 1];
+        double[] colPotential = new double[cols + 1];
+        int[] colOwner = new int[cols + 1];
+        int[] previous = new int[cols + 1];
+        double[] minSlack = new double[cols + 1];
+        boolean[] visited = new boolean[cols + 1];
+
+        for (int row = 1; row <= rows; row++) {
+            colOwner[0] = row;
+            int col0 = 0;
+            Arrays.fill(minSlack, Double.POSITIVE_INFINITY);
+            Arrays.fill(visited, false);
+            do {
+                visited[col0] = true;
+                int row0 = colOwner[col0];
+                double delta = Double.POSITIVE_INFINITY;
+                int col1 = 0;
+                for (int col = 1; col <= cols; col++) {
+                    if (!visited[col]) {
+                        double slack = cost[row0 - 1][col - 1] - rowPotential[row0] - colPotential[col];
+                        if (slack < minSlack[col]) {
+                            minSlack[col] = slack;
+                            previous[col] = col0;
+                        }
+                        if (minSlack[col] < delta) {
+                            delta = minSlack[col];
+                            col1 = col;
+                        }
+                    }
+                }
+                for (int col = 0; col <= cols; col++) {
+                    if (visited[col]) {
+                        rowPotential[colOwner[col]] += delta;
+                        colPotential[col] -= delta;
+                    } else {
+                        minSlack[col] -= delta;
+                    }
+                }
+                col0 = col1;
+            } while (colOwner[col0] != 0);
+
+            // Flip the augmenting path back to the virtual column.
+            do {
+                int col1 = previous[col0];
+                colOwner[col0] = colOwner[col1];
+                col0 = col1;
+            } while (col0 != 0);
+        }
+
+        int[] rowToCol = new int[rows];
+        Arrays.fill(rowToCol, -1);
+        for (int col = 1; col <= cols; col++) {
+            if (colOwner[col] != 0) {
+                rowToCol[colOwner[col] - 1] = col - 1;
+            }
+        }
+        return rowToCol;
+    }
+}
@@ -0,0 +1,282 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The {@code DroneClient} class is a non-blocking client for a drone's requests to the Scheduler.
+ *
+ * Each request is a binary {@link MessageCodec} frame carrying a fresh correlation ID, and
+ * returns a {@link CompletableFuture} completed with the response whose frame carries the same ID.
+ * Any number of requests can be in flight at once - a drone can stream its location while its
+ * task request waits for a fire - and each response completes exactly the request it answers,
+ * whatever order the responses arrive in. One receiver thread per client reads every response; it
+ * is a virtual thread where the runtime has them, so a fleet of clients costs little memory.
+ *
+ * Over a {@link ReliableTransport} each request is retransmitted until answered, numbered with its
+ * correlation ID so the Scheduler can tell retransmissions of different requests apart; if the
+ * transport gives up on a request, its future completes exceptionally. Over a
+ * plain transport a lost request or response leaves its future incomplete, which callers can
+ * bound with {@link CompletableFuture#orTimeout}.
+ */
+public class DroneClient implements Closeable {
+
+    /** Log for requests and responses, sampled per drone. */
+    private static final Log LOG = Log.category("drone");
+    /** Frame each thread encodes its requests in. */
+    private static final ThreadLocal<ByteBuffer> outFrame = ThreadLocal.withInitial(() -> ByteBuffer.allocate(MessageCodec.FRAME_SIZE));
+
+    /** Endpoint the requests are sent and the responses received through. */
+    private final Transport transport;
+    /** Address of the Scheduler. */
+    private final InetSocketAddress scheduler;
+    /** Requests waiting for their response, by correlation ID. */
+    private final Map<Integer, CompletableFuture<Response>> pending = new ConcurrentHashMap<>();
+    /** Correlation ID of the latest request; 0 is never used, as it marks an uncorrelated frame. */
+    private final AtomicInteger correlation = new AtomicInteger();
+    /** Thread receiving responses and completing their requests. */
+    private final Thread receiver;
+
+    /**
+     * A Scheduler response, decoded from its frame.
+     *
+     * @param type      the {@link MessageCodec} message type
+     * @param id        the drone ID: the assigned one in a {@link MessageCodec#DRONE_ID} response
+     * @param water     the water needed, in a task
+     * @param x         the target x-coordinate, in a task
+     * @param y         the target y-coordinate, in a task
+     * @param fault     the fault to simulate, in a task
+     * @param faultType the type of the fault to simulate, in a task
+     */
+    public record Response(byte type, int id, int water, int x, int y, String fault, String faultType) {
+
+        /**
+         * Decodes the response carried by a frame.
+         *
+         * @param frame a valid response frame
+         * @return the response
+         */
+        static Response decode(ByteBuffer frame) {
+            return new Response(MessageCodec.type(frame), MessageCodec.id(frame), MessageCodec.water(frame),
+                    MessageCodec.x(frame), MessageCodec.y(frame), MessageCodec.fault(frame), MessageCodec.faultType(frame));
+        }
+
+        /**
+         * Returns whether the response is a task.
+         *
+         * @return true if the response is a {@link MessageCodec#TASK}
+         */
+        public boolean isTask() {
+            return type == MessageCodec.TASK;
+        }
+
+        /**
+         * Returns the text response equivalent to this one, as the text protocol would have
+         * received it.
+         *
+         * @return the text response, or null if the response is a drone ID or a task
+         */
+        public String text() {
+            ByteBuffer frame = ByteBuffer.allocate(MessageCodec.FRAME_SIZE);
+            MessageCodec.encode(frame, type, id, water, x, y);
+            return MessageCodec.responseText(frame);
+        }
+    }
+
+    /**
+     * Constructs a client that sends its requests reliably, from a port of its own.
+     *
+     * @param host          the Scheduler's host
+     * @param schedulerPort the Scheduler's drone port
+     * @throws IOException if no port can be bound or the host is unknown
+     */
+    public DroneClient(String host, int schedulerPort) throws IOException {
+        this(ReliableTransport.client(Transport.bind(0), ReliableTransport.RETRY_FOREVER),
+                new InetSocketAddress(InetAddress.getByName(host), schedulerPort));
+    }
+
+    /**
+     * Constructs a client on an endpoint it takes over: from now on only this client may receive
+     * on it. Closing the client closes the endpoint.
+     *
+     * @param transport the endpoint to send and receive through
+     * @param scheduler the address of the Scheduler
+     */
+    public DroneClient(Transport transport, InetSocketAddress scheduler) {
+        this.transport = transport;
+        this.scheduler = scheduler;
+        this.receiver = FleetSimulator.newDroneThread(this::receiveResponses, "Drone client " + transport.getLocalPort());
+        receiver.start();
+    }
+
+    /**
+     * Registers a new drone with the Scheduler.
+     *
+     * @return the future response, whose {@link Response#id()} is the assigned drone ID
+     */
+    public CompletableFuture<Response> initialize() {
+        return request(MessageCodec.INITIALIZE_DRONE, 0, 0, 0, 0);
+    }
+
+    /**
+     * Asks the Scheduler for the drone's next task. The response arrives once a fire is assigned
+     * to the drone, which may take a long time.
+     *
+     * @param droneID the drone's ID
+     * @return the future task
+     */
+    public CompletableFuture<Response> getTask(int droneID) {
+        return request(MessageCodec.GET_TASK, droneID, 0, 0, 0);
+    }
+
+    /**
+     * Tells the Scheduler the drone has arrived at its target.
+     *
+     * @param droneID the drone's ID
+     * @return the future response, {@link MessageCodec#OPEN_NOZZLE_RESPONSE} or a corrupted message notice
+     */
+    public CompletableFuture<Response> notifyArrived(int droneID) {
+        return request(MessageCodec.NOTIFY_ARRIVED, droneID, 0, 0, 0);
+    }
+
+    /**
+     * Tells the Scheduler the drone is back at base.
+     *
+     * @param droneID     the drone's ID
+     * @param waterNeeded the water the fire still needs
+     * @return the future response, {@link MessageCodec#RETURN_TO_SCHEDULER_OK}
+     */
+    public CompletableFuture<Response> returnToScheduler(int droneID, int waterNeeded) {
+        return request(MessageCodec.RETURN_TO_SCHEDULER, droneID, waterNeeded, 0, 0);
+    }
+
+    /**
+     * Sends the drone's current location to the Scheduler.
+     *
+     * @param droneID the drone's ID
+     * @param x       the x-coordinate
+     * @param y       the y-coordinate
+     * @return the future response, {@link MessageCodec#LOCATION_OK}
+     */
+    public CompletableFuture<Response> updateLocation(int droneID, int x, int y) {
+        return request(MessageCodec.UPDATE_LOCATION, droneID, 0, x, y);
+    }
+
+    /**
+     * Sends a request frame with a fresh correlation ID.
+     *
+     * @param type    the message type
+     * @param droneID the drone's ID
+     * @param water   the water amount field
+     * @param x       the x-coordinate field
+     * @param y       the y-coordinate field
+     * @return the future response; completed exceptionally if the request cannot be sent or the
+     *         client is closed first
+     */
+    public CompletableFuture<Response> request(byte type, int droneID, int water, int x, int y) {
+        int correlationId = nextCorrelation();
+        CompletableFuture<Response> response = new CompletableFuture<>();
+        // Registered before sending, as the response may arrive before send returns.
+        pending.put(correlationId, response);
+        ByteBuffer frame = outFrame.get();
+        MessageCodec.encode(frame, type, droneID, water, x, y);
+        MessageCodec.setCorrelation(frame, correlationId);
+        frame.clear().limit(MessageCodec.FRAME_SIZE);
+        try {
+            transport.send(frame, scheduler, correlationId);
+            if (LOG.isEnabled(Log.Level.DEBUG, droneID)) {
+                LOG.debug("Drone client: sent request " + correlationId + " of type " + type + " to " + scheduler);
+            }
+        } catch (IOException e) {
+            pending.remove(correlationId);
+            response.completeExceptionally(e);
+        }
+        if (transport.isClosed()) {
+            failPending(new IOException("Drone client closed"));
+        }
+        return response;
+    }
+
+    /**
+     * Returns the number of requests waiting for their response.
+     *
+     * @return the number of requests in flight
+     */
+    public int getInFlight() {
+        return pending.size();
+    }
+
+    /**
+     * Closes the client and its endpoint. Requests still in flight complete exceptionally.
+     */
+    @Override
+    public void close() {
+        transport.close();
+        failPending(new IOException("Drone client closed"));
+    }
+
+    /**
+     * Returns the next correlation ID, skipping 0 when the counter wraps around.
+     */
+    private int nextCorrelation() {
+        int correlationId = correlation.incrementAndGet();
+        while (correlationId == 0) {
+            correlationId = correlation.incrementAndGet();
+        }
+        return correlationId;
+    }
+
+    /**
+     * Receives responses until the endpoint is closed, completing the request each one answers.
+     * Responses to requests no longer waiting, and anything that is not a response frame, are
+     * dropped.
+     */
+    private void receiveResponses() {
+        ByteBuffer in = ByteBuffer.allocate(MessageCodec.FRAME_SIZE);
+        while (!transport.isClosed()) {
+            in.clear();
+            try {
+                transport.receive(in);
+            } catch (ReliableTransport.RequestTimeoutException e) {
+                // The transport gave up on one request; the others are still in flight.
+                CompletableFuture<Response> response = pending.remove(e.getSequence());
+                if (response != null) {
+                    response.completeExceptionally(e);
+                }
+                continue;
+            } catch (SocketTimeoutException e) {
+                continue;
+            } catch (IOException e) {
+                break;
+            }
+            in.flip();
+            if (!MessageCodec.isValid(in)) {
+                LOG.warn("Drone client: dropped a response that is not a binary frame");
+                continue;
+            }
+            CompletableFuture<Response> response = pending.remove(MessageCodec.correlation(in));
+            if (response != null) {
+                response.complete(Response.decode(in));
+            }
+        }
+        failPending(new IOException("Drone client closed"));
+    }
+
+    /**
+     * Completes every request still in flight exceptionally.
+     */
+    private void failPending(IOException cause) {
+        for (Integer correlationId : pending.keySet()) {
+            CompletableFuture<Response> response = pending.remove(correlationId);
+            if (response != null) {
+                response.completeExceptionally(cause);
+            }
+        }
+    }
+}
@@ -9,6 +9,9 @@ import java.util.Map;
  * and various status flags (e.g., whether it has requested a task, is lost, or has completed its job).
  */
 public class DroneData {
+    /** Log for drone status changes. */
+    private static final Log LOG = Log.category("fleet");
+
     /**
      * Unique identifier for the drone.
      */
@@ -68,6 +71,16 @@ public class DroneData {
      * The travel time (in seconds or other unit) for the drone.
      */
     int travelTime = 0;
+
+    /**
+     * Flag indicating whether the drone speaks the binary {@link MessageCodec} protocol.
+     */
+    private volatile boolean binaryProtocol = false;
+
+    /**
+     * Correlation ID of the drone's latest task request, copied into the task sent in reply.
+     */
+    private volatile int taskCorrelation = 0;
     
     /**
      * Flag indicating whether the drone has arrived at its destination.
@@ -99,6 +112,12 @@ public class DroneData {
      */
     int port;
 
+    /**
+     * The fleet this drone belongs to. It is notified whenever the drone's location or
+     * availability changes so that its spatial index stays current.
+     */
+    DroneFleet fleet;
+
     /**
      * Constructs a new DroneData instance.
      *
@@ -203,6 +222,7 @@ public class DroneData {
      */
     public void setLocation(Point location) {
         this.location = location;
+        notifyFleet();
     }
 
     /**
@@ -230,6 +250,7 @@ public class DroneData {
      */
     public void setAtBase(boolean atBase) {
         this.isAtBase = atBase;
+        notifyFleet();
     }
 
     /**
@@ -289,7 +310,9 @@ public class DroneData {
      */
     public void setCompletedJob(boolean completedJob) {
         this.completedJob = completedJob;
-        System.out.println("[" + Thread.currentThread().getName() + "] -> Drone Data: drone#" + droneID + " Has COMPLETED_JOB? " + completedJob);
+        if (LOG.isEnabled(Log.Level.DEBUG, droneID)) {
+            LOG.debug("-> Drone Data: drone#" + droneID + " Has COMPLETED_JOB? " + completedJob);
+        }
         if (!completedJob) {
             setLost(true);
         }
@@ -350,7 +373,7 @@ public class DroneData {
         if (lost) {
             setHasRequested(false);
         }
-        System.out.println("[" + Thread.currentThread().getName() + "] -> Drone Data: drone#" + droneID + " is lost");
+        LOG.warn("-> Drone Data: drone#" + droneID + " is lost");
     }
 
     /**
@@ -371,6 +394,42 @@ public class DroneData {
         return port;
     }
 
+    /**
+     * Returns whether the drone speaks the binary protocol, in which case its tasks are sent as binary frames.
+     *
+     * @return true if the drone's last request was a binary frame; false if it was text
+     */
+    public boolean isBinaryProtocol() {
+        return binaryProtocol;
+    }
+
+    /**
+     * Sets whether the drone speaks the binary protocol.
+     *
+     * @param binaryProtocol true if the drone sends binary frames; false if it sends text
+     */
+    public void setBinaryProtocol(boolean binaryProtocol) {
+        this.binaryProtocol = binaryProtocol;
+    }
+
+    /**
+     * Returns the correlation ID of the drone's latest task request.
+     *
+     * @return the correlation ID, or 0 if the request was not correlated
+     */
+    public int getTaskCorrelation() {
+        return taskCorrelation;
+    }
+
+    /**
+     * Sets the correlation ID of the drone's latest task request.
+     *
+     * @param taskCorrelation the correlation ID, or 0
+     */
+    public void setTaskCorrelation(int taskCorrelation) {
+        this.taskCorrelation = taskCorrelation;
+    }
+
     /**
      * Returns the event ID associated with the drone.
      *
@@ -405,6 +464,17 @@ public class DroneData {
      */
     public void setHasRequested(boolean isBusy) {
         this.hasRequested = isBusy;
+        notifyFleet();
+    }
+
+    /**
+     * Lets the owning fleet re-index this drone after a location or availability change.
+     */
+    private void notifyFleet() {
+        DroneFleet owner = fleet;
+        if (owner != null) {
+            owner.refreshAvailability(this);
+        }
     }
 
     /**
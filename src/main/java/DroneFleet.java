@@ -1,10 +1,15 @@
 import java.awt.*;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
 
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
 /**
@@ -14,6 +19,9 @@ import static java.util.concurrent.TimeUnit.SECONDS;
  * inner class for scheduling periodic drone check-ups.
  */
 public class DroneFleet {
+    /** Log for drone registrations, availability and watchdogs. */
+    private static final Log LOG = Log.category("fleet");
+
     /**
      * A temporary DroneData reference (not used for fleet storage).
      */
@@ -45,6 +53,63 @@ public class DroneFleet {
      */
     private TimeStamp timer;
 
+    /**
+     * Spatial index of the drones that are currently available (requested a task and at base).
+     */
+    private final DroneGridIndex availableIndex;
+
+    /**
+     * Number of drones in {@link #availableIndex}, readable without taking any lock.
+     */
+    private final AtomicInteger availableCount = new AtomicInteger();
+
+    /**
+     * IDs of drones the watchdogs found lost or nozzle-jammed, waiting for their events to be requeued.
+     */
+    private final BlockingQueue<Integer> faultedDrones = new LinkedBlockingQueue<>();
+
+    /**
+     * Latest position reported by each drone, published to the drones before they are searched.
+     */
+    private final PositionBoard positions = new PositionBoard();
+
+    /**
+     * Applies a published position to its drone; kept in a field so publishing allocates no listener.
+     */
+    private final PositionBoard.Listener applyPosition = this::applyPosition;
+
+    /**
+     * Legs the drones in flight are flying, from which their positions are estimated between reports.
+     */
+    private final MotionModel motion = new MotionModel();
+
+    /**
+     * Decides from their heartbeats which drones are alive. A drone sending heartbeats is watched
+     * by it instead of by the per-mission arrival and nozzle check-ups.
+     */
+    private volatile FailureDetector liveness = new FailureDetector();
+
+    /**
+     * Declares a drone dead; kept in a field so sweeping allocates no callback.
+     */
+    private final IntConsumer declareDead = this::declareDead;
+
+    /**
+     * Drones declared dead and still in the fleet, mapped to whether they were waiting for a task,
+     * so a drone whose heartbeats resume can be put back.
+     */
+    private final Map<Integer, Boolean> presumedDead = new ConcurrentHashMap<>();
+
+    /**
+     * Flag set while a sweep of the monitored drones is scheduled.
+     */
+    private final AtomicBoolean sweepScheduled = new AtomicBoolean();
+
+    /**
+     * Clock heartbeats are timed with.
+     */
+    private volatile SimulationClock clock = SystemClock.getDefault();
+
     /**
      * Constructs a new DroneFleet with an empty fleet and initializes
      * the timer for scheduling tasks.
@@ -55,6 +120,7 @@ public class DroneFleet {
         droneFleet = new ConcurrentHashMap<>();
         this.eventList = eventList;
         timer = new TimeStamp();
+        availableIndex = new DroneGridIndex(DroneGridIndex.DEFAULT_CELL_SIZE);
     }
 
     /**
@@ -65,6 +131,8 @@ public class DroneFleet {
      */
     public synchronized void addDrone(int assignedId, DroneData drone) {
         droneFleet.put(assignedId, drone);
+        drone.fleet = this;
+        refreshAvailability(drone);
         notifyAll();
     }
 
@@ -81,8 +149,15 @@ public class DroneFleet {
      * @param assignedId the ID of the drone to remove
      */
     public synchronized void removeDrone(int assignedId) {
-        droneFleet.remove(assignedId);
-        System.out.println("[" + Thread.currentThread().getName() + "] -> DroneData: drone#" + assignedId + " has been removed from the fleet");
+        DroneData removed = droneFleet.remove(assignedId);
+        if (removed != null) {
+            motion.arrive(assignedId);
+            liveness.forget(assignedId);
+            presumedDead.remove(assignedId);
+            removed.fleet = null;
+            refreshAvailability(removed);
+        }
+        LOG.info("-> DroneData: drone#" + assignedId + " has been removed from the fleet");
     }
 
     /**
@@ -115,19 +190,14 @@ public class DroneFleet {
     }
 
     /**
-     * Counts the number of available drones.
-     * A drone is considered available if it has requested and is at base.
+     * Returns the number of available drones.
+     * A drone is considered available if it has requested and is at base. The count is kept up to
+     * date as drones change state, so this neither scans the fleet nor takes the fleet's monitor.
      *
      * @return the count of available drones
      */
-    public synchronized int getAvailableDrones() {
-        int count = 0;
-        for (DroneData drone : droneFleet.values()) {
-            if (drone.getHasRequested() && drone.isAtBase()) {
-                count++;
-            }
-        }
-        return count;
+    public int getAvailableDrones() {
+        return availableCount.get();
     }
 
     /**
@@ -198,21 +268,30 @@ public class DroneFleet {
 
     /**
      * Schedules a check-up for a drone after a specified delay.
+     * Drones watched through their heartbeats get no check-up.
      *
-     * @param delay the delay in seconds
+     * @param delay the delay in seconds of simulated time
      * @param drone the DroneData object to check
      */
     public synchronized void trackDrones(int delay, DroneData drone) {
+        if (liveness.isMonitored(drone.getDroneID())) {
+            // Watched through its heartbeats, however long the mission.
+            return;
+        }
         timer.scheduleDroneCheckUp(delay, drone);
     }
 
     /**
      * Schedules a nozzle check-up for a drone after a specified delay.
+     * Drones watched through their heartbeats get no check-up.
      *
-     * @param delay the delay in seconds
+     * @param delay the delay in seconds of simulated time
      * @param drone the DroneData object to check for nozzle issues
      */
     public synchronized void trackDroneNozzle(int delay, DroneData drone) {
+        if (liveness.isMonitored(drone.getDroneID())) {
+            return;
+        }
         timer.scheduleDroneNozzleCheckUp(delay, drone);
     }
 
@@ -226,6 +305,174 @@ public class DroneFleet {
         droneFleet.get(droneID).setLocation(location);
     }
 
+    /**
+     * Records a position reported by a drone in flight. Positions are coalesced per drone and
+     * applied when the drones are next searched or drawn, see {@link #publishPositions()}. A drone
+     * flying a leg is from then on estimated to fly on from the reported position. Reports from
+     * IDs that are not in the fleet are dropped.
+     *
+     * @param droneID the ID of the reporting drone
+     * @param x       the reported x-coordinate
+     * @param y       the reported y-coordinate
+     */
+    public void reportLocation(int droneID, int x, int y) {
+        if (!droneFleet.containsKey(droneID)) {
+            return;
+        }
+        motion.fix(droneID, x, y);
+        positions.update(droneID, x, y);
+    }
+
+    /**
+     * Applies the latest reported position of every drone that moved since the last call, then
+     * the estimated position of every drone in flight, so the drones and the spatial index
+     * reflect a consistent snapshot of where the drones are.
+     *
+     * @return the number of positions published
+     */
+    public int publishPositions() {
+        return positions.publish(applyPosition) + motion.publish(applyPosition);
+    }
+
+    /**
+     * Sets the clock the drones' legs are timed with; it must be the clock the drones fly by.
+     *
+     * @param clock the simulation clock
+     */
+    public void setClock(SimulationClock clock) {
+        this.clock = clock;
+        motion.setClock(clock);
+    }
+
+    /**
+     * Starts a leg for a drone from where it is estimated to be, replacing the leg it was flying.
+     *
+     * @param drone  the departing drone
+     * @param target where the drone flies to
+     * @param speed  the drone's speed, in grid units per simulated second
+     * @return the flight time of the leg, in simulated seconds
+     */
+    public double depart(DroneData drone, Point target, double speed) {
+        return motion.depart(drone.getDroneID(), estimateLocation(drone), target, speed);
+    }
+
+    /**
+     * Ends a drone's leg at its target, where the drone reported it arrived.
+     *
+     * @param droneID the ID of the arriving drone
+     */
+    public void arrive(int droneID) {
+        Point target = motion.arrive(droneID);
+        if (target != null) {
+            applyPosition(droneID, target.x, target.y);
+        }
+    }
+
+    /**
+     * Returns where a drone is estimated to be now: on its leg if it is flying one, otherwise
+     * where it was last placed.
+     *
+     * @param drone the drone
+     * @return the estimated location
+     */
+    public Point estimateLocation(DroneData drone) {
+        Point position = motion.position(drone.getDroneID());
+        return position != null ? position : drone.getLocation();
+    }
+
+    /**
+     * Returns the motion model the drones in flight are followed with.
+     *
+     * @return the motion model
+     */
+    public MotionModel getMotion() {
+        return motion;
+    }
+
+    /**
+     * Returns the board of positions reported by the drones.
+     *
+     * @return the position board
+     */
+    public PositionBoard getPositions() {
+        return positions;
+    }
+
+    /**
+     * Moves a drone to a published position, if it is still in the fleet and not already there.
+     */
+    private void applyPosition(int droneID, int x, int y) {
+        DroneData drone = droneFleet.get(droneID);
+        Point location = drone == null ? null : drone.getLocation();
+        if (drone != null && (location == null || location.x != x || location.y != y)) {
+            drone.setLocation(new Point(x, y));
+        }
+    }
+
+    /**
+     * Re-indexes a drone after its location or availability changed. Drones that have requested
+     * a task and are at base are kept in the spatial index; all others are removed from it.
+     * This only takes the index's lock, not the fleet's, so it is safe to call from any thread.
+     *
+     * @param drone the drone whose state changed
+     */
+    void refreshAvailability(DroneData drone) {
+        boolean becameAvailable = false;
+        // Read the flags under the index lock so concurrent updates settle on the latest state.
+        synchronized (availableIndex) {
+            boolean wasAvailable = availableIndex.contains(drone);
+            if (drone.fleet == this && drone.getHasRequested() && drone.isAtBase()) {
+                availableIndex.update(drone);
+                if (!wasAvailable) {
+                    availableCount.incrementAndGet();
+                    becameAvailable = true;
+                }
+            } else if (wasAvailable) {
+                availableIndex.remove(drone);
+                availableCount.decrementAndGet();
+            }
+        }
+        // Wake threads waiting in stopAssigningDrones; done outside the index lock to keep lock order fleet -> index.
+        if (becameAvailable) {
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Finds the available drone closest to the given point using the spatial index.
+     *
+     * @param target the point to search around (e.g., a zone center)
+     * @return the closest available drone, or null if none are available
+     */
+    public DroneData findNearestAvailableDrone(Point target) {
+        publishPositions();
+        return availableIndex.nearest(target);
+    }
+
+    /**
+     * Finds up to {@code k} available drones closest to the given point, closest first.
+     *
+     * @param target the point to search around (e.g., a zone center)
+     * @param k      the maximum number of drones to return
+     * @return the closest available drones ordered by increasing distance
+     */
+    public List<DroneData> findNearestAvailableDrones(Point target, int k) {
+        publishPositions();
+        return availableIndex.nearest(target, k);
+    }
+
+    /**
+     * Returns every available drone (requested a task and at base), read from the spatial index.
+     *
+     * @return a snapshot list of the available drones
+     */
+    public List<DroneData> getAvailableDroneList() {
+        publishPositions();
+        return availableIndex.drones();
+    }
+
     /**
      * Checks if any drones in the fleet are available at base.
      *
@@ -246,7 +493,7 @@ public class DroneFleet {
     public synchronized void waitForDronesToComeBack() {
         while (!areDronesAvailabaleAtBase()) {
             try {
-                System.out.println("[" + Thread.currentThread().getName() + "]: Waiting for at least one drone to come back to base. Until in wait...");
+                LOG.debug("Waiting for at least one drone to come back to base. Until in wait...");
                 wait();
             } catch (InterruptedException e) {
                 // Optionally handle interruption.
@@ -254,6 +501,156 @@ public class DroneFleet {
         }
     }
 
+    /**
+     * Reports a drone as lost or nozzle-jammed so that its event gets requeued.
+     *
+     * @param droneID the ID of the faulted drone
+     */
+    public void reportFaultedDrone(int droneID) {
+        faultedDrones.add(droneID);
+    }
+
+    /**
+     * Blocks until a drone is reported as faulted and returns its ID.
+     *
+     * @return the ID of the faulted drone
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public int takeFaultedDrone() throws InterruptedException {
+        return faultedDrones.take();
+    }
+
+    /**
+     * Returns the ID of the next drone reported as faulted, without waiting.
+     *
+     * @return the ID of the faulted drone, or null if none is pending
+     */
+    public Integer pollFaultedDrone() {
+        return faultedDrones.poll();
+    }
+
+    /**
+     * Confirms a drone's arrival: cancels its arrival watchdog and records the arrival immediately
+     * instead of waiting for the watchdog to fire.
+     *
+     * @param drone the drone that reported its arrival (its hasArrived flag must already be set)
+     */
+    public void confirmArrival(DroneData drone) {
+        timer.confirmArrival(drone);
+    }
+
+    /**
+     * Confirms a drone's return: cancels its nozzle watchdog and puts the drone back at base
+     * immediately instead of waiting for the watchdog to fire.
+     *
+     * @param drone the drone that reported it is returning (its isComingBack flag must already be 1)
+     */
+    public void confirmReturn(DroneData drone) {
+        timer.confirmReturn(drone);
+    }
+
+    /**
+     * Records a heartbeat from a drone. A drone is watched by the failure detector from its first
+     * heartbeat on, and a drone declared dead whose heartbeats resume is put back as it was.
+     *
+     * @param droneID the ID of the drone
+     */
+    public void heartbeat(int droneID) {
+        DroneData drone = droneFleet.get(droneID);
+        if (drone == null || !liveness.heartbeat(droneID, clock.currentTimeMillis())) {
+            return;
+        }
+        Boolean waiting = presumedDead.remove(droneID);
+        if (waiting != null) {
+            LOG.warn("--> DroneData: Drone#" + droneID + " is sending heartbeats again");
+            drone.setLost(false);
+            if (waiting) {
+                drone.setHasRequested(true);
+            }
+        }
+        scheduleSweep();
+    }
+
+    /**
+     * Replaces the failure detector drones are watched with, e.g. to change its detection bound.
+     * Drones are monitored by the new detector from their next heartbeat.
+     *
+     * @param detector the failure detector
+     */
+    public void setFailureDetector(FailureDetector detector) {
+        this.liveness = detector;
+    }
+
+    /**
+     * Returns the failure detector drones are watched with.
+     *
+     * @return the failure detector
+     */
+    public FailureDetector getFailureDetector() {
+        return liveness;
+    }
+
+    /**
+     * Declares dead every monitored drone the failure detector suspects.
+     *
+     * @return the number of drones declared dead
+     */
+    int sweepLiveness() {
+        return liveness.sweep(clock.currentTimeMillis(), declareDead);
+    }
+
+    /**
+     * Schedules a sweep of the monitored drones one heartbeat interval from now, unless one is
+     * already scheduled. Sweeps repeat only while drones are monitored.
+     */
+    private void scheduleSweep() {
+        if (sweepScheduled.compareAndSet(false, true)) {
+            timer.watchdogTimer().schedule(this::runSweep, liveness.getExpectedIntervalMillis(), MILLISECONDS);
+        }
+    }
+
+    /**
+     * Runs a scheduled sweep and schedules the next one if drones are still monitored.
+     */
+    private void runSweep() {
+        sweepLiveness();
+        // Cleared before checking, so a drone monitored meanwhile schedules the next sweep itself.
+        sweepScheduled.set(false);
+        if (liveness.getMonitored() > 0) {
+            scheduleSweep();
+        }
+    }
+
+    /**
+     * Handles a drone that stopped sending heartbeats: it is taken out of the available drones,
+     * and if it was on a mission it is reported as faulted so that its event gets requeued.
+     */
+    private void declareDead(int droneID) {
+        DroneData drone = droneFleet.get(droneID);
+        if (drone == null) {
+            return;
+        }
+        LOG.warn("--> DroneData: Drone#" + droneID + " stopped sending heartbeats and is presumed dead!");
+        boolean onMission = !drone.isAtBase() && drone.getIsComingBack() == 0;
+        presumedDead.put(droneID, drone.getHasRequested());
+        isLost = true;
+        drone.setLost(true);
+        if (onMission) {
+            drone.setDroneJobStatus(-1);
+            reportFaultedDrone(droneID);
+        }
+    }
+
+    /**
+     * Replaces the timer that drone check-ups are scheduled on, e.g. with the scheduler's event loop
+     * so that watchdogs fire on the loop instead of on a separate timer thread.
+     *
+     * @param watchdogTimer the timer to schedule check-ups on
+     */
+    public void setWatchdogTimer(WatchdogTimer watchdogTimer) {
+        timer.watchdogTimer = watchdogTimer;
+    }
+
     /**
      * Inner class TimeStamp is used to schedule periodic check-ups for drones.
      */
@@ -264,46 +661,111 @@ public class DroneFleet {
         private boolean lost = false;
 
         /**
-         * A ScheduledExecutorService for scheduling delayed tasks.
+         * Timer the check-ups are scheduled on, in simulated time. Unless replaced, the default
+         * {@link SystemClock} is used.
+         */
+        private volatile WatchdogTimer watchdogTimer;
+
+        /**
+         * Pending arrival check-ups, keyed by drone ID.
+         */
+        private final Map<Integer, WatchdogTimer.Timeout> arrivalWatchdogs = new ConcurrentHashMap<>();
+
+        /**
+         * Pending nozzle check-ups, keyed by drone ID.
          */
-        private final ScheduledExecutorService delayedScheduler = Executors.newScheduledThreadPool(1);
+        private final Map<Integer, WatchdogTimer.Timeout> nozzleWatchdogs = new ConcurrentHashMap<>();
+
+        /**
+         * Returns the timer check-ups are scheduled on, falling back to the default clock.
+         *
+         * @return the watchdog timer
+         */
+        private WatchdogTimer watchdogTimer() {
+            WatchdogTimer current = watchdogTimer;
+            return current != null ? current : SystemClock.getDefault();
+        }
 
         /**
          * Schedules a nozzle check-up for a drone.
          * After the specified delay, the drone is checked to determine if its nozzle is jammed.
          *
-         * @param delay the delay in seconds before the check-up
+         * @param delay the delay in seconds of simulated time before the check-up
          * @param drone the DroneData object to check
          */
         public void scheduleDroneNozzleCheckUp(int delay, DroneData drone) {
             int droneID = drone.getDroneID();
             DroneData droneInProgress = getADrone(droneID);
+            final WatchdogTimer.Timeout[] handle = new WatchdogTimer.Timeout[1];
             final Runnable beeper = new Runnable() {
                 @Override
                 public synchronized void run() {
+                    nozzleWatchdogs.remove(droneID, handle[0]);
                     markDroneBroken(droneInProgress);
                 }
             };
-            delayedScheduler.schedule(beeper, delay, SECONDS);
+            handle[0] = watchdogTimer().schedule(beeper, delay, SECONDS);
+            replace(nozzleWatchdogs, droneID, handle[0]);
         }
 
         /**
          * Schedules a check-up to determine if a drone is lost.
          * After the specified delay, the drone is checked to see if it has arrived.
          *
-         * @param delay the delay in seconds before the check-up
+         * @param delay the delay in seconds of simulated time before the check-up
          * @param drone the DroneData object to check
          */
         public void scheduleDroneCheckUp(int delay, DroneData drone) {
             int droneID = drone.getDroneID();
             DroneData droneInProgress = getADrone(droneID);
+            final WatchdogTimer.Timeout[] handle = new WatchdogTimer.Timeout[1];
             final Runnable beeper = new Runnable() {
                 @Override
                 public synchronized void run() {
+                    arrivalWatchdogs.remove(droneID, handle[0]);
                     markDroneLost(droneInProgress);
                 }
             };
-            delayedScheduler.schedule(beeper, delay, SECONDS);
+            handle[0] = watchdogTimer().schedule(beeper, delay, SECONDS);
+            replace(arrivalWatchdogs, droneID, handle[0]);
+        }
+
+        /**
+         * Records a drone's pending check-up, cancelling the one it replaces (if any).
+         */
+        private void replace(Map<Integer, WatchdogTimer.Timeout> watchdogs, int droneID, WatchdogTimer.Timeout watchdog) {
+            WatchdogTimer.Timeout previous = watchdogs.put(droneID, watchdog);
+            if (previous != null) {
+                previous.cancel();
+            }
+        }
+
+        /**
+         * Cancels a drone's pending arrival check-up and applies its confirmation right away.
+         * Does nothing if the check-up already ran, so a late arrival is still handled as lost.
+         * A drone watched through its heartbeats has no check-up and is confirmed while it is alive.
+         *
+         * @param drone the drone that reported its arrival
+         */
+        public void confirmArrival(DroneData drone) {
+            WatchdogTimer.Timeout watchdog = arrivalWatchdogs.remove(drone.getDroneID());
+            if (watchdog != null ? watchdog.cancel() : liveness.isMonitored(drone.getDroneID())) {
+                markDroneLost(drone);
+            }
+        }
+
+        /**
+         * Cancels a drone's pending nozzle check-up and applies its confirmation right away,
+         * putting the drone back at base. Does nothing if the check-up already ran. A drone watched
+         * through its heartbeats has no check-up and is confirmed while it is alive.
+         *
+         * @param drone the drone that reported it is coming back
+         */
+        public void confirmReturn(DroneData drone) {
+            WatchdogTimer.Timeout watchdog = nozzleWatchdogs.remove(drone.getDroneID());
+            if (watchdog != null ? watchdog.cancel() : liveness.isMonitored(drone.getDroneID())) {
+                markDroneBroken(drone);
+            }
         }
 
         /**
@@ -319,11 +781,14 @@ public class DroneFleet {
                 drone.setIsComingBack(1);
                 drone.setAtBase(true);
                 droneReturnedToBase();
-                System.out.println("[" + Thread.currentThread().getName() + "] --> DroneData: Drone#" + drone.getDroneID() + " sent confirmation signal of coming back");
+                if (LOG.isEnabled(Log.Level.DEBUG, drone.getDroneID())) {
+                    LOG.debug("--> DroneData: Drone#" + drone.getDroneID() + " sent confirmation signal of coming back");
+                }
             } else {
                 isLost = true;
                 drone.setIsComingBack(-1);
-                System.out.println("[" + Thread.currentThread().getName() + "] --> DroneData: Drone#" + drone.getDroneID() + " is lost due to nozzle jam!");
+                LOG.warn("--> DroneData: Drone#" + drone.getDroneID() + " is lost due to nozzle jam!");
+                reportFaultedDrone(drone.getDroneID());
             }
         }
 
@@ -336,14 +801,18 @@ public class DroneFleet {
         public synchronized void markDroneLost(DroneData drone) {
             if (!drone.isHasArrived()) {
                 isLost = true;
+                drone.setLost(true);
                 drone.setDroneJobStatus(-1);
-                System.out.println("[" + Thread.currentThread().getName() + "] --> DroneData: Drone#" + drone.getDroneID() + " is lost!");
+                LOG.warn("--> DroneData: Drone#" + drone.getDroneID() + " is lost!");
+                reportFaultedDrone(drone.getDroneID());
             } else {
                 isLost = false;
-                System.out.println("[" + Thread.currentThread().getName() + "] --> DroneData: Drone#" + drone.getDroneID() + " sent confirmation signal of arrival");
+                if (LOG.isEnabled(Log.Level.DEBUG, drone.getDroneID())) {
+                    LOG.debug("--> DroneData: Drone#" + drone.getDroneID() + " sent confirmation signal of arrival");
+                }
                 drone.setDroneJobStatus(1);
             }
-            System.out.println("[" + Thread.currentThread().getName() + "]: timer should be shut down now");
+            LOG.debug("timer should be shut down now");
         }
 
         /**
@@ -0,0 +1,288 @@
+import java.awt.*;
+import java.util.*;
+import java.util.List;
+
+/**
+ * The {@code DroneGridIndex} class is a uniform grid spatial index over drones, keyed on
+ * {@link DroneData#getLocation()}. The plane is divided into square cells and every indexed
+ * drone is bucketed into the cell containing its location, so nearest-drone queries only look
+ * at the rings of cells around the target instead of scanning every drone.
+ *
+ * Drones sharing the exact same location (e.g. every idle drone parked at base) are grouped
+ * together, so a query costs one distance calculation per distinct location rather than one
+ * per drone. Within a location, drones are handed out in the order they were indexed.
+ */
+public class DroneGridIndex {
+
+    /** Default side length, in grid coordinates, of one index cell. */
+    public static final int DEFAULT_CELL_SIZE = 100;
+
+    /** Side length, in grid coordinates, of one index cell. */
+    private final int cellSize;
+
+    /** Occupied cells keyed by packed cell coordinates. */
+    private final Map<Long, Map<Long, LinkedHashSet<DroneData>>> cells;
+
+    /** Packed exact location each indexed drone is filed under, keyed by drone ID. */
+    private final Map<Integer, Long> droneLocations;
+
+    /** Bounding box (in cell coordinates) of every cell that has held a drone. */
+    private int minCellX, minCellY, maxCellX, maxCellY;
+
+    /** Flag indicating whether the bounding box has been initialized. */
+    private boolean hasBounds = false;
+
+    /**
+     * Constructs an empty index with the given cell size.
+     *
+     * @param cellSize the side length of a cell, in grid coordinates
+     */
+    public DroneGridIndex(int cellSize) {
+        if (cellSize <= 0) {
+            throw new IllegalArgumentException("cellSize must be positive: " + cellSize);
+        }
+        this.cellSize = cellSize;
+        this.cells = new HashMap<>();
+        this.droneLocations = new HashMap<>();
+    }
+
+    /**
+     * Inserts a drone into the index, or moves it if its location changed since it was indexed.
+     *
+     * @param drone the drone to index
+     */
+    public synchronized void update(DroneData drone) {
+        Point location = drone.getLocation();
+        long locationKey = pack(location.x, location.y);
+        Long current = droneLocations.get(drone.getDroneID());
+        if (current != null) {
+            if (current == locationKey) {
+                return;
+            }
+            removeFromCell(drone, current);
+        }
+        int cellX = Math.floorDiv(location.x, cellSize);
+        int cellY = Math.floorDiv(location.y, cellSize);
+        cells.computeIfAbsent(pack(cellX, cellY), k -> new HashMap<>())
+                .computeIfAbsent(locationKey, k -> new LinkedHashSet<>())
+                .add(drone);
+        droneLocations.put(drone.getDroneID(), locationKey);
+        growBounds(cellX, cellY);
+    }
+
+    /**
+     * Removes a drone from the index. Does nothing if the drone is not indexed.
+     *
+     * @param drone the drone to remove
+     */
+    public synchronized void remove(DroneData drone) {
+        Long current = droneLocations.remove(drone.getDroneID());
+        if (current != null) {
+            removeFromCell(drone, current);
+        }
+    }
+
+    /**
+     * Checks whether a drone is currently indexed.
+     *
+     * @param drone the drone to check
+     * @return true if the drone is in the index; false otherwise
+     */
+    public synchronized boolean contains(DroneData drone) {
+        return droneLocations.containsKey(drone.getDroneID());
+    }
+
+    /**
+     * Returns the number of indexed drones.
+     *
+     * @return the number of drones in the index
+     */
+    public synchronized int size() {
+        return droneLocations.size();
+    }
+
+    /**
+     * Returns every indexed drone, in no particular order.
+     *
+     * @return a snapshot list of the indexed drones
+     */
+    public synchronized List<DroneData> drones() {
+        List<DroneData> result = new ArrayList<>(droneLocations.size());
+        for (Map<Long, LinkedHashSet<DroneData>> cell : cells.values()) {
+            for (LinkedHashSet<DroneData> group : cell.values()) {
+                result.addAll(group);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the indexed drone closest to the target point.
+     *
+     * @param target the point to search around
+     * @return the closest drone, or null if the index is empty
+     */
+    public synchronized DroneData nearest(Point target) {
+        List<DroneData> result = nearest(target, 1);
+        return result.isEmpty() ? null : result.get(0);
+    }
+
+    /**
+     * Finds up to {@code k} indexed drones closest to the target point, closest first.
+     * Rings of cells are scanned outward from the target's cell until no unscanned cell
+     * can hold a drone closer than the k-th best found so far.
+     *
+     * @param target the point to search around
+     * @param k      the maximum number of drones to return
+     * @return the closest drones ordered by increasing distance
+     */
+    public synchronized List<DroneData> nearest(Point target, int k) {
+        if (k <= 0 || droneLocations.isEmpty()) {
+            return new ArrayList<>();
+        }
+        int centerX = Math.floorDiv(target.x, cellSize);
+        int centerY = Math.floorDiv(target.y, cellSize);
+        // Max-heap on distance so the worst of the current k candidates is on top.
+        PriorityQueue<Candidate> best = new PriorityQueue<>(k, (a, b) -> Long.compare(b.distanceSq, a.distanceSq));
+        // Rings closer than the occupied bounding box are empty, so start at the first one that reaches it.
+        int firstRing = Math.max(0, Math.max(Math.max(minCellX - centerX, centerX - maxCellX),
+                Math.max(minCellY - centerY, centerY - maxCellY)));
+        for (int ring = firstRing; ; ring++) {
+            scanRing(target, centerX, centerY, ring, k, best);
+            // Any cell outside this ring is at least ring * cellSize away from the target.
+            long bound = (long) ring * cellSize;
+            if (best.size() == k && best.peek().distanceSq <= bound * bound) {
+                break;
+            }
+            if (centerX - ring <= minCellX && centerX + ring >= maxCellX
+                    && centerY - ring <= minCellY && centerY + ring >= maxCellY) {
+                break;
+            }
+        }
+        List<DroneData> result = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            result.add(best.poll().drone);
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    /**
+     * Scans the cells on the given ring around the center cell, clamped to the occupied bounding box.
+     */
+    private void scanRing(Point target, int centerX, int centerY, int ring, int k, PriorityQueue<Candidate> best) {
+        int fromX = Math.max(centerX - ring, minCellX);
+        int toX = Math.min(centerX + ring, maxCellX);
+        if (centerY - ring >= minCellY && centerY - ring <= maxCellY) {
+            for (int x = fromX; x <= toX; x++) {
+                scanCell(target, x, centerY - ring, k, best);
+            }
+        }
+        if (ring > 0 && centerY + ring >= minCellY && centerY + ring <= maxCellY) {
+            for (int x = fromX; x <= toX; x++) {
+                scanCell(target, x, centerY + ring, k, best);
+            }
+        }
+        if (ring == 0) {
+            return;
+        }
+        int fromY = Math.max(centerY - ring + 1, minCellY);
+        int toY = Math.min(centerY + ring - 1, maxCellY);
+        if (centerX - ring >= minCellX && centerX - ring <= maxCellX) {
+            for (int y = fromY; y <= toY; y++) {
+                scanCell(target, centerX - ring, y, k, best);
+            }
+        }
+        if (centerX + ring >= minCellX && centerX + ring <= maxCellX) {
+            for (int y = fromY; y <= toY; y++) {
+                scanCell(target, centerX + ring, y, k, best);
+            }
+        }
+    }
+
+    /**
+     * Offers every drone in a single cell to the candidate heap.
+     */
+    private void scanCell(Point target, int cellX, int cellY, int k, PriorityQueue<Candidate> best) {
+        Map<Long, LinkedHashSet<DroneData>> cell = cells.get(pack(cellX, cellY));
+        if (cell == null) {
+            return;
+        }
+        for (Map.Entry<Long, LinkedHashSet<DroneData>> group : cell.entrySet()) {
+            long key = group.getKey();
+            long dx = (int) (key >> 32) - (long) target.x;
+            long dy = (int) key - (long) target.y;
+            long distanceSq = dx * dx + dy * dy;
+            for (DroneData drone : group.getValue()) {
+                if (best.size() < k) {
+                    best.add(new Candidate(distanceSq, drone));
+                } else if (distanceSq < best.peek().distanceSq) {
+                    best.poll();
+                    best.add(new Candidate(distanceSq, drone));
+                } else {
+                    // Every other drone in this group is at the same distance.
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes a drone from the location group it is filed under, dropping empty groups and cells.
+     */
+    private void removeFromCell(DroneData drone, long locationKey) {
+        int x = (int) (locationKey >> 32);
+        int y = (int) locationKey;
+        long cellKey = pack(Math.floorDiv(x, cellSize), Math.floorDiv(y, cellSize));
+        Map<Long, LinkedHashSet<DroneData>> cell = cells.get(cellKey);
+        if (cell == null) {
+            return;
+        }
+        LinkedHashSet<DroneData> group = cell.get(locationKey);
+        if (group != null) {
+            group.remove(drone);
+            if (group.isEmpty()) {
+                cell.remove(locationKey);
+            }
+        }
+        if (cell.isEmpty()) {
+            cells.remove(cellKey);
+        }
+    }
+
+    /**
+     * Grows the occupied bounding box to include the given cell.
+     */
+    private void growBounds(int cellX, int cellY) {
+        if (!hasBounds) {
+            minCellX = maxCellX = cellX;
+            minCellY = maxCellY = cellY;
+            hasBounds = true;
+            return;
+        }
+        minCellX = Math.min(minCellX, cellX);
+        maxCellX = Math.max(maxCellX, cellX);
+        minCellY = Math.min(minCellY, cellY);
+        maxCellY = Math.max(maxCellY, cellY);
+    }
+
+    /**
+     * Packs two ints into a single long key.
+     */
+    private static long pack(int x, int y) {
+        return ((long) x << 32) | (y & 0xffffffffL);
+    }
+
+    /**
+     * A drone and its squared distance to the query point.
+     */
+    private static class Candidate {
+        final long distanceSq;
+        final DroneData drone;
+
+        Candidate(long distanceSq, DroneData drone) {
+            this.distanceSq = distanceSq;
+            this.drone = drone;
+        }
+    }
+}
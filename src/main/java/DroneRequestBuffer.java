@@ -1,26 +1,232 @@
-import java.net.DatagramPacket;
-import java.util.LinkedList;
-import java.util.Queue;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
 
+/**
+ * The {@code DroneRequestBuffer} class is a fixed ring of reusable receive slots for drone requests.
+ *
+ * A receiver {@link #acquire() acquires} a free slot, receives a datagram straight into the slot's
+ * direct buffer and {@link #commit(int, SocketAddress) commits} it, which decodes the request in
+ * place and queues the slot index. A handler {@link #poll() polls} the next slot index, reads the
+ * decoded request and the sender from the slot, and {@link #release(int) releases} it. Slots and
+ * their buffers are allocated once, so the steady-state receive path produces no garbage.
+ *
+ * Every request is exposed as a {@link MessageCodec} frame: binary requests are read from the slot
+ * as received, and text requests are decoded into the slot's frame buffer.
+ */
 public class DroneRequestBuffer {
-    private Queue<DatagramPacket> buffer;
 
-    public DroneRequestBuffer(){
-        buffer = new LinkedList<>();
+    /** Default number of slots. */
+    public static final int DEFAULT_CAPACITY = 64;
+    /** Size of each slot's receive buffer; matches the receive buffers of the Scheduler. */
+    public static final int SLOT_SIZE = 1024;
+
+    /** Receive buffers, one per slot. */
+    private final ByteBuffer[] slots;
+    /** Decoded text requests, one frame per slot. */
+    private final ByteBuffer[] frames;
+    /** Flags indicating whether each slot holds a binary frame rather than a text request. */
+    private final boolean[] binary;
+    /** Sender address of each slot's request. */
+    private final InetAddress[] addresses;
+    /** Sender port of each slot's request. */
+    private final int[] ports;
+    /** Stack of free slot indices. */
+    private final int[] free;
+    /** Number of free slots. */
+    private int freeCount;
+    /** FIFO ring of committed slot indices. */
+    private final int[] ready;
+    /** Position of the oldest committed slot in {@link #ready}. */
+    private int readyHead = 0;
+    /** Number of committed slots. */
+    private int readyCount = 0;
+
+    /**
+     * Constructs a buffer with {@link #DEFAULT_CAPACITY} slots.
+     */
+    public DroneRequestBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a buffer with the given number of slots.
+     *
+     * @param capacity the number of slots; receivers wait when all of them are in use
+     */
+    public DroneRequestBuffer(int capacity) {
+        slots = new ByteBuffer[capacity];
+        frames = new ByteBuffer[capacity];
+        binary = new boolean[capacity];
+        addresses = new InetAddress[capacity];
+        ports = new int[capacity];
+        free = new int[capacity];
+        ready = new int[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = ByteBuffer.allocateDirect(SLOT_SIZE);
+            frames[i] = ByteBuffer.allocateDirect(MessageCodec.FRAME_SIZE);
+            free[i] = capacity - 1 - i;
+        }
+        freeCount = capacity;
     }
 
-    public synchronized void addRequest(DatagramPacket request){
-        buffer.add(request);
+    /**
+     * Takes a free slot, waiting for one to be released if all slots are in use.
+     *
+     * @return the index of the slot, whose buffer is cleared and ready to receive into
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public synchronized int acquire() throws InterruptedException {
+        while (freeCount == 0) {
+            wait();
+        }
+        int slot = free[--freeCount];
+        slots[slot].clear();
+        return slot;
+    }
+
+    /**
+     * Returns the receive buffer of a slot acquired by the caller.
+     *
+     * @param slot the slot index
+     * @return the slot's receive buffer
+     */
+    public ByteBuffer slot(int slot) {
+        return slots[slot];
+    }
+
+    /**
+     * Decodes the datagram received into a slot and queues the slot for handling.
+     *
+     * @param slot   the slot index, holding a datagram written from position 0
+     * @param sender the sender of the datagram
+     */
+    public void commit(int slot, SocketAddress sender) {
+        decode(slot, sender);
+        enqueue(slot);
+    }
+
+    /**
+     * Decodes the datagram received into a slot without queueing it, so the receiver can look at
+     * the request first. The slot is then either {@link #enqueue(int) queued} or
+     * {@link #release(int) released}.
+     *
+     * @param slot   the slot index, holding a datagram written from position 0
+     * @param sender the sender of the datagram
+     */
+    public void decode(int slot, SocketAddress sender) {
+        // The slot is still owned by the caller, so decode it without taking the lock.
+        ByteBuffer data = slots[slot];
+        data.flip();
+        binary[slot] = MessageCodec.isBinary(data);
+        if (!binary[slot]) {
+            MessageCodec.decodeText(data, frames[slot]);
+        }
+        InetSocketAddress address = (InetSocketAddress) sender;
+        addresses[slot] = address.getAddress();
+        ports[slot] = address.getPort();
+    }
+
+    /**
+     * Queues a decoded slot for handling.
+     *
+     * @param slot the slot index
+     */
+    public synchronized void enqueue(int slot) {
+        ready[(readyHead + readyCount) % ready.length] = slot;
+        readyCount++;
         notifyAll();
     }
 
-    public synchronized DatagramPacket removeRequest(){
-        DatagramPacket request = buffer.poll();
-        return request;
+    /**
+     * Takes the oldest committed slot.
+     *
+     * @return the slot index, or -1 if no request is queued
+     */
+    public synchronized int poll() {
+        if (readyCount == 0) {
+            return -1;
+        }
+        int slot = ready[readyHead];
+        readyHead = (readyHead + 1) % ready.length;
+        readyCount--;
+        return slot;
+    }
+
+    /**
+     * Returns a slot to the free list once its request has been handled.
+     *
+     * @param slot the slot index
+     */
+    public synchronized void release(int slot) {
+        addresses[slot] = null;
+        free[freeCount++] = slot;
+        notifyAll();
+    }
+
+    /**
+     * Returns the request held by a slot as a {@link MessageCodec} frame.
+     *
+     * @param slot the slot index
+     * @return the frame; valid until the slot is released
+     */
+    public ByteBuffer request(int slot) {
+        return binary[slot] ? slots[slot] : frames[slot];
+    }
+
+    /**
+     * Returns whether a slot holds a binary frame rather than a text request.
+     *
+     * @param slot the slot index
+     * @return true if the request arrived as a binary frame
+     */
+    public boolean isBinary(int slot) {
+        return binary[slot];
+    }
+
+    /**
+     * Returns the address the request in a slot was sent from.
+     *
+     * @param slot the slot index
+     * @return the sender's InetAddress
+     */
+    public InetAddress address(int slot) {
+        return addresses[slot];
+    }
+
+    /**
+     * Returns the port the request in a slot was sent from.
+     *
+     * @param slot the slot index
+     * @return the sender's port number
+     */
+    public int port(int slot) {
+        return ports[slot];
+    }
+
+    /**
+     * Describes the request in a slot for logging. Unlike the rest of this class, this allocates.
+     *
+     * @param slot the slot index
+     * @return the text request as received, or the type of a binary frame
+     */
+    public String describe(int slot) {
+        ByteBuffer data = slots[slot];
+        if (binary[slot]) {
+            return "binary frame of type " + MessageCodec.type(data);
+        }
+        byte[] text = new byte[data.limit()];
+        data.get(0, text);
+        return new String(text);
     }
 
-    public synchronized boolean isEmpty(){
-        boolean isEmpty = buffer.isEmpty();
-        return isEmpty;
+    /**
+     * Returns whether no request is waiting to be handled.
+     *
+     * @return true if no slot is committed
+     */
+    public synchronized boolean isEmpty() {
+        return readyCount == 0;
     }
 }
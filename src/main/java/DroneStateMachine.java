@@ -12,6 +12,9 @@ import static java.lang.Thread.sleep;
  */
 interface DroneState {
 
+    /** Log for drone state changes and faults. */
+    Log LOG = Log.category("drone");
+
     /**
      * Handles the event for when the Drone is assigned.
      *
@@ -168,7 +171,7 @@ class ArrivedAtZone implements DroneState {
     @Override
     public void openNozzle(DroneStateMachine context, DroneSubsystem drone) {
         if(drone.getFault().equals("NOZZLE_JAM")) {
-            System.out.println("Drone: Nozzle Jammed!");
+            LOG.warn("Drone: Nozzle Jammed!");
             context.setState("Faulted");
             context.getCurrentState().faultHandled(context, drone);
         }
@@ -220,13 +223,13 @@ class DroppingAgent implements DroneState {
         if (drone.getRemainingPayload() < 5){
             context.setState("ReturningToBase");
             drone.returnToScheduler();
-            drone.travel(new Point(0,0));
+            drone.returnToBase();
             context.getCurrentState().arrivedAtBase(context, drone);
         } else {
             drone.returnToScheduler();
             context.setState("Idle");
             drone.waitForTask();
-            System.out.println("Back to state machine");
+            LOG.debug("Back to state machine");
             context.getCurrentState().droneAssigned(context, drone);
             /**
              * Change made by scheduler team
@@ -307,7 +310,7 @@ class Refilling implements DroneState {
     @Override
     public void payloadRefilled(DroneStateMachine context, DroneSubsystem drone) {
         context.setState("Idle");
-        System.out.println("Drone in Idle");
+        LOG.debug("Drone in Idle");
 
         drone.waitForTask();
         context.getCurrentState().droneAssigned(context, drone);
@@ -348,10 +351,10 @@ class Faulted implements DroneState {
     @Override
     public void faultHandled(DroneStateMachine context, DroneSubsystem drone) {
         if (drone.getFaultType().equals("HARD_FAULT")) {
-            System.out.println("Drone: Hard Fault: " + drone.getFault());
+            LOG.warn("Drone: Hard Fault: " + drone.getFault());
             drone.shutdown();
         } else {
-            System.out.println("Drone: Transient Fault " + drone.getFault());
+            LOG.warn("Drone: Transient Fault " + drone.getFault());
             drone.setFault("NO_FAULT");
             drone.setFaultType("N/A");
             context.setState("EnRoute");
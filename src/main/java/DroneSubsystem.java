@@ -1,22 +1,26 @@
 import java.awt.*;
 import java.io.IOException;
 import java.net.*;
+import java.nio.ByteBuffer;
 import java.sql.Time;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
 
 import static java.lang.Math.ceil;
 import static java.lang.Thread.getDefaultUncaughtExceptionHandler;
-import static java.lang.Thread.sleep;
 
 /**
  * The {@code DroneSubsystem} class represents a drone that responds to fire incidents.
  * It navigates to a specified fire zone, drops a firefighting agent, and then returns to base for refilling.
  * Implements {@code Runnable} to allow execution in a separate thread.
  */
-public class DroneSubsystem {
+public class DroneSubsystem implements Runnable {
+    /** Log for the drone's travel, drops and messages, sampled per drone. */
+    private static final Log LOG = Log.category("drone");
 
     private DroneStateMachine stateMachine;
 
-    private static final int TIME_SCALE = 10; // Scale time (for sleep calls)
+    private SimulationClock clock = SystemClock.getDefault(); // Source of time for every flight and nozzle phase
     private static final double DRONE_SPEED = 2.8; // Speed of the drone
     private static final double NOZZLE_OPEN_TIME = 0.5; // Time in seconds for nozzle operation
     private static final double RATE_OF_WATER_DROP = 1.0; // Water release rate in L/s
@@ -31,11 +35,22 @@ public class DroneSubsystem {
     private String fault;
     private String faultType;
 
-    private DatagramSocket socket;
-    DatagramPacket sendPacket, receivePacket;
-    private InetAddress schedulerAddr;
+    private Transport transport;
+    private InetSocketAddress schedulerAddr;
     private final int schedulerPort;
 
+    private boolean binaryProtocol = false; // Send binary MessageCodec frames instead of text requests
+    private DroneClient client; // Sends the binary requests, several at a time; null with the text protocol
+    private final ByteBuffer inData = ByteBuffer.allocate(100); // Reused for every text response
+
+    private long heartbeatIntervalMillis = FailureDetector.DEFAULT_INTERVAL_MILLIS; // Simulated time between heartbeats; 0 sends none
+    private Transport heartbeatTransport; // Plain endpoint the heartbeats are sent from; a lost heartbeat is never retransmitted
+    private boolean sharedHeartbeatTransport = false; // Set when the heartbeat endpoint belongs to the fleet, so the drone leaves it open
+    private final ByteBuffer heartbeatFrame = ByteBuffer.allocate(MessageCodec.FRAME_SIZE); // Reused for every heartbeat
+
+    private volatile boolean running = true; // Cleared when the drone shuts down
+    private volatile int missionsCompleted = 0; // Missions returned from, written only by the drone's own thread
+
     /**
      * Constructs a {@code DroneSubsystem} instance
      *
@@ -44,9 +59,9 @@ public class DroneSubsystem {
      */
     public DroneSubsystem(String host, int schedulerPort) {
         try {
-            socket = new DatagramSocket();
-            this.schedulerAddr = InetAddress.getByName(host);
-        } catch (UnknownHostException | SocketException e) {
+            transport = ReliableTransport.client(Transport.bind(0), ReliableTransport.RETRY_FOREVER);
+            this.schedulerAddr = new InetSocketAddress(InetAddress.getByName(host), schedulerPort);
+        } catch (IOException e) {
             throw new RuntimeException(e);
         }
         this.schedulerPort = schedulerPort;
@@ -55,6 +70,47 @@ public class DroneSubsystem {
         this.stateMachine = new DroneStateMachine();
     }
 
+    /**
+     * Sets the clock the drone waits on during each phase of a mission.
+     *
+     * @param clock the simulation clock
+     */
+    public void setClock(SimulationClock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Sets whether the drone talks to the scheduler with binary frames instead of text messages.
+     *
+     * @param binaryProtocol true to send binary frames
+     */
+    public void setBinaryProtocol(boolean binaryProtocol) {
+        this.binaryProtocol = binaryProtocol;
+        if (binaryProtocol && client == null) {
+            client = new DroneClient(transport, schedulerAddr);
+        }
+    }
+
+    /**
+     * Sets how often the drone tells the scheduler it is alive, in simulated time.
+     *
+     * @param heartbeatIntervalMillis the time between heartbeats in milliseconds, or 0 to send none
+     */
+    public void setHeartbeatInterval(long heartbeatIntervalMillis) {
+        this.heartbeatIntervalMillis = heartbeatIntervalMillis;
+    }
+
+    /**
+     * Sets an endpoint shared with other drones to send heartbeats from, instead of binding one of
+     * the drone's own. The drone never closes a shared endpoint; its owner does.
+     *
+     * @param heartbeatTransport the shared endpoint
+     */
+    public void setHeartbeatTransport(Transport heartbeatTransport) {
+        this.heartbeatTransport = heartbeatTransport;
+        this.sharedHeartbeatTransport = true;
+    }
+
     /**
      * Calculates the travel time to a specified zone center.
      *
@@ -62,8 +118,9 @@ public class DroneSubsystem {
      * @return The estimated travel time in seconds.
      */
     public double calculateTravelTime(Point center) {
-        System.out.println("Calculating travel time for " + center.x + ", " + center.y);
-        System.out.println("Current coordinates: " + currentCoordinates);
+        if (LOG.isEnabled(Log.Level.DEBUG, droneID)) {
+            LOG.debug("Calculating travel time for " + center.x + ", " + center.y + " from " + currentCoordinates);
+        }
 
         double distance = Math.sqrt(Math.pow(center.x - currentCoordinates.x, 2) + Math.pow(center.y - currentCoordinates.y, 2));
 
@@ -82,8 +139,9 @@ public class DroneSubsystem {
         int fullIntervals = (int) (totalTravelTime / updateInterval);
         double leftoverTime = totalTravelTime - (fullIntervals * updateInterval);
 
-        System.out.println("Drone travelling to: " + target);
-        System.out.println("Calculated travel time: " + totalTravelTime + " seconds");
+        if (LOG.isEnabled(Log.Level.DEBUG, droneID)) {
+            LOG.debug("Drone travelling to: " + target + ", calculated travel time: " + totalTravelTime + " seconds");
+        }
 
         // Use double precision for the current position for smooth updates.
         double currentX = currentCoordinates.x;
@@ -98,26 +156,28 @@ public class DroneSubsystem {
         try {
             // Process full interval duration
             for (int i = 0; i < fullIntervals; i++) {
-                sleep((updateInterval * 1000) / TIME_SCALE); // sleep for 10 seconds (scaled)
+                clock.sleep(updateInterval * 1000); // sleep for 10 seconds of simulated time
                 currentX += DRONE_SPEED * updateInterval * dx;
                 currentY += DRONE_SPEED * updateInterval * dy;
-                System.out.println("Current coordinates: " + currentX + ", " + currentY);
+                if (LOG.isEnabled(Log.Level.DEBUG, droneID)) {
+                    LOG.debug("Current coordinates: " + currentX + ", " + currentY);
+                }
                 currentCoordinates = new Point((int) currentX, (int) currentY);
-                //updateLocation();
             }
             // Process any remaining time
             if (leftoverTime > 0) {
-                sleep((long)(leftoverTime * 1000 / TIME_SCALE));
+                clock.sleep((long) (leftoverTime * 1000));
                 currentX += DRONE_SPEED * leftoverTime * dx;
                 currentY += DRONE_SPEED * leftoverTime * dy;
-                System.out.println("Current coordinates: " + currentX + ", " + currentY);
+                if (LOG.isEnabled(Log.Level.DEBUG, droneID)) {
+                    LOG.debug("Current coordinates: " + currentX + ", " + currentY);
+                }
             }
             // Ensure the final position is exactly the target.
             currentX = targetX;
             currentY = targetY;
-            System.out.println("TARGET REACHED!");
+            LOG.debug("TARGET REACHED!");
             currentCoordinates = new Point((int) currentX, (int) currentY);
-            //updateLocation();
         } catch (InterruptedException e) {
             throw new RuntimeException(e);
         }
@@ -249,9 +309,9 @@ public class DroneSubsystem {
      * Simulates the opening of Drone Nozzle as per Drone specifications
      */
     public void openNozzle() {
-        System.out.println("Drone Opens Nozzle to Release Water");
+        LOG.debug("Drone Opens Nozzle to Release Water");
         try {
-            sleep((int) (NOZZLE_OPEN_TIME * 1000) / TIME_SCALE);
+            clock.sleep((long) (NOZZLE_OPEN_TIME * 1000));
         } catch (InterruptedException e) {
             throw new RuntimeException(e);
         }
@@ -262,7 +322,7 @@ public class DroneSubsystem {
      * It calculates the volume to be released and updates internal states accordingly.
      */
     public void dropPayload () {
-        System.out.println("Drone calculating water to be released");
+        LOG.debug("Drone calculating water to be released");
         int waterReleased = 0;
         //System.out.println("DEBUG: task: " + task.getTime() + " " + task.getZoneId() + " " + task.getEventType() + " " + task.getSeverity() + " " + task.getZone() + " " + task.getWaterNeeded());
         //System.out.println("DEBUG: water needed: " + task.getWaterNeeded() + " remaining payload: " + remainingPayload);
@@ -272,9 +332,11 @@ public class DroneSubsystem {
             waterReleased = remainingPayload;
         }
         try {
-            System.out.println("Drone starts releasing water: " + waterReleased + " L");
-            sleep((int) (this.calculateDropTime(waterReleased) * 1000) / TIME_SCALE);
-            System.out.println("Drone stops releasing water");
+            if (LOG.isEnabled(Log.Level.DEBUG, droneID)) {
+                LOG.debug("Drone starts releasing water: " + waterReleased + " L");
+            }
+            clock.sleep((long) (this.calculateDropTime(waterReleased) * 1000));
+            LOG.debug("Drone stops releasing water");
             waterNeeded = waterNeeded - waterReleased;
             remainingPayload = remainingPayload - waterReleased;
         } catch (InterruptedException e) {
@@ -286,9 +348,9 @@ public class DroneSubsystem {
      * Simulates closing the nozzle after water release.
      */
     public void closeNozzle() {
-        System.out.println("Drone closes nozzle");
+        LOG.debug("Drone closes nozzle");
         try {
-            sleep((int) (NOZZLE_OPEN_TIME * 1000) / TIME_SCALE);
+            clock.sleep((long) (NOZZLE_OPEN_TIME * 1000));
         } catch (InterruptedException e) {
             throw new RuntimeException(e);
         }
@@ -298,31 +360,74 @@ public class DroneSubsystem {
      * Refills the drone's payload to maximum capacity.
      */
     public void refillPayload() {
-        System.out.println("Drone Refilling");
+        LOG.debug("Drone Refilling");
         remainingPayload = MAX_PAYLOAD;
-        System.out.println("Drone Refilled, remaining payload: " + remainingPayload);
+        if (LOG.isEnabled(Log.Level.DEBUG, droneID)) {
+            LOG.debug("Drone Refilled, remaining payload: " + remainingPayload);
+        }
     }
 
     /**
      * Returns the drone status to the scheduler and resets to idle.
      */
     public void returnToScheduler() {
-        System.out.println("Drone returns to Scheduler");
+        LOG.debug("Drone returns to Scheduler");
 
         String request = "RETURN_TO_SCHEDULER:" + this.droneID + ":" + this.waterNeeded; //"RETURN_TO_SCHEDULER:DRONEID:WATERNEEDED"
 
-        String response = sendRequest(request); // response can be "RETURN_TO_SCHEDULER:OK" or "RETURNED_TO_SCHEDULER:FAILED"
-        System.out.println("Drone returns to Scheduler: " + response);
+        String response = binaryProtocol
+                ? responseText(sendFrame(MessageCodec.RETURN_TO_SCHEDULER, waterNeeded, 0, 0))
+                : sendRequest(request); // response can be "RETURN_TO_SCHEDULER:OK" or "RETURNED_TO_SCHEDULER:FAILED"
+        if (LOG.isEnabled(Log.Level.DEBUG, droneID)) {
+            LOG.debug("Drone returns to Scheduler: " + response);
+        }
+        missionsCompleted++;
+    }
+
+    /**
+     * Flies the drone back to base, first telling the scheduler the course it sets off on so the
+     * scheduler can follow it without location updates.
+     */
+    public void returnToBase() {
+        Point base = new Point(0, 0);
+        setCourse(base);
+        travel(base);
+    }
+
+    /**
+     * Tells the scheduler the drone is setting off for a target of its own choosing, from where it is.
+     *
+     * @param target The point the drone flies to.
+     * @return Response from the scheduler.
+     */
+    public String setCourse(Point target) {
+        if (binaryProtocol) {
+            return responseText(sendFrame(MessageCodec.SET_COURSE, 0, target.x, target.y));
+        }
+        String request = "SET_COURSE:" + droneID + ":" + target.x + ":" + target.y; //SET_COURSE:DRONE_ID:X:Y
+        return sendRequest(request);
     }
 
     /**
      * Waits for a task to be given to the drone by the scheduler
      */
     public void waitForTask() {
+        if (binaryProtocol) {
+            DroneClient.Response task = sendFrame(MessageCodec.GET_TASK, 0, 0, 0);
+            if (running && task != null && task.isTask()) {
+                fault = task.fault();
+                faultType = task.faultType();
+                waterNeeded = task.water();
+                targetPoint = new Point(task.x(), task.y());
+
+                stateMachine.getCurrentState().droneAssigned(stateMachine, this);
+            }
+            return;
+        }
         String request = "GET_TASK:" + droneID;
         String response = sendRequest(request); // "TASKID:WATERNEEDED:X:Y:FAULT:FAULTTYPE"
 
-        if(!response.equalsIgnoreCase("NO_TASK")) {
+        if(running && !response.equalsIgnoreCase("NO_TASK")) {
             String[] task = response.split(":");
             fault = task[4];
             faultType = task[5];
@@ -337,6 +442,11 @@ public class DroneSubsystem {
      * Sends a request to scheduler to initialize new drone with a returned DroneID
      */
     public void initializeDrone(){
+        if (binaryProtocol) {
+            DroneClient.Response response = sendFrame(MessageCodec.INITIALIZE_DRONE, 0, 0, 0);
+            droneID = response == null ? 0 : response.id();
+            return;
+        }
         String request = "INITIALIZE_DRONE";
         droneID = Integer.parseInt(sendRequest(request)); // "DRONEID"
     }
@@ -348,6 +458,11 @@ public class DroneSubsystem {
      * @return Response from the scheduler.
      */
     public String notifyArrived() {
+        if (binaryProtocol) {
+            // An unknown message type stands in for the garbled text request.
+            byte type = fault.equals("CORRUPTED_MESSAGE") ? 0 : MessageCodec.NOTIFY_ARRIVED;
+            return responseText(sendFrame(type, 0, 0, 0));
+        }
         String request = "NOTIFY_ARRIVED:" + droneID;
         if(fault.equals("CORRUPTED_MESSAGE")) {
             request = "NOFHIS_FNKSS:" + droneID;
@@ -361,31 +476,29 @@ public class DroneSubsystem {
      * @return Response from the scheduler.
      */
     public String updateLocation() {
+        if (binaryProtocol) {
+            return responseText(sendFrame(MessageCodec.UPDATE_LOCATION, 0, currentCoordinates.x, currentCoordinates.y));
+        }
         String request = "UPDATE_LOCATION:" + droneID + ":" + currentCoordinates.x + ":" + currentCoordinates.y; //UPDATE_LOCATION:DRONE_ID:X:Y
         return sendRequest(request);
     }
 
     /**
-     * Sends a UDP request to the scheduler and waits for a response.
+     * Sends a request to the scheduler and waits for a response.
      *
      * @param request The message to send.
      * @return The response received from the scheduler.
      */
     public String sendRequest (String request) {
         try {
-            //Convert request string into bytes
-            byte[] outData = request.getBytes();
-
-            //Build DatagramPacket to send to scheduler's address and port
-            DatagramPacket sendPacket = new DatagramPacket(outData, outData.length, schedulerAddr, schedulerPort);
-
-            //Send packet via our drone socket
-            socket.send(sendPacket);
-            System.out.println("Drone: Sent \"" + request + "\" to " + schedulerAddr);
+            //Send request string as bytes via our drone transport
+            transport.send(ByteBuffer.wrap(request.getBytes()), schedulerAddr);
+            if (LOG.isEnabled(Log.Level.DEBUG, droneID)) {
+                LOG.debug("Drone: Sent \"" + request + "\" to " + schedulerAddr);
+            }
 
-            //Prepare a buffer to receive scheduler's response.
-            byte[] inData = new byte[100];
-            DatagramPacket receivePacket = new DatagramPacket(inData, inData.length);
+            //Prepare the buffer to receive scheduler's response.
+            inData.clear();
 
             //created extra packet for debugging by scheduler team, commenting it as not needed now.
             /*
@@ -396,36 +509,152 @@ public class DroneSubsystem {
              */
 
             //Block until a packet is received from scheduler.
-            socket.receive(receivePacket);
-
-
+            transport.receive(inData);
 
             //Convert response to string and return it
-            String response = new String(receivePacket.getData(), 0, receivePacket.getLength());
-            System.out.println("Drone: Received response \"" + response + "\" from " + schedulerAddr);
+            String response = new String(inData.array(), 0, inData.position());
+            if (LOG.isEnabled(Log.Level.DEBUG, droneID)) {
+                LOG.debug("Drone: Received response \"" + response + "\" from " + schedulerAddr);
+            }
             return response;
 
         } catch(IOException e) {
-            e.printStackTrace();
+            if (running) {
+                e.printStackTrace();
+            }
             return "ERROR: Drone I/O Exception";
         }
 
     }
 
+    /**
+     * Sends a binary request frame to the scheduler and waits for its binary response. Other
+     * binary requests may be in flight at the same time.
+     *
+     * @param type  The message type.
+     * @param water The water amount field.
+     * @param x     The x-coordinate field.
+     * @param y     The y-coordinate field.
+     * @return The response; null if an I/O error occurred.
+     */
+    private DroneClient.Response sendFrame(byte type, int water, int x, int y) {
+        try {
+            return client.request(type, droneID, water, x, y).join();
+        } catch (CompletionException e) {
+            if (running) {
+                e.getCause().printStackTrace();
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Returns the text equivalent of a binary response.
+     *
+     * @param response The response, or null if the request failed.
+     * @return The text response; null if there is none.
+     */
+    private static String responseText(DroneClient.Response response) {
+        return response == null ? null : response.text();
+    }
+
+    /**
+     * Starts sending heartbeats, one now and then one every heartbeat interval until the drone
+     * shuts down. Heartbeats are sent from an endpoint apart from the requests, the fleet's shared
+     * one if it was given one, as plain datagrams that are neither answered nor retransmitted, so
+     * they never hold up or wait behind a request.
+     */
+    private void startHeartbeats() {
+        if (heartbeatIntervalMillis <= 0) {
+            return;
+        }
+        if (heartbeatTransport == null) {
+            try {
+                heartbeatTransport = Transport.bind(0);
+            } catch (IOException e) {
+                LOG.warn("Drone: cannot send heartbeats: " + e.getMessage());
+                return;
+            }
+        }
+        MessageCodec.encode(heartbeatFrame, MessageCodec.HEARTBEAT, droneID, 0, 0, 0);
+        sendHeartbeat();
+    }
+
+    /**
+     * Sends one heartbeat and schedules the next, unless the drone has shut down.
+     */
+    private void sendHeartbeat() {
+        if (!running || heartbeatTransport.isClosed()) {
+            return;
+        }
+        heartbeatFrame.clear();
+        try {
+            heartbeatTransport.send(heartbeatFrame, schedulerAddr);
+        } catch (IOException e) {
+            // A lost heartbeat only raises the scheduler's suspicion; the next one follows.
+        }
+        clock.schedule(this::sendHeartbeat, heartbeatIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
     /**
      * Shuts down the drone subsystem.
-     * Terminates the application.
+     * The drone stops taking tasks once its current one unwinds; other drones hosted in the same JVM keep running.
      */
     public void shutdown(){
-        System.out.println("Drone: Shutting down");
-        System.exit(0);
+        LOG.info("Drone: Shutting down");
+        running = false;
+    }
+
+    /**
+     * Shuts the drone down and closes its transport, releasing a request blocked on the scheduler.
+     */
+    public void close() {
+        running = false;
+        if (client != null) {
+            client.close();
+        }
+        transport.close();
+    }
+
+    /**
+     * Returns whether the drone is still taking tasks.
+     *
+     * @return true until the drone is shut down
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Returns the number of missions the drone has returned from.
+     *
+     * @return the number of completed missions
+     */
+    public int getMissionsCompleted() {
+        return missionsCompleted;
+    }
+
+    /**
+     * Registers the drone with the scheduler and takes tasks until the drone is shut down.
+     */
+    @Override
+    public void run() {
+        initializeDrone();
+        startHeartbeats();
+        while (running) {
+            waitForTask();
+        }
+        transport.close();
+        if (heartbeatTransport != null && !sharedHeartbeatTransport) {
+            heartbeatTransport.close();
+        }
     }
 
     /**
      * Main method to start the DroneSubsystem.
      * Connects to the scheduler and continuously waits for new tasks.
      *
-     * @param args Command line arguments (not used).
+     * @param args Command line arguments; pass {@code --binary} to use the binary protocol.
      */
     public static void main(String[] args) {
 
@@ -433,11 +662,9 @@ public class DroneSubsystem {
         String address = "localhost";
 
         DroneSubsystem drone = new DroneSubsystem(address, schedulerPort);
+        drone.setBinaryProtocol(args.length > 0 && args[0].equals("--binary"));
 
-        drone.initializeDrone();
-        while(true) {
-            drone.waitForTask();
-        }
+        drone.run();
     }
 }
 
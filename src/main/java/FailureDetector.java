@@ -0,0 +1,223 @@
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntConsumer;
+
+/**
+ * The {@code FailureDetector} class decides from their heartbeats which drones are still alive,
+ * with phi accrual failure detection.
+ *
+ * For each drone it keeps a window of the latest intervals between heartbeats. The longer the
+ * silence since the last heartbeat, compared with the intervals seen so far, the higher the
+ * suspicion level phi: a phi of 1 means a 10% chance the drone is still alive and merely late, a
+ * phi of 3 a 0.1% chance, and so on. A drone is declared dead once phi reaches the threshold, or
+ * at the latest once it has been silent for the detection bound, so a dead drone is detected
+ * within the bound however long its mission and however irregular its heartbeats were.
+ *
+ * Only drones that have sent a heartbeat and have not been declared dead are monitored, so
+ * checking them costs time in proportion to the drones alive.
+ */
+public class FailureDetector {
+
+    /** Number of heartbeat intervals each drone's estimate is based on. */
+    static final int WINDOW = 32;
+    /** Suspicion level at which a drone is declared dead unless configured otherwise. */
+    public static final double DEFAULT_THRESHOLD = 8;
+    /** Interval between a drone's heartbeats unless configured otherwise, in simulated milliseconds. */
+    public static final long DEFAULT_INTERVAL_MILLIS = 1000;
+    /** Longest silence before a drone is declared dead unless configured otherwise, in simulated milliseconds. */
+    public static final long DEFAULT_DETECTION_BOUND_MILLIS = 10_000;
+
+    /**
+     * The heartbeat history of one drone; guarded by itself.
+     */
+    private static final class History {
+        /** Latest intervals between heartbeats, in milliseconds, as a ring. */
+        private final long[] intervals = new long[WINDOW];
+        /** Number of intervals in the ring. */
+        private int count = 0;
+        /** Index the next interval is written to. */
+        private int next = 0;
+        /** Sum of the intervals in the ring. */
+        private long sum = 0;
+        /** Sum of the squares of the intervals in the ring. */
+        private double sumOfSquares = 0;
+        /** Time of the latest heartbeat, in milliseconds. */
+        private long lastMillis;
+
+        private History(long nowMillis) {
+            this.lastMillis = nowMillis;
+        }
+
+        private void record(long nowMillis) {
+            long interval = Math.max(0, nowMillis - lastMillis);
+            lastMillis = nowMillis;
+            if (count == WINDOW) {
+                sum -= intervals[next];
+                sumOfSquares -= (double) intervals[next] * intervals[next];
+            } else {
+                count++;
+            }
+            intervals[next] = interval;
+            next = (next + 1) % WINDOW;
+            sum += interval;
+            sumOfSquares += (double) interval * interval;
+        }
+    }
+
+    /** Suspicion level at which a drone is declared dead. */
+    private final double threshold;
+    /** Interval between heartbeats assumed until a drone has sent two. */
+    private final long expectedIntervalMillis;
+    /** Longest silence after which a drone is declared dead, whatever its phi. */
+    private final long detectionBoundMillis;
+    /** Heartbeat history of every monitored drone, by drone ID. */
+    private final Map<Integer, History> monitored = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a failure detector with the default threshold, heartbeat interval and detection bound.
+     */
+    public FailureDetector() {
+        this(DEFAULT_THRESHOLD, DEFAULT_INTERVAL_MILLIS, DEFAULT_DETECTION_BOUND_MILLIS);
+    }
+
+    /**
+     * Constructs a failure detector.
+     *
+     * @param threshold              the suspicion level phi at which a drone is declared dead
+     * @param expectedIntervalMillis the interval between heartbeats assumed until a drone has sent
+     *                               two, in milliseconds
+     * @param detectionBoundMillis   the longest silence after which a drone is declared dead, in
+     *                               milliseconds
+     */
+    public FailureDetector(double threshold, long expectedIntervalMillis, long detectionBoundMillis) {
+        if (threshold <= 0 || expectedIntervalMillis <= 0 || detectionBoundMillis <= 0) {
+            throw new IllegalArgumentException("Threshold, interval and bound must be positive");
+        }
+        this.threshold = threshold;
+        this.expectedIntervalMillis = expectedIntervalMillis;
+        this.detectionBoundMillis = detectionBoundMillis;
+    }
+
+    /**
+     * Records a heartbeat from a drone, monitoring it from now on if it was not already.
+     *
+     * @param droneID   the ID of the drone
+     * @param nowMillis the time the heartbeat arrived, in milliseconds
+     * @return true if the drone was not monitored before this heartbeat
+     */
+    public boolean heartbeat(int droneID, long nowMillis) {
+        History history = monitored.get(droneID);
+        if (history == null) {
+            History first = new History(nowMillis);
+            history = monitored.putIfAbsent(droneID, first);
+            if (history == null) {
+                return true;
+            }
+        }
+        synchronized (history) {
+            history.record(nowMillis);
+        }
+        return false;
+    }
+
+    /**
+     * Returns the current suspicion level of a drone: minus the base 10 logarithm of the
+     * probability that a heartbeat is still to come after this long a silence, taking the
+     * intervals as normally distributed.
+     *
+     * @param droneID   the ID of the drone
+     * @param nowMillis the current time, in milliseconds
+     * @return the suspicion level, 0 for a drone that is not monitored
+     */
+    public double phi(int droneID, long nowMillis) {
+        History history = monitored.get(droneID);
+        if (history == null) {
+            return 0;
+        }
+        synchronized (history) {
+            return phi(history, nowMillis);
+        }
+    }
+
+    /**
+     * Declares dead every monitored drone whose suspicion level reached the threshold or that has
+     * been silent for the detection bound, and stops monitoring it.
+     *
+     * @param nowMillis the current time, in milliseconds
+     * @param dead      receives the ID of each drone declared dead
+     * @return the number of drones declared dead
+     */
+    public int sweep(long nowMillis, IntConsumer dead) {
+        int declared = 0;
+        for (Iterator<Map.Entry<Integer, History>> it = monitored.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Integer, History> entry = it.next();
+            History history = entry.getValue();
+            boolean suspected;
+            synchronized (history) {
+                suspected = nowMillis - history.lastMillis >= detectionBoundMillis || phi(history, nowMillis) >= threshold;
+            }
+            // Removed only if the drone was not forgotten and monitored afresh meanwhile.
+            if (suspected && monitored.remove(entry.getKey(), history)) {
+                declared++;
+                dead.accept(entry.getKey());
+            }
+        }
+        return declared;
+    }
+
+    /**
+     * Stops monitoring a drone, e.g. one that left the fleet.
+     *
+     * @param droneID the ID of the drone
+     */
+    public void forget(int droneID) {
+        monitored.remove(droneID);
+    }
+
+    /**
+     * Returns whether a drone is monitored: it sent a heartbeat and has not been declared dead since.
+     *
+     * @param droneID the ID of the drone
+     * @return true if the drone is monitored
+     */
+    public boolean isMonitored(int droneID) {
+        return monitored.containsKey(droneID);
+    }
+
+    /**
+     * Returns the number of drones monitored.
+     *
+     * @return the number of drones believed alive
+     */
+    public int getMonitored() {
+        return monitored.size();
+    }
+
+    /**
+     * Returns the interval between heartbeats assumed until a drone has sent two.
+     *
+     * @return the expected interval, in milliseconds
+     */
+    public long getExpectedIntervalMillis() {
+        return expectedIntervalMillis;
+    }
+
+    /**
+     * Computes the suspicion level of a drone from its history; the caller holds its lock.
+     * The standard deviation is kept to at least half the mean, so a drone with very regular
+     * heartbeats is not declared dead for one delayed by a busy scheduler or network.
+     */
+    private double phi(History history, long nowMillis) {
+        double mean = history.count == 0 ? expectedIntervalMillis : (double) history.sum / history.count;
+        double variance = history.count == 0 ? 0 : history.sumOfSquares / history.count - mean * mean;
+        double stdDev = Math.max(Math.sqrt(Math.max(0, variance)), mean / 2);
+        if (stdDev <= 0) {
+            stdDev = 1;
+        }
+        double y = (nowMillis - history.lastMillis - mean) / stdDev;
+        // Logistic approximation of the normal distribution's tail.
+        double e = Math.exp(-y * (1.5976 + 0.070566 * y * y));
+        return y > 0 ? -Math.log10(e / (1 + e)) : -Math.log10(1 - 1 / (1 + e));
+    }
+}
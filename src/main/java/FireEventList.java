@@ -1,23 +1,48 @@
-import java.util.LinkedList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.Queue;
 
 /**
- * FireEventList maintains a queue of fire incident events and provides
+ * FireEventList maintains a priority queue of fire incident events and provides
  * synchronized methods to add, remove, and check events. It is used to
  * coordinate the assignment of drones to fire incidents.
+ *
+ * Events are ordered by severity (High first), then by age (earliest event time first),
+ * then by the water needed when they were queued (most first). A hash index on zone ID
+ * lets a duplicate report for a zone that is already queued be merged in constant time.
  */
 public class FireEventList {
+    /** Log for queued fire events. */
+    private static final Log LOG = Log.category("dispatch");
+
     /**
-     * A reference to a fire incident event.
-     * (Note: This field is not currently used in the logic.)
+     * Orders events by severity, then age, then water needed, then insertion order.
+     * Only keys that do not change while an event is queued are used, so merging water
+     * into a queued event never breaks the heap ordering.
      */
-    private FireIncidentEvent fireEvent;
-    
+    private static final Comparator<FireIncidentEvent> PRIORITY =
+            Comparator.comparingInt((FireIncidentEvent e) -> -severityRank(e.getSeverity()))
+                    .thenComparing(FireIncidentEvent::getEventTime)
+                    .thenComparingInt(e -> -e.queuedWaterNeeded)
+                    .thenComparingLong(e -> e.queueSequence);
+
     /**
-     * Queue to hold fire incident events.
+     * Priority queue holding the fire incident events.
      */
     private Queue<FireIncidentEvent> list;
-    
+
+    /**
+     * Queued events keyed by zone ID, used to detect and merge duplicate reports.
+     */
+    private Map<Integer, FireIncidentEvent> zoneIndex;
+
+    /**
+     * Sequence number handed to the next queued event.
+     */
+    private long nextSequence = 0;
+
     /**
      * Event status flag.
      */
@@ -32,31 +57,66 @@ public class FireEventList {
      * Constructs a new FireEventList with an empty event queue.
      */
     public FireEventList() {
-        list = new LinkedList<>();
+        list = new PriorityQueue<>(PRIORITY);
+        zoneIndex = new HashMap<>();
+    }
+
+    /**
+     * Returns the priority rank of a severity level; higher ranks are served first.
+     *
+     * @param severity the severity string (e.g., "High", "Moderate", "Low")
+     * @return 3 for High, 2 for Moderate, 1 for Low, and 0 for anything else
+     */
+    static int severityRank(String severity) {
+        if (severity == null) {
+            return 0;
+        }
+        if (severity.equalsIgnoreCase("High")) {
+            return 3;
+        }
+        if (severity.equalsIgnoreCase("Moderate")) {
+            return 2;
+        }
+        if (severity.equalsIgnoreCase("Low")) {
+            return 1;
+        }
+        return 0;
     }
 
     /**
-     * Adds a fire incident event to the list if no event with the same zone ID is already present.
+     * Adds a fire incident event to the list. If an event for the same zone ID is already
+     * queued, the new report's water needed is merged into it instead of queueing a second event.
+     * Re-adding an event that is already queued has no effect.
      * Notifies all waiting threads after adding the event.
      *
      * @param event the fire incident event to add
      */
     public synchronized void addEvent(FireIncidentEvent event) {
-        // Note: The following assignment seems unintended. Consider if it should be:
-        // this.fireEvent = event;
-        this.fireEvent = fireEvent;
-
-        // Check if an event with the same zone ID already exists.
-        for (FireIncidentEvent fireEvent : list) {
-            if (fireEvent.getZoneId() == event.getZoneId()) {
-                notifyAll();
-                return;
+        FireIncidentEvent queued = zoneIndex.get(event.getZoneId());
+        if (queued != null) {
+            if (queued != event) {
+                queued.setWaterNeeded(queued.getWaterNeeded() + event.getWaterNeeded());
             }
+            notifyAll();
+            return;
         }
+        event.queuedWaterNeeded = event.getWaterNeeded();
+        event.queueSequence = nextSequence++;
         list.add(event);
+        zoneIndex.put(event.getZoneId(), event);
         notifyAll();
     }
 
+    /**
+     * Checks whether an event is queued, waiting for more drones.
+     *
+     * @param event the fire incident event
+     * @return true if the event itself is in the list
+     */
+    public synchronized boolean isQueued(FireIncidentEvent event) {
+        return zoneIndex.get(event.getZoneId()) == event;
+    }
+
     /**
      * Checks whether there are any fire incident events in the list.
      *
@@ -71,12 +131,15 @@ public class FireEventList {
     }
 
     /**
-     * Removes and returns the next fire incident event from the list.
+     * Removes and returns the highest-priority fire incident event from the list.
      *
      * @return the next fire incident event, or null if the list is empty
      */
     public synchronized FireIncidentEvent removeEvent() {
         FireIncidentEvent fireEvent = list.poll();
+        if (fireEvent != null) {
+            zoneIndex.remove(fireEvent.getZoneId(), fireEvent);
+        }
         return fireEvent;
     }
 
@@ -108,7 +171,8 @@ public class FireEventList {
     }
 
     /**
-     * Returns the underlying queue of fire incident events.
+     * Returns the underlying queue of fire incident events. The head of the queue is the
+     * highest-priority event; the queue must not be modified directly.
      *
      * @return the event queue
      */
@@ -143,6 +207,6 @@ public class FireEventList {
      */
     public synchronized void notifyScheduler() {
         notifyAll();
-        System.out.println("notified scheduler to wait");
+        LOG.debug("notified scheduler to wait");
     }
 }
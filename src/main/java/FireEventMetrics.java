@@ -0,0 +1,53 @@
+/**
+ * The {@code FireEventMetrics} class stores timestamps for fire lifecycle events:
+ * when it was reported, when a drone was dispatched, and when it was extinguished.
+ */
+class FireEventMetrics {
+    public int fireID;
+    public int zoneID;
+    public long fireReportedTime = -1;
+    public long droneDispatchTime = -1;
+    public long fireExtinguishedTime = -1;
+    /** Monotonic time the fire was reported at, in nanoseconds of simulated time. */
+    long fireReportedNanos;
+    /** Monotonic time the fire was last put on the event list, in nanoseconds of simulated time. */
+    long queuedNanos;
+
+    /**
+     * Constructs a {@code FireEventMetrics} instance for a fire event.
+     *
+     * @param fireID The ID of the fire.
+     * @param zoneID The zone in which the fire occurred.
+     */
+    public FireEventMetrics(int fireID, int zoneID) {
+        this.fireID = fireID;
+        this.zoneID = zoneID;
+    }
+
+    /**
+     * Checks if all timestamps have been recorded for the fire event.
+     *
+     * @return {@code true} if all events (reported, dispatched, extinguished) have been logged.
+     */
+    public boolean isComplete() {
+        return fireReportedTime > 0 && droneDispatchTime > 0 && fireExtinguishedTime > 0;
+    }
+
+    /**
+     * Calculates the response time between fire reported and drone dispatched.
+     *
+     * @return The response time in milliseconds.
+     */
+    public long getResponseTime() {
+        return droneDispatchTime - fireReportedTime;
+    }
+
+    /**
+     * Calculates the extinguish time between fire reported and extinguished.
+     *
+     * @return The extinguish time in milliseconds.
+     */
+    public long getExtinguishTime() {
+        return fireExtinguishedTime - fireReportedTime;
+    }
+}
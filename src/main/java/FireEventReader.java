@@ -0,0 +1,194 @@
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * The {@code FireEventReader} class streams fire incident events out of an event file one row at a
+ * time, so a file of any size is read in constant memory.
+ *
+ * Rows are parsed lazily as the caller iterates, by scanning the line for separators instead of
+ * splitting it, and the values of the text columns are shared constants whenever they are one of
+ * the values the system knows. Malformed rows are reported and skipped, with the same messages
+ * the eager {@link FireIncidentSubSystem#loadFireIncidents(String)} always printed.
+ */
+public class FireEventReader implements Iterator<FireIncidentEvent>, Closeable {
+
+    /** Number of columns every row must have: time, zone, event type, severity, fault and fault type. */
+    private static final int COLUMNS = 6;
+    /** Column values shared between rows instead of being copied out of each line. */
+    private static final String[] KNOWN_VALUES = {"FIRE_DETECTED", "DRONE_REQUEST", "High", "Moderate", "Low",
+            "NO_FAULT", "CORRUPTED_MESSAGE", "NOZZLE_JAM", "DRONE_STUCK", "DOOR_STUCK", "N/A", "TRANSIENT_FAULT", "HARD_FAULT"};
+
+    private final BufferedReader reader;
+    private final Map<Integer, Zone> zones;
+    /** Start of each column in the current line, after trimming. */
+    private final int[] starts = new int[COLUMNS];
+    /** End of each column in the current line, after trimming. */
+    private final int[] ends = new int[COLUMNS];
+    /** The next event, parsed ahead by {@link #hasNext()}, or null. */
+    private FireIncidentEvent next;
+    private boolean finished = false;
+
+    /**
+     * Opens an event file for streaming. The header line is skipped.
+     *
+     * @param filePath the path to the fire incident data file
+     * @param zones    the zones events are placed in, keyed by zone ID
+     * @throws IOException if the file cannot be opened
+     */
+    public FireEventReader(String filePath, Map<Integer, Zone> zones) throws IOException {
+        this.reader = new BufferedReader(new FileReader(filePath));
+        this.zones = zones;
+        reader.readLine(); // Skip header line
+    }
+
+    /**
+     * Returns whether another event is left in the file, parsing ahead to it.
+     *
+     * @return true if {@link #next()} will return an event
+     * @throws UncheckedIOException if the file cannot be read
+     */
+    @Override
+    public boolean hasNext() {
+        try {
+            while (next == null && !finished) {
+                String line = reader.readLine();
+                if (line == null) {
+                    finished = true;
+                    close();
+                } else {
+                    next = parse(line);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return next != null;
+    }
+
+    /**
+     * Returns the next event in the file.
+     *
+     * @return the next fire incident event
+     * @throws NoSuchElementException if the file has no more events
+     */
+    @Override
+    public FireIncidentEvent next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        FireIncidentEvent event = next;
+        next = null;
+        return event;
+    }
+
+    /**
+     * Closes the file. Events already returned stay valid.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        finished = true;
+        reader.close();
+    }
+
+    /**
+     * Returns the water a fire of the given severity needs.
+     *
+     * @param severity the severity ("High", "Moderate" or "Low")
+     * @return the water needed in litres, or 0 for an unknown severity
+     */
+    static int waterNeeded(String severity) {
+        return switch (severity) {
+            case "High" -> 30;
+            case "Moderate" -> 20;
+            case "Low" -> 10;
+            default -> 0;
+        };
+    }
+
+    /**
+     * Parses one row into an event.
+     *
+     * @param line the row
+     * @return the event, or null if the row is blank, malformed or names an unknown zone
+     */
+    private FireIncidentEvent parse(String line) {
+        if (!split(line)) {
+            if (!line.isBlank()) {
+                System.out.println("[Error] Malformed fire incident line: " + line.trim());
+            }
+            return null;
+        }
+        try {
+            int zoneId = Integer.parseInt(line, starts[1], ends[1], 10);
+            Zone zone = zones.get(zoneId);
+            if (zone == null) {
+                System.out.println("[Warning] Zone ID " + zoneId + " not found in system: " + line.trim());
+                return null;
+            }
+            String severity = column(line, 3);
+            int waterNeeded = waterNeeded(severity);
+            if (waterNeeded == 0) {
+                System.out.println("[Error] Unknown severity: " + severity);
+            }
+            return new FireIncidentEvent(line.substring(starts[0], ends[0]), zoneId, column(line, 2), severity, zone, waterNeeded, column(line, 4), column(line, 5));
+        } catch (NumberFormatException e) {
+            System.out.println("[Error] Invalid number format for Zone ID in line: " + line.trim());
+        } catch (Exception e) {
+            System.out.println("[Error] Failed to parse fire incident line: " + line.trim());
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    /**
+     * Finds the trimmed bounds of the first {@link #COLUMNS} comma-separated columns of a line.
+     *
+     * @return false if the line has fewer columns
+     */
+    private boolean split(String line) {
+        int start = 0;
+        for (int column = 0; column < COLUMNS; column++) {
+            int end = line.indexOf(',', start);
+            boolean last = end < 0;
+            if (last) {
+                end = line.length();
+            }
+            int s = start;
+            int e = end;
+            while (s < e && line.charAt(s) <= ' ') {
+                s++;
+            }
+            while (e > s && line.charAt(e - 1) <= ' ') {
+                e--;
+            }
+            starts[column] = s;
+            ends[column] = e;
+            if (last && column < COLUMNS - 1) {
+                return false;
+            }
+            start = end + 1;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the value of a column, shared with other rows if it is a known value.
+     */
+    private String column(String line, int column) {
+        int length = ends[column] - starts[column];
+        for (String known : KNOWN_VALUES) {
+            if (known.length() == length && line.regionMatches(starts[column], known, 0, length)) {
+                return known;
+            }
+        }
+        return line.substring(starts[column], ends[column]);
+    }
+}
@@ -1,22 +1,33 @@
 import java.io.*;
 import java.net.*;
+import java.nio.ByteBuffer;
 import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.time.temporal.*;
 
 /**
  * The {@code FireIncidentSubSystem} class is responsible for managing fire incidents
  * by loading fire event data, processing them sequentially, and forwarding incidents
- * to the scheduler via UDP.
+ * to the scheduler over a {@link Transport}.
  */
 public class FireIncidentSubSystem {
     private Map<Integer, Zone> zones;
-    private static final int TIME_SCALE = 10; // Scale time (for sleep calls) by this number
+    private SimulationClock clock = SystemClock.getDefault(); // Source of time between fire events
 
-    // UDP Declarations
-    private DatagramSocket socket;
-    private InetAddress schedulerAddr;
+    // Transport Declarations
+    private Transport transport;
+    private InetSocketAddress schedulerAddr;
     private static final String SCHEDULER_IP = "127.0.0.1";
     private static final int SCHEDULER_PORT = 6000;
+    private static final int MAX_RETRANSMISSIONS = 4; // Retransmissions of an unanswered event before it is given up on
+    private boolean awaitResponses; // Wait for the scheduler to confirm each event; only over the reliability layer
+    private final ByteBuffer inData = ByteBuffer.allocate(100); // Reused for every response
+    private boolean binaryProtocol = false; // Send binary MessageCodec frames instead of text events
+    private final ByteBuffer outFrame = ByteBuffer.allocate(MessageCodec.FRAME_SIZE); // Reused for every binary event
+
+    private static final int STREAM_QUEUE_CAPACITY = 1024; // Events parsed ahead of the sender when streaming
+    private static final FireIncidentEvent END_OF_STREAM = new FireIncidentEvent("00:00:00", 0, "", "", null, 0, "", ""); // Marks the end of a streamed file
 
     List<FireIncidentEvent> fireIncidents;
 
@@ -27,17 +38,57 @@ public class FireIncidentSubSystem {
      * @param filepath_d The path to the fire incident data file.
      */
     public FireIncidentSubSystem(String filepath_z, String filepath_d) {
-        this.zones = loadZonesFromFile(filepath_z);
+        this(filepath_z);
         fireIncidents = loadFireIncidents(filepath_d);
+    }
+
+    /**
+     * Constructs a {@code FireIncidentSubSystem} instance that streams its fire incidents with
+     * {@link #streamFireIncidents(String)} instead of loading them up front.
+     *
+     * @param filepath_z The path to the zone data file.
+     */
+    public FireIncidentSubSystem(String filepath_z) {
+        this.zones = loadZonesFromFile(filepath_z);
+        fireIncidents = new ArrayList<>();
 
         try {
-            socket = new DatagramSocket();
-            schedulerAddr = InetAddress.getByName(SCHEDULER_IP);
+            awaitResponses = ReliableTransport.isEnabled();
+            transport = ReliableTransport.client(Transport.bind(0), MAX_RETRANSMISSIONS);
+            schedulerAddr = new InetSocketAddress(InetAddress.getByName(SCHEDULER_IP), SCHEDULER_PORT);
             System.out.println("Connection Established with Scheduler: " + SCHEDULER_IP + ":" + SCHEDULER_PORT);
-        } catch (SocketException | UnknownHostException e) {
+        } catch (IOException e) {
             throw new RuntimeException(e);
         }
     }
+
+    /**
+     * Sets the clock used to wait between fire events.
+     *
+     * @param clock the simulation clock
+     */
+    public void setClock(SimulationClock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the number of zones loaded from the zone data file.
+     *
+     * @return the number of zones
+     */
+    public int getZoneCount() {
+        return zones.size();
+    }
+
+    /**
+     * Sets whether fire events are sent to the scheduler as binary frames instead of text messages.
+     *
+     * @param binaryProtocol true to send binary frames
+     */
+    public void setBinaryProtocol(boolean binaryProtocol) {
+        this.binaryProtocol = binaryProtocol;
+    }
+
     /**
      * Loads zones from a file and returns a map of zone objects.
      *
@@ -99,61 +150,15 @@ public class FireIncidentSubSystem {
     public List<FireIncidentEvent> loadFireIncidents(String filePath) {
         List<FireIncidentEvent> incidents = new ArrayList<>();
 
-        try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
-            String line;
-            br.readLine(); // Skip header line
-
-
-            while ((line = br.readLine()) != null) {
-                line = line.trim(); // Remove leading/trailing spaces
-                if (line.isEmpty()) continue; // Skip empty lines
-
-                String[] splitLine = line.split(",");
-                if (splitLine.length < 6) {
-                    System.out.println("[Error] Malformed fire incident line: " + line);
-                    continue;
-                }
-
-                try {
-                    String time = splitLine[0].trim();
-                    int zoneId = Integer.parseInt(splitLine[1].trim()); // Parse Zone ID
-                    String eventType = splitLine[2].trim();
-                    String severity = splitLine[3].trim();
-                    String fault = splitLine[4].trim();
-                    String faultType = splitLine[5].trim();
-
-                    Zone zone = zones.get(zoneId);
-                    if (zone != null) {
-                        int waterNeeded = 0;
-                        switch (severity) {
-                            case "High" -> waterNeeded = 30;
-                            case "Moderate" -> waterNeeded = 20;
-                            case "Low" -> waterNeeded = 10;
-                            default -> System.out.println("[Error] Unknown severity: " + severity);
-                        }
-                        FireIncidentEvent event = new FireIncidentEvent(time, zoneId, eventType, severity, zone, waterNeeded, fault, faultType);
-
-                        incidents.add(event);
-                    } else {
-                        System.out.println("[Warning] Zone ID " + zoneId + " not found in system: " + line);
-                    }
-                } catch (NumberFormatException e) {
-                    System.out.println("[Error] Invalid number format for Zone ID in line: " + line);
-                } catch (Exception e) {
-                    System.out.println("[Error] Failed to parse fire incident line: " + line);
-                    e.printStackTrace();
-                }
-            }
-        } catch (IOException e) {
+        try (FireEventReader reader = new FireEventReader(filePath, zones)) {
+            reader.forEachRemaining(incidents::add);
+        } catch (IOException | UncheckedIOException e) {
             System.out.println("[Error] Unable to read fire incident file: " + filePath);
             e.printStackTrace();
         }
-
-        // System.out.println("DEBUG: 1st fire incident: " + incidents.getFirst().getTime() + " " + incidents.getFirst().getZoneId() + " " + incidents.getFirst().getEventType() + " " + incidents.getFirst().getSeverity() + " " + incidents.getFirst().getZone() + " " + incidents.getFirst().getWaterNeeded());
-        //System.out.println("DEBUG: 1st fire incident: " + incidents.get(1).getTime() + " " + incidents.get(1).getZoneId() + " " + incidents.get(1).getEventType() + " " + incidents.get(1).getSeverity() + " " + incidents.get(1).getZone() + " " + incidents.get(1).getWaterNeeded());
-
         return incidents;
     }
+
     /**
      * Processes fire incidents sequentially and sends them to the scheduler.
      */
@@ -166,20 +171,102 @@ public class FireIncidentSubSystem {
         FireIncidentEvent previousEvent = null;
 
         for (FireIncidentEvent event : fireIncidents) {
-            if (previousEvent != null) {
-                long timeDifference = ChronoUnit.SECONDS.between(previousEvent.getEventTime(), event.getEventTime());
-                if (timeDifference > 0) {
-                    try {
-                        Thread.sleep((timeDifference * 1000) / TIME_SCALE);
-                    } catch (InterruptedException e) {
-                        System.out.println("[Error] Interrupted while waiting for next event.");
-                        e.printStackTrace();
-                    }
+            sendAfter(previousEvent, event);
+            previousEvent = event;
+        }
+    }
+
+    /**
+     * Streams fire incidents from a file and sends them to the scheduler as they come due.
+     * A reader thread parses the file ahead of the sender into a bounded queue, so memory use
+     * stays constant however large the file is and the first event is sent without waiting for
+     * the rest of the file to load.
+     *
+     * @param filePath The path to the fire incident data file.
+     * @throws IOException if the file cannot be opened
+     * @throws InterruptedException if interrupted while waiting for the reader
+     */
+    public void streamFireIncidents(String filePath) throws IOException, InterruptedException {
+        FireEventReader reader = new FireEventReader(filePath, zones);
+        BlockingQueue<FireIncidentEvent> queue = new ArrayBlockingQueue<>(STREAM_QUEUE_CAPACITY);
+        Thread readerThread = new Thread(() -> {
+            try (reader) {
+                while (reader.hasNext()) {
+                    queue.put(reader.next());
                 }
+            } catch (IOException | UncheckedIOException e) {
+                System.out.println("[Error] Unable to read fire incident file: " + filePath);
+                e.printStackTrace();
+            } catch (InterruptedException e) {
+                return;
             }
-            sendRequest(event.toString());
+            try {
+                queue.put(END_OF_STREAM);
+            } catch (InterruptedException e) {
+                // The sender has stopped waiting.
+            }
+        }, "Fire event reader");
+        readerThread.setDaemon(true);
+        readerThread.start();
+
+        try {
+            FireIncidentEvent previousEvent = null;
+            FireIncidentEvent event;
+            while ((event = queue.take()) != END_OF_STREAM) {
+                sendAfter(previousEvent, event);
+                previousEvent = event;
+            }
+            if (previousEvent == null) {
+                System.out.println("[Error] No fire incidents found.");
+            }
+        } finally {
+            readerThread.interrupt();
+        }
+    }
+
+    /**
+     * Sends fire incidents to the scheduler as they come due, taking each from the iterator only
+     * when the previous one has been sent. Used to send generated workloads, such as those of a
+     * {@link FireWorkloadGenerator}, without writing them to a file first.
+     *
+     * @param events the fire incidents, in time order
+     */
+    public void sendFireIncidents(Iterator<FireIncidentEvent> events) {
+        FireIncidentEvent previousEvent = null;
+        while (events.hasNext()) {
+            FireIncidentEvent event = events.next();
+            sendAfter(previousEvent, event);
             previousEvent = event;
         }
+        if (previousEvent == null) {
+            System.out.println("[Error] No fire incidents found.");
+        }
+    }
+
+    /**
+     * Waits until an event is due, as long after the previous event as their timestamps are apart,
+     * then sends it to the scheduler.
+     *
+     * @param previousEvent the event sent before, or null for the first event
+     * @param event         the event to send
+     */
+    private void sendAfter(FireIncidentEvent previousEvent, FireIncidentEvent event) {
+        if (previousEvent != null) {
+            long timeDifference = ChronoUnit.SECONDS.between(previousEvent.getEventTime(), event.getEventTime());
+            if (timeDifference > 0) {
+                try {
+                    clock.sleep(timeDifference * 1000);
+                } catch (InterruptedException e) {
+                    System.out.println("[Error] Interrupted while waiting for next event.");
+                    e.printStackTrace();
+                }
+            }
+        }
+        if (binaryProtocol) {
+            sendRequest(event);
+        } else {
+            sendRequest(event.toString());
+        }
     }
 
     /**
@@ -187,21 +274,54 @@ public class FireIncidentSubSystem {
      */
     private void sendRequest(String request) {
         try {
-            byte[] outData = request.getBytes();
-            DatagramPacket sendPacket = new DatagramPacket(outData, outData.length, schedulerAddr, SCHEDULER_PORT);
-            socket.send(sendPacket);
-            System.out.println("FireSubSystem: Sent \"" + request + "\" to " + schedulerAddr);
+            transport.send(ByteBuffer.wrap(request.getBytes()), schedulerAddr);
+            System.out.println("FireSubSystem: Sent \"" + request + "\" to " + schedulerAddr.getAddress());
+            awaitResponse();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Sends a fire event to the scheduler as a binary frame.
+     */
+    private void sendRequest(FireIncidentEvent event) {
+        try {
+            MessageCodec.encodeFireEvent(outFrame, event);
+            outFrame.clear().limit(MessageCodec.FRAME_SIZE);
+            transport.send(outFrame, schedulerAddr);
+            System.out.println("FireSubSystem: Sent binary \"" + event + "\" to " + schedulerAddr.getAddress());
+            awaitResponse();
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
 
+    /**
+     * Waits for the scheduler to confirm the event just sent, retransmitting it if the event or
+     * the confirmation is lost. The event is given up on if the scheduler never answers.
+     */
+    private void awaitResponse() throws IOException {
+        if (!awaitResponses) {
+            return;
+        }
+        inData.clear();
+        try {
+            transport.receive(inData);
+        } catch (SocketTimeoutException e) {
+            System.out.println("[Error] No response from Scheduler: " + e.getMessage());
+        }
+    }
+
     /**
      * Main method to start the FireIncidentSubSystem.
+     * Fire events are streamed from the event file as they are sent.
+     * Pass {@code --binary} to send fire events as binary frames.
      */
-    public static void main(String[] args) {
-        FireIncidentSubSystem fireSystem = new FireIncidentSubSystem("src/main/resources/Sample_zone_file.csv", "src/main/resources/Sample_event_file.csv");
-        fireSystem.processFireIncidents();
+    public static void main(String[] args) throws IOException, InterruptedException {
+        FireIncidentSubSystem fireSystem = new FireIncidentSubSystem("src/main/resources/sample_zone_file.csv");
+        fireSystem.setBinaryProtocol(args.length > 0 && args[0].equals("--binary"));
+        fireSystem.streamFireIncidents("src/main/resources/Sample_event_file.csv");
     }
 }
 
@@ -0,0 +1,162 @@
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The {@code FireMetricsStore} class holds the {@link FireEventMetrics} of fires that are still
+ * being fought, in bounded memory.
+ *
+ * Entries are kept in the order their fires were reported. A completed entry is removed as soon
+ * as its row has been written, so the store only ever holds fires in progress. Fires that never
+ * complete, such as a report merged into another fire already queued for the same zone, are
+ * removed once they are older than the timeout, and the oldest incomplete entry is evicted
+ * whenever the store is full. Both are counted so a summary can show how many fires went
+ * unmeasured.
+ */
+public class FireMetricsStore {
+
+    /** Default number of incomplete fires tracked at once. */
+    public static final int DEFAULT_CAPACITY = 10_000;
+    /** Default age, in ms of simulated time, after which an incomplete fire is dropped. */
+    public static final long DEFAULT_TIMEOUT_MILLIS = 60 * 60 * 1000;
+
+    private final int capacity;
+    private final long timeoutMillis;
+    /** Tracked fires by fire ID, oldest report first. */
+    private final LinkedHashMap<Integer, FireEventMetrics> entries = new LinkedHashMap<>();
+    /** Number of extinguished fires removed from the store. */
+    private long flushed = 0;
+    /** Number of incomplete fires evicted because the store was full. */
+    private long evicted = 0;
+    /** Number of incomplete fires dropped because they exceeded the timeout. */
+    private long timedOut = 0;
+
+    /**
+     * Constructs an empty store.
+     *
+     * @param capacity      the largest number of fires tracked at once
+     * @param timeoutMillis the age, in ms of simulated time, after which an incomplete fire is dropped
+     */
+    public FireMetricsStore(int capacity, long timeoutMillis) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Constructs an empty store with the default capacity and timeout.
+     */
+    public FireMetricsStore() {
+        this(DEFAULT_CAPACITY, DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Starts tracking a newly reported fire. Fires older than the timeout are dropped first, then
+     * the oldest fire is evicted if the store is still full. A fire reported again replaces its
+     * earlier entry.
+     *
+     * @param metrics the fire's metrics, with its report time set
+     */
+    public synchronized void put(FireEventMetrics metrics) {
+        expire(metrics.fireReportedTime);
+        entries.remove(metrics.fireID);
+        if (entries.size() >= capacity) {
+            Iterator<FireEventMetrics> oldest = entries.values().iterator();
+            oldest.next();
+            oldest.remove();
+            evicted++;
+        }
+        entries.put(metrics.fireID, metrics);
+    }
+
+    /**
+     * Returns the metrics of a tracked fire.
+     *
+     * @param fireID the ID of the fire
+     * @return the fire's metrics, or null if it is not tracked
+     */
+    public synchronized FireEventMetrics get(int fireID) {
+        return entries.get(fireID);
+    }
+
+    /**
+     * Stops tracking a fire once it has been extinguished and its row written.
+     *
+     * @param fireID the ID of the fire
+     * @return the fire's metrics, or null if it was not tracked
+     */
+    public synchronized FireEventMetrics remove(int fireID) {
+        FireEventMetrics metrics = entries.remove(fireID);
+        if (metrics != null) {
+            flushed++;
+        }
+        return metrics;
+    }
+
+    /**
+     * Drops every fire reported more than the timeout before the given time. Since entries are in
+     * report order, only the fires that are dropped and the first one kept are looked at.
+     *
+     * @param nowMillis the current time, in ms of simulated time
+     * @return the number of fires dropped
+     */
+    public synchronized int expire(long nowMillis) {
+        int expired = 0;
+        Iterator<Map.Entry<Integer, FireEventMetrics>> oldest = entries.entrySet().iterator();
+        while (oldest.hasNext() && nowMillis - oldest.next().getValue().fireReportedTime > timeoutMillis) {
+            oldest.remove();
+            expired++;
+        }
+        timedOut += expired;
+        return expired;
+    }
+
+    /**
+     * Returns the number of fires tracked.
+     *
+     * @return the number of fires in progress
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the number of completed fires removed after their row was written.
+     *
+     * @return the number of flushed fires
+     */
+    public synchronized long getFlushedCount() {
+        return flushed;
+    }
+
+    /**
+     * Returns the number of incomplete fires evicted because the store was full.
+     *
+     * @return the number of evicted fires
+     */
+    public synchronized long getEvictedCount() {
+        return evicted;
+    }
+
+    /**
+     * Returns the number of incomplete fires dropped because they exceeded the timeout.
+     *
+     * @return the number of timed-out fires
+     */
+    public synchronized long getTimedOutCount() {
+        return timedOut;
+    }
+
+    /**
+     * Summarizes the store's counts, without listing its entries.
+     *
+     * @return the number of fires tracked, flushed, evicted and timed out
+     */
+    @Override
+    public synchronized String toString() {
+        return "fire metrics: " + entries.size() + " tracked, " + flushed + " flushed, " + evicted + " evicted, "
+                + timedOut + " timed out";
+    }
+}
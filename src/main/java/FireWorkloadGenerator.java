@@ -0,0 +1,485 @@
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.time.LocalTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+/**
+ * The {@code FireWorkloadGenerator} class generates seeded synthetic workloads for the fire
+ * incident subsystem: a zone file of any size, and a stream of fire events over those zones.
+ *
+ * Zones are laid out as a square grid of equal tiles, like the sample zone file. Events arrive by
+ * one of three {@link ArrivalProcess processes}, all with the same mean rate: a Poisson process,
+ * bursts of closely spaced events, or a daily cycle peaking in the afternoon. A share of events
+ * falls around a few hotspot zones, the rest anywhere on the grid. Severities follow a
+ * configurable mix, and a configurable share of events carries an injected fault.
+ *
+ * Events are generated as they are iterated, so millions of them take constant memory. They can
+ * be written to an event file with {@link #writeEvents(String, long)}, or handed straight to
+ * {@link FireIncidentSubSystem#sendFireIncidents(Iterator)}. The same seed and settings always give
+ * the same zones and events. Event times have the event file's one-second resolution, and since
+ * an event file's clock covers a single day, a stream ends at midnight even if fewer events than
+ * asked for have been generated by then.
+ */
+public class FireWorkloadGenerator {
+
+    /**
+     * How the times between events are drawn.
+     */
+    public enum ArrivalProcess {
+        /** Independent, exponentially distributed gaps. */
+        POISSON,
+        /** Bursts of closely spaced events, with long quiet gaps between bursts. */
+        BURSTY,
+        /** A Poisson process whose rate follows a daily cycle. */
+        DIURNAL
+    }
+
+    /** Side of each zone tile, in metres, matching the sample zone file. */
+    private static final int ZONE_SIZE = 200;
+    /** Seconds in a day: the period of the diurnal cycle and the longest a stream lasts. */
+    private static final int SECONDS_PER_DAY = 24 * 60 * 60;
+    /** Time of day the diurnal rate peaks at, in seconds. */
+    private static final int DIURNAL_PEAK = 15 * 60 * 60;
+    /** Severities, in the order of the severity mix. */
+    private static final String[] SEVERITIES = {"Low", "Moderate", "High"};
+    /** Faults injected, picked uniformly; each is handled by the drones. */
+    private static final String[] FAULTS = {"CORRUPTED_MESSAGE", "NOZZLE_JAM", "DRONE_STUCK"};
+    /** Share of injected faults that are hard faults rather than transient ones. */
+    private static final double HARD_FAULT_SHARE = 0.2;
+    /** Share of events that are drone requests rather than fire detections. */
+    private static final double DRONE_REQUEST_SHARE = 0.3;
+
+    private final long seed;
+    /** Zones events are placed in, keyed by zone ID. */
+    private final Map<Integer, Zone> zones;
+    /** Number of zone columns in the grid. */
+    private final int columns;
+
+    private ArrivalProcess arrivalProcess = ArrivalProcess.POISSON;
+    /** Mean number of events per second of simulated time. */
+    private double rate = 0.01;
+    /** Mean number of events in a burst. */
+    private double burstSize = 20;
+    /** How many times faster than the mean rate events arrive within a burst. */
+    private double burstFactor = 50;
+    /** Relative swing of the diurnal rate around its mean, from 0 to 1. */
+    private double diurnalAmplitude = 0.8;
+    /** Number of hotspot zones. */
+    private int hotspotCount = 0;
+    /** Share of events placed around a hotspot. */
+    private double hotspotShare = 0;
+    /** Standard deviation of an event's distance from its hotspot, in zones. */
+    private double hotspotSpread = 1;
+    /** Relative weights of low, moderate and high severity. */
+    private double[] severityMix = {1, 1, 1};
+    /** Share of events carrying an injected fault. */
+    private double faultRate = 0;
+    /** Time of day of the first event's clock, in seconds. */
+    private int startSecond = 0;
+
+    /**
+     * Constructs a generator over a square grid of the given number of zones.
+     *
+     * @param zoneCount the number of zones
+     * @param seed      the seed every zone and event is drawn from
+     */
+    public FireWorkloadGenerator(int zoneCount, long seed) {
+        if (zoneCount < 1) {
+            throw new IllegalArgumentException("zoneCount must be positive: " + zoneCount);
+        }
+        this.seed = seed;
+        this.columns = (int) Math.ceil(Math.sqrt(zoneCount));
+        this.zones = new LinkedHashMap<>();
+        for (int i = 0; i < zoneCount; i++) {
+            int x = i % columns * ZONE_SIZE;
+            int y = i / columns * ZONE_SIZE;
+            zones.put(i + 1, new Zone(i + 1, x, y, x + ZONE_SIZE, y + ZONE_SIZE));
+        }
+    }
+
+    /**
+     * Sets how events arrive and their mean rate.
+     *
+     * @param arrivalProcess the arrival process
+     * @param eventsPerSecond the mean number of events per second of simulated time
+     */
+    public void setArrivals(ArrivalProcess arrivalProcess, double eventsPerSecond) {
+        if (eventsPerSecond <= 0) {
+            throw new IllegalArgumentException("rate must be positive: " + eventsPerSecond);
+        }
+        this.arrivalProcess = arrivalProcess;
+        this.rate = eventsPerSecond;
+    }
+
+    /**
+     * Sets the shape of bursts in the {@link ArrivalProcess#BURSTY bursty} process.
+     *
+     * @param meanSize the mean number of events in a burst
+     * @param factor   how many times faster than the mean rate events arrive within a burst
+     */
+    public void setBursts(double meanSize, double factor) {
+        if (meanSize < 1 || factor < 1) {
+            throw new IllegalArgumentException("bursts need a mean size and factor of at least 1");
+        }
+        this.burstSize = meanSize;
+        this.burstFactor = factor;
+    }
+
+    /**
+     * Sets how far the {@link ArrivalProcess#DIURNAL diurnal} rate swings around its mean. The rate
+     * peaks at 15:00 and is lowest at 03:00.
+     *
+     * @param amplitude the swing relative to the mean rate, from 0 (flat) to 1 (no events at 03:00)
+     */
+    public void setDiurnalAmplitude(double amplitude) {
+        if (amplitude < 0 || amplitude > 1) {
+            throw new IllegalArgumentException("amplitude must be between 0 and 1: " + amplitude);
+        }
+        this.diurnalAmplitude = amplitude;
+    }
+
+    /**
+     * Concentrates a share of events around a few hotspot zones, picked from the seed.
+     *
+     * @param count  the number of hotspots
+     * @param share  the share of events placed around a hotspot, from 0 to 1
+     * @param spread the standard deviation of an event's distance from its hotspot, in zones
+     */
+    public void setHotspots(int count, double share, double spread) {
+        if (count < 0 || share < 0 || share > 1 || spread < 0) {
+            throw new IllegalArgumentException("invalid hotspots: " + count + ", " + share + ", " + spread);
+        }
+        this.hotspotCount = count;
+        this.hotspotShare = count == 0 ? 0 : share;
+        this.hotspotSpread = spread;
+    }
+
+    /**
+     * Sets the relative weights of each severity.
+     *
+     * @param low      the weight of low-severity events
+     * @param moderate the weight of moderate-severity events
+     * @param high     the weight of high-severity events
+     */
+    public void setSeverityMix(double low, double moderate, double high) {
+        if (low < 0 || moderate < 0 || high < 0 || low + moderate + high <= 0) {
+            throw new IllegalArgumentException("invalid severity mix: " + low + ":" + moderate + ":" + high);
+        }
+        this.severityMix = new double[]{low, moderate, high};
+    }
+
+    /**
+     * Sets the share of events carrying an injected fault.
+     *
+     * @param faultRate the share of faulty events, from 0 to 1
+     */
+    public void setFaultRate(double faultRate) {
+        if (faultRate < 0 || faultRate > 1) {
+            throw new IllegalArgumentException("fault rate must be between 0 and 1: " + faultRate);
+        }
+        this.faultRate = faultRate;
+    }
+
+    /**
+     * Sets the time of day the workload starts at.
+     *
+     * @param start the time of the workload's clock at its start
+     */
+    public void setStartTime(LocalTime start) {
+        this.startSecond = start.toSecondOfDay();
+    }
+
+    /**
+     * Returns the generated zones.
+     *
+     * @return the zones, keyed by zone ID
+     */
+    public Map<Integer, Zone> getZones() {
+        return zones;
+    }
+
+    /**
+     * Returns a stream of events, generated as it is iterated. Every call replays the same events.
+     * The stream ends after the given number of events or at midnight, whichever comes first.
+     *
+     * @param count the largest number of events
+     * @return the events, in time order
+     */
+    public Iterator<FireIncidentEvent> events(long count) {
+        return new EventIterator(count);
+    }
+
+    /**
+     * Writes the zones to a zone file in the format of the sample zone file.
+     *
+     * @param filePath the path of the zone file
+     * @throws IOException if the file cannot be written
+     */
+    public void writeZones(String filePath) throws IOException {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath))) {
+            writer.write("Zone ID,Zone Start,Zone End");
+            writer.newLine();
+            for (Zone zone : zones.values()) {
+                writer.write(zone.getId() + ",(" + zone.getStart().x + ";" + zone.getStart().y + "),("
+                        + zone.getEnd().x + ";" + zone.getEnd().y + ")");
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Writes events to an event file in the format of the sample event file.
+     *
+     * @param filePath the path of the event file
+     * @param count    the largest number of events; fewer are written if the day ends first
+     * @throws IOException if the file cannot be written
+     */
+    public void writeEvents(String filePath, long count) throws IOException {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath), 1 << 16)) {
+            writer.write("Time,Zone ID,Event type,Severity,Water Needed,Fault,Fault Type");
+            writer.newLine();
+            Iterator<FireIncidentEvent> events = events(count);
+            while (events.hasNext()) {
+                FireIncidentEvent event = events.next();
+                writer.write(event.getTime() + "," + event.getZoneId() + "," + event.getEventType() + ","
+                        + event.getSeverity() + "," + event.getFault() + "," + event.getFaultType());
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Generates events one at a time from its own copy of the seed, each as soon as
+     * {@link #hasNext()} has to know whether it falls before midnight.
+     */
+    private class EventIterator implements Iterator<FireIncidentEvent> {
+        private final Random random = new Random(seed);
+        private final long count;
+        /** Zone indices of the hotspots. */
+        private final int[] hotspots = new int[hotspotCount];
+        private long generated = 0;
+        /** Time of the last event, in seconds since the workload's start. */
+        private double time = 0;
+        /** Events left in the current burst. */
+        private long burstRemaining = 0;
+        /** The next event, generated ahead by {@link #hasNext()}, or null. */
+        private FireIncidentEvent next;
+        /** Flag indicating the next event would have fallen after midnight. */
+        private boolean dayEnded = false;
+
+        EventIterator(long count) {
+            this.count = count;
+            for (int i = 0; i < hotspots.length; i++) {
+                hotspots[i] = random.nextInt(zones.size());
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null && !dayEnded && generated < count) {
+                double gap = nextGap();
+                if (time + gap + startSecond >= SECONDS_PER_DAY) {
+                    dayEnded = true;
+                } else {
+                    generated++;
+                    time += gap;
+                    next = generate();
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public FireIncidentEvent next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            FireIncidentEvent event = next;
+            next = null;
+            return event;
+        }
+
+        /**
+         * Generates the event at the current time.
+         */
+        private FireIncidentEvent generate() {
+            Zone zone = zones.get(pickZone() + 1);
+            String severity = SEVERITIES[pickSeverity()];
+            String fault = "NO_FAULT";
+            String faultType = "N/A";
+            if (random.nextDouble() < faultRate) {
+                fault = FAULTS[random.nextInt(FAULTS.length)];
+                faultType = random.nextDouble() < HARD_FAULT_SHARE ? "HARD_FAULT" : "TRANSIENT_FAULT";
+            }
+            String eventType = random.nextDouble() < DRONE_REQUEST_SHARE ? "DRONE_REQUEST" : "FIRE_DETECTED";
+            long second = (long) time + startSecond;
+            String timestamp = String.format("%02d:%02d:%02d", second / 3600, second / 60 % 60, second % 60);
+            return new FireIncidentEvent(timestamp, zone.getId(), eventType, severity, zone,
+                    FireEventReader.waterNeeded(severity), fault, faultType);
+        }
+
+        /**
+         * Returns the time to the next event, in seconds.
+         */
+        private double nextGap() {
+            switch (arrivalProcess) {
+                case BURSTY -> {
+                    // Within a burst events come burstFactor times faster; the gap before each
+                    // burst makes up the rest of the burst's share of time at the mean rate.
+                    if (burstRemaining > 0) {
+                        burstRemaining--;
+                        return exponential(rate * burstFactor);
+                    }
+                    burstRemaining = geometric(burstSize) - 1;
+                    double quiet = burstSize / rate - (burstSize - 1) / (rate * burstFactor);
+                    return exponential(1 / quiet);
+                }
+                case DIURNAL -> {
+                    // Thinning: draw at the peak rate and keep each arrival in proportion to the rate then.
+                    double peak = rate * (1 + diurnalAmplitude);
+                    double gap = 0;
+                    while (true) {
+                        gap += exponential(peak);
+                        double phase = 2 * Math.PI * (time + gap + startSecond - DIURNAL_PEAK) / SECONDS_PER_DAY;
+                        if (random.nextDouble() * peak < rate * (1 + diurnalAmplitude * Math.cos(phase))) {
+                            return gap;
+                        }
+                    }
+                }
+                default -> {
+                    return exponential(rate);
+                }
+            }
+        }
+
+        /**
+         * Returns the zone index of the next event: near a hotspot for a share of events,
+         * otherwise anywhere on the grid.
+         */
+        private int pickZone() {
+            if (random.nextDouble() >= hotspotShare) {
+                return random.nextInt(zones.size());
+            }
+            int hotspot = hotspots[random.nextInt(hotspots.length)];
+            while (true) {
+                int column = hotspot % columns + (int) Math.round(random.nextGaussian() * hotspotSpread);
+                int row = hotspot / columns + (int) Math.round(random.nextGaussian() * hotspotSpread);
+                int index = row * columns + column;
+                if (column >= 0 && column < columns && row >= 0 && index < zones.size()) {
+                    return index;
+                }
+            }
+        }
+
+        /**
+         * Returns the index of the next event's severity, drawn from the severity mix.
+         */
+        private int pickSeverity() {
+            double pick = random.nextDouble() * (severityMix[0] + severityMix[1] + severityMix[2]);
+            for (int i = 0; i < severityMix.length - 1; i++) {
+                pick -= severityMix[i];
+                if (pick < 0) {
+                    return i;
+                }
+            }
+            return severityMix.length - 1;
+        }
+
+        private double exponential(double ratePerSecond) {
+            return -Math.log(1 - random.nextDouble()) / ratePerSecond;
+        }
+
+        /**
+         * Returns a geometrically distributed count of at least one, with the given mean.
+         */
+        private long geometric(double mean) {
+            if (mean <= 1) {
+                return 1;
+            }
+            return 1 + (long) (Math.log(1 - random.nextDouble()) / Math.log(1 - 1 / mean));
+        }
+    }
+
+    /**
+     * Writes a generated zone file and event file, or sends the events straight to the scheduler.
+     * Usage: {@code FireWorkloadGenerator zoneFile [eventFile] [--zones N] [--events N]
+     * [--process poisson|bursty|diurnal] [--rate R] [--burst SIZE:FACTOR] [--amplitude A]
+     * [--hotspots COUNT:SHARE:SPREAD] [--severity LOW:MODERATE:HIGH] [--faults P] [--seed N] [--send]}.
+     * Without an event file, or with {@code --send}, the events are sent instead of written.
+     *
+     * @param args command-line arguments
+     */
+    public static void main(String[] args) throws IOException {
+        int zoneCount = 100;
+        long eventCount = 1000;
+        ArrivalProcess process = ArrivalProcess.POISSON;
+        double rate = 0.01;
+        String[] burst = null;
+        double amplitude = -1;
+        String[] hotspots = null;
+        String[] severity = null;
+        double faults = 0;
+        long seed = 3303;
+        boolean send = false;
+        String zoneFile = null;
+        String eventFile = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--zones" -> zoneCount = Integer.parseInt(args[++i]);
+                case "--events" -> eventCount = Long.parseLong(args[++i]);
+                case "--process" -> process = ArrivalProcess.valueOf(args[++i].toUpperCase());
+                case "--rate" -> rate = Double.parseDouble(args[++i]);
+                case "--burst" -> burst = args[++i].split(":");
+                case "--amplitude" -> amplitude = Double.parseDouble(args[++i]);
+                case "--hotspots" -> hotspots = args[++i].split(":");
+                case "--severity" -> severity = args[++i].split(":");
+                case "--faults" -> faults = Double.parseDouble(args[++i]);
+                case "--seed" -> seed = Long.parseLong(args[++i]);
+                case "--send" -> send = true;
+                default -> {
+                    if (zoneFile == null) {
+                        zoneFile = args[i];
+                    } else {
+                        eventFile = args[i];
+                    }
+                }
+            }
+        }
+        if (zoneFile == null) {
+            System.out.println("Usage: FireWorkloadGenerator zoneFile [eventFile] [options]");
+            return;
+        }
+
+        FireWorkloadGenerator generator = new FireWorkloadGenerator(zoneCount, seed);
+        generator.setArrivals(process, rate);
+        if (burst != null) {
+            generator.setBursts(Double.parseDouble(burst[0]), Double.parseDouble(burst[1]));
+        }
+        if (amplitude >= 0) {
+            generator.setDiurnalAmplitude(amplitude);
+        }
+        if (hotspots != null) {
+            generator.setHotspots(Integer.parseInt(hotspots[0]), Double.parseDouble(hotspots[1]), Double.parseDouble(hotspots[2]));
+        }
+        if (severity != null) {
+            generator.setSeverityMix(Double.parseDouble(severity[0]), Double.parseDouble(severity[1]), Double.parseDouble(severity[2]));
+        }
+        generator.setFaultRate(faults);
+
+        generator.writeZones(zoneFile);
+        System.out.println("Wrote " + zoneCount + " zones to " + zoneFile);
+        if (eventFile != null) {
+            generator.writeEvents(eventFile, eventCount);
+            System.out.println("Wrote " + eventCount + " events to " + eventFile);
+        }
+        if (eventFile == null || send) {
+            FireIncidentSubSystem fireSystem = new FireIncidentSubSystem(zoneFile);
+            fireSystem.sendFireIncidents(generator.events(eventCount));
+        }
+    }
+}
@@ -219,7 +219,8 @@ public class FirefightingDroneGridGUI extends JFrame {
                 }
             }
 
-            // Draw drones on top.
+            // Draw drones on top, at the latest positions they reported.
+            droneFleet.publishPositions();
             for (DroneData drone : droneFleet.getDrones()) {
                 Point loc = drone.getLocation();
                 int droneX = loc.x * CELL_SIZE + CELL_SIZE / 2 - 5;
@@ -467,7 +468,7 @@ public class FirefightingDroneGridGUI extends JFrame {
                 try {
                     while (true) {
                         FireIncidentSubSystem fireEvent = new FireIncidentSubSystem(
-                                "src/main/resources/Sample_zone_file.csv",
+                                "src/main/resources/sample_zone_file.csv",
                                 "src/main/resources/Sample_event_file.csv"
                         );
                         List<FireIncidentEvent> events = fireEvent.loadFireIncidents("src/main/resources/Sample_event_file.csv");
@@ -0,0 +1,255 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The {@code FleetSimulator} class hosts many {@link DroneSubsystem} instances in one JVM so the
+ * scheduler can be load-tested with a realistic fleet from a single process.
+ *
+ * Each drone keeps its own request socket and runs its blocking state machine on its own thread;
+ * a drone on the binary protocol has a second thread receiving its responses. Heartbeats from the
+ * whole fleet go out through one shared endpoint. Drones are started in batches so the scheduler's
+ * receive buffer is not flooded with registrations, and the aggregate mission throughput is
+ * reported while the fleet runs.
+ *
+ * Hosting many drones per JVM depends on virtual threads, which need Java 21 or later: there,
+ * ten thousand sleeping or receiving drones cost a few kilobytes each. On earlier runtimes every
+ * drone thread is a daemon platform thread with a small stack, so a fleet is bounded by the
+ * threads and sockets the operating system allows, typically a few thousand drones at most.
+ */
+public class FleetSimulator {
+    /** Log for the fleet's progress reports. */
+    private static final Log LOG = Log.category("simulator");
+
+    /** Number of drones started before pausing, so registrations reach the scheduler in waves. */
+    private static final int START_BATCH = 100;
+    /** Pause between start batches, in milliseconds. */
+    private static final long START_PAUSE_MILLIS = 10;
+    /** Stack size of each platform drone thread when virtual threads are unavailable. */
+    private static final long PLATFORM_STACK_SIZE = 256 * 1024;
+
+    private final String host;
+    private final int schedulerPort;
+    private final SimulationClock clock;
+    private final boolean binaryProtocol;
+    /** Drones hosted by this simulator. */
+    private final List<DroneSubsystem> drones = new ArrayList<>();
+    /** Threads the drones run on. */
+    private final ExecutorService threads = newDroneExecutor();
+    /** Endpoint every drone sends its heartbeats from; null until the first drone starts. */
+    private Transport heartbeatTransport;
+    /** Number of drones whose thread has ended. */
+    private final AtomicInteger stopped = new AtomicInteger();
+    /** Simulated time between each drone's heartbeats, in milliseconds; 0 sends none. */
+    private long heartbeatIntervalMillis = FailureDetector.DEFAULT_INTERVAL_MILLIS;
+
+    /**
+     * Constructs a simulator for drones reporting to the given scheduler.
+     *
+     * @param host           the scheduler's host name
+     * @param schedulerPort  the scheduler's drone port
+     * @param clock          the clock every drone waits on
+     * @param binaryProtocol true if the drones send binary frames instead of text requests
+     */
+    public FleetSimulator(String host, int schedulerPort, SimulationClock clock, boolean binaryProtocol) {
+        this.host = host;
+        this.schedulerPort = schedulerPort;
+        this.clock = clock;
+        this.binaryProtocol = binaryProtocol;
+    }
+
+    /**
+     * Sets how often the drones started from now on send heartbeats.
+     *
+     * @param heartbeatIntervalMillis the simulated time between heartbeats in milliseconds, or 0 to send none
+     */
+    public void setHeartbeatInterval(long heartbeatIntervalMillis) {
+        this.heartbeatIntervalMillis = heartbeatIntervalMillis;
+    }
+
+    /**
+     * Creates and starts the given number of drones, in batches.
+     *
+     * @param droneCount the number of drones to start
+     * @throws InterruptedException if interrupted while pausing between batches
+     */
+    public void start(int droneCount) throws InterruptedException {
+        Transport heartbeats = heartbeatTransport();
+        for (int i = 0; i < droneCount; i++) {
+            DroneSubsystem drone = new DroneSubsystem(host, schedulerPort);
+            drone.setClock(clock);
+            drone.setBinaryProtocol(binaryProtocol);
+            drone.setHeartbeatInterval(heartbeatIntervalMillis);
+            if (heartbeats != null) {
+                drone.setHeartbeatTransport(heartbeats);
+            }
+            synchronized (this) {
+                drones.add(drone);
+            }
+            threads.execute(() -> {
+                try {
+                    drone.run();
+                } catch (RuntimeException e) {
+                    // A drone closed mid-request fails to parse the reply; only report live failures.
+                    if (drone.isRunning()) {
+                        e.printStackTrace();
+                    }
+                } finally {
+                    stopped.incrementAndGet();
+                }
+            });
+            if ((i + 1) % START_BATCH == 0) {
+                Thread.sleep(START_PAUSE_MILLIS);
+            }
+        }
+    }
+
+    /**
+     * Returns the endpoint the fleet's heartbeats are sent from, binding it on first use.
+     *
+     * @return the shared endpoint, or null if it cannot be bound and each drone binds its own
+     */
+    private synchronized Transport heartbeatTransport() {
+        if (heartbeatTransport == null) {
+            try {
+                heartbeatTransport = Transport.bind(0);
+            } catch (IOException e) {
+                LOG.warn("cannot bind the fleet's heartbeat endpoint: " + e.getMessage());
+            }
+        }
+        return heartbeatTransport;
+    }
+
+    /**
+     * Returns the number of missions completed by all drones.
+     *
+     * @return the total number of completed missions
+     */
+    public synchronized long getMissionsCompleted() {
+        long missions = 0;
+        for (DroneSubsystem drone : drones) {
+            missions += drone.getMissionsCompleted();
+        }
+        return missions;
+    }
+
+    /**
+     * Returns the number of drones still taking tasks.
+     *
+     * @return the number of running drones
+     */
+    public synchronized int getDronesRunning() {
+        return drones.size() - stopped.get();
+    }
+
+    /**
+     * Closes every drone, releasing any request blocked on the scheduler, and stops the threads.
+     */
+    public synchronized void stop() {
+        for (DroneSubsystem drone : drones) {
+            drone.close();
+        }
+        if (heartbeatTransport != null) {
+            heartbeatTransport.close();
+        }
+        threads.shutdown();
+    }
+
+    /**
+     * Returns an executor running each drone on a thread of its own, made by
+     * {@link #newDroneThread(Runnable, String)}. A drone's work lasts as long as the drone, so no
+     * thread is ever reused.
+     */
+    private static ExecutorService newDroneExecutor() {
+        AtomicInteger next = new AtomicInteger();
+        ThreadFactory factory = task -> newDroneThread(task, "Drone-" + next.incrementAndGet());
+        return Executors.newCachedThreadPool(factory);
+    }
+
+    /**
+     * Creates an unstarted thread for one drone's work: a virtual thread, or a small-stack daemon
+     * platform thread when the runtime has no virtual threads.
+     *
+     * @param task the work the thread runs
+     * @param name the thread's name
+     * @return the thread, not yet started
+     */
+    static Thread newDroneThread(Runnable task, String name) {
+        try {
+            // Looked up reflectively so the simulator still builds and runs on Java 17.
+            Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            Object virtual = builder.getMethod("name", String.class).invoke(Thread.class.getMethod("ofVirtual").invoke(null), name);
+            return (Thread) builder.getMethod("unstarted", Runnable.class).invoke(virtual, task);
+        } catch (ReflectiveOperationException e) {
+            Thread thread = new Thread(null, task, name, PLATFORM_STACK_SIZE);
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    /**
+     * Runs a fleet against a scheduler and reports mission throughput every few seconds.
+     * Usage: {@code FleetSimulator [drones] [seconds] [--binary] [--scale N] [--host H] [--port P] [--verbose]}.
+     * Every log category but the simulator's own report is switched off unless {@code --verbose}
+     * is given, since thousands of drones would otherwise spend their time contending for the log.
+     *
+     * @param args command-line arguments
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int droneCount = 1000;
+        long seconds = 60;
+        int timeScale = SystemClock.DEFAULT_TIME_SCALE;
+        String host = "localhost";
+        int port = 5000;
+        boolean binary = false;
+        boolean verbose = false;
+        int positional = 0;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--binary" -> binary = true;
+                case "--verbose" -> verbose = true;
+                case "--scale" -> timeScale = Integer.parseInt(args[++i]);
+                case "--host" -> host = args[++i];
+                case "--port" -> port = Integer.parseInt(args[++i]);
+                default -> {
+                    if (positional++ == 0) {
+                        droneCount = Integer.parseInt(args[i]);
+                    } else {
+                        seconds = Long.parseLong(args[i]);
+                    }
+                }
+            }
+        }
+
+        if (!verbose) {
+            Log.setLevel(Log.Level.OFF);
+            Log.setLevel("simulator", Log.Level.INFO);
+        }
+        FleetSimulator simulator = new FleetSimulator(host, port, new SystemClock(timeScale), binary);
+        long start = System.nanoTime();
+        simulator.start(droneCount);
+        LOG.info("started " + droneCount + " drones in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+
+        long end = start + TimeUnit.SECONDS.toNanos(seconds);
+        long lastMissions = 0;
+        long lastReport = start;
+        while (System.nanoTime() < end) {
+            Thread.sleep(Math.min(5000, Math.max(1, TimeUnit.NANOSECONDS.toMillis(end - System.nanoTime()))));
+            long now = System.nanoTime();
+            long missions = simulator.getMissionsCompleted();
+            double interval = (now - lastReport) / 1e9;
+            LOG.info(String.format("%d drones running, %d missions completed, %.1f missions/s",
+                    simulator.getDronesRunning(), missions, (missions - lastMissions) / interval));
+            lastMissions = missions;
+            lastReport = now;
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        LOG.info(String.format("%d missions in %.1f s, %.1f missions/s overall", lastMissions, elapsed, lastMissions / elapsed));
+        simulator.stop();
+    }
+}
@@ -0,0 +1,55 @@
+/**
+ * HandlingFault state represents the scheduler when it is handling a drone or system fault.
+ */
+class HandlingFault implements SchedulerState {
+    /**
+     * In HandlingFault, processing a new fire request is not performed.
+     *
+     * @param context   the state machine context
+     * @param scheduler the scheduler instance
+     */
+    public void processFireRequest(SchedulerStateMachine context, Scheduler scheduler) {}
+
+    /**
+     * In HandlingFault, no new task assignment is performed.
+     *
+     * @param context   the state machine context
+     * @param scheduler the scheduler instance
+     */
+    public void assignTask(SchedulerStateMachine context, Scheduler scheduler) {}
+
+    /**
+     * In HandlingFault, no waiting for drones is initiated.
+     *
+     * @param context   the state machine context
+     * @param scheduler the scheduler instance
+     */
+    public void waitForDrones(SchedulerStateMachine context, Scheduler scheduler) {}
+
+    /**
+     * Transitions the scheduler state back to Idle.
+     *
+     * @param context   the state machine context
+     * @param scheduler the scheduler instance
+     */
+    public void returnToIdle(SchedulerStateMachine context, Scheduler scheduler) {
+        context.setState("Idle");
+    }
+
+    /**
+     * In HandlingFault, additional fault handling is either a no-op or maintained.
+     *
+     * @param context   the state machine context
+     * @param scheduler the scheduler instance
+     */
+    public void handleFault(SchedulerStateMachine context, Scheduler scheduler) {
+        // Remain in HandlingFault state or transition as needed.
+    }
+
+    /**
+     * Displays the current state as handling a fault.
+     */
+    public void displayState() {
+        LOG.debug("[State]: Handling drone/system fault.");
+    }
+}
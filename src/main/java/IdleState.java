@@ -0,0 +1,54 @@
+/**
+ * IdleState represents the scheduler state when it is idle and waiting for fire events.
+ */
+class IdleState implements SchedulerState {
+    /**
+     * Processes a fire request by transitioning to the ProcessingFireRequest state.
+     *
+     * @param context   the state machine context
+     * @param scheduler the scheduler instance
+     */
+    @Override
+    public void processFireRequest(SchedulerStateMachine context, Scheduler scheduler) {
+        context.setState("ProcessingFireRequest");
+    }
+
+    /**
+     * No task assignment is done in IdleState.
+     *
+     * @param context   the state machine context
+     * @param scheduler the scheduler instance
+     */
+    public void assignTask(SchedulerStateMachine context, Scheduler scheduler) {}
+
+    /**
+     * No waiting operation in IdleState.
+     *
+     * @param context   the state machine context
+     * @param scheduler the scheduler instance
+     */
+    public void waitForDrones(SchedulerStateMachine context, Scheduler scheduler) {}
+
+    /**
+     * Already in IdleState, so no action is taken.
+     *
+     * @param context   the state machine context
+     * @param scheduler the scheduler instance
+     */
+    public void returnToIdle(SchedulerStateMachine context, Scheduler scheduler) {}
+
+    /**
+     * No fault handling is performed in IdleState.
+     *
+     * @param context   the state machine context
+     * @param scheduler the scheduler instance
+     */
+    public void handleFault(SchedulerStateMachine context, Scheduler scheduler) {}
+
+    /**
+     * Displays the current state as Idle.
+     */
+    public void displayState() {
+        LOG.debug("[State]: Idle — Waiting for fire events.");
+    }
+}
@@ -0,0 +1,236 @@
+import java.io.IOException;
+import java.net.BindException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedChannelException;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The {@code InMemoryTransport} class is a {@link Transport} between endpoints in the same JVM.
+ *
+ * Every endpoint is bound to a port of one shared in-memory network, whose address is the loopback
+ * address, and owns a lock-free queue of datagrams. Sending copies the datagram onto the target's
+ * queue and wakes its receiver, so a message costs a copy and a queue insertion instead of two
+ * kernel crossings, and no real port is ever bound. As with UDP, a datagram sent to a port nobody
+ * is bound to is dropped, and {@link #setLossRate(double, long)} drops a share of the rest to
+ * emulate a lossy link.
+ *
+ * Embedded mode, in which {@link Transport#bind(int)} binds in-memory endpoints, is selected with
+ * {@link #setEmbedded(boolean)} or at startup with {@code -Dtransport=memory}.
+ */
+public class InMemoryTransport implements Transport {
+
+    /** First port handed out to endpoints bound to port 0, as in the ephemeral range of UDP. */
+    private static final int FIRST_EPHEMERAL_PORT = 49152;
+    /** Longest a receiver parks before checking its queue again, in case two threads receive at once. */
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /** Every bound endpoint, by port. */
+    private static final Map<Integer, InMemoryTransport> endpoints = new ConcurrentHashMap<>();
+    /** Next ephemeral port to try. */
+    private static final AtomicInteger nextEphemeralPort = new AtomicInteger(FIRST_EPHEMERAL_PORT);
+    /** Fraction of datagrams dropped in transit, emulating a lossy link. */
+    private static volatile double lossRate = 0;
+    /** Source of the drops. */
+    private static volatile Random lossRandom = new Random();
+    /** Flag indicating whether {@link Transport#bind(int)} binds in-memory endpoints. */
+    private static volatile boolean embedded = "memory".equalsIgnoreCase(System.getProperty("transport"));
+
+    /** Address every endpoint appears to send from. */
+    private final InetSocketAddress address;
+    /** Datagrams waiting to be received. */
+    private final Queue<Datagram> queue = new ConcurrentLinkedQueue<>();
+    /** Thread waiting in {@link #receive(ByteBuffer)}, or null. */
+    private volatile Thread receiver;
+    /** Thread woken by every datagram sent to this endpoint, such as an event loop, or null. */
+    private volatile Thread watcher;
+    /** Flag indicating whether receiving waits for a datagram instead of returning null. */
+    private volatile boolean blocking = true;
+    private volatile boolean closed = false;
+
+    /**
+     * A datagram in flight: a copy of the sent bytes and the sender's address.
+     */
+    private record Datagram(byte[] data, InetSocketAddress sender) {
+    }
+
+    private InMemoryTransport(int port) {
+        this.address = new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+    }
+
+    /**
+     * Sets whether {@link Transport#bind(int)} binds in-memory endpoints instead of UDP ones.
+     * Endpoints already bound keep their transport.
+     *
+     * @param embedded true to run every component in this JVM without the network
+     */
+    public static void setEmbedded(boolean embedded) {
+        InMemoryTransport.embedded = embedded;
+    }
+
+    /**
+     * Sets the fraction of datagrams dropped in transit, for every in-memory endpoint, so the
+     * system can be run over an emulated lossy link.
+     *
+     * @param lossRate the probability each datagram is dropped, from 0 (none) to 1
+     * @param seed     the seed of the drops, so a lossy run can be repeated
+     */
+    public static void setLossRate(double lossRate, long seed) {
+        if (lossRate < 0 || lossRate > 1) {
+            throw new IllegalArgumentException("Loss rate must be between 0 and 1: " + lossRate);
+        }
+        InMemoryTransport.lossRandom = new Random(seed);
+        InMemoryTransport.lossRate = lossRate;
+    }
+
+    /**
+     * Returns whether {@link Transport#bind(int)} binds in-memory endpoints.
+     *
+     * @return true in embedded mode
+     */
+    public static boolean isEmbedded() {
+        return embedded;
+    }
+
+    /**
+     * Binds an in-memory endpoint to a port.
+     *
+     * @param port the port to bind, or 0 for any free port
+     * @return the bound endpoint
+     * @throws BindException if the port is already bound
+     */
+    public static InMemoryTransport bind(int port) throws BindException {
+        if (port != 0) {
+            InMemoryTransport endpoint = new InMemoryTransport(port);
+            if (endpoints.putIfAbsent(port, endpoint) != null) {
+                throw new BindException("In-memory port " + port + " is already in use");
+            }
+            return endpoint;
+        }
+        while (true) {
+            int candidate = nextEphemeralPort.getAndUpdate(p -> p == 65535 ? FIRST_EPHEMERAL_PORT : p + 1);
+            InMemoryTransport endpoint = new InMemoryTransport(candidate);
+            if (endpoints.putIfAbsent(candidate, endpoint) == null) {
+                return endpoint;
+            }
+        }
+    }
+
+    /**
+     * Sets whether receiving waits for a datagram, as by default, or returns null at once when
+     * none is queued, like a non-blocking {@link java.nio.channels.DatagramChannel}.
+     *
+     * @param blocking true to wait for datagrams
+     * @return this endpoint
+     */
+    public InMemoryTransport configureBlocking(boolean blocking) {
+        this.blocking = blocking;
+        return this;
+    }
+
+    /**
+     * Sets a thread to unpark whenever a datagram is sent to this endpoint, so a loop polling
+     * several non-blocking endpoints can park until one of them has something to receive.
+     *
+     * @param watcher the thread to wake, or null for none
+     */
+    public void setWatcher(Thread watcher) {
+        this.watcher = watcher;
+    }
+
+    @Override
+    public void send(ByteBuffer data, InetSocketAddress target) throws ClosedChannelException {
+        if (closed) {
+            throw new ClosedChannelException();
+        }
+        byte[] copy = new byte[data.remaining()];
+        data.get(copy);
+        InMemoryTransport endpoint = endpoints.get(target.getPort());
+        if (endpoint == null || (lossRate > 0 && lossRandom.nextDouble() < lossRate)) {
+            return;
+        }
+        endpoint.queue.offer(new Datagram(copy, address));
+        Thread waiting = endpoint.receiver;
+        if (waiting != null) {
+            LockSupport.unpark(waiting);
+        }
+        Thread watching = endpoint.watcher;
+        if (watching != null) {
+            LockSupport.unpark(watching);
+        }
+    }
+
+    @Override
+    public SocketAddress receive(ByteBuffer into) throws IOException {
+        return receive(into, 0);
+    }
+
+    @Override
+    public SocketAddress receive(ByteBuffer into, long timeoutMillis) throws IOException {
+        long deadline = timeoutMillis == 0 ? 0 : System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        Datagram datagram;
+        while ((datagram = queue.poll()) == null) {
+            if (closed) {
+                throw new AsynchronousCloseException();
+            }
+            if (!blocking) {
+                return null;
+            }
+            if (Thread.interrupted()) {
+                close();
+                throw new ClosedByInterruptException();
+            }
+            long parkNanos = MAX_PARK_NANOS;
+            if (deadline != 0) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new SocketTimeoutException("Receive timed out");
+                }
+                parkNanos = Math.min(parkNanos, remaining);
+            }
+            // Announce the wait before checking the queue again, so a send in between still wakes us.
+            receiver = Thread.currentThread();
+            if (queue.isEmpty() && !closed) {
+                LockSupport.parkNanos(this, parkNanos);
+            }
+            receiver = null;
+        }
+        into.put(datagram.data(), 0, Math.min(datagram.data().length, into.remaining()));
+        return datagram.sender();
+    }
+
+    @Override
+    public int getLocalPort() {
+        return address.getPort();
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        endpoints.remove(address.getPort(), this);
+        Thread waiting = receiver;
+        if (waiting != null) {
+            LockSupport.unpark(waiting);
+        }
+    }
+}
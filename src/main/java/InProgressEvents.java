@@ -4,26 +4,32 @@ import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 public class InProgressEvents {
+    /** Log for events handed to drones. */
+    private static final Log LOG = Log.category("dispatch");
     private DroneData drone;
     private FireIncidentEvent fireEvent;
     private Map<Integer, FireIncidentEvent> eventList;
+    /** Number of drones in progress on each fire, by fire ID; fires with none have no entry. */
+    private final Map<Integer, Integer> dronesPerFire = new HashMap<>();
 
     public InProgressEvents(){
         eventList = new ConcurrentHashMap<>();
     }
 
     public synchronized void addInProgressEvent(int droneID, FireIncidentEvent event){
-        System.out.println("["+Thread.currentThread().getName()+"]: Added an in progress event ... \n");
-        eventList.put(droneID, event);
+        LOG.debug("Added an in progress event ...");
+        released(eventList.put(droneID, event));
+        dronesPerFire.merge(event.getID(), 1, Integer::sum);
         notifyAll();
     }
 
     public synchronized FireIncidentEvent removeInProgressEvent(int droneID) throws InterruptedException {
         while(eventList.isEmpty()){
-            System.out.println("["+Thread.currentThread().getName()+"]: Can't remove from empty list, going to wait ... \n");
+            LOG.debug("Can't remove from empty list, going to wait ...");
             wait();
         }
         FireIncidentEvent fireEvent = eventList.remove(droneID);
+        released(fireEvent);
         //notifyAll();
         return fireEvent;
     }
@@ -41,13 +47,34 @@ public class InProgressEvents {
         return event;
     }
 
+    public synchronized FireIncidentEvent finishInProgressEvent(int droneID){
+        FireIncidentEvent fireEvent = eventList.remove(droneID);
+        released(fireEvent);
+        return fireEvent;
+    }
+
+    public synchronized boolean isFireInProgress(int fireID){
+        return dronesPerFire.containsKey(fireID);
+    }
+
+    /**
+     * Counts one drone fewer on a fire, forgetting the fire once no drone is left on it.
+     *
+     * @param event the event a drone was taken off, or null if it had none
+     */
+    private void released(FireIncidentEvent event) {
+        if (event != null) {
+            dronesPerFire.computeIfPresent(event.getID(), (fireID, drones) -> drones == 1 ? null : drones - 1);
+        }
+    }
+
     public synchronized Collection<Integer> getKeys(){
         return eventList.keySet();
     }
 
     public synchronized void isInProgressEventsListEmpty() throws InterruptedException {
         while(eventList.isEmpty()){
-            System.out.println("["+Thread.currentThread().getName()+"]: going to wait... \n");
+            LOG.debug("going to wait...");
             wait();
         }
     }
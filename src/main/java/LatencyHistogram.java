@@ -0,0 +1,193 @@
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The {@code LatencyHistogram} class counts latencies in fixed memory, in the style of
+ * HdrHistogram: values are grouped into log-linear buckets, each power of two split into
+ * {@value #SUB_BUCKETS_PER_POWER} equal sub-buckets, so every recorded value is kept to within
+ * about 1.6% of its magnitude from nanoseconds up to centuries.
+ *
+ * Recording is a single atomic increment, so it never blocks and never allocates, and any number
+ * of threads can record at once. Percentiles are read from a {@link Snapshot}; subtracting an
+ * earlier snapshot gives the latencies recorded over an interval, without resetting the histogram.
+ */
+public class LatencyHistogram {
+
+    /** Bits of precision kept for each value; values below {@code 2^PRECISION_BITS} are exact. */
+    private static final int PRECISION_BITS = 7;
+    /** Number of buckets holding the exact small values. */
+    private static final int LINEAR_BUCKETS = 1 << PRECISION_BITS;
+    /** Number of sub-buckets each further power of two is split into. */
+    static final int SUB_BUCKETS_PER_POWER = LINEAR_BUCKETS / 2;
+    /** Total number of buckets, enough for every non-negative long. */
+    private static final int BUCKETS = LINEAR_BUCKETS + (63 - PRECISION_BITS) * SUB_BUCKETS_PER_POWER;
+
+    private final String name;
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Constructs an empty histogram.
+     *
+     * @param name the name the histogram is reported under
+     */
+    public LatencyHistogram(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Returns the name the histogram is reported under.
+     *
+     * @return the histogram's name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Records a latency. Negative values, which a clock adjustment can produce, are recorded as zero.
+     *
+     * @param nanos the latency in nanoseconds
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucketOf(value));
+        long current;
+        while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+            // Another thread raised the maximum first; try again against its value.
+        }
+    }
+
+    /**
+     * Copies the current counts. Recording can continue while the copy is taken, so a snapshot
+     * may include part of the values recorded during the copy.
+     *
+     * @return a snapshot of the histogram
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+            total += copy[i];
+        }
+        return new Snapshot(name, copy, total, max.get());
+    }
+
+    /**
+     * Returns the bucket a value is counted in.
+     */
+    static int bucketOf(long value) {
+        if (value < LINEAR_BUCKETS) {
+            return (int) value;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        int shift = magnitude - PRECISION_BITS + 1;
+        // The top PRECISION_BITS bits of the value, which always start with a one.
+        int top = (int) (value >>> shift);
+        return LINEAR_BUCKETS + (shift - 1) * SUB_BUCKETS_PER_POWER + (top - SUB_BUCKETS_PER_POWER);
+    }
+
+    /**
+     * Returns the largest value counted in a bucket.
+     */
+    static long highestValueIn(int bucket) {
+        if (bucket < LINEAR_BUCKETS) {
+            return bucket;
+        }
+        int shift = (bucket - LINEAR_BUCKETS) / SUB_BUCKETS_PER_POWER + 1;
+        long top = (bucket - LINEAR_BUCKETS) % SUB_BUCKETS_PER_POWER + SUB_BUCKETS_PER_POWER;
+        long highest = ((top + 1) << shift) - 1;
+        return highest < 0 ? Long.MAX_VALUE : highest;
+    }
+
+    /**
+     * A copy of a histogram's counts, from which percentiles are read.
+     */
+    public static class Snapshot {
+        private final String name;
+        private final long[] counts;
+        private final long count;
+        private final long max;
+
+        private Snapshot(String name, long[] counts, long count, long max) {
+            this.name = name;
+            this.counts = counts;
+            this.count = count;
+            this.max = max;
+        }
+
+        /**
+         * Returns the number of recorded values.
+         *
+         * @return the count
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Returns the largest value recorded by the histogram up to this snapshot.
+         *
+         * @return the maximum, in nanoseconds
+         */
+        public long getMax() {
+            return max;
+        }
+
+        /**
+         * Returns the value at or below which the given percentage of recorded values fall, to
+         * within the histogram's precision.
+         *
+         * @param percentile the percentile, from 0 to 100
+         * @return the value in nanoseconds, or 0 if nothing was recorded
+         */
+        public long valueAtPercentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(highestValueIn(i), max);
+                }
+            }
+            return max;
+        }
+
+        /**
+         * Returns the values recorded since an earlier snapshot of the same histogram.
+         *
+         * @param earlier the earlier snapshot
+         * @return a snapshot of the interval between the two
+         */
+        public Snapshot since(Snapshot earlier) {
+            long[] interval = new long[counts.length];
+            long total = 0;
+            for (int i = 0; i < counts.length; i++) {
+                interval[i] = counts[i] - earlier.counts[i];
+                total += interval[i];
+            }
+            return new Snapshot(name, interval, total, max);
+        }
+
+        /**
+         * Summarizes the snapshot as its count and its p50, p90, p99 and p99.9 latencies.
+         *
+         * @return the summary, with latencies in milliseconds
+         */
+        @Override
+        public String toString() {
+            return String.format("%s: n=%d p50=%.3fms p90=%.3fms p99=%.3fms p99.9=%.3fms max=%.3fms", name, count,
+                    millis(valueAtPercentile(50)), millis(valueAtPercentile(90)), millis(valueAtPercentile(99)),
+                    millis(valueAtPercentile(99.9)), millis(max));
+        }
+
+        private static double millis(long nanos) {
+            return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        }
+    }
+}
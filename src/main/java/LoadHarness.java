@@ -0,0 +1,416 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The {@code LoadHarness} class runs the whole system in one process and drives it with synthetic
+ * fires at a target rate, to measure how many missions it sustains and where it saturates.
+ *
+ * It boots a {@link Scheduler} on a {@link SchedulerEventLoop}, a {@link FleetSimulator} of real
+ * {@link DroneSubsystem} instances, and a fire generator sending datagrams to the fire port as
+ * {@link FireIncidentSubSystem} would. Everything runs in {@link InMemoryTransport embedded mode},
+ * so the measurements are of the system and not of the loopback interface. Each generated fire is
+ * in a zone of its own, so the {@link FireEventList} never merges reports and its size is the
+ * number of fires waiting for a drone.
+ *
+ * A {@link #runStep(double, long) step} offers fires at a fixed rate for a fixed time and reports
+ * mission throughput, the report-to-dispatch and extinguish-time percentiles from the Scheduler's
+ * {@link MetricsLogger}, and the trend of the event list's size. When the fleet cannot keep up,
+ * the list grows for as long as fires keep coming; {@link #findSaturation} raises the rate step by
+ * step until that happens.
+ */
+public class LoadHarness {
+
+    /** Side of the square area fires are generated in, in metres. */
+    private static final int AREA_SIZE = 1000;
+    /** Side of each generated zone, in metres. */
+    private static final int ZONE_SIZE = 100;
+    /** Severities of generated fires, picked uniformly. */
+    private static final String[] SEVERITIES = {"Low", "Moderate", "High"};
+    /** Time between samples of the event list's size, in milliseconds. */
+    private static final long SAMPLE_INTERVAL_MILLIS = 50;
+    /** Growth of the event list, as a fraction of the offered rate, beyond which a step is saturated. */
+    private static final double SATURATION_GROWTH = 0.05;
+    /** Smallest backlog at the end of a step for it to count as saturated, so noise is not. */
+    private static final int SATURATION_MIN_BACKLOG = 10;
+    /** Longest time to wait for the backlog of one step to clear before the next, in milliseconds. */
+    private static final long DRAIN_TIMEOUT_MILLIS = 30_000;
+
+    /** Clock the drones and metrics run on. */
+    private final SystemClock clock;
+    private final FireEventList eventList = new FireEventList();
+    private final Scheduler scheduler;
+    private final SchedulerEventLoop loop;
+    private final ExecutorService workers = Executors.newSingleThreadExecutor();
+    private final FleetSimulator fleet;
+    /** Endpoint generated fires are sent from. */
+    private final Transport fireSender;
+    /** Whether the process was in embedded mode before the harness switched to it. */
+    private final boolean wasEmbedded;
+    /** Address of the Scheduler's fire port. */
+    private final InetSocketAddress fireAddress;
+    private final Random random;
+    /** Number of fires generated, which is also the last zone ID used. */
+    private int firesSent = 0;
+
+    /**
+     * Boots a Scheduler and a fleet of drones, and waits for every drone to register. The process
+     * stays in embedded mode until the harness is {@link #close() closed}.
+     *
+     * @param droneCount the number of drones in the fleet
+     * @param timeScale  the number of simulated milliseconds per real millisecond
+     * @param seed       the seed of the fire generator
+     * @throws IOException          if an in-memory port cannot be bound
+     * @throws InterruptedException if interrupted while the drones register
+     */
+    public LoadHarness(int droneCount, int timeScale, long seed) throws IOException, InterruptedException {
+        clock = new SystemClock(timeScale);
+        random = new Random(seed);
+        wasEmbedded = InMemoryTransport.isEmbedded();
+        InMemoryTransport.setEmbedded(true);
+        InMemoryTransport droneEndpoint = InMemoryTransport.bind(0);
+        InMemoryTransport fireEndpoint = InMemoryTransport.bind(0);
+        fireAddress = new InetSocketAddress(InetAddress.getLoopbackAddress(), fireEndpoint.getLocalPort());
+
+        DroneFleet drones = new DroneFleet(eventList);
+        scheduler = new Scheduler(drones, new DroneRequestBuffer(), eventList, new InProgressEvents(), droneEndpoint);
+        scheduler.getMetricsLogger().setClock(clock);
+        drones.setClock(clock);
+        loop = new SchedulerEventLoop(scheduler, droneEndpoint, fireEndpoint, workers);
+        // Watchdogs run in real time: their slack is ten simulated seconds, which at a large speed-up is
+        // shorter than the scheduling jitter of a busy fleet, and a drone taken for lost leaves the run.
+        drones.setWatchdogTimer(loop);
+        new Thread(loop, "Scheduler Event Loop").start();
+        fireSender = Transport.bind(0);
+
+        fleet = new FleetSimulator("127.0.0.1", droneEndpoint.getLocalPort(), clock, false);
+        // For the same reason the drones send no heartbeats, which would be due every real millisecond.
+        fleet.setHeartbeatInterval(0);
+        fleet.start(droneCount);
+        while (scheduler.getDrones().size() < droneCount) {
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Offers fires at a fixed rate for a fixed time and measures how the system coped. Fires are
+     * sent on schedule whether or not the Scheduler has kept up, so a slow Scheduler shows up as
+     * a backlog rather than as a lower offered rate.
+     *
+     * @param firesPerSecond the rate fires are reported at, per second of real time
+     * @param durationMillis the length of the step, in milliseconds of real time
+     * @return the step's measurements
+     * @throws IOException if a fire cannot be sent
+     */
+    public StepResult runStep(double firesPerSecond, long durationMillis) throws IOException {
+        LatencyHistogram[] histograms = scheduler.getMetricsLogger().histograms();
+        LatencyHistogram.Snapshot responseBefore = histograms[0].snapshot();
+        LatencyHistogram.Snapshot extinguishBefore = histograms[1].snapshot();
+        long missionsBefore = fleet.getMissionsCompleted();
+        int sentBefore = firesSent;
+
+        List<long[]> samples = new ArrayList<>();
+        long period = (long) (TimeUnit.SECONDS.toNanos(1) / firesPerSecond);
+        long start = System.nanoTime();
+        long end = start + TimeUnit.MILLISECONDS.toNanos(durationMillis);
+        long nextFire = start;
+        long nextSample = start;
+        long now;
+        while ((now = System.nanoTime()) < end) {
+            if (now >= nextFire) {
+                sendFire();
+                nextFire += period;
+            } else if (now >= nextSample) {
+                samples.add(new long[]{now - start, eventList.getListSize()});
+                nextSample += TimeUnit.MILLISECONDS.toNanos(SAMPLE_INTERVAL_MILLIS);
+            } else {
+                LockSupport.parkNanos(Math.min(nextFire, nextSample) - now);
+            }
+        }
+        double seconds = (now - start) / 1e9;
+        int backlog = eventList.getListSize();
+        samples.add(new long[]{now - start, backlog});
+
+        // The first half absorbs the fleet's ramp-up; the trend over the second half is the steady state.
+        double growth = slope(samples.subList(samples.size() / 2, samples.size()));
+        boolean saturated = growth > SATURATION_GROWTH * firesPerSecond && backlog >= SATURATION_MIN_BACKLOG;
+        return new StepResult(firesPerSecond, firesSent - sentBefore, (fleet.getMissionsCompleted() - missionsBefore) / seconds,
+                backlog, growth, saturated, histograms[0].snapshot().since(responseBefore),
+                histograms[1].snapshot().since(extinguishBefore));
+    }
+
+    /**
+     * Raises the offered rate step by step until the event list grows without bound, letting the
+     * backlog of each step clear before the next.
+     *
+     * @param startRate      the rate of the first step, in fires per second of real time
+     * @param factor         the factor the rate is multiplied by after each step
+     * @param maxSteps       the largest number of steps to run
+     * @param stepMillis     the length of each step, in milliseconds of real time
+     * @return the results of every step run, the saturated one last if saturation was reached
+     * @throws IOException          if a fire cannot be sent
+     * @throws InterruptedException if interrupted while a backlog clears
+     */
+    public List<StepResult> findSaturation(double startRate, double factor, int maxSteps, long stepMillis)
+            throws IOException, InterruptedException {
+        List<StepResult> steps = new ArrayList<>();
+        double rate = startRate;
+        for (int i = 0; i < maxSteps; i++) {
+            StepResult step = runStep(rate, stepMillis);
+            steps.add(step);
+            if (step.isSaturated() || !awaitDrained(DRAIN_TIMEOUT_MILLIS)) {
+                break;
+            }
+            rate *= factor;
+        }
+        return steps;
+    }
+
+    /**
+     * Waits for the event list to empty.
+     *
+     * @param timeoutMillis the longest time to wait, in milliseconds
+     * @return true if the event list emptied in time
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean awaitDrained(long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (eventList.getListSize() > 0) {
+            if (System.currentTimeMillis() >= deadline) {
+                return false;
+            }
+            Thread.sleep(10);
+        }
+        return true;
+    }
+
+    /**
+     * Stops the fleet, the Scheduler and the fire generator, and restores the process's transport.
+     */
+    public void close() {
+        fleet.stop();
+        loop.stop();
+        fireSender.close();
+        InMemoryTransport.setEmbedded(wasEmbedded);
+    }
+
+    /**
+     * Sends a fire of random severity in a new zone at a random place in the area.
+     */
+    private void sendFire() throws IOException {
+        int zoneId = ++firesSent;
+        int x = random.nextInt(AREA_SIZE - ZONE_SIZE);
+        int y = random.nextInt(AREA_SIZE - ZONE_SIZE);
+        String severity = SEVERITIES[random.nextInt(SEVERITIES.length)];
+        long second = TimeUnit.MILLISECONDS.toSeconds(clock.currentTimeMillis());
+        String time = String.format("%02d:%02d:%02d", second / 3600 % 24, second / 60 % 60, second % 60);
+        FireIncidentEvent fire = new FireIncidentEvent(time, zoneId, "FIRE_DETECTED", severity,
+                new Zone(zoneId, x, y, x + ZONE_SIZE, y + ZONE_SIZE), FireEventReader.waterNeeded(severity), "NO_FAULT", "N/A");
+        fireSender.send(ByteBuffer.wrap(fire.toString().getBytes()), fireAddress);
+    }
+
+    /**
+     * Returns the least-squares slope of the event list's size over time, in fires per second.
+     */
+    private static double slope(List<long[]> samples) {
+        int n = samples.size();
+        if (n < 2) {
+            return 0;
+        }
+        double meanT = 0, meanSize = 0;
+        for (long[] sample : samples) {
+            meanT += sample[0] / 1e9 / n;
+            meanSize += (double) sample[1] / n;
+        }
+        double covariance = 0, variance = 0;
+        for (long[] sample : samples) {
+            double t = sample[0] / 1e9 - meanT;
+            covariance += t * (sample[1] - meanSize);
+            variance += t * t;
+        }
+        return variance == 0 ? 0 : covariance / variance;
+    }
+
+    /**
+     * The measurements of one step: offered rate, mission throughput, backlog and latencies.
+     */
+    public static class StepResult {
+        private final double offeredRate;
+        private final int firesSent;
+        private final double missionsPerSecond;
+        private final int backlog;
+        private final double backlogGrowth;
+        private final boolean saturated;
+        private final LatencyHistogram.Snapshot responseTimes;
+        private final LatencyHistogram.Snapshot extinguishTimes;
+
+        StepResult(double offeredRate, int firesSent, double missionsPerSecond, int backlog, double backlogGrowth,
+                   boolean saturated, LatencyHistogram.Snapshot responseTimes, LatencyHistogram.Snapshot extinguishTimes) {
+            this.offeredRate = offeredRate;
+            this.firesSent = firesSent;
+            this.missionsPerSecond = missionsPerSecond;
+            this.backlog = backlog;
+            this.backlogGrowth = backlogGrowth;
+            this.saturated = saturated;
+            this.responseTimes = responseTimes;
+            this.extinguishTimes = extinguishTimes;
+        }
+
+        /**
+         * Returns the rate fires were offered at.
+         *
+         * @return fires per second of real time
+         */
+        public double getOfferedRate() {
+            return offeredRate;
+        }
+
+        /**
+         * Returns the number of fires sent during the step.
+         *
+         * @return the number of fires sent
+         */
+        public int getFiresSent() {
+            return firesSent;
+        }
+
+        /**
+         * Returns the rate drones returned from missions during the step.
+         *
+         * @return missions per second of real time
+         */
+        public double getMissionsPerSecond() {
+            return missionsPerSecond;
+        }
+
+        /**
+         * Returns the number of fires waiting for a drone at the end of the step.
+         *
+         * @return the size of the event list
+         */
+        public int getBacklog() {
+            return backlog;
+        }
+
+        /**
+         * Returns how fast the event list grew over the second half of the step.
+         *
+         * @return the growth, in fires per second of real time
+         */
+        public double getBacklogGrowth() {
+            return backlogGrowth;
+        }
+
+        /**
+         * Returns whether the event list was growing without bound.
+         *
+         * @return true if the offered rate was beyond what the system sustains
+         */
+        public boolean isSaturated() {
+            return saturated;
+        }
+
+        /**
+         * Returns the times from fires being reported to their first dispatch during the step.
+         *
+         * @return the response times, in simulated time
+         */
+        public LatencyHistogram.Snapshot getResponseTimes() {
+            return responseTimes;
+        }
+
+        /**
+         * Returns the times from fires being reported to being extinguished during the step.
+         *
+         * @return the extinguish times, in simulated time
+         */
+        public LatencyHistogram.Snapshot getExtinguishTimes() {
+            return extinguishTimes;
+        }
+
+        /**
+         * Summarizes the step on one line, with latencies in seconds of simulated time.
+         *
+         * @return the summary
+         */
+        @Override
+        public String toString() {
+            return String.format("offered %.1f fires/s: sent %d, %.1f missions/s, backlog %d (%+.1f/s)%s"
+                            + ", response p50/p90/p99 %.1f/%.1f/%.1f s, extinguish p50/p90/p99 %.1f/%.1f/%.1f s",
+                    offeredRate, firesSent, missionsPerSecond, backlog, backlogGrowth, saturated ? " SATURATED" : "",
+                    seconds(responseTimes, 50), seconds(responseTimes, 90), seconds(responseTimes, 99),
+                    seconds(extinguishTimes, 50), seconds(extinguishTimes, 90), seconds(extinguishTimes, 99));
+        }
+
+        private static double seconds(LatencyHistogram.Snapshot snapshot, double percentile) {
+            return snapshot.valueAtPercentile(percentile) / 1e9;
+        }
+    }
+
+    /**
+     * Boots the system and searches for its saturation point, or runs a single rate if one is given.
+     * Usage: {@code LoadHarness [drones] [--rate R] [--start R] [--factor F] [--steps N] [--step-seconds S]
+     * [--scale N] [--seed N] [--verbose]}. Component logging is muted unless {@code --verbose} is given.
+     *
+     * @param args command-line arguments
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int droneCount = 20;
+        double rate = 0;
+        double startRate = 5;
+        double factor = 1.5;
+        int maxSteps = 12;
+        long stepSeconds = 10;
+        int timeScale = 1000;
+        long seed = 3303;
+        boolean verbose = false;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--rate" -> rate = Double.parseDouble(args[++i]);
+                case "--start" -> startRate = Double.parseDouble(args[++i]);
+                case "--factor" -> factor = Double.parseDouble(args[++i]);
+                case "--steps" -> maxSteps = Integer.parseInt(args[++i]);
+                case "--step-seconds" -> stepSeconds = Long.parseLong(args[++i]);
+                case "--scale" -> timeScale = Integer.parseInt(args[++i]);
+                case "--seed" -> seed = Long.parseLong(args[++i]);
+                case "--verbose" -> verbose = true;
+                default -> droneCount = Integer.parseInt(args[i]);
+            }
+        }
+
+        PrintStream report = System.out;
+        if (!verbose) {
+            Log.setLevel(Log.Level.OFF);
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        }
+        String thread = "[" + Thread.currentThread().getName() + "]: ";
+        LoadHarness harness = new LoadHarness(droneCount, timeScale, seed);
+        report.println(thread + droneCount + " drones registered, time scale " + timeScale);
+        List<StepResult> steps = rate > 0
+                ? List.of(harness.runStep(rate, TimeUnit.SECONDS.toMillis(stepSeconds)))
+                : harness.findSaturation(startRate, factor, maxSteps, TimeUnit.SECONDS.toMillis(stepSeconds));
+        StepResult sustained = null;
+        for (StepResult step : steps) {
+            report.println(thread + step);
+            if (!step.isSaturated()) {
+                sustained = step;
+            }
+        }
+        if (rate <= 0) {
+            report.println(thread + (steps.get(steps.size() - 1).isSaturated()
+                    ? "saturated above " + (sustained == null ? "the first step" : String.format("%.1f fires/s", sustained.getOfferedRate()))
+                    : "not saturated up to " + String.format("%.1f fires/s", steps.get(steps.size() - 1).getOfferedRate())));
+        }
+        harness.close();
+    }
+}
@@ -0,0 +1,339 @@
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The {@code Log} class is the system's console logger: a named category with its own level, whose
+ * lines are written to standard output by a background thread.
+ *
+ * Each class logs through a category, e.g. {@code Log.category("dispatch")}. A category only
+ * prints messages at or above its level, and checking the level is a single volatile read, so a
+ * hot path guarded with {@link #isDebugEnabled()} or {@link #isEnabled(Level, int)} builds no
+ * message at all when its category is switched off. Per-drone messages can also be sampled: at
+ * most {@link #setSampleRate(int) a few per second} are printed for each key, and the rest are
+ * counted as suppressed.
+ *
+ * Lines are stamped with the calling thread's name and handed to a bounded queue, so callers
+ * holding a monitor never wait on the console. If the console falls a whole queue behind, lines
+ * are dropped and counted. Queued lines are written when the JVM exits, or on {@link #flush()}.
+ *
+ * Levels are set with {@link #setLevel(Level)} and {@link #setLevel(String, Level)}, or at start-up
+ * with the {@code log} system property, e.g. {@code -Dlog=warn,dispatch=debug}.
+ */
+public class Log {
+
+    /**
+     * Severity of a message, from most to least verbose.
+     */
+    public enum Level { DEBUG, INFO, WARN, ERROR, OFF }
+
+    /** Number of lines the queue holds before lines are dropped. */
+    private static final int QUEUE_CAPACITY = 8192;
+    /** Number of rate-limit windows per category; keys sharing a window share its budget. */
+    private static final int SAMPLE_WINDOWS = 1024;
+    /** Bits of a packed window holding the message count; the rest hold the second it started. */
+    private static final int COUNT_BITS = 20;
+
+    /** Every category created, by name. */
+    private static final Map<String, Log> categories = new ConcurrentHashMap<>();
+    /** Level of categories not given their own. */
+    private static volatile Level defaultLevel = Level.INFO;
+    /** Whether lines are written by the background thread instead of the caller. */
+    private static volatile boolean async = true;
+    /** Lines waiting to be written. */
+    private static final BlockingQueue<String> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    /** Number of lines dropped because the queue was full. */
+    private static final AtomicLong dropped = new AtomicLong();
+    /** Held while writing lines, so the writer thread and {@link #flush()} never interleave. */
+    private static final Object output = new Object();
+    /** Thread that writes queued lines in the background. */
+    private static final Thread writer;
+    /** Whether the writer is parked, or about to park, on an empty queue, so loggers know to wake it. */
+    private static volatile boolean writerIdle = false;
+
+    private final String name;
+    /** Whether the level was set for this category, so {@link #setLevel(Level)} leaves it alone. */
+    private volatile boolean configured = false;
+    private volatile Level level;
+    /** Messages printed per key per second when sampling. */
+    private volatile int sampleRate = 5;
+    /** Per-key rate-limit windows, each packing its start second and its message count. */
+    private final AtomicLongArray windows = new AtomicLongArray(SAMPLE_WINDOWS);
+    /** Number of sampled messages suppressed. */
+    private final AtomicLong suppressed = new AtomicLong();
+
+    static {
+        configure(System.getProperty("log", ""));
+        writer = new Thread(Log::writeLoop, "Log writer");
+        writer.setDaemon(true);
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(Log::flush, "Log flush"));
+    }
+
+    private Log(String name) {
+        this.name = name;
+        this.level = defaultLevel;
+    }
+
+    /**
+     * Returns the category with the given name, creating it at the default level.
+     *
+     * @param name the category's name
+     * @return the category
+     */
+    public static Log category(String name) {
+        return categories.computeIfAbsent(name, Log::new);
+    }
+
+    /**
+     * Sets the level of every category not given its own level, and of categories created later.
+     *
+     * @param level the lowest level printed
+     */
+    public static void setLevel(Level level) {
+        defaultLevel = level;
+        for (Log category : categories.values()) {
+            if (!category.configured) {
+                category.level = level;
+            }
+        }
+    }
+
+    /**
+     * Sets the level of one category.
+     *
+     * @param name  the category's name
+     * @param level the lowest level printed for that category
+     */
+    public static void setLevel(String name, Level level) {
+        Log category = category(name);
+        category.configured = true;
+        category.level = level;
+    }
+
+    /**
+     * Sets levels from a comma-separated list of {@code level} and {@code category=level} entries,
+     * e.g. {@code "warn,dispatch=debug"}. Unknown levels are reported and ignored.
+     *
+     * @param spec the level list
+     */
+    public static void configure(String spec) {
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts[0].isEmpty()) {
+                continue;
+            }
+            try {
+                if (parts.length == 1) {
+                    setLevel(Level.valueOf(parts[0].toUpperCase(Locale.ROOT)));
+                } else {
+                    setLevel(parts[0].trim(), Level.valueOf(parts[1].trim().toUpperCase(Locale.ROOT)));
+                }
+            } catch (IllegalArgumentException e) {
+                System.out.println("[Error] Unknown log level: " + entry.trim());
+            }
+        }
+    }
+
+    /**
+     * Sets whether lines are written by the background thread. When off, each line is written by
+     * the thread that logs it, in order with anything else it prints.
+     *
+     * @param async true to write lines in the background
+     */
+    public static void setAsync(boolean async) {
+        flush();
+        Log.async = async;
+    }
+
+    /**
+     * Writes every queued line now.
+     */
+    public static void flush() {
+        synchronized (output) {
+            List<String> lines = new ArrayList<>();
+            queue.drainTo(lines);
+            write(lines);
+        }
+    }
+
+    /**
+     * Returns the number of lines dropped because the console fell a whole queue behind.
+     *
+     * @return the number of dropped lines
+     */
+    public static long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * Returns this category's name.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Sets the number of messages printed per key per second by {@link #isEnabled(Level, int)}.
+     *
+     * @param perSecond the number of messages allowed per key per second
+     */
+    public void setSampleRate(int perSecond) {
+        sampleRate = perSecond;
+    }
+
+    /**
+     * Returns the number of sampled messages that were not printed.
+     *
+     * @return the number of suppressed messages
+     */
+    public long getSuppressed() {
+        return suppressed.get();
+    }
+
+    /**
+     * Returns whether messages at a level are printed.
+     *
+     * @param level the level
+     * @return true if the category prints messages at that level
+     */
+    public boolean isEnabled(Level level) {
+        return level.compareTo(this.level) >= 0 && level != Level.OFF;
+    }
+
+    /**
+     * Returns whether debug messages are printed.
+     *
+     * @return true if the category prints debug messages
+     */
+    public boolean isDebugEnabled() {
+        return isEnabled(Level.DEBUG);
+    }
+
+    /**
+     * Returns whether a message at a level about a key, such as a drone ID, should be printed: the
+     * level must be enabled and the key must not have used up its messages for this second.
+     * Messages refused by the rate limit are counted as suppressed.
+     *
+     * @param level the level
+     * @param key   the key the rate limit is kept for
+     * @return true if the message should be printed
+     */
+    public boolean isEnabled(Level level, int key) {
+        if (!isEnabled(level)) {
+            return false;
+        }
+        int window = key & (SAMPLE_WINDOWS - 1);
+        long second = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+        while (true) {
+            long packed = windows.get(window);
+            long next = (packed >>> COUNT_BITS) == second ? packed + 1 : second << COUNT_BITS | 1;
+            if ((next & ((1 << COUNT_BITS) - 1)) > sampleRate) {
+                suppressed.incrementAndGet();
+                return false;
+            }
+            if (windows.compareAndSet(window, packed, next)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Logs a message at a level, if the level is enabled.
+     *
+     * @param level   the level
+     * @param message the message
+     */
+    public void log(Level level, String message) {
+        if (!isEnabled(level)) {
+            return;
+        }
+        String line = "[" + Thread.currentThread().getName() + "]: " + message;
+        if (!async) {
+            System.out.println(line);
+        } else if (!queue.offer(line)) {
+            dropped.incrementAndGet();
+        } else if (writerIdle) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    /**
+     * Logs a debug message.
+     *
+     * @param message the message
+     */
+    public void debug(String message) {
+        log(Level.DEBUG, message);
+    }
+
+    /**
+     * Logs an info message.
+     *
+     * @param message the message
+     */
+    public void info(String message) {
+        log(Level.INFO, message);
+    }
+
+    /**
+     * Logs a warning.
+     *
+     * @param message the message
+     */
+    public void warn(String message) {
+        log(Level.WARN, message);
+    }
+
+    /**
+     * Logs an error.
+     *
+     * @param message the message
+     */
+    public void error(String message) {
+        log(Level.ERROR, message);
+    }
+
+    /**
+     * Writes queued lines to standard output as they arrive, in batches, parking while the queue is
+     * empty until a logger wakes it. Lines stay queued until written, so {@link #flush()} at exit
+     * still sees any the writer has not reached.
+     */
+    private static void writeLoop() {
+        while (true) {
+            writerIdle = true;
+            if (queue.isEmpty()) {
+                LockSupport.park();
+            }
+            writerIdle = false;
+            flush();
+        }
+    }
+
+    /**
+     * Writes lines to the current standard output as one block.
+     */
+    private static void write(List<String> lines) {
+        if (lines.isEmpty()) {
+            return;
+        }
+        StringBuilder block = new StringBuilder();
+        for (String line : lines) {
+            block.append(line).append(System.lineSeparator());
+        }
+        PrintStream out = System.out;
+        out.print(block);
+        out.flush();
+    }
+}
@@ -1,26 +1,43 @@
-public class Main {
-
-    public static void main(String[] args) {
-        // Initialize Scheduler
-        /*
-        Scheduler scheduler = new Scheduler();
+import java.io.IOException;
+import java.util.Arrays;
 
-        // Initialize FireIncidentSubSystem and start its thread
-        FireIncidentSubSystem fireSystem = new FireIncidentSubSystem(scheduler, "src/main/resources/Sample_zone_file.csv", "src/main/resources/Sample_event_file.csv");
-        Thread fireThread = new Thread(fireSystem);
+/**
+ * The {@code Main} class runs the whole system - the Scheduler threads, a fleet of drones and the
+ * fire incident subsystem - in one JVM.
+ *
+ * By default every component talks through an {@link InMemoryTransport}, so the system runs at
+ * memory speed without binding a single UDP port. Pass {@code --udp} to use real UDP sockets
+ * instead, as the separate {@code Scheduler}, {@code DroneSubsystem} and
+ * {@code FireIncidentSubSystem} processes do. {@code --loss P} drops that fraction of the
+ * in-memory datagrams, to watch the {@link ReliableTransport} recover from a lossy link.
+ */
+public class Main {
 
+    /** Port the Scheduler listens for drones on. */
+    private static final int DRONE_PORT = 5000;
+    /** Number of drones started unless another number is given. */
+    private static final int DEFAULT_DRONE_COUNT = 10;
 
-        // Initialize DroneSubsystem and start its thread.
-        DroneSubsystem drone1 = new DroneSubsystem(scheduler, 1);
-        Thread droneThread = new Thread(drone1);
-        scheduler.receiveDroneEvent(drone1);
+    /**
+     * Starts the Scheduler, the drones and the fire incident subsystem, then streams the sample
+     * fire events to the Scheduler.
+     * Usage: {@code Main [drones] [--udp] [--binary] [--loss P]}.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int droneCount = args.length > 0 && !args[0].startsWith("--") ? Integer.parseInt(args[0]) : DEFAULT_DRONE_COUNT;
+        boolean binary = Arrays.asList(args).contains("--binary");
+        InMemoryTransport.setEmbedded(!Arrays.asList(args).contains("--udp"));
+        int loss = Arrays.asList(args).indexOf("--loss");
+        if (loss >= 0) {
+            InMemoryTransport.setLossRate(Double.parseDouble(args[loss + 1]), System.nanoTime());
+        }
 
-        // Start Scheduler thread
-        Thread schedulerThread = new Thread(scheduler);
+        Scheduler.startSchedulerThreads();
+        FleetSimulator fleet = new FleetSimulator("localhost", DRONE_PORT, SystemClock.getDefault(), binary);
+        fleet.start(droneCount);
 
-        fireThread.start();
-        droneThread.start();
-        schedulerThread.start();
-*/
+        FireIncidentSubSystem fireSystem = new FireIncidentSubSystem("src/main/resources/sample_zone_file.csv");
+        fireSystem.setBinaryProtocol(binary);
+        fireSystem.streamFireIncidents("src/main/resources/Sample_event_file.csv");
     }
-}
\ No newline at end of file
+}
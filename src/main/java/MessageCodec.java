@@ -0,0 +1,452 @@
+import java.nio.ByteBuffer;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * The {@code MessageCodec} class implements the binary wire format shared by the Scheduler,
+ * the DroneSubsystem and the FireIncidentSubSystem, as an alternative to the colon-delimited
+ * text protocol.
+ *
+ * Every binary message is one fixed-size frame of {@link #FRAME_SIZE} bytes, big-endian:
+ * <pre>
+ *  0  magic (0xD5)     1  version        2  message type   3  fault
+ *  4  fault type       5  severity       6  event type     7  reserved
+ *  8  id (drone or event)               12  water
+ * 16  x (or zone start x)               20  y (or zone start y)
+ * 24  zone end x                        28  zone end y
+ * 32  zone id                           36  event time, in seconds of the day
+ * 40  correlation id
+ * </pre>
+ * A request's correlation ID is copied into its response, so a client with several requests in
+ * flight can tell which one a response answers; 0 means the sender does not correlate.
+ * Text messages never start with the magic byte, so a receiver can tell the two protocols apart
+ * per datagram with {@link #isBinary(byte[], int)} and reply in kind.
+ *
+ * All field access uses absolute offsets on a caller-supplied buffer, so encoding and decoding
+ * allocate nothing; enumerated strings are mapped to and from shared constants.
+ */
+public final class MessageCodec {
+
+    /** First byte of every binary frame. Not a printable character, so it never starts a text message. */
+    public static final byte MAGIC = (byte) 0xD5;
+    /** Current version of the frame layout. */
+    public static final byte VERSION = 2;
+    /** Size of every binary frame, in bytes. */
+    public static final int FRAME_SIZE = 44;
+
+    private static final int OFFSET_MAGIC = 0;
+    private static final int OFFSET_VERSION = 1;
+    private static final int OFFSET_TYPE = 2;
+    private static final int OFFSET_FAULT = 3;
+    private static final int OFFSET_FAULT_TYPE = 4;
+    private static final int OFFSET_SEVERITY = 5;
+    private static final int OFFSET_EVENT_TYPE = 6;
+    private static final int OFFSET_ID = 8;
+    private static final int OFFSET_WATER = 12;
+    private static final int OFFSET_X = 16;
+    private static final int OFFSET_Y = 20;
+    private static final int OFFSET_END_X = 24;
+    private static final int OFFSET_END_Y = 28;
+    private static final int OFFSET_ZONE_ID = 32;
+    private static final int OFFSET_TIME = 36;
+    private static final int OFFSET_CORRELATION = 40;
+
+    /** Drone requests. */
+    public static final byte INITIALIZE_DRONE = 1;
+    public static final byte GET_TASK = 2;
+    public static final byte RETURN_TO_SCHEDULER = 3;
+    public static final byte NOTIFY_ARRIVED = 4;
+    public static final byte OPEN_NOZZLE = 5;
+    public static final byte UPDATE_LOCATION = 6;
+    /** Fire incident subsystem request. */
+    public static final byte FIRE_EVENT = 7;
+    /** Drone request announcing a new course, with the target in x and y. */
+    public static final byte SET_COURSE = 8;
+    /** Drone heartbeat, sent periodically and never answered. */
+    public static final byte HEARTBEAT = 9;
+    /** Scheduler messages. */
+    public static final byte TASK = 20;
+    public static final byte DRONE_ID = 21;
+    public static final byte OPEN_NOZZLE_RESPONSE = 22;
+    public static final byte RETURN_TO_SCHEDULER_OK = 23;
+    public static final byte FIRE_EVENT_RECEIVED = 24;
+    public static final byte LOCATION_OK = 25;
+    public static final byte OK = 26;
+    public static final byte CORRUPTED_MESSAGE = 27;
+
+    /** Fault names, indexed by their wire code. */
+    private static final String[] FAULTS = {"NO_FAULT", "CORRUPTED_MESSAGE", "NOZZLE_JAM", "DRONE_STUCK", "DOOR_STUCK"};
+    /** Fault type names, indexed by their wire code. */
+    private static final String[] FAULT_TYPES = {"N/A", "TRANSIENT_FAULT", "HARD_FAULT"};
+    /** Severity names, indexed by their wire code; code 0 is an unknown severity. */
+    private static final String[] SEVERITIES = {"Unknown", "Low", "Moderate", "High"};
+    /** Event type names, indexed by their wire code; code 0 is an unknown event type. */
+    private static final String[] EVENT_TYPES = {"UNKNOWN", "FIRE_DETECTED", "DRONE_REQUEST"};
+
+    /** Text responses that have a binary equivalent, indexed in step with {@link #RESPONSE_TYPES}. */
+    private static final String[] RESPONSES = {"OPEN_NOZZLE", "RETURN_TO_SCHEDULER:OK", "FIRE_EVENT:RECEIVED", "Location_OK", "OK", "CORRUPTED_MESSAGED"};
+    /** Binary response types, indexed in step with {@link #RESPONSES}. */
+    private static final byte[] RESPONSE_TYPES = {OPEN_NOZZLE_RESPONSE, RETURN_TO_SCHEDULER_OK, FIRE_EVENT_RECEIVED, LOCATION_OK, OK, CORRUPTED_MESSAGE};
+
+    /** ASCII names of the text drone requests, indexed in step with {@link #COMMAND_TYPES}. */
+    private static final byte[][] COMMANDS = {
+            "INITIALIZE_DRONE".getBytes(), "GET_TASK".getBytes(), "RETURN_TO_SCHEDULER".getBytes(),
+            "NOTIFY_ARRIVED".getBytes(), "OPEN_NOZZLE".getBytes(), "UPDATE_LOCATION".getBytes(), "SET_COURSE".getBytes(),
+            "HEARTBEAT".getBytes()};
+    /** Binary request types, indexed in step with {@link #COMMANDS}. */
+    private static final byte[] COMMAND_TYPES = {INITIALIZE_DRONE, GET_TASK, RETURN_TO_SCHEDULER, NOTIFY_ARRIVED, OPEN_NOZZLE, UPDATE_LOCATION, SET_COURSE, HEARTBEAT};
+    /** Field value standing for a missing or non-numeric text field. */
+    private static final long MALFORMED = Long.MIN_VALUE;
+
+    /** Format of the event time in the text protocol and in {@link FireIncidentEvent}. */
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    private MessageCodec() {
+    }
+
+    /**
+     * Checks whether a received datagram is a binary frame rather than a text message.
+     *
+     * @param data   the datagram bytes
+     * @param length the number of valid bytes
+     * @return true if the datagram starts with the binary magic byte
+     */
+    public static boolean isBinary(byte[] data, int length) {
+        return length > 0 && data[0] == MAGIC;
+    }
+
+    /**
+     * Checks whether a received datagram is a binary frame rather than a text message.
+     *
+     * @param data the datagram, from index 0 to its limit
+     * @return true if the datagram starts with the binary magic byte
+     */
+    public static boolean isBinary(ByteBuffer data) {
+        return data.limit() > 0 && data.get(0) == MAGIC;
+    }
+
+    /**
+     * Checks that a frame is complete and uses a supported version.
+     *
+     * @param frame the frame, from index 0 to its limit
+     * @return true if the frame can be decoded
+     */
+    public static boolean isValid(ByteBuffer frame) {
+        return frame.limit() >= FRAME_SIZE && frame.get(OFFSET_MAGIC) == MAGIC && frame.get(OFFSET_VERSION) == VERSION;
+    }
+
+    /**
+     * Writes a frame with the given type and numeric fields, clearing every other field.
+     *
+     * @param frame a buffer of at least {@link #FRAME_SIZE} bytes
+     * @param type  the message type
+     * @param id    the drone or event ID
+     * @param water the water amount
+     * @param x     the x-coordinate
+     * @param y     the y-coordinate
+     */
+    public static void encode(ByteBuffer frame, byte type, int id, int water, int x, int y) {
+        frame.putLong(0, 0L);
+        frame.put(OFFSET_MAGIC, MAGIC);
+        frame.put(OFFSET_VERSION, VERSION);
+        frame.put(OFFSET_TYPE, type);
+        frame.putInt(OFFSET_ID, id);
+        frame.putInt(OFFSET_WATER, water);
+        frame.putInt(OFFSET_X, x);
+        frame.putInt(OFFSET_Y, y);
+        frame.putLong(OFFSET_END_X, 0L);
+        frame.putLong(OFFSET_ZONE_ID, 0L);
+        frame.putInt(OFFSET_CORRELATION, 0);
+    }
+
+    /**
+     * Writes a task frame sent by the Scheduler to a drone.
+     *
+     * @param frame     a buffer of at least {@link #FRAME_SIZE} bytes
+     * @param droneID   the drone the task is for
+     * @param water     the water needed at the target
+     * @param x         the target x-coordinate
+     * @param y         the target y-coordinate
+     * @param fault     the fault to simulate
+     * @param faultType the type of the fault to simulate
+     */
+    public static void encodeTask(ByteBuffer frame, int droneID, int water, int x, int y, String fault, String faultType) {
+        encode(frame, TASK, droneID, water, x, y);
+        frame.put(OFFSET_FAULT, code(FAULTS, fault, 0));
+        frame.put(OFFSET_FAULT_TYPE, code(FAULT_TYPES, faultType, 0));
+    }
+
+    /**
+     * Writes a fire event frame sent by the fire incident subsystem.
+     *
+     * @param frame a buffer of at least {@link #FRAME_SIZE} bytes
+     * @param event the fire event
+     */
+    public static void encodeFireEvent(ByteBuffer frame, FireIncidentEvent event) {
+        Zone zone = event.getZone();
+        encode(frame, FIRE_EVENT, event.getID(), event.getWaterNeeded(), zone.getStart().x, zone.getStart().y);
+        frame.put(OFFSET_FAULT, code(FAULTS, event.getFault(), 0));
+        frame.put(OFFSET_FAULT_TYPE, code(FAULT_TYPES, event.getFaultType(), 0));
+        frame.put(OFFSET_SEVERITY, code(SEVERITIES, event.getSeverity(), 0));
+        frame.put(OFFSET_EVENT_TYPE, code(EVENT_TYPES, event.getEventType(), 0));
+        frame.putInt(OFFSET_END_X, zone.getEnd().x);
+        frame.putInt(OFFSET_END_Y, zone.getEnd().y);
+        frame.putInt(OFFSET_ZONE_ID, event.getZoneId());
+        frame.putInt(OFFSET_TIME, event.getEventTime().toSecondOfDay());
+    }
+
+    /**
+     * Writes the binary equivalent of a Scheduler text response. A response that is a bare number
+     * is a newly assigned drone ID.
+     *
+     * @param frame    a buffer of at least {@link #FRAME_SIZE} bytes
+     * @param response the text response
+     * @return true if the response has a binary equivalent; false if the frame was left untouched
+     */
+    public static boolean encodeResponse(ByteBuffer frame, String response) {
+        for (int i = 0; i < RESPONSES.length; i++) {
+            if (RESPONSES[i].equals(response)) {
+                encode(frame, RESPONSE_TYPES[i], 0, 0, 0, 0);
+                return true;
+            }
+        }
+        int droneID = 0;
+        for (int i = 0; i < response.length(); i++) {
+            char c = response.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+            droneID = droneID * 10 + (c - '0');
+        }
+        if (response.isEmpty()) {
+            return false;
+        }
+        encode(frame, DRONE_ID, droneID, 0, 0, 0);
+        return true;
+    }
+
+    /**
+     * Decodes a colon-delimited text drone request, such as {@code UPDATE_LOCATION:3:120:80}, into
+     * the equivalent binary frame. The text is parsed where it lies, without building strings.
+     * An unknown command, or a missing or non-numeric field, decodes to a frame of type 0, which
+     * no handler recognizes.
+     *
+     * @param text  the text request, from index 0 to its limit
+     * @param frame a buffer of at least {@link #FRAME_SIZE} bytes
+     */
+    public static void decodeText(ByteBuffer text, ByteBuffer frame) {
+        int length = text.limit();
+        int end = 0;
+        while (end < length && text.get(end) != ':') {
+            end++;
+        }
+        byte type = 0;
+        for (int i = 0; i < COMMANDS.length && type == 0; i++) {
+            if (matches(text, end, COMMANDS[i])) {
+                type = COMMAND_TYPES[i];
+            }
+        }
+        long id = type == INITIALIZE_DRONE ? 0 : field(text, 1);
+        long water = type == RETURN_TO_SCHEDULER ? field(text, 2) : 0;
+        boolean located = type == UPDATE_LOCATION || type == SET_COURSE;
+        long x = located ? field(text, 2) : 0;
+        long y = located ? field(text, 3) : 0;
+        if (water == MALFORMED && fieldCount(text) <= 2) {
+            // The water amount of RETURN_TO_SCHEDULER is informational and may be left out.
+            water = 0;
+        }
+        if (id == MALFORMED || water == MALFORMED || x == MALFORMED || y == MALFORMED) {
+            encode(frame, (byte) 0, 0, 0, 0, 0);
+            return;
+        }
+        encode(frame, type, (int) id, (int) water, (int) x, (int) y);
+    }
+
+    /**
+     * Builds the fire event carried by a fire event frame.
+     *
+     * @param frame a valid fire event frame
+     * @return the decoded fire event
+     */
+    public static FireIncidentEvent decodeFireEvent(ByteBuffer frame) {
+        int zoneId = zoneId(frame);
+        Zone zone = new Zone(zoneId, x(frame), y(frame), endX(frame), endY(frame));
+        String time = LocalTime.ofSecondOfDay(time(frame)).format(TIME_FORMAT);
+        return new FireIncidentEvent(time, zoneId, eventType(frame), severity(frame), zone, water(frame), fault(frame), faultType(frame));
+    }
+
+    public static byte type(ByteBuffer frame) {
+        return frame.get(OFFSET_TYPE);
+    }
+
+    public static int id(ByteBuffer frame) {
+        return frame.getInt(OFFSET_ID);
+    }
+
+    public static int water(ByteBuffer frame) {
+        return frame.getInt(OFFSET_WATER);
+    }
+
+    public static int x(ByteBuffer frame) {
+        return frame.getInt(OFFSET_X);
+    }
+
+    public static int y(ByteBuffer frame) {
+        return frame.getInt(OFFSET_Y);
+    }
+
+    public static int endX(ByteBuffer frame) {
+        return frame.getInt(OFFSET_END_X);
+    }
+
+    public static int endY(ByteBuffer frame) {
+        return frame.getInt(OFFSET_END_Y);
+    }
+
+    public static int zoneId(ByteBuffer frame) {
+        return frame.getInt(OFFSET_ZONE_ID);
+    }
+
+    /**
+     * Returns the event time of a fire event frame.
+     *
+     * @param frame the frame
+     * @return the event time in seconds of the day
+     */
+    public static int time(ByteBuffer frame) {
+        return frame.getInt(OFFSET_TIME);
+    }
+
+    /**
+     * Returns the correlation ID of a frame.
+     *
+     * @param frame the frame
+     * @return the ID of the request the frame is or answers, or 0 if it is not correlated
+     */
+    public static int correlation(ByteBuffer frame) {
+        return frame.getInt(OFFSET_CORRELATION);
+    }
+
+    /**
+     * Sets the correlation ID of an encoded frame.
+     *
+     * @param frame         the frame
+     * @param correlationId the ID of the request the frame is or answers, or 0
+     */
+    public static void setCorrelation(ByteBuffer frame, int correlationId) {
+        frame.putInt(OFFSET_CORRELATION, correlationId);
+    }
+
+    public static String fault(ByteBuffer frame) {
+        return name(FAULTS, frame.get(OFFSET_FAULT));
+    }
+
+    public static String faultType(ByteBuffer frame) {
+        return name(FAULT_TYPES, frame.get(OFFSET_FAULT_TYPE));
+    }
+
+    public static String severity(ByteBuffer frame) {
+        return name(SEVERITIES, frame.get(OFFSET_SEVERITY));
+    }
+
+    public static String eventType(ByteBuffer frame) {
+        return name(EVENT_TYPES, frame.get(OFFSET_EVENT_TYPE));
+    }
+
+    /**
+     * Returns the text response equivalent to a binary Scheduler response, as the drone's text
+     * protocol would have received it.
+     *
+     * @param frame the response frame
+     * @return the text response, or null if the frame is not a fixed response
+     */
+    public static String responseText(ByteBuffer frame) {
+        byte type = type(frame);
+        for (int i = 0; i < RESPONSE_TYPES.length; i++) {
+            if (RESPONSE_TYPES[i] == type) {
+                return RESPONSES[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether the first bytes of a text message spell a command name.
+     */
+    private static boolean matches(ByteBuffer text, int length, byte[] command) {
+        if (length != command.length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (text.get(i) != command[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parses a colon-delimited field of a text message as an integer.
+     *
+     * @return the value, or {@link #MALFORMED} if the field is missing, empty, non-numeric or out of range
+     */
+    private static long field(ByteBuffer text, int index) {
+        int length = text.limit();
+        int position = 0;
+        for (int skipped = 0; skipped < index; position++) {
+            if (position >= length) {
+                return MALFORMED;
+            }
+            if (text.get(position) == ':') {
+                skipped++;
+            }
+        }
+        boolean negative = position < length && text.get(position) == '-';
+        if (negative) {
+            position++;
+        }
+        long value = 0;
+        int digits = 0;
+        for (; position < length && text.get(position) != ':'; position++) {
+            int digit = text.get(position) - '0';
+            if (digit < 0 || digit > 9 || ++digits > 10) {
+                return MALFORMED;
+            }
+            value = value * 10 + digit;
+        }
+        value = negative ? -value : value;
+        return digits == 0 || value > Integer.MAX_VALUE || value < Integer.MIN_VALUE ? MALFORMED : value;
+    }
+
+    /**
+     * Counts the colon-delimited fields of a text message.
+     */
+    private static int fieldCount(ByteBuffer text) {
+        int count = 1;
+        for (int i = 0; i < text.limit(); i++) {
+            if (text.get(i) == ':') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Looks up the wire code of an enumerated string.
+     */
+    private static byte code(String[] names, String name, int fallback) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equalsIgnoreCase(name)) {
+                return (byte) i;
+            }
+        }
+        return (byte) fallback;
+    }
+
+    /**
+     * Looks up the enumerated string of a wire code; unknown codes map to the first name.
+     */
+    private static String name(String[] names, byte code) {
+        return code >= 0 && code < names.length ? names[code] : names[0];
+    }
+}
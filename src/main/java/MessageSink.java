@@ -0,0 +1,17 @@
+import java.net.InetAddress;
+
+/**
+ * The {@code MessageSink} interface receives the messages a {@link Scheduler} sends when it runs
+ * in-process, such as in a {@link ScenarioSimulation}, instead of sending them over UDP.
+ */
+public interface MessageSink {
+
+    /**
+     * Delivers a text message to the peer at the given address and port.
+     *
+     * @param message the message, exactly as it would have been sent in a datagram
+     * @param address the recipient's InetAddress
+     * @param port    the recipient's port number
+     */
+    void deliver(String message, InetAddress address, int port);
+}
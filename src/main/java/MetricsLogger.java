@@ -1,18 +1,37 @@
-import java.io.BufferedWriter;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * The {@code MetricsLogger} class records and logs fire event metrics, including
  * response time and extinguish time, to a CSV file. It tracks the timeline of each
- * fire incident using {@link FireEventMetrics}.
+ * fire incident using {@link FireEventMetrics}. Rows are written by an
+ * {@link AsyncMetricsWriter}, so logging a fire never waits on the disk, and fires are tracked in
+ * a bounded {@link FireMetricsStore} that forgets each fire once its row is written.
+ *
+ * Alongside the per-fire rows, every latency is counted in a {@link LatencyHistogram}: response
+ * time, extinguish time, queue wait and the Scheduler's handling time per message. Recording is
+ * lock-free, so the dispatch path never waits on it, and {@link #startPeriodicSummaries(long)}
+ * prints their percentiles at a fixed interval.
  */
 public class MetricsLogger {
-    private BufferedWriter writer;
-    private Map<Integer, FireEventMetrics> fireEventMetricsMap;
+    private final AsyncMetricsWriter writer;
+    private final FireMetricsStore fireMetricsStore;
+    private SimulationClock clock = SystemClock.getDefault();
+
+    /** Simulated time from a fire being reported to a drone first being dispatched to it. */
+    private final LatencyHistogram responseTimes = new LatencyHistogram("response time");
+    /** Simulated time from a fire being reported to it being extinguished. */
+    private final LatencyHistogram extinguishTimes = new LatencyHistogram("extinguish time");
+    /** Simulated time fire events wait in the event list, each time they are queued. */
+    private final LatencyHistogram queueWaits = new LatencyHistogram("queue wait");
+    /** Real time the Scheduler takes to handle each drone or fire message. */
+    private final LatencyHistogram handlingTimes = new LatencyHistogram("handling time");
+    /** Snapshots taken at the last periodic summary, in the order of {@link #histograms()}. */
+    private LatencyHistogram.Snapshot[] lastSummary;
+    /** Thread printing periodic summaries, or null. */
+    private ScheduledExecutorService summaries;
 
     /**
      * Constructs a {@code MetricsLogger} instance and initializes the CSV file for writing.
@@ -21,41 +40,75 @@ public class MetricsLogger {
      * @throws IOException If an I/O error occurs while creating or writing to the file.
      */
     public MetricsLogger(String filename) throws IOException {
-        writer = new BufferedWriter(new FileWriter(filename));
-        writer.write("FireID,ZoneID,ResponseTime(ms),ExtinguishTime(ms)\n");
-        fireEventMetricsMap = new ConcurrentHashMap<>();
+        this(filename, AsyncMetricsWriter.DEFAULT_FLUSH_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Constructs a {@code MetricsLogger} instance whose CSV file is flushed at the given interval.
+     *
+     * @param filename            The name of the CSV file to write metrics to.
+     * @param flushIntervalMillis The longest time a row waits before the file is flushed, in milliseconds.
+     * @throws IOException If an I/O error occurs while creating or writing to the file.
+     */
+    public MetricsLogger(String filename, long flushIntervalMillis) throws IOException {
+        this(filename, flushIntervalMillis, new FireMetricsStore());
+    }
+
+    /**
+     * Constructs a {@code MetricsLogger} instance that tracks fires in the given store.
+     *
+     * @param filename            The name of the CSV file to write metrics to.
+     * @param flushIntervalMillis The longest time a row waits before the file is flushed, in milliseconds.
+     * @param fireMetricsStore    The store fires in progress are tracked in.
+     * @throws IOException If an I/O error occurs while creating or writing to the file.
+     */
+    public MetricsLogger(String filename, long flushIntervalMillis, FireMetricsStore fireMetricsStore) throws IOException {
+        writer = new AsyncMetricsWriter(filename, AsyncMetricsWriter.DEFAULT_CAPACITY, flushIntervalMillis);
+        this.fireMetricsStore = fireMetricsStore;
+    }
+
+    /**
+     * Sets the clock fire timestamps are read from, so that logged times are in simulated time.
+     *
+     * @param clock The simulation clock.
+     */
+    public void setClock(SimulationClock clock) {
+        this.clock = clock;
     }
 
     /**
-     * Logs a completed fire event with its associated metrics to the CSV file.
+     * Logs a completed fire event with its associated metrics to the CSV file. The row is queued
+     * for the background writer; if the writer has fallen a whole buffer behind, it is dropped.
      *
      * @param fireID         The ID of the fire incident.
      * @param zoneID         The zone where the fire occurred.
-     * @param responseTime   Time (in ms) from fire report to drone dispatch.
-     * @param extinguishTime Time (in ms) from fire report to extinguishing.
-     * @throws IOException If an error occurs while writing to the file.
+     * @param responseTime   Time (in ms of simulated time) from fire report to drone dispatch.
+     * @param extinguishTime Time (in ms of simulated time) from fire report to extinguishing.
+     * @return {@code true} if the row was queued.
      */
-    public synchronized void logFireMetrics(int fireID, int zoneID, long responseTime, long extinguishTime) throws IOException {
-        writer.write(String.format("%s,%s,%d,%d\n", fireID, zoneID, responseTime, extinguishTime));
-        writer.flush();
+    public boolean logFireMetrics(int fireID, int zoneID, long responseTime, long extinguishTime) {
+        return writer.publish(fireID, zoneID, responseTime, extinguishTime);
     }
 
     /**
-     * Closes the file writer associated with this logger.
+     * Closes the file writer associated with this logger, after writing every queued row.
      *
      * @throws IOException If an error occurs while closing the file.
      */
     public void close() throws IOException {
+        if (summaries != null) {
+            summaries.shutdownNow();
+        }
         writer.close();
     }
 
     /**
-     * Returns the map of all tracked fire event metrics.
+     * Returns the store of fires in progress.
      *
-     * @return A {@code Map} of fire IDs to {@code FireEventMetrics}.
+     * @return The {@code FireMetricsStore} fires are tracked in.
      */
-    public Map<Integer, FireEventMetrics> getFireEventMetricsMap() {
-        return fireEventMetricsMap;
+    public FireMetricsStore getFireMetricsStore() {
+        return fireMetricsStore;
     }
 
     /**
@@ -65,75 +118,136 @@ public class MetricsLogger {
      * @param zoneID The zone in which the fire occurred.
      */
     public void logFireReported(int fireID, int zoneID) {
-        fireEventMetricsMap.put(fireID, new FireEventMetrics(fireID, zoneID));
-        fireEventMetricsMap.get(fireID).fireReportedTime = System.currentTimeMillis();
+        FireEventMetrics metrics = new FireEventMetrics(fireID, zoneID);
+        metrics.fireReportedTime = clock.currentTimeMillis();
+        metrics.fireReportedNanos = clock.nanoTime();
+        metrics.queuedNanos = metrics.fireReportedNanos;
+        fireMetricsStore.put(metrics);
     }
 
     /**
-     * Logs the time at which a drone was dispatched to the fire.
+     * Logs the time at which a fire was put back on the event list, so its next wait is measured
+     * from then.
      *
      * @param fireID The ID of the fire.
      */
-    public void logDroneDispatched(int fireID) {
-        fireEventMetricsMap.get(fireID).droneDispatchTime = System.currentTimeMillis();
+    public void logFireRequeued(int fireID) {
+        long now = clock.nanoTime();
+        synchronized (fireMetricsStore) {
+            FireEventMetrics metrics = fireMetricsStore.get(fireID);
+            if (metrics != null) {
+                metrics.queuedNanos = now;
+            }
+        }
     }
 
     /**
-     * Logs the time at which the fire was extinguished.
+     * Logs the time at which a drone was dispatched to the fire, recording how long the fire
+     * waited in the event list and, on its first dispatch, its response time. Fires no longer
+     * tracked are ignored. The fire's entry is read and updated under the store's lock, so drones
+     * dispatched to the same fire at once record a single response time.
      *
      * @param fireID The ID of the fire.
      */
-    public void logFireExtinguished(int fireID) {
-        fireEventMetricsMap.get(fireID).fireExtinguishedTime = System.currentTimeMillis();
+    public void logDroneDispatched(int fireID) {
+        long now = clock.nanoTime();
+        long nowMillis = clock.currentTimeMillis();
+        long reportedNanos;
+        long queuedNanos;
+        boolean firstDispatch;
+        synchronized (fireMetricsStore) {
+            FireEventMetrics metrics = fireMetricsStore.get(fireID);
+            if (metrics == null) {
+                return;
+            }
+            firstDispatch = metrics.droneDispatchTime < 0;
+            reportedNanos = metrics.fireReportedNanos;
+            queuedNanos = metrics.queuedNanos;
+            metrics.droneDispatchTime = nowMillis;
+        }
+        if (firstDispatch) {
+            responseTimes.record(now - reportedNanos);
+        }
+        queueWaits.record(now - queuedNanos);
     }
-}
-
-/**
- * The {@code FireEventMetrics} class stores timestamps for fire lifecycle events:
- * when it was reported, when a drone was dispatched, and when it was extinguished.
- */
-class FireEventMetrics {
-    public int fireID;
-    public int zoneID;
-    public long fireReportedTime = -1;
-    public long droneDispatchTime = -1;
-    public long fireExtinguishedTime = -1;
 
     /**
-     * Constructs a {@code FireEventMetrics} instance for a fire event.
+     * Logs the time at which the fire was extinguished, writes its row if every timestamp was
+     * recorded, and stops tracking it. Call it once, when the last drone serving the fire has
+     * returned; fires no longer tracked are ignored.
      *
      * @param fireID The ID of the fire.
-     * @param zoneID The zone in which the fire occurred.
+     * @return The fire's metrics, or {@code null} if the fire was not tracked.
+     */
+    public FireEventMetrics logFireExtinguished(int fireID) {
+        FireEventMetrics metrics = fireMetricsStore.remove(fireID);
+        if (metrics == null) {
+            return null;
+        }
+        metrics.fireExtinguishedTime = clock.currentTimeMillis();
+        extinguishTimes.record(clock.nanoTime() - metrics.fireReportedNanos);
+        if (metrics.isComplete()) {
+            logFireMetrics(metrics.fireID, metrics.zoneID, metrics.getResponseTime(), metrics.getExtinguishTime());
+        }
+        return metrics;
+    }
+
+    /**
+     * Records how long the Scheduler took to handle one message.
+     *
+     * @param nanos The handling time, in nanoseconds of real time.
      */
-    public FireEventMetrics(int fireID, int zoneID) {
-        this.fireID = fireID;
-        this.zoneID = zoneID;
+    public void recordHandlingTime(long nanos) {
+        handlingTimes.record(nanos);
     }
 
     /**
-     * Checks if all timestamps have been recorded for the fire event.
+     * Returns the latency histograms: response time, extinguish time, queue wait and handling time.
      *
-     * @return {@code true} if all events (reported, dispatched, extinguished) have been logged.
+     * @return The histograms, in reporting order.
      */
-    public boolean isComplete() {
-        return fireReportedTime > 0 && droneDispatchTime > 0 && fireExtinguishedTime > 0;
+    public LatencyHistogram[] histograms() {
+        return new LatencyHistogram[]{responseTimes, extinguishTimes, queueWaits, handlingTimes};
     }
 
     /**
-     * Calculates the response time between fire reported and drone dispatched.
+     * Summarizes the latencies recorded since the previous summary, followed by the totals since
+     * the logger was created. The first summary has only the totals.
      *
-     * @return The response time in milliseconds.
+     * @return One line per histogram for the interval, then one per histogram overall, then the
+     *         counts of the fire metrics store.
      */
-    public long getResponseTime() {
-        return droneDispatchTime - fireReportedTime;
+    public synchronized String summarize() {
+        LatencyHistogram[] histograms = histograms();
+        LatencyHistogram.Snapshot[] current = new LatencyHistogram.Snapshot[histograms.length];
+        StringBuilder interval = new StringBuilder();
+        StringBuilder overall = new StringBuilder();
+        for (int i = 0; i < histograms.length; i++) {
+            current[i] = histograms[i].snapshot();
+            if (lastSummary != null) {
+                interval.append("  interval ").append(current[i].since(lastSummary[i])).append('\n');
+            }
+            overall.append("  overall  ").append(current[i]).append('\n');
+        }
+        lastSummary = current;
+        return interval.append(overall).append("  ").append(fireMetricsStore).append('\n').toString();
     }
 
     /**
-     * Calculates the extinguish time between fire reported and extinguished.
+     * Prints a latency summary at a fixed interval of real time, on a daemon thread.
      *
-     * @return The extinguish time in milliseconds.
+     * @param periodMillis The time between summaries, in milliseconds.
      */
-    public long getExtinguishTime() {
-        return fireExtinguishedTime - fireReportedTime;
+    public synchronized void startPeriodicSummaries(long periodMillis) {
+        if (summaries != null) {
+            return;
+        }
+        summaries = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "Metrics summary");
+            thread.setDaemon(true);
+            return thread;
+        });
+        summaries.scheduleAtFixedRate(() -> System.out.print("[" + Thread.currentThread().getName() + "]: latency summary\n" + summarize()),
+                periodMillis, periodMillis, TimeUnit.MILLISECONDS);
     }
 }
@@ -0,0 +1,188 @@
+import java.awt.Point;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@code MotionModel} class estimates the position of every drone in flight from the leg it
+ * is flying, so the Scheduler can follow a drone without the drone reporting its position.
+ *
+ * A leg is a straight flight at constant speed from an origin to a target, started at a known
+ * simulated time. The position on a leg is worked out on demand from the clock, and stays at the
+ * target once the leg's flight time has passed, until the leg is ended. A drone only reports
+ * where its flight differs from the model: a new course, a position fix, which re-anchors the leg
+ * where the drone actually is, and its arrival.
+ */
+public class MotionModel {
+
+    /**
+     * A straight flight at constant speed.
+     *
+     * @param originX     the x-coordinate the leg starts from
+     * @param originY     the y-coordinate the leg starts from
+     * @param targetX     the x-coordinate of the leg's target
+     * @param targetY     the y-coordinate of the leg's target
+     * @param speed       the speed, in grid units per simulated second
+     * @param startMillis the simulated time the leg started, in milliseconds
+     */
+    record Leg(int originX, int originY, int targetX, int targetY, double speed, long startMillis) {
+
+        /**
+         * Returns the flight time of the leg.
+         *
+         * @return the time from origin to target, in simulated seconds
+         */
+        double duration() {
+            return Math.hypot(targetX - originX, targetY - originY) / speed;
+        }
+
+        /**
+         * Returns how far along the leg the drone is estimated to be at a given time.
+         *
+         * @param nowMillis the simulated time, in milliseconds
+         * @return the fraction of the leg flown, 0 before the leg starts and 1 after it ends
+         */
+        double progress(long nowMillis) {
+            double duration = duration();
+            double elapsed = (nowMillis - startMillis) / 1000.0;
+            if (duration <= 0 || elapsed >= duration) {
+                return 1;
+            }
+            return Math.max(0, elapsed) / duration;
+        }
+
+        /**
+         * Returns the estimated x-coordinate at a given progress along the leg, truncated to grid
+         * units as the drones do.
+         *
+         * @param progress the fraction of the leg flown, from {@link #progress(long)}
+         * @return the x-coordinate
+         */
+        int x(double progress) {
+            return progress >= 1 ? targetX : (int) (originX + (targetX - originX) * progress);
+        }
+
+        /**
+         * Returns the estimated y-coordinate at a given progress along the leg, truncated to grid
+         * units as the drones do.
+         *
+         * @param progress the fraction of the leg flown, from {@link #progress(long)}
+         * @return the y-coordinate
+         */
+        int y(double progress) {
+            return progress >= 1 ? targetY : (int) (originY + (targetY - originY) * progress);
+        }
+
+        /**
+         * Returns the estimated position on the leg at a given time.
+         *
+         * @param nowMillis the simulated time, in milliseconds
+         * @return the position, the origin before the leg starts and the target after it ends
+         */
+        Point position(long nowMillis) {
+            double progress = progress(nowMillis);
+            return new Point(x(progress), y(progress));
+        }
+    }
+
+    /** Leg each drone in flight is flying, by drone ID. */
+    private final Map<Integer, Leg> legs = new ConcurrentHashMap<>();
+    /** Clock the legs are timed with. */
+    private volatile SimulationClock clock = SystemClock.getDefault();
+
+    /**
+     * Sets the clock the legs are timed with; it must be the clock the drones fly by.
+     *
+     * @param clock the simulation clock
+     */
+    public void setClock(SimulationClock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Starts a leg for a drone, replacing the one it was flying.
+     *
+     * @param droneID the drone's ID
+     * @param origin  where the drone starts from
+     * @param target  where the drone flies to
+     * @param speed   the drone's speed, in grid units per simulated second
+     * @return the flight time of the leg, in simulated seconds
+     */
+    public double depart(int droneID, Point origin, Point target, double speed) {
+        Leg leg = new Leg(origin.x, origin.y, target.x, target.y, speed, clock.currentTimeMillis());
+        legs.put(droneID, leg);
+        return leg.duration();
+    }
+
+    /**
+     * Re-anchors a drone's leg at a position the drone reported, from now on, keeping its target.
+     *
+     * @param droneID the drone's ID
+     * @param x       the reported x-coordinate
+     * @param y       the reported y-coordinate
+     * @return true if the drone was flying a leg
+     */
+    public boolean fix(int droneID, int x, int y) {
+        long now = clock.currentTimeMillis();
+        return legs.computeIfPresent(droneID, (id, leg) -> new Leg(x, y, leg.targetX, leg.targetY, leg.speed, now)) != null;
+    }
+
+    /**
+     * Ends a drone's leg at its target, as when the drone reports its arrival.
+     *
+     * @param droneID the drone's ID
+     * @return the target reached, or null if the drone was not flying a leg
+     */
+    public Point arrive(int droneID) {
+        Leg leg = legs.remove(droneID);
+        return leg == null ? null : new Point(leg.targetX, leg.targetY);
+    }
+
+    /**
+     * Ends a drone's leg wherever the drone is estimated to be, as when it stops short of its target.
+     *
+     * @param droneID the drone's ID
+     * @return the estimated position, or null if the drone was not flying a leg
+     */
+    public Point stop(int droneID) {
+        Leg leg = legs.remove(droneID);
+        return leg == null ? null : leg.position(clock.currentTimeMillis());
+    }
+
+    /**
+     * Returns the estimated position of a drone.
+     *
+     * @param droneID the drone's ID
+     * @return the position, or null if the drone is not flying a leg
+     */
+    public Point position(int droneID) {
+        Leg leg = legs.get(droneID);
+        return leg == null ? null : leg.position(clock.currentTimeMillis());
+    }
+
+    /**
+     * Reports the estimated position of every drone flying a leg, all at the same instant.
+     *
+     * @param listener receives each drone's estimated position
+     * @return the number of drones reported
+     */
+    public int publish(PositionBoard.Listener listener) {
+        long now = clock.currentTimeMillis();
+        int count = 0;
+        for (Map.Entry<Integer, Leg> entry : legs.entrySet()) {
+            Leg leg = entry.getValue();
+            double progress = leg.progress(now);
+            listener.moved(entry.getKey(), leg.x(progress), leg.y(progress));
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of drones flying a leg.
+     *
+     * @return the number of drones in flight
+     */
+    public int getInFlight() {
+        return legs.size();
+    }
+}
@@ -0,0 +1,205 @@
+import java.awt.Point;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The {@code PositionBoard} class holds the latest reported position of every drone, one slot per
+ * drone ID, kept apart from the queue of control requests.
+ *
+ * A location update overwrites the drone's slot instead of queueing behind task and arrival
+ * messages, so a drone streaming its position costs one slot however fast it reports, and a
+ * reader only ever sees the latest position. Each slot packs x and y into one atomic long, so a
+ * reader never sees the x of one update with the y of another. Updates allocate nothing.
+ *
+ * Readers that keep their own copy of the positions, such as the {@link DroneFleet}'s spatial
+ * index, call {@link #publish(Listener)} before using it: every drone whose position changed since
+ * the last publish is reported once, with its latest position, however many updates it received.
+ *
+ * Slots are allocated in chunks of {@link #CHUNK_SIZE} drones, a chunk the first time one of its
+ * drones reports, so sparse drone IDs cost only the chunks they fall in. Chunks never move, so a
+ * writer never loses an update to a concurrent resize. IDs above {@link #MAX_DRONE_ID} are ignored.
+ */
+public class PositionBoard {
+
+    /** Number of drones per chunk of slots; a power of two. */
+    static final int CHUNK_SIZE = 1024;
+    /** Highest drone ID with a slot, so the chunk directory holds at most {@link #CHUNK_SIZE} entries. */
+    static final int MAX_DRONE_ID = CHUNK_SIZE * CHUNK_SIZE - 1;
+    /** Slot value of a drone that has not reported a position. */
+    private static final long UNKNOWN = Long.MIN_VALUE;
+
+    /**
+     * Receives the drones whose position changed since the last publish.
+     */
+    @FunctionalInterface
+    public interface Listener {
+        /**
+         * Called once per drone whose position changed.
+         *
+         * @param droneID the drone's ID
+         * @param x       the latest x-coordinate
+         * @param y       the latest y-coordinate
+         */
+        void moved(int droneID, int x, int y);
+    }
+
+    /**
+     * The slots of {@link #CHUNK_SIZE} consecutive drone IDs.
+     */
+    private static final class Chunk {
+        /** Packed positions, x in the high half and y in the low half. */
+        private final AtomicLongArray positions = new AtomicLongArray(CHUNK_SIZE);
+        /** Per slot flag, 1 while the slot holds a position not yet published. */
+        private final AtomicIntegerArray changed = new AtomicIntegerArray(CHUNK_SIZE);
+
+        private Chunk() {
+            for (int i = 0; i < CHUNK_SIZE; i++) {
+                positions.set(i, UNKNOWN);
+            }
+        }
+    }
+
+    /** Chunks of slots, indexed by drone ID divided by {@link #CHUNK_SIZE}, null until used; replaced, never modified, when it changes. */
+    private volatile Chunk[] chunks = new Chunk[0];
+    /** IDs of the drones with unpublished positions, in the order they first changed; guarded by this. */
+    private int[] changedIDs = new int[CHUNK_SIZE];
+    /** Number of IDs in {@link #changedIDs}. */
+    private int changedCount = 0;
+    /** IDs being published, swapped with {@link #changedIDs}; guarded by {@link #publishLock}. */
+    private int[] publishing = new int[CHUNK_SIZE];
+    /** Lock held while publishing, so publishers take turns and each change is reported once. */
+    private final Object publishLock = new Object();
+    /** Number of updates received. */
+    private final LongAdder updates = new LongAdder();
+    /** Number of positions published. */
+    private final LongAdder published = new LongAdder();
+
+    /**
+     * Records the latest position of a drone, replacing any position not yet published.
+     *
+     * @param droneID the drone's ID; negative IDs and IDs above {@link #MAX_DRONE_ID} are ignored
+     * @param x       the x-coordinate
+     * @param y       the y-coordinate
+     */
+    public void update(int droneID, int x, int y) {
+        if (droneID < 0 || droneID > MAX_DRONE_ID) {
+            return;
+        }
+        Chunk chunk = chunk(droneID);
+        int slot = droneID & (CHUNK_SIZE - 1);
+        chunk.positions.set(slot, pack(x, y));
+        updates.increment();
+        if (chunk.changed.compareAndSet(slot, 0, 1)) {
+            synchronized (this) {
+                if (changedCount == changedIDs.length) {
+                    changedIDs = Arrays.copyOf(changedIDs, changedCount * 2);
+                }
+                changedIDs[changedCount++] = droneID;
+            }
+        }
+    }
+
+    /**
+     * Reports every drone whose position changed since the last publish, once each, with its
+     * latest position. A position updated while it is being published is reported again by the
+     * next publish, so no update is lost.
+     *
+     * @param listener receives each drone's latest position
+     * @return the number of drones reported
+     */
+    public int publish(Listener listener) {
+        synchronized (publishLock) {
+            int count;
+            synchronized (this) {
+                count = changedCount;
+                if (count == 0) {
+                    return 0;
+                }
+                int[] ids = changedIDs;
+                changedIDs = publishing.length >= ids.length ? publishing : new int[ids.length];
+                publishing = ids;
+                changedCount = 0;
+            }
+            Chunk[] current = chunks;
+            for (int i = 0; i < count; i++) {
+                int droneID = publishing[i];
+                Chunk chunk = current[droneID / CHUNK_SIZE];
+                int slot = droneID & (CHUNK_SIZE - 1);
+                // Cleared before reading, so an update racing with this publish marks the slot again.
+                chunk.changed.set(slot, 0);
+                long position = chunk.positions.get(slot);
+                listener.moved(droneID, x(position), y(position));
+            }
+            published.add(count);
+            return count;
+        }
+    }
+
+    /**
+     * Returns the latest position of a drone, published or not.
+     *
+     * @param droneID the drone's ID
+     * @return the position, or null if the drone has not reported one
+     */
+    public Point position(int droneID) {
+        Chunk[] current = chunks;
+        if (droneID < 0 || droneID / CHUNK_SIZE >= current.length || current[droneID / CHUNK_SIZE] == null) {
+            return null;
+        }
+        long position = current[droneID / CHUNK_SIZE].positions.get(droneID & (CHUNK_SIZE - 1));
+        return position == UNKNOWN ? null : new Point(x(position), y(position));
+    }
+
+    /**
+     * Returns the number of updates received.
+     *
+     * @return the total number of updates
+     */
+    public long getUpdates() {
+        return updates.sum();
+    }
+
+    /**
+     * Returns the number of updates that were overwritten by a later one before being published.
+     *
+     * @return the number of updates coalesced away, counting positions not yet published
+     */
+    public long getCoalesced() {
+        return updates.sum() - published.sum();
+    }
+
+    /**
+     * Returns the chunk holding a drone's slot, allocating only that chunk if it is not there yet.
+     */
+    private Chunk chunk(int droneID) {
+        int index = droneID / CHUNK_SIZE;
+        Chunk[] current = chunks;
+        if (index < current.length && current[index] != null) {
+            return current[index];
+        }
+        synchronized (this) {
+            current = chunks;
+            if (index >= current.length || current[index] == null) {
+                Chunk[] replaced = Arrays.copyOf(current, Math.max(current.length, index + 1));
+                replaced[index] = new Chunk();
+                chunks = replaced;
+                current = replaced;
+            }
+            return current[index];
+        }
+    }
+
+    private static long pack(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+
+    private static int x(long position) {
+        return (int) (position >> 32);
+    }
+
+    private static int y(long position) {
+        return (int) position;
+    }
+}
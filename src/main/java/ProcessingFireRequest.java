@@ -0,0 +1,53 @@
+/**
+ * ProcessingFireRequest state represents the scheduler when it is processing a fire request.
+ */
+class ProcessingFireRequest implements SchedulerState {
+    /**
+     * In ProcessingFireRequest, processing an additional fire request is a no-op.
+     *
+     * @param context   the state machine context
+     * @param scheduler the scheduler instance
+     */
+    public void processFireRequest(SchedulerStateMachine context, Scheduler scheduler) {}
+
+    /**
+     * Transitions to the AssigningTask state to assign tasks based on the fire request.
+     *
+     * @param context   the state machine context
+     * @param scheduler the scheduler instance
+     */
+    public void assignTask(SchedulerStateMachine context, Scheduler scheduler) {
+        context.setState("AssigningTask");
+    }
+
+    /**
+     * No waiting operation is performed in ProcessingFireRequest.
+     *
+     * @param context   the state machine context
+     * @param scheduler the scheduler instance
+     */
+    public void waitForDrones(SchedulerStateMachine context, Scheduler scheduler) {}
+
+    /**
+     * No transition to idle occurs in ProcessingFireRequest.
+     *
+     * @param context   the state machine context
+     * @param scheduler the scheduler instance
+     */
+    public void returnToIdle(SchedulerStateMachine context, Scheduler scheduler) {}
+
+    /**
+     * No fault handling is performed in ProcessingFireRequest.
+     *
+     * @param context   the state machine context
+     * @param scheduler the scheduler instance
+     */
+    public void handleFault(SchedulerStateMachine context, Scheduler scheduler) {}
+
+    /**
+     * Displays the current state as processing fire request.
+     */
+    public void displayState() {
+        LOG.debug("[State]: Processing fire request...");
+    }
+}
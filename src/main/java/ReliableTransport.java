@@ -0,0 +1,691 @@
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The {@code ReliableTransport} class adds request/response reliability to a {@link Transport}.
+ *
+ * Every message in this system is a request from a client - a drone or the fire incident
+ * subsystem - answered by exactly one response from the Scheduler. A client endpoint tags each
+ * request with its session and a sequence number and retransmits it until the response carrying
+ * the same number arrives. A client may keep several requests in flight: each is retransmitted
+ * on its own timer, and responses are matched to requests by number, whatever order they arrive
+ * in. The number is either the next in the endpoint's own sequence or, through
+ * {@link #send(ByteBuffer, InetSocketAddress, int)}, a correlation ID chosen by the caller; a
+ * client uses one or the other. The retransmission timeout adapts to the measured round trip
+ * time as in TCP: a smoothed RTT and its mean deviation give the timeout, only requests answered
+ * without a retransmission are sampled, and each timeout doubles the timeout until a fresh sample
+ * arrives.
+ *
+ * A server endpoint remembers, per client, the requests it received and the responses sent to
+ * them, forgetting answered requests only once there are more than {@link #WINDOW} and they were
+ * answered more than {@link #RETAIN_MILLIS} ago, when the client has long stopped retransmitting
+ * them. A retransmitted request is never delivered twice: if its response was already
+ * sent it is sent again, and if the request is still being handled (a drone waiting for a task)
+ * it is acknowledged, which tells the client to stop retransmitting quickly and only probe now
+ * and then. A response sent with a correlation ID answers that request; one sent without answers
+ * the client's latest request. The table is shared by every server endpoint in the JVM, because
+ * the Scheduler receives requests on one port and may answer them from another. A client with no
+ * request in progress that has not been heard from or answered for {@link #RETAIN_MILLIS} is
+ * dropped from the table altogether, so clients that come and go on fresh ports do not pile up.
+ *
+ * Datagrams without the reliability header pass through untouched, so plain UDP peers keep
+ * working. The layer is on by default; {@link #setEnabled(boolean)} or
+ * {@code -Dtransport.reliable=false} turns it off for endpoints created afterwards.
+ */
+public class ReliableTransport implements Transport {
+
+    /** First byte of every reliable datagram; neither text nor a {@link MessageCodec} frame starts with it. */
+    static final byte MARKER = (byte) 0xA7;
+    /** Kind of a request from a client. */
+    static final byte REQUEST = 1;
+    /** Kind of a response from a server. */
+    static final byte RESPONSE = 2;
+    /** Kind of an acknowledgement of a request that is still being handled. */
+    static final byte ACK = 3;
+    /** Size of the header: marker, kind, session and sequence number. */
+    static final int HEADER_SIZE = 10;
+    /** Largest payload carried; matches the receive buffers of the Scheduler. */
+    private static final int MAX_PAYLOAD = 1024;
+    /** Number of answered requests a server remembers per client however old they are. */
+    static final int WINDOW = 16;
+    /** How long a server remembers an answered request, in milliseconds: several probe intervals. */
+    static final long RETAIN_MILLIS = 10_000;
+
+    /** Retransmission timeout before any round trip has been measured, in milliseconds. */
+    static final long INITIAL_RTO_MILLIS = 200;
+    /** Shortest retransmission timeout, in milliseconds, so scheduling jitter is not taken for loss. */
+    static final long MIN_RTO_MILLIS = 10;
+    /** Longest retransmission timeout, and the probe interval of an acknowledged request, in milliseconds. */
+    static final long MAX_RTO_MILLIS = 1000;
+    /** Retry limit meaning the client retransmits until it gets a response. */
+    public static final int RETRY_FOREVER = -1;
+
+    /** Flag indicating whether endpoints created from now on are made reliable. */
+    private static volatile boolean enabled = !"false".equalsIgnoreCase(System.getProperty("transport.reliable"));
+    /** Recent requests from each client, shared by every server endpoint. */
+    private static final Map<SocketAddress, Peer> peers = new ConcurrentHashMap<>();
+    /** Time the table is next swept for idle clients, in nanoseconds. */
+    private static final AtomicLong nextSweepNanos = new AtomicLong(System.nanoTime());
+    /** Buffer each thread receives whole datagrams into before the header is stripped. */
+    private static final ThreadLocal<ByteBuffer> receiveBuffer = ThreadLocal.withInitial(() -> ByteBuffer.allocate(HEADER_SIZE + MAX_PAYLOAD));
+    /** Buffer each thread assembles outgoing datagrams in. */
+    private static final ThreadLocal<ByteBuffer> sendBuffer = ThreadLocal.withInitial(() -> ByteBuffer.allocate(HEADER_SIZE + MAX_PAYLOAD));
+
+    /** Endpoint the datagrams are sent and received through. */
+    private final Transport inner;
+    /** Flag indicating this endpoint answers requests instead of sending them. */
+    private final boolean server;
+    /** Number of retransmissions a client makes before giving up on a request, or {@link #RETRY_FOREVER}. */
+    private final int maxRetransmissions;
+    /** Random session ID, so a server can tell this client from an earlier one on the same port. */
+    private final int session = ThreadLocalRandom.current().nextInt();
+
+    // Client state, guarded by outstanding: requests may be sent by one thread while another receives.
+    /** Requests sent and not answered yet; a handful at most, so they are searched in order. */
+    private final List<Request> outstanding = new ArrayList<>();
+    /** Answered requests, reused for later ones so a request allocates nothing. */
+    private final ArrayDeque<Request> spareRequests = new ArrayDeque<>();
+    /** Sequence number of the latest request numbered by the endpoint itself. */
+    private int sequence = 0;
+    /** Smoothed round trip time in nanoseconds, or -1 before the first sample. */
+    private double smoothedRtt = -1;
+    /** Mean deviation of the round trip time, in nanoseconds. */
+    private double rttVariance = 0;
+    /** Current retransmission timeout in milliseconds, backed off after each timeout. */
+    private long rtoMillis = INITIAL_RTO_MILLIS;
+    /** Total number of retransmissions, for reporting. */
+    private long totalRetransmissions = 0;
+
+    /**
+     * Thrown when a client gives up on a request, telling the caller which one it abandoned.
+     */
+    public static final class RequestTimeoutException extends SocketTimeoutException {
+        private static final long serialVersionUID = 1L;
+
+        /** Sequence number, or correlation ID, of the abandoned request. */
+        private final int sequence;
+
+        RequestTimeoutException(String message, int sequence) {
+            super(message);
+            this.sequence = sequence;
+        }
+
+        /**
+         * Returns the number of the abandoned request: the correlation ID it was sent with, if any.
+         *
+         * @return the request's sequence number
+         */
+        public int getSequence() {
+            return sequence;
+        }
+    }
+
+    /**
+     * A request a client endpoint is waiting for the response to.
+     */
+    private static final class Request {
+        private int sequence;
+        /** The request, header included, kept for retransmission. */
+        private final ByteBuffer datagram = ByteBuffer.allocate(HEADER_SIZE + MAX_PAYLOAD);
+        /** Where the request was sent. */
+        private InetSocketAddress target;
+        /** Time the request was last sent, in nanoseconds. */
+        private long sentNanos;
+        /** Flag indicating the request was retransmitted, so its round trip cannot be sampled. */
+        private boolean retransmitted;
+        /** Flag indicating the server acknowledged the request and is still handling it. */
+        private boolean acknowledged;
+        /** Number of times the request was retransmitted without being acknowledged. */
+        private int retransmissions;
+    }
+
+    /**
+     * Recent requests a server endpoint received from one client, and their responses once sent.
+     */
+    private static final class Peer {
+        private int session;
+        /** Highest sequence number received in this session. */
+        private int latest;
+        /** Flag indicating a request of this session has been forgotten. */
+        private boolean forgetting;
+        /** Highest sequence number forgotten; older requests are stale and dropped. */
+        private int forgotten;
+        /** Requests remembered, oldest first. */
+        private final List<Exchange> exchanges = new ArrayList<>();
+        /** Forgotten exchanges, reused for later requests. */
+        private final ArrayDeque<Exchange> spare = new ArrayDeque<>();
+        /** Time a request was last received from the client or answered, in nanoseconds. */
+        private long lastActiveNanos;
+        /** Flag indicating the peer was dropped from the table; a new one takes its place. */
+        private boolean evicted;
+    }
+
+    /**
+     * One request a server endpoint received, and the response sent to it.
+     */
+    private static final class Exchange {
+        private int sequence;
+        /** Flag indicating the request has not been answered yet. */
+        private boolean pending;
+        /** Time the response was sent, in nanoseconds. */
+        private long answeredNanos;
+        /** The response, header included, replayed if the request is retransmitted. */
+        private ByteBuffer response = ByteBuffer.allocate(64);
+    }
+
+    private ReliableTransport(Transport inner, boolean server, int maxRetransmissions) {
+        this.inner = inner;
+        this.server = server;
+        this.maxRetransmissions = maxRetransmissions;
+    }
+
+    /**
+     * Sets whether endpoints created from now on are made reliable. Endpoints already created keep
+     * their behaviour; both ends of a conversation should agree.
+     *
+     * @param enabled true to add the reliability layer; false for plain datagrams
+     */
+    public static void setEnabled(boolean enabled) {
+        ReliableTransport.enabled = enabled;
+    }
+
+    /**
+     * Returns whether endpoints created from now on are made reliable.
+     *
+     * @return true if the reliability layer is enabled
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Makes an endpoint that sends requests reliable, if the layer is enabled.
+     *
+     * @param inner              the endpoint to send and receive through
+     * @param maxRetransmissions the number of unacknowledged retransmissions before
+     *                           {@link #receive(ByteBuffer)} gives up with a {@link SocketTimeoutException},
+     *                           or {@link #RETRY_FOREVER}
+     * @return the reliable endpoint, or {@code inner} if the layer is disabled
+     */
+    public static Transport client(Transport inner, int maxRetransmissions) {
+        return enabled ? new ReliableTransport(inner, false, maxRetransmissions) : inner;
+    }
+
+    /**
+     * Makes an endpoint that answers requests reliable, if the layer is enabled.
+     *
+     * @param inner the endpoint to send and receive through
+     * @return the reliable endpoint, or {@code inner} if the layer is disabled
+     */
+    public static Transport server(Transport inner) {
+        return enabled ? new ReliableTransport(inner, true, 0) : inner;
+    }
+
+    /**
+     * Returns the current retransmission timeout of a client endpoint.
+     *
+     * @return the timeout in milliseconds
+     */
+    public long getRetransmissionTimeoutMillis() {
+        return rtoMillis;
+    }
+
+    /**
+     * Returns the smoothed round trip time measured by a client endpoint.
+     *
+     * @return the round trip time in milliseconds, or -1 before the first measurement
+     */
+    public double getSmoothedRttMillis() {
+        return smoothedRtt < 0 ? -1 : smoothedRtt / 1_000_000;
+    }
+
+    /**
+     * Returns the number of requests a client endpoint has retransmitted.
+     *
+     * @return the total number of retransmissions
+     */
+    public long getRetransmissions() {
+        return totalRetransmissions;
+    }
+
+    /**
+     * Sends a datagram. On a client it is a new request, numbered next in the endpoint's own
+     * sequence and retransmitted by {@link #receive(ByteBuffer)} until answered. On a server it
+     * answers the latest request of the target, or goes out untouched if that request is not
+     * waiting for a response.
+     */
+    @Override
+    public void send(ByteBuffer data, InetSocketAddress target) throws IOException {
+        if (server) {
+            respond(data, target, 0);
+            return;
+        }
+        synchronized (outstanding) {
+            request(++sequence, data, target);
+        }
+    }
+
+    /**
+     * Sends a datagram belonging to a numbered request. On a client it is a new request numbered
+     * with the correlation ID, retransmitted by {@link #receive(ByteBuffer)} until the response
+     * with the same number arrives. On a server it answers the target's request with that number.
+     * A correlation ID of 0 sends the datagram as {@link #send(ByteBuffer, InetSocketAddress)} does.
+     */
+    @Override
+    public void send(ByteBuffer data, InetSocketAddress target, int correlationId) throws IOException {
+        if (correlationId == 0) {
+            send(data, target);
+        } else if (server) {
+            respond(data, target, correlationId);
+        } else {
+            synchronized (outstanding) {
+                request(correlationId, data, target);
+            }
+        }
+    }
+
+    /**
+     * Sends a client's request and keeps it for retransmission. Called holding the lock on
+     * {@link #outstanding}.
+     */
+    private void request(int sequence, ByteBuffer data, InetSocketAddress target) throws IOException {
+        Request request = spareRequests.isEmpty() ? new Request() : spareRequests.pop();
+        request.sequence = sequence;
+        request.datagram.clear();
+        request.datagram.put(MARKER).put(REQUEST).putInt(session).putInt(sequence).put(data).flip();
+        request.target = target;
+        request.retransmitted = false;
+        request.acknowledged = false;
+        request.retransmissions = 0;
+        request.sentNanos = System.nanoTime();
+        outstanding.add(request);
+        try {
+            inner.send(request.datagram.duplicate(), target);
+        } catch (IOException e) {
+            outstanding.remove(request);
+            spareRequests.push(request);
+            throw e;
+        }
+    }
+
+    /**
+     * Sends a server's response, remembering it in case the request is retransmitted.
+     *
+     * @param sequence the number of the request answered, or 0 for the client's latest request
+     */
+    private void respond(ByteBuffer data, InetSocketAddress target, int sequence) throws IOException {
+        Peer peer = peers.get(target);
+        if (peer == null) {
+            inner.send(data, target);
+            return;
+        }
+        synchronized (peer) {
+            Exchange exchange = find(peer, sequence == 0 ? peer.latest : sequence);
+            if (exchange == null || !exchange.pending) {
+                inner.send(data, target);
+                return;
+            }
+            exchange.pending = false;
+            exchange.answeredNanos = System.nanoTime();
+            peer.lastActiveNanos = exchange.answeredNanos;
+            if (exchange.response.capacity() < HEADER_SIZE + data.remaining()) {
+                exchange.response = ByteBuffer.allocate(HEADER_SIZE + data.remaining());
+            }
+            exchange.response.clear();
+            exchange.response.put(MARKER).put(RESPONSE).putInt(peer.session).putInt(exchange.sequence).put(data).flip();
+            inner.send(exchange.response.duplicate(), target);
+        }
+    }
+
+    @Override
+    public SocketAddress receive(ByteBuffer into) throws IOException {
+        return receive(into, 0);
+    }
+
+    /**
+     * Receives the next datagram meant for the caller. On a client, each request in flight is
+     * retransmitted whenever its timeout passes, and only responses to requests in flight are
+     * returned; stale and duplicate responses are dropped. A client with nothing in flight still
+     * wakes up every {@link #MAX_RTO_MILLIS}, in case another thread sent a request that was lost.
+     * On a server, requests already received are answered from the remembered response instead of
+     * being returned again.
+     *
+     * @throws RequestTimeoutException if a client gave up on a request
+     * @throws SocketTimeoutException if no datagram arrived in time
+     */
+    @Override
+    public SocketAddress receive(ByteBuffer into, long timeoutMillis) throws IOException {
+        long deadline = timeoutMillis == 0 ? 0 : System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        ByteBuffer datagram = receiveBuffer.get();
+        while (true) {
+            long wait = 0;
+            if (deadline != 0) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new SocketTimeoutException("Receive timed out");
+                }
+                wait = Math.max(1, TimeUnit.NANOSECONDS.toMillis(remaining));
+            }
+            if (!server) {
+                long untilRetransmit = Math.max(1, TimeUnit.NANOSECONDS.toMillis(nextRetransmission() - System.nanoTime()));
+                wait = wait == 0 ? untilRetransmit : Math.min(wait, untilRetransmit);
+            }
+
+            datagram.clear();
+            SocketAddress sender;
+            try {
+                sender = inner.receive(datagram, wait);
+            } catch (SocketTimeoutException e) {
+                if (!server) {
+                    retransmit();
+                }
+                continue;
+            }
+            if (sender == null) {
+                return null;
+            }
+            datagram.flip();
+
+            if (datagram.remaining() < HEADER_SIZE || datagram.get(0) != MARKER) {
+                copy(datagram, into);
+                return sender;
+            }
+            byte kind = datagram.get(1);
+            int session = datagram.getInt(2);
+            int sequence = datagram.getInt(6);
+            datagram.position(HEADER_SIZE);
+
+            if (server && kind == REQUEST) {
+                if (accept(sender, session, sequence)) {
+                    copy(datagram, into);
+                    return sender;
+                }
+            } else if (!server && session == this.session && answer(kind, sequence)) {
+                copy(datagram, into);
+                return sender;
+            }
+        }
+    }
+
+    /**
+     * Records a request received by a server, answering it from the remembered response if it
+     * is a retransmission.
+     *
+     * @return true if the request is new and should be delivered
+     */
+    private boolean accept(SocketAddress sender, int session, int sequence) throws IOException {
+        long now = System.nanoTime();
+        long sweep = nextSweepNanos.get();
+        if (now - sweep >= 0 && nextSweepNanos.compareAndSet(sweep, now + TimeUnit.MILLISECONDS.toNanos(RETAIN_MILLIS))) {
+            evictIdlePeers(now);
+        }
+        Peer peer = peers.computeIfAbsent(sender, address -> new Peer());
+        synchronized (peer) {
+            if (peer.evicted) {
+                // Swept after the lookup; looking again finds or makes its replacement.
+                return accept(sender, session, sequence);
+            }
+            peer.lastActiveNanos = now;
+            if (peer.session != session) {
+                // A new client on this address: nothing it sent has been seen or forgotten yet.
+                peer.session = session;
+                peer.spare.addAll(peer.exchanges);
+                peer.exchanges.clear();
+                peer.latest = sequence;
+                peer.forgetting = false;
+            }
+            Exchange exchange = find(peer, sequence);
+            if (exchange == null) {
+                if (peer.forgetting && sequence - peer.forgotten <= 0) {
+                    return false;
+                }
+                forgetAnswered(peer);
+                exchange = peer.spare.isEmpty() ? new Exchange() : peer.spare.pop();
+                exchange.sequence = sequence;
+                exchange.pending = true;
+                peer.exchanges.add(exchange);
+                if (sequence - peer.latest > 0) {
+                    peer.latest = sequence;
+                }
+                return true;
+            }
+            if (exchange.pending) {
+                ByteBuffer ack = sendBuffer.get();
+                ack.clear();
+                ack.put(MARKER).put(ACK).putInt(session).putInt(sequence).flip();
+                inner.send(ack, (InetSocketAddress) sender);
+            } else {
+                inner.send(exchange.response.duplicate(), (InetSocketAddress) sender);
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Drops every client that has no request in progress and was last heard from or answered
+     * more than {@link #RETAIN_MILLIS} before the given time.
+     *
+     * @param nowNanos the current time, in nanoseconds
+     * @return the number of clients dropped
+     */
+    static int evictIdlePeers(long nowNanos) {
+        int evicted = 0;
+        for (Iterator<Peer> it = peers.values().iterator(); it.hasNext(); ) {
+            Peer peer = it.next();
+            synchronized (peer) {
+                if (nowNanos - peer.lastActiveNanos <= TimeUnit.MILLISECONDS.toNanos(RETAIN_MILLIS) || hasPending(peer)) {
+                    continue;
+                }
+                peer.evicted = true;
+                it.remove();
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * Returns whether a server endpoint remembers anything about a client.
+     *
+     * @param client the client's address
+     * @return true if the client is in the table
+     */
+    static boolean remembers(SocketAddress client) {
+        return peers.containsKey(client);
+    }
+
+    /**
+     * Returns whether a client has a request still being handled. Called holding the peer's lock.
+     */
+    private static boolean hasPending(Peer peer) {
+        for (Exchange exchange : peer.exchanges) {
+            if (exchange.pending) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Finds a request a server remembers from a client. Called holding the peer's lock.
+     */
+    private static Exchange find(Peer peer, int sequence) {
+        for (int i = peer.exchanges.size() - 1; i >= 0; i--) {
+            Exchange exchange = peer.exchanges.get(i);
+            if (exchange.sequence == sequence) {
+                return exchange;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Forgets the requests of a client answered more than {@link #RETAIN_MILLIS} ago, oldest
+     * first, while it has more than {@link #WINDOW} remembered, so the table stays bounded;
+     * requests still being handled are kept. Retransmissions of forgotten requests are dropped as
+     * stale. Called holding the peer's lock.
+     */
+    private static void forgetAnswered(Peer peer) {
+        long now = System.nanoTime();
+        for (int i = 0; i < peer.exchanges.size() && peer.exchanges.size() > WINDOW; ) {
+            Exchange exchange = peer.exchanges.get(i);
+            if (exchange.pending || now - exchange.answeredNanos < TimeUnit.MILLISECONDS.toNanos(RETAIN_MILLIS)) {
+                i++;
+                continue;
+            }
+            peer.exchanges.remove(i);
+            if (!peer.forgetting || exchange.sequence - peer.forgotten > 0) {
+                peer.forgotten = exchange.sequence;
+                peer.forgetting = true;
+            }
+            peer.spare.push(exchange);
+        }
+    }
+
+    /**
+     * Applies a response or acknowledgement received by a client to the request it answers.
+     *
+     * @return true if the datagram is the response to a request in flight and should be delivered
+     */
+    private boolean answer(byte kind, int sequence) {
+        synchronized (outstanding) {
+            for (int i = 0; i < outstanding.size(); i++) {
+                Request request = outstanding.get(i);
+                if (request.sequence != sequence) {
+                    continue;
+                }
+                if (kind == ACK) {
+                    request.acknowledged = true;
+                    request.retransmissions = 0;
+                    return false;
+                }
+                if (kind != RESPONSE) {
+                    return false;
+                }
+                outstanding.remove(i);
+                if (!request.retransmitted) {
+                    sampleRtt(System.nanoTime() - request.sentNanos);
+                }
+                spareRequests.push(request);
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Returns when the next request in flight is due for retransmission.
+     *
+     * @return the time in nanoseconds, or {@link #MAX_RTO_MILLIS} from now if nothing is in flight
+     */
+    private long nextRetransmission() {
+        synchronized (outstanding) {
+            long next = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(MAX_RTO_MILLIS);
+            for (int i = 0; i < outstanding.size(); i++) {
+                long due = retransmissionDue(outstanding.get(i));
+                if (due - next < 0) {
+                    next = due;
+                }
+            }
+            return next;
+        }
+    }
+
+    /**
+     * Returns when a request is due for retransmission: after the current timeout, or after the
+     * probe interval once the server has acknowledged it.
+     */
+    private long retransmissionDue(Request request) {
+        return request.sentNanos + TimeUnit.MILLISECONDS.toNanos(request.acknowledged ? MAX_RTO_MILLIS : rtoMillis);
+    }
+
+    /**
+     * Sends every request whose timeout has passed again and backs the timeout off, or gives up on
+     * a request once it has been retransmitted as often as allowed without hearing back.
+     *
+     * @throws RequestTimeoutException if the client gave up on a request
+     */
+    private void retransmit() throws IOException {
+        synchronized (outstanding) {
+            long now = System.nanoTime();
+            boolean backedOff = false;
+            for (int i = 0; i < outstanding.size(); i++) {
+                Request request = outstanding.get(i);
+                if (now - retransmissionDue(request) < 0) {
+                    continue;
+                }
+                if (!request.acknowledged) {
+                    if (maxRetransmissions != RETRY_FOREVER && request.retransmissions >= maxRetransmissions) {
+                        outstanding.remove(i);
+                        spareRequests.push(request);
+                        throw new RequestTimeoutException("No response after " + request.retransmissions + " retransmissions", request.sequence);
+                    }
+                    request.retransmissions++;
+                    if (!backedOff) {
+                        rtoMillis = Math.min(rtoMillis * 2, MAX_RTO_MILLIS);
+                        backedOff = true;
+                    }
+                }
+                request.retransmitted = true;
+                totalRetransmissions++;
+                request.sentNanos = now;
+                inner.send(request.datagram.duplicate(), request.target);
+            }
+        }
+    }
+
+    /**
+     * Copies a received payload into the caller's buffer, truncating it if it does not fit, as a
+     * datagram channel does.
+     */
+    private static void copy(ByteBuffer payload, ByteBuffer into) {
+        if (payload.remaining() > into.remaining()) {
+            payload.limit(payload.position() + into.remaining());
+        }
+        into.put(payload);
+    }
+
+    /**
+     * Folds a round trip time into the smoothed estimate and recomputes the timeout.
+     *
+     * @param rttNanos the measured round trip time, in nanoseconds
+     */
+    private void sampleRtt(long rttNanos) {
+        if (smoothedRtt < 0) {
+            smoothedRtt = rttNanos;
+            rttVariance = rttNanos / 2.0;
+        } else {
+            rttVariance = 0.75 * rttVariance + 0.25 * Math.abs(smoothedRtt - rttNanos);
+            smoothedRtt = 0.875 * smoothedRtt + 0.125 * rttNanos;
+        }
+        long rto = (long) ((smoothedRtt + 4 * rttVariance) / 1_000_000);
+        rtoMillis = Math.max(MIN_RTO_MILLIS, Math.min(rto, MAX_RTO_MILLIS));
+    }
+
+    @Override
+    public int getLocalPort() {
+        return inner.getLocalPort();
+    }
+
+    @Override
+    public boolean isClosed() {
+        return inner.isClosed();
+    }
+
+    @Override
+    public void close() {
+        inner.close();
+    }
+}
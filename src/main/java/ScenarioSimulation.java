@@ -0,0 +1,397 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.DatagramPacket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * The {@code ScenarioSimulation} class plays a fire scenario against a real {@link Scheduler} as a
+ * discrete-event simulation, without sockets or threads.
+ *
+ * Everything runs on a {@link DiscreteEventClock}: fire events are submitted at their offsets in
+ * the scenario, the Scheduler's watchdogs and metrics run on the same clock, and its responses are
+ * delivered through a {@link MessageSink} to event-driven drone models that follow the same state
+ * machine as {@link DroneSubsystem}. A scenario that takes an hour in real time runs in as long
+ * as its events take to process, and two runs of the same scenario give the same results.
+ */
+public class ScenarioSimulation {
+    /** Log for requests the scheduler fails on and the summary of each run. */
+    private static final Log LOG = Log.category("simulation");
+
+    /** Port the simulated fire incident subsystem sends from. */
+    private static final int FIRE_PORT = 6000;
+    /** Port of the first simulated drone; the others follow it. */
+    private static final int FIRST_DRONE_PORT = 7000;
+    /** Speed of the drones, matching {@link DroneSubsystem}. */
+    private static final double DRONE_SPEED = 2.8;
+    /** Time in seconds to open or close the nozzle, matching {@link DroneSubsystem}. */
+    private static final double NOZZLE_OPEN_TIME = 0.5;
+    /** Water release rate in L/s, matching {@link DroneSubsystem}. */
+    private static final double RATE_OF_WATER_DROP = 1.0;
+    /** Maximum water payload in litres, matching {@link DroneSubsystem}. */
+    private static final int MAX_PAYLOAD = 15;
+
+    /** Clock driving the whole simulation. */
+    private final DiscreteEventClock clock = new DiscreteEventClock();
+    /** Address every simulated message appears to come from. */
+    private final InetAddress address = InetAddress.getLoopbackAddress();
+    /** Fire events of the scenario, in the order they are reported. */
+    private final List<FireIncidentEvent> scenario;
+    /** Receive slots drone requests are submitted through. */
+    private final DroneRequestBuffer bufferReq = new DroneRequestBuffer();
+    /** Queue of fire events waiting for a drone. */
+    private final FireEventList eventList = new FireEventList();
+    /** The scheduler under simulation. */
+    private final Scheduler scheduler;
+    /** Simulated drones, keyed by the port they send from. */
+    private final Map<Integer, SimulatedDrone> drones = new HashMap<>();
+
+    /** Number of fire events reported to the scheduler. */
+    private int firesReported = 0;
+    /** Number of missions the drones have returned from. */
+    private int missionsCompleted = 0;
+    /** Number of drones shut down by a hard fault. */
+    private int dronesShutDown = 0;
+    /** Number of requests the scheduler failed to handle. */
+    private int failedRequests = 0;
+    /** Flag to indicate if a batch window is open. */
+    private boolean batchPending = false;
+    /** Wall-clock time the last run took, in milliseconds. */
+    private long wallClockMillis = 0;
+
+    /**
+     * Constructs a simulation of the given scenario.
+     *
+     * @param scenario   the fire events, in the order they are reported
+     * @param droneCount the number of drones in the fleet
+     */
+    public ScenarioSimulation(List<FireIncidentEvent> scenario, int droneCount) {
+        this.scenario = scenario;
+        DroneFleet fleet = new DroneFleet(eventList);
+        fleet.setWatchdogTimer(clock);
+        scheduler = new Scheduler(fleet, bufferReq, eventList, new InProgressEvents(), this::deliver, clock);
+        for (int i = 0; i < droneCount; i++) {
+            drones.put(FIRST_DRONE_PORT + i, new SimulatedDrone(FIRST_DRONE_PORT + i));
+        }
+    }
+
+    /**
+     * Constructs a simulation of the scenario in the given zone and fire event files.
+     *
+     * @param zoneFile   the path to the zone data file
+     * @param eventFile  the path to the fire incident data file
+     * @param droneCount the number of drones in the fleet
+     * @return the simulation, ready to run
+     * @throws IllegalArgumentException if no zone could be loaded from the zone file
+     */
+    public static ScenarioSimulation fromFiles(String zoneFile, String eventFile, int droneCount) {
+        FireIncidentSubSystem fireSystem = new FireIncidentSubSystem(zoneFile, eventFile);
+        if (fireSystem.getZoneCount() == 0) {
+            throw new IllegalArgumentException("No zones loaded from " + zoneFile);
+        }
+        return new ScenarioSimulation(fireSystem.fireIncidents, droneCount);
+    }
+
+    /**
+     * Runs the scenario until no event is left: every drone starts at time zero, and each fire is
+     * reported as long after the previous one as in the scenario.
+     */
+    public void run() {
+        long start = System.nanoTime();
+        for (SimulatedDrone drone : drones.values()) {
+            clock.schedule(drone::start, 0, TimeUnit.MILLISECONDS);
+        }
+        long offset = 0;
+        FireIncidentEvent previous = null;
+        for (FireIncidentEvent event : scenario) {
+            if (previous != null) {
+                // Same pacing as FireIncidentSubSystem, which never waits for an earlier timestamp.
+                offset += Math.max(0, ChronoUnit.SECONDS.between(previous.getEventTime(), event.getEventTime())) * 1000L;
+            }
+            clock.schedule(() -> reportFire(event), offset, TimeUnit.MILLISECONDS);
+            previous = event;
+        }
+        clock.run();
+        try {
+            scheduler.getMetricsLogger().close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        wallClockMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    /**
+     * Reports a fire event to the scheduler as the fire incident subsystem would.
+     */
+    private void reportFire(FireIncidentEvent event) {
+        byte[] data = event.toString().getBytes();
+        firesReported++;
+        handle(() -> scheduler.handleFireDatagram(new DatagramPacket(data, data.length, address, FIRE_PORT)));
+    }
+
+    /**
+     * Submits a drone request to the scheduler through a receive slot, as a received datagram would be.
+     */
+    private void submitDroneRequest(String request, int port) {
+        handle(() -> {
+            int slot = bufferReq.acquire();
+            bufferReq.slot(slot).put(request.getBytes());
+            bufferReq.commit(slot, new InetSocketAddress(address, port));
+            return scheduler.handleDroneRequest();
+        });
+    }
+
+    /**
+     * Runs a unit of Scheduler work followed by the stuck-drone check and dispatch, as the event
+     * loop does. A request that throws is counted and dropped, like a failed listener would drop it.
+     */
+    private void handle(SchedulerWork work) {
+        try {
+            work.run();
+            scheduler.handleStuckDronesNow();
+            dispatch();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            failedRequests++;
+            LOG.warn("scheduler failed to handle a request: " + e);
+        }
+    }
+
+    /**
+     * Assigns pending events to available drones. In batch mode the assignment happens once the
+     * batch window has passed in simulated time.
+     */
+    private void dispatch() throws IOException {
+        if (!Scheduler.isBatchDispatch()) {
+            while (scheduler.dispatchPending()) {
+                // Keep assigning until drones or events run out.
+            }
+            return;
+        }
+        if (batchPending || !scheduler.hasPendingWork()) {
+            return;
+        }
+        batchPending = true;
+        clock.schedule(() -> {
+            batchPending = false;
+            handle(scheduler::dispatchPending);
+        }, Scheduler.getBatchWindowMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Delivers a message sent by the scheduler to the simulated drone listening on the port, as
+     * an event at the current simulated time. Acknowledgements to the fire subsystem are dropped.
+     */
+    private void deliver(String message, InetAddress address, int port) {
+        SimulatedDrone drone = drones.get(port);
+        if (drone != null) {
+            clock.schedule(() -> drone.receive(message), 0, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Logs the outcome of the last run.
+     */
+    public void printSummary() {
+        LOG.info("simulated " + drones.size() + " drones for " + clock.currentTimeMillis() / 1000.0 + " s in "
+                + wallClockMillis + " ms (" + clock.getEventsRun() + " events)");
+        LOG.info("fires reported: " + firesReported + ", missions completed: " + missionsCompleted
+                + ", fires still queued: " + eventList.getListSize() + ", drones shut down: " + dronesShutDown
+                + ", failed requests: " + failedRequests);
+        LOG.info("latency summary\n" + scheduler.getMetricsLogger().summarize().stripTrailing());
+    }
+
+    /**
+     * Returns the clock driving the simulation.
+     *
+     * @return the simulation clock
+     */
+    public DiscreteEventClock getClock() {
+        return clock;
+    }
+
+    /**
+     * Returns the number of fire events reported to the scheduler.
+     *
+     * @return the number of fires reported
+     */
+    public int getFiresReported() {
+        return firesReported;
+    }
+
+    /**
+     * Returns the number of missions the drones have returned from.
+     *
+     * @return the number of completed missions
+     */
+    public int getMissionsCompleted() {
+        return missionsCompleted;
+    }
+
+    /**
+     * Returns the number of drones shut down by a hard fault.
+     *
+     * @return the number of drones shut down
+     */
+    public int getDronesShutDown() {
+        return dronesShutDown;
+    }
+
+    /**
+     * Returns the number of fire events still waiting for a drone.
+     *
+     * @return the number of queued fire events
+     */
+    public int getFiresQueued() {
+        return eventList.getListSize();
+    }
+
+    /**
+     * Returns the number of requests the scheduler failed to handle.
+     *
+     * @return the number of failed requests
+     */
+    public int getFailedRequests() {
+        return failedRequests;
+    }
+
+    /**
+     * A unit of Scheduler work run by {@link #handle(SchedulerWork)}.
+     */
+    private interface SchedulerWork {
+        Object run() throws IOException, InterruptedException;
+    }
+
+    /**
+     * An event-driven model of a {@link DroneSubsystem}. Each request names the continuation to
+     * run with the scheduler's reply, and every flight or nozzle phase is a scheduled event rather
+     * than a sleep.
+     */
+    private class SimulatedDrone {
+        /** Port the drone sends from and receives on. */
+        private final int port;
+        private int droneID;
+        private double x = 0;
+        private double y = 0;
+        private int remainingPayload = MAX_PAYLOAD;
+        private int waterNeeded;
+        private String fault = "NO_FAULT";
+        private String faultType = "N/A";
+        /** Continuation waiting for the scheduler's next message, or null. */
+        private Consumer<String> onReply;
+
+        SimulatedDrone(int port) {
+            this.port = port;
+        }
+
+        /** Registers the drone with the scheduler. */
+        void start() {
+            request("INITIALIZE_DRONE", reply -> {
+                droneID = Integer.parseInt(reply);
+                waitForTask();
+            });
+        }
+
+        /** Handles a message from the scheduler by running the waiting continuation. */
+        void receive(String message) {
+            Consumer<String> continuation = onReply;
+            onReply = null;
+            if (continuation != null) {
+                continuation.accept(message);
+            }
+        }
+
+        private void request(String message, Consumer<String> continuation) {
+            onReply = continuation;
+            submitDroneRequest(message, port);
+        }
+
+        private void after(double seconds, Runnable next) {
+            clock.schedule(next, Math.round(seconds * 1000), TimeUnit.MILLISECONDS);
+        }
+
+        private void waitForTask() {
+            request("GET_TASK:" + droneID, this::taskAssigned);
+        }
+
+        /** Parses a task of the form id:water:x:y:fault:faultType and flies to the zone. */
+        private void taskAssigned(String task) {
+            String[] parts = task.split(":");
+            waterNeeded = Integer.parseInt(parts[1]);
+            fault = parts[4];
+            faultType = parts[5];
+            travel(Integer.parseInt(parts[2]), Integer.parseInt(parts[3]), this::arrivedAtZone);
+        }
+
+        private void travel(double targetX, double targetY, Runnable next) {
+            double distance = Math.hypot(targetX - x, targetY - y);
+            after(distance / DRONE_SPEED, () -> {
+                x = targetX;
+                y = targetY;
+                next.run();
+            });
+        }
+
+        private void arrivedAtZone() {
+            if (fault.equals("DRONE_STUCK")) {
+                faulted();
+                return;
+            }
+            String message = fault.equals("CORRUPTED_MESSAGE") ? "NOFHIS_FNKSS:" + droneID : "NOTIFY_ARRIVED:" + droneID;
+            request(message, reply -> {
+                if (reply.equals("CORRUPTED_MESSAGED")) {
+                    faulted();
+                } else if (reply.equals("OPEN_NOZZLE")) {
+                    openNozzle();
+                }
+            });
+        }
+
+        /** A hard fault shuts the drone down for good; a transient fault clears and the drone retries. */
+        private void faulted() {
+            if (faultType.equals("HARD_FAULT")) {
+                dronesShutDown++;
+                return;
+            }
+            fault = "NO_FAULT";
+            faultType = "N/A";
+            arrivedAtZone();
+        }
+
+        private void openNozzle() {
+            if (fault.equals("NOZZLE_JAM")) {
+                faulted();
+                return;
+            }
+            int released = Math.min(waterNeeded, remainingPayload);
+            after(NOZZLE_OPEN_TIME + released / RATE_OF_WATER_DROP + NOZZLE_OPEN_TIME, () -> {
+                waterNeeded -= released;
+                remainingPayload -= released;
+                finishedDroppingAgent();
+            });
+        }
+
+        private void finishedDroppingAgent() {
+            request("RETURN_TO_SCHEDULER:" + droneID + ":" + waterNeeded, reply -> {
+                missionsCompleted++;
+                if (remainingPayload < 5) {
+                    request("SET_COURSE:" + droneID + ":0:0", course -> travel(0, 0, () -> {
+                        remainingPayload = MAX_PAYLOAD;
+                        waitForTask();
+                    }));
+                } else {
+                    waitForTask();
+                }
+            });
+        }
+    }
+}
@@ -1,11 +1,15 @@
 import java.awt.*;
 import java.io.IOException;
 import java.net.DatagramPacket;
-import java.net.DatagramSocket;
 import java.net.InetAddress;
-import java.net.SocketException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.Executors;
+import javax.swing.SwingUtilities;
 
 /**
  * The Scheduler class handles communication between the drone system and the fire incident system.
@@ -22,8 +26,17 @@ public class Scheduler implements Runnable {
     private static final int MAX_PAYLOAD = 15;
     /** Drone travel speed (used for calculating travel time). */
     private static final double DRONE_SPEED = 2.8;
+    /** Simulated seconds a drone has, after arriving, to open its nozzle before it is checked for a jam. */
+    private static final int NOZZLE_CHECK_UP_DELAY = 30;
     /** Metrics log file name. */
     private static final String METRICS_LOG_FILE = "metrics_log.txt";
+    private static final String SIMULATION_METRICS_LOG_FILE = "simulation_metrics_log.txt";
+    /** Log for the Scheduler's lifecycle, drone registrations and fire reports. */
+    private static final Log LOG = Log.category("scheduler");
+    /** Log for task assignment, which runs on the dispatch path. */
+    private static final Log DISPATCH = Log.category("dispatch");
+    /** Log for every request received and response sent, sampled per drone. */
+    private static final Log MESSAGES = Log.category("messages");
 
     /** Shared DroneFleet instance containing all drones. */
     DroneFleet drones;
@@ -31,8 +44,10 @@ public class Scheduler implements Runnable {
     private Queue<FireIncidentEvent> fireEvents;
     /** List of drone IDs that are currently available. */
     private List<Integer> availableDrones = new ArrayList<>();
-    /** DatagramSocket for sending and receiving UDP messages. */
-    private DatagramSocket socket;
+    /** Endpoint messages are sent and received through; drone requests are received straight into {@link #bufferReq} slots. Non-blocking when driven by a {@link SchedulerEventLoop}. */
+    private Transport transport;
+    /** Receives every message this scheduler sends when it runs in-process; null when it sends through a transport. */
+    private MessageSink sink;
     /** Current state of the scheduler (used in the state machine). */
     private SchedulerState state;
     /** Static counter for assigning unique drone IDs. */
@@ -44,7 +59,7 @@ public class Scheduler implements Runnable {
     /** Flag indicating if there is a pending drone request. */
     private boolean pendingReq = false;
     /** State machine managing scheduler state transitions. */
-    private SchedulerStateMachine stateMachine;
+    SchedulerStateMachine stateMachine;
     /** Port on which the Scheduler listens for messages. */
     int port;
     /** List of fire events. */
@@ -52,11 +67,29 @@ public class Scheduler implements Runnable {
     /** Buffer for incoming drone requests. */
     DroneRequestBuffer bufferReq;
     /** In-progress fire events mapping (e.g., drone ID to event). */
-    private InProgressEvents inProgressEvents;
+    InProgressEvents inProgressEvents;
     /** Metrics logger for logging dispatch and extinguish events. */
-    private static MetricsLogger metricsLogger;
+    private final MetricsLogger metricsLogger;
+    /** Clock fire metrics and drone legs are timed with; all Scheduler timing is in its simulated time. */
+    private final SimulationClock clock;
+    /** Metrics logger shared by every Scheduler instance on a socket, created by the first of them. */
+    private static MetricsLogger sharedMetricsLogger;
+    /** Interval between the latency summaries printed by the metrics logger, in milliseconds. */
+    private static final long METRICS_SUMMARY_PERIOD_MILLIS = 10_000;
     /** Flag to indicate if stuck drones should be handled. */
     private static boolean shouldHandleStuckDrones = false;
+    /** Flag to indicate if the drone scheduler assigns pending events in batches. */
+    private static boolean batchDispatch = false;
+    /** How long, in milliseconds, the batch dispatcher collects events and drones before assigning them. */
+    private static long batchWindowMillis = 250;
+    /** Flag indicating the request being handled on this thread arrived as a binary frame, so replies are sent as binary frames too. */
+    private static final ThreadLocal<Boolean> binaryReply = ThreadLocal.withInitial(() -> false);
+    /** Correlation ID of the binary request being handled on this thread, copied into its replies; one element, so setting it allocates nothing. */
+    private static final ThreadLocal<int[]> replyCorrelation = ThreadLocal.withInitial(() -> new int[1]);
+    /** Flag to indicate if every received drone request is logged. Logging is the only per-request allocation on the receive path. */
+    private static boolean logRequests = true;
+    /** Frame reused by each thread for every binary message it sends. */
+    private static final ThreadLocal<ByteBuffer> outFrame = ThreadLocal.withInitial(() -> ByteBuffer.allocate(MessageCodec.FRAME_SIZE));
 
     /**
      * Sets whether the scheduler should handle stuck drones.
@@ -67,6 +100,28 @@ public class Scheduler implements Runnable {
         Scheduler.shouldHandleStuckDrones = shouldHandleStuckDrones;
     }
 
+    /**
+     * Sets whether every received drone request is logged.
+     *
+     * @param logRequests true to log each request as it is handled; false to keep the receive path allocation-free
+     */
+    public static void setLogRequests(boolean logRequests) {
+        Scheduler.logRequests = logRequests;
+    }
+
+    /**
+     * Enables or disables batch dispatch. In batch mode the drone scheduler collects pending fire
+     * events and available drones for {@code batchWindowMillis}, then assigns them all at once with
+     * a min-cost matching on travel time instead of greedily serving one event at a time.
+     *
+     * @param batchDispatch     true to dispatch in batches; false for one event at a time
+     * @param batchWindowMillis how long to collect events and drones before assigning, in milliseconds
+     */
+    public static void setBatchDispatch(boolean batchDispatch, long batchWindowMillis) {
+        Scheduler.batchDispatch = batchDispatch;
+        Scheduler.batchWindowMillis = batchWindowMillis;
+    }
+
     /**
      * Constructs a new Scheduler.
      *
@@ -79,24 +134,121 @@ public class Scheduler implements Runnable {
     public Scheduler(DroneFleet drones, DroneRequestBuffer bufferReq, FireEventList eventList, InProgressEvents inProgressEvents, int port) {
         this.port = port;
         this.drones = drones;
+        this.clock = SystemClock.getDefault();
+        drones.setClock(clock);
         this.eventList = eventList;
         state = new IdleState();
         pendingReq = false;
         this.bufferReq = bufferReq;
         this.inProgressEvents = inProgressEvents;
+        this.metricsLogger = sharedMetricsLogger();
         try {
-            this.metricsLogger = new MetricsLogger(METRICS_LOG_FILE);
+            transport = ReliableTransport.server(Transport.bind(port));
         } catch (IOException e) {
-            throw new RuntimeException(e);
+            e.printStackTrace();
         }
+        this.stateMachine = new SchedulerStateMachine();
+    }
+
+    /**
+     * Constructs a Scheduler that sends through an already bound, non-blocking channel.
+     * Used by {@link SchedulerEventLoop}, which owns the channels and does all receiving itself.
+     *
+     * @param drones            the shared DroneFleet instance
+     * @param bufferReq         the buffer containing incoming drone requests
+     * @param eventList         the list of fire incident events
+     * @param inProgressEvents  the in-progress events tracker
+     * @param channel           the bound channel responses and tasks are sent from
+     */
+    public Scheduler(DroneFleet drones, DroneRequestBuffer bufferReq, FireEventList eventList, InProgressEvents inProgressEvents, DatagramChannel channel) {
+        this(drones, bufferReq, eventList, inProgressEvents, new UdpTransport(channel));
+    }
+
+    /**
+     * Constructs a Scheduler that sends through an already bound endpoint, such as an in-memory
+     * one. Used by {@link SchedulerEventLoop}, which owns the endpoints and does all receiving itself.
+     *
+     * @param drones            the shared DroneFleet instance
+     * @param bufferReq         the buffer containing incoming drone requests
+     * @param eventList         the list of fire incident events
+     * @param inProgressEvents  the in-progress events tracker
+     * @param endpoint          the bound endpoint responses and tasks are sent from
+     */
+    public Scheduler(DroneFleet drones, DroneRequestBuffer bufferReq, FireEventList eventList, InProgressEvents inProgressEvents, Transport endpoint) {
+        this.port = endpoint.getLocalPort();
+        this.drones = drones;
+        this.clock = SystemClock.getDefault();
+        drones.setClock(clock);
+        this.eventList = eventList;
+        state = new IdleState();
+        pendingReq = false;
+        this.bufferReq = bufferReq;
+        this.inProgressEvents = inProgressEvents;
+        this.metricsLogger = sharedMetricsLogger();
+        this.transport = ReliableTransport.server(endpoint);
+        this.stateMachine = new SchedulerStateMachine();
+    }
+
+    /**
+     * Constructs a Scheduler that runs in-process, handing every message it sends to a sink instead
+     * of a socket. The simulation driving it feeds requests in through the request buffer and
+     * {@link #handleFireDatagram(DatagramPacket)}, and times everything by its own clock.
+     *
+     * @param drones            the shared DroneFleet instance
+     * @param bufferReq         the buffer containing incoming drone requests
+     * @param eventList         the list of fire incident events
+     * @param inProgressEvents  the in-progress events tracker
+     * @param sink              the sink receiving every response and task
+     * @param clock             the clock fire metrics and drone legs are timed with
+     */
+    public Scheduler(DroneFleet drones, DroneRequestBuffer bufferReq, FireEventList eventList, InProgressEvents inProgressEvents, MessageSink sink, SimulationClock clock) {
+        this.port = 0;
+        this.drones = drones;
+        this.clock = clock;
+        drones.setClock(clock);
+        this.eventList = eventList;
+        state = new IdleState();
+        pendingReq = false;
+        this.bufferReq = bufferReq;
+        this.inProgressEvents = inProgressEvents;
         try {
-            socket = new DatagramSocket(port);
-        } catch (SocketException e) {
-            e.printStackTrace();
+            // A simulation keeps its own metrics, timed by the clock it was constructed with.
+            this.metricsLogger = new MetricsLogger(SIMULATION_METRICS_LOG_FILE);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
         }
+        metricsLogger.setClock(clock);
+        this.sink = sink;
         this.stateMachine = new SchedulerStateMachine();
     }
 
+    /**
+     * Returns the metrics logger of this Scheduler: the shared one, or a simulation's own.
+     *
+     * @return the metrics logger
+     */
+    MetricsLogger getMetricsLogger() {
+        return metricsLogger;
+    }
+
+    /**
+     * Returns the metrics logger shared by the Scheduler instances, creating it on first use.
+     * Creating one per instance would truncate the metrics file each time.
+     *
+     * @return the shared metrics logger
+     */
+    private static synchronized MetricsLogger sharedMetricsLogger() {
+        if (sharedMetricsLogger == null) {
+            try {
+                sharedMetricsLogger = new MetricsLogger(METRICS_LOG_FILE);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            sharedMetricsLogger.setClock(SystemClock.getDefault());
+        }
+        return sharedMetricsLogger;
+    }
+
     /**
      * Returns the current state of the scheduler.
      *
@@ -125,12 +277,12 @@ public class Scheduler implements Runnable {
     }
 
     /**
-     * Stops the scheduler by closing its DatagramSocket.
+     * Stops the scheduler by closing its transport.
      * This is typically used during test teardown.
      */
     public void stop() {
-        if (socket != null && !socket.isClosed()) {
-            socket.close();  // Close socket to free the port
+        if (transport != null && !transport.isClosed()) {
+            transport.close();  // Close the endpoint to free the port
         }
     }
 
@@ -152,8 +304,9 @@ public class Scheduler implements Runnable {
      */
     public int calculateTravelTime(Point center) {
         Point currentCoordinates = new Point(0, 0);
-        System.out.println("Calculating travel time for " + center.x + ", " + center.y);
-        System.out.println("Current coordinates: " + currentCoordinates);
+        if (DISPATCH.isDebugEnabled()) {
+            DISPATCH.debug("Calculating travel time for " + center.x + ", " + center.y + " from " + currentCoordinates);
+        }
         double distance = Math.sqrt(Math.pow(center.x - currentCoordinates.x, 2) + Math.pow(center.y - currentCoordinates.y, 2));
         return (int) (distance / DRONE_SPEED);
     }
@@ -169,143 +322,334 @@ public class Scheduler implements Runnable {
      */
     public synchronized String assignTaskToDrone() throws IOException, InterruptedException {
         if ((drones.getAvailableDrones() == 0)) {
-            System.out.println("[" + Thread.currentThread().getName() + "]: NO DRONES AVAILABLE || DRONES UNAVAILABLE AT BASE. Going to wait...");
+            DISPATCH.debug("NO DRONES AVAILABLE || DRONES UNAVAILABLE AT BASE. Going to wait...");
             drones.stopAssigningDrones();
             Scheduler.shouldHandleStuckDrones = true;
         }
 
         if (eventList.isListEmpty()) {
-            System.out.println("[" + Thread.currentThread().getName() + "]: NO EVENTS. Going to wait...");
+            DISPATCH.debug("NO EVENTS. Going to wait...");
             eventList.stopAssigningDrones();
             Scheduler.shouldHandleStuckDrones = true;
         }
 
-        System.out.println("[" + Thread.currentThread().getName() + "]: coming out of wait...");
+        DISPATCH.debug("coming out of wait...");
+        return assignNextEvent();
+    }
+
+    /**
+     * Assigns the highest priority fire event to the closest available drone(s) without waiting.
+     *
+     * @return a String representing the task assigned, or "NO_TASK_AVAILABLE" if none is assigned
+     * @throws IOException if an I/O error occurs during task assignment
+     */
+    synchronized String assignNextEvent() throws IOException {
         int dronesAssigned = 0;
         String task = "";
-        System.out.println("[" + Thread.currentThread().getName() + "]: Assigning task to drone(s)...");
+        DISPATCH.debug("Assigning task to drone(s)...");
 
         if (!eventList.isListEmpty()) {
             FireIncidentEvent fireEvent = eventList.removeEvent();
             if (fireEvent.getWaterNeeded() > 0) {
 
-                System.out.println("[" + Thread.currentThread().getName() + "]: processing fire event " + fireEvent.getZone());
+                if (DISPATCH.isDebugEnabled()) {
+                    DISPATCH.debug("processing fire event " + fireEvent.getZone());
+                }
                 String event = fireEvent.toString();
                 int dronesRequired = calculateDroneRequired(fireEvent);
-                System.out.println("[" + Thread.currentThread().getName() + "]: fire event " + fireEvent.getZone() + " requires " + dronesRequired + " drones");
+                if (DISPATCH.isDebugEnabled()) {
+                    DISPATCH.debug("fire event " + fireEvent.getZone() + " requires " + dronesRequired + " drones");
+                }
 
-                for (int i = 0; i < drones.getAvailableDrones(); i++) {
+                // Each claimed drone leaves the available set, so keep going until the event is covered or no drone is left.
+                while (dronesAssigned < dronesRequired) {
                     DroneData closestDroneToZone = findClosestDrone(fireEvent);
                     if (closestDroneToZone == null) {
-                        eventList.addEvent(fireEvent);
-                        System.out.println("[" + Thread.currentThread().getName() + "]: Drone found NULL. Rechecking...");
-                        return "";
-                    }
-
-                    int waterReq = Integer.MIN_VALUE;
-                    task = sendTaskToDrone(closestDroneToZone, fireEvent);
-                    if (fireEvent.getWaterNeeded() >= MAX_PAYLOAD) {
-                        waterReq = fireEvent.getWaterNeeded() - MAX_PAYLOAD;
-                    } else {
-                        waterReq = fireEvent.getWaterNeeded();
-                        fireEvent.setWaterNeeded(0);
-                    }
-                    fireEvent.setWaterNeeded(waterReq);
-                    dronesAssigned++;
-                    int travelTime = calculateTravelTime(fireEvent.getZone().getCenter());
-
-                    closestDroneToZone.setTravelTime(travelTime);
-                    sendResponse(task, closestDroneToZone.getAddress(), closestDroneToZone.getPort());
-                    System.out.println("[" + Thread.currentThread().getName() + "]: Drone #" + closestDroneToZone.getDroneID() + " for fire event" + fireEvent);
-                    drones.trackDrones(((travelTime + 10) / 10), closestDroneToZone);
-
-                    if (!fireEvent.getFault().equals("NO_FAULT")) {
-                        System.out.println("[" + Thread.currentThread().getName() + "]: Fault: " + fireEvent.getFault() + " accounted for drone #" + closestDroneToZone.getDroneID());
-                        System.out.println("[" + Thread.currentThread().getName() + "]: Now removing Fault from fire event " + fireEvent + " for other Drones (if assigned).");
-                        fireEvent.setFault("NO_FAULT");
-                        fireEvent.setFaultType("N/A");
-                    }
-
-                    inProgressEvents.addInProgressEvent(closestDroneToZone.getDroneID(), fireEvent);
-                    if (dronesRequired == dronesAssigned) {
                         break;
                     }
+                    task = dispatchDrone(closestDroneToZone, fireEvent);
+                    dronesAssigned++;
+                }
+                if (dronesAssigned == 0) {
+                    eventList.addEvent(fireEvent);
+                    DISPATCH.debug("Drone found NULL. Rechecking...");
+                    return "";
                 }
                 if (dronesAssigned != dronesRequired) {
                     eventList.addEvent(fireEvent);
                 }
-                System.out.println("DRONEDISPATCHED : " + fireEvent.getID());
+                if (DISPATCH.isEnabled(Log.Level.INFO)) {
+                    DISPATCH.info("DRONEDISPATCHED : " + fireEvent.getID());
+                }
                 metricsLogger.logDroneDispatched(fireEvent.getID());
                 stateMachine.getCurrentState().assignTask(stateMachine, this);
                 notifyAll();
                 return task;
             }
         }
-        System.out.println("[" + Thread.currentThread().getName() + "]: No fire events to process at the moment.");
+        DISPATCH.debug("No fire events to process at the moment.");
         notifyAll();
         stateMachine.getCurrentState().waitForDrones(stateMachine, this);
         return "NO_TASK_AVAILABLE";
     }
 
     /**
-     * Checks all drones for lateness and marks late drones as lost.
-     * If a drone is lost or its nozzle is jammed, the corresponding fire event is requeued.
+     * Assigns pending fire events to available drones without waiting. In batch mode the whole
+     * backlog is matched at once; otherwise the highest priority event is assigned.
      *
+     * @return true if there was a drone and an event to work with; false if nothing could be assigned
+     * @throws IOException if an I/O error occurs during task assignment
+     */
+    synchronized boolean dispatchPending() throws IOException {
+        if (!hasPendingWork()) {
+            return false;
+        }
+        if (batchDispatch) {
+            dispatchBatch();
+        } else {
+            assignNextEvent();
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether there is at least one available drone and one queued fire event.
+     *
+     * @return true if a task could be assigned right now; false otherwise
+     */
+    boolean hasPendingWork() {
+        return drones.getAvailableDrones() > 0 && !eventList.isListEmpty();
+    }
+
+    /**
+     * Returns whether batch dispatch is enabled.
+     *
+     * @return true if pending events are assigned in batches
+     */
+    static boolean isBatchDispatch() {
+        return batchDispatch;
+    }
+
+    /**
+     * Returns how long the batch dispatcher collects events and drones before assigning them.
+     *
+     * @return the batch window in milliseconds
+     */
+    static long getBatchWindowMillis() {
+        return batchWindowMillis;
+    }
+
+    /**
+     * Assigns all pending fire events to the available drones in one pass.
+     * Once at least one drone and one event are available, this waits for the batch window so that
+     * more events and returning drones can accumulate, then dispatches the whole batch.
+     *
+     * @return a String representing the last task assigned, or "NO_TASK_AVAILABLE" if none is assigned
+     * @throws IOException if an I/O error occurs during task assignment
      * @throws InterruptedException if the thread is interrupted while waiting
      */
-    public synchronized void HandleStuckDrones() throws InterruptedException {
-        int maxTravelTime = Integer.MIN_VALUE;
-        List<Integer> removedDrones = new ArrayList<>();
-        List<Integer> nozzleJammedDrones = new ArrayList<>();
-
-        if (inProgressEvents.isInProgressEventListEmpty()) {
-            inProgressEvents.isInProgressEventsListEmpty();
-            System.out.println("[" + Thread.currentThread().getName() + "]: coming out of wait...");
-        }
-        // Making a copy of the in-progress event keys to overcome concurrent modification issues.
-        Collection<Integer> keys = inProgressEvents.getKeys();
-        Iterator<Integer> itr = keys.iterator();
-        while (itr.hasNext()) {
-            int droneID = itr.next();
-            DroneData drone = drones.getADrone(droneID);
-            if (drone.isLost && drone.droneJobStatus == -1) {
-                eventList.notifyScheduler();
-                FireIncidentEvent fireEvent = inProgressEvents.getAnEventInProgress(drone.getDroneID());
-                fireEvent.setFault("NO_FAULT");
-                fireEvent.setFaultType("N/A");
-                System.out.println(fireEvent);
+    public String assignTasksInBatch() throws IOException, InterruptedException {
+        if ((drones.getAvailableDrones() == 0)) {
+            DISPATCH.debug("NO DRONES AVAILABLE || DRONES UNAVAILABLE AT BASE. Going to wait...");
+            drones.stopAssigningDrones();
+            Scheduler.shouldHandleStuckDrones = true;
+        }
+
+        if (eventList.isListEmpty()) {
+            DISPATCH.debug("NO EVENTS. Going to wait...");
+            eventList.stopAssigningDrones();
+            Scheduler.shouldHandleStuckDrones = true;
+        }
+
+        // Collect outside the monitor so the other scheduler threads are not blocked meanwhile.
+        Thread.sleep(batchWindowMillis);
+        return dispatchBatch();
+    }
+
+    /**
+     * Drains the event list and matches the events against every available drone.
+     * Each event contributes one slot per drone it requires, in priority order, and slots are capped
+     * at the number of available drones so that scarce drones still go to the most urgent fires.
+     * The slots are then matched to drones by {@link DroneAssignmentSolver} so that the total
+     * travel time of the batch is minimal. Events that did not get all the drones they need are requeued.
+     *
+     * @return a String representing the last task assigned, or "NO_TASK_AVAILABLE" if none is assigned
+     * @throws IOException if an I/O error occurs while sending tasks
+     */
+    synchronized String dispatchBatch() throws IOException {
+        List<FireIncidentEvent> events = new ArrayList<>();
+        FireIncidentEvent next;
+        while ((next = eventList.removeEvent()) != null) {
+            if (next.getWaterNeeded() > 0) {
+                events.add(next);
+            }
+        }
+        List<DroneData> available = drones.getAvailableDroneList();
+        if (events.isEmpty() || available.isEmpty()) {
+            for (FireIncidentEvent fireEvent : events) {
                 eventList.addEvent(fireEvent);
-                removedDrones.add(droneID);
-                System.out.println("[" + Thread.currentThread().getName() + "]: added event " + fireEvent + " again because drone is lost (repeats not permitted)");
-            } else if (drone.droneJobStatus == 1 && drone.isComingBack == -1) {
-                eventList.notifyScheduler();
-                FireIncidentEvent fireEvent = inProgressEvents.getAnEventInProgress(drone.getDroneID());
-                fireEvent.setFault("NO_FAULT");
-                fireEvent.setFaultType("N/A");
-                System.out.println(fireEvent);
+            }
+            DISPATCH.debug("No fire events to process at the moment.");
+            notifyAll();
+            stateMachine.getCurrentState().waitForDrones(stateMachine, this);
+            return "NO_TASK_AVAILABLE";
+        }
+
+        int[] dronesRequired = new int[events.size()];
+        List<Integer> slots = new ArrayList<>();
+        for (int e = 0; e < events.size(); e++) {
+            dronesRequired[e] = calculateDroneRequired(events.get(e));
+            for (int i = 0; i < dronesRequired[e] && slots.size() < available.size(); i++) {
+                slots.add(e);
+            }
+        }
+        if (DISPATCH.isDebugEnabled()) {
+            DISPATCH.debug("Assigning " + slots.size() + " task(s) for " + events.size() + " fire event(s) to " + available.size() + " drone(s)...");
+        }
+
+        double[][] cost = new double[slots.size()][available.size()];
+        for (int slot = 0; slot < slots.size(); slot++) {
+            Point center = events.get(slots.get(slot)).getZone().getCenter();
+            for (int d = 0; d < available.size(); d++) {
+                cost[slot][d] = available.get(d).getLocation().distance(center) / DRONE_SPEED;
+            }
+        }
+        int[] assignment = DroneAssignmentSolver.solve(cost);
+
+        int[] dronesAssigned = new int[events.size()];
+        String task = "";
+        for (int slot = 0; slot < slots.size(); slot++) {
+            if (assignment[slot] < 0) {
+                continue;
+            }
+            FireIncidentEvent fireEvent = events.get(slots.get(slot));
+            DroneData drone = available.get(assignment[slot]);
+            claimDrone(drone, fireEvent);
+            task = dispatchDrone(drone, fireEvent);
+            dronesAssigned[slots.get(slot)]++;
+        }
+
+        for (int e = 0; e < events.size(); e++) {
+            FireIncidentEvent fireEvent = events.get(e);
+            if (dronesAssigned[e] != dronesRequired[e]) {
                 eventList.addEvent(fireEvent);
-                nozzleJammedDrones.add(droneID);
-                System.out.println("[" + Thread.currentThread().getName() + "]: added event " + fireEvent + " again because drone is lost (repeats not permitted)");
-            } else {
-                maxTravelTime = Math.max(maxTravelTime, drone.getTravelTime());
+            }
+            if (dronesAssigned[e] > 0) {
+                if (DISPATCH.isEnabled(Log.Level.INFO)) {
+                    DISPATCH.info("DRONEDISPATCHED : " + fireEvent.getID());
+                }
+                metricsLogger.logDroneDispatched(fireEvent.getID());
             }
         }
+        stateMachine.getCurrentState().assignTask(stateMachine, this);
+        notifyAll();
+        return task;
+    }
 
-        for (int ID : removedDrones) {
-            drones.removeDrone(ID);
-            inProgressEvents.removeInProgressEvent(ID);
+    /**
+     * Sends a claimed drone its task for the fire event, deducts its payload from the event,
+     * starts the arrival watchdog and records the event as in progress for the drone.
+     *
+     * @param drone     the drone claimed for the event
+     * @param fireEvent the fire incident event being served
+     * @return the task string sent to the drone
+     * @throws IOException if an I/O error occurs while sending the task
+     */
+    private String dispatchDrone(DroneData drone, FireIncidentEvent fireEvent) throws IOException {
+        int waterReq = Integer.MIN_VALUE;
+        String task = sendTaskToDrone(drone, fireEvent);
+        ByteBuffer taskFrame = null;
+        if (drone.isBinaryProtocol()) {
+            Point center = fireEvent.getZone().getCenter();
+            taskFrame = outFrame.get();
+            MessageCodec.encodeTask(taskFrame, drone.getDroneID(), fireEvent.getWaterNeeded(), center.x, center.y, fireEvent.getFault(), fireEvent.getFaultType());
+            MessageCodec.setCorrelation(taskFrame, drone.getTaskCorrelation());
+        }
+        if (fireEvent.getWaterNeeded() >= MAX_PAYLOAD) {
+            waterReq = fireEvent.getWaterNeeded() - MAX_PAYLOAD;
+        } else {
+            waterReq = fireEvent.getWaterNeeded();
+            fireEvent.setWaterNeeded(0);
+        }
+        fireEvent.setWaterNeeded(waterReq);
+        // Timed from where the drone is estimated to be, which after a drop is the fire it left.
+        int travelTime = (int) drones.depart(drone, fireEvent.getZone().getCenter(), DRONE_SPEED);
+
+        drone.setTravelTime(travelTime);
+        if (taskFrame != null) {
+            sendFrame(taskFrame, drone.getAddress(), drone.getPort(), drone.getTaskCorrelation());
+            if (MESSAGES.isEnabled(Log.Level.DEBUG, drone.getDroneID())) {
+                MESSAGES.debug("Sent binary task :" + task);
+            }
+        } else {
+            sendResponse(task, drone.getAddress(), drone.getPort());
         }
-        for (int ID : nozzleJammedDrones) {
-            drones.removeDrone(ID);
-            inProgressEvents.removeInProgressEvent(ID);
+        if (DISPATCH.isEnabled(Log.Level.INFO, drone.getDroneID())) {
+            DISPATCH.info("Drone #" + drone.getDroneID() + " for fire event" + fireEvent);
         }
-        removedDrones.clear();
-        nozzleJammedDrones.clear();
+        drones.trackDrones(travelTime + 10, drone);
+
+        if (!fireEvent.getFault().equals("NO_FAULT")) {
+            DISPATCH.info("Fault: " + fireEvent.getFault() + " accounted for drone #" + drone.getDroneID());
+            DISPATCH.info("Now removing Fault from fire event " + fireEvent + " for other Drones (if assigned).");
+            fireEvent.setFault("NO_FAULT");
+            fireEvent.setFaultType("N/A");
+        }
+
+        inProgressEvents.addInProgressEvent(drone.getDroneID(), fireEvent);
+        return task;
+    }
+
+    /**
+     * Waits for the next drone that a watchdog reported as lost or nozzle-jammed and requeues its event.
+     * No monitor is held while waiting, and the cost of handling a fault does not depend on
+     * how many missions are in flight.
+     *
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public void HandleStuckDrones() throws InterruptedException {
+        int droneID = drones.takeFaultedDrone();
+        DISPATCH.debug("coming out of wait...");
+        requeueFaultedDrone(droneID);
+    }
+
+    /**
+     * Requeues the events of every drone reported as faulted so far, without waiting.
+     *
+     * @throws InterruptedException if the thread is interrupted while removing an in-progress event
+     */
+    void handleStuckDronesNow() throws InterruptedException {
+        Integer droneID;
+        while ((droneID = drones.pollFaultedDrone()) != null) {
+            requeueFaultedDrone(droneID);
+        }
+    }
+
+    /**
+     * Puts the fire event of a lost or nozzle-jammed drone back on the event list and removes the
+     * drone from the fleet. Does nothing if the drone no longer has an event in progress.
+     *
+     * @param droneID the ID of the faulted drone
+     * @throws InterruptedException if the thread is interrupted while removing the in-progress event
+     */
+    synchronized void requeueFaultedDrone(int droneID) throws InterruptedException {
+        FireIncidentEvent fireEvent = inProgressEvents.getAnEventInProgress(droneID);
+        if (fireEvent == null) {
+            return;
+        }
+        eventList.notifyScheduler();
+        fireEvent.setFault("NO_FAULT");
+        fireEvent.setFaultType("N/A");
+        eventList.addEvent(fireEvent);
+        metricsLogger.logFireRequeued(fireEvent.getID());
+        DISPATCH.warn("added event " + fireEvent + " again because drone is lost (repeats not permitted)");
+
+        drones.removeDrone(droneID);
+        inProgressEvents.removeInProgressEvent(droneID);
 
         notifyAll();
         stateMachine.getCurrentState().handleFault(stateMachine, this);
         stateMachine.getCurrentState().returnToIdle(stateMachine, this);
-        return;
     }
 
     /**
@@ -337,48 +681,48 @@ public class Scheduler implements Runnable {
     }
 
     /**
-     * Finds and returns the drone closest to the fire event.
-     * Only drones that have already requested and are at base are considered.
+     * Finds and returns the drone closest to the fire event and claims it for the event.
+     * Only drones that have already requested and are at base are considered; they are looked up
+     * through the fleet's spatial index rather than by scanning the whole fleet.
      *
      * @param fireEvent the fire incident event
      * @return the DroneData of the closest available drone, or null if none found
      */
     public synchronized DroneData findClosestDrone(FireIncidentEvent fireEvent) {
-        DroneData closestDrone = null;
-        double min = Double.MAX_VALUE;
-        for (DroneData drone : drones.getDrones()) {
-            System.out.println("Has drone #" + drone.getDroneID() + " requested: " + drone.getHasRequested());
-            if (drone.getHasRequested() && drone.isAtBase()) {
-                double distance = Math.sqrt(Math.pow(fireEvent.getZone().getCenter().getX() - drone.getLocation().getX(), 2) +
-                        Math.pow(fireEvent.getZone().getCenter().getY() - drone.getLocation().getY(), 2));
-
-                if (distance < min) {
-                    min = distance;
-                    closestDrone = drone;
-                    closestDrone.setHasRequested(false);
-                    closestDrone.setEventID(fireEvent.getZoneId());
-                    System.out.println("[" + Thread.currentThread().getName() + "]: closest drone near fire event " + fireEvent.getZone() + " is drone #" + closestDrone.getDroneID());
-                }
-            }
-        }
+        DroneData closestDrone = drones.findNearestAvailableDrone(fireEvent.getZone().getCenter());
         if (closestDrone == null) {
             return null;
         }
-        closestDrone.setAtBase(false);
-        closestDrone.setDroneJobStatus(0);
-        closestDrone.setIsComingBack(0);
-        closestDrone.setHasArrived(false);
-        closestDrone.setCompletedJob(false);
+        if (DISPATCH.isDebugEnabled()) {
+            DISPATCH.debug("closest drone near fire event " + fireEvent.getZone() + " is drone #" + closestDrone.getDroneID());
+        }
+        claimDrone(closestDrone, fireEvent);
         return closestDrone;
     }
 
+    /**
+     * Marks a drone as taken by the fire event so it is no longer considered available.
+     *
+     * @param drone     the drone to claim
+     * @param fireEvent the fire incident event the drone is assigned to
+     */
+    private void claimDrone(DroneData drone, FireIncidentEvent fireEvent) {
+        drone.setHasRequested(false);
+        drone.setEventID(fireEvent.getZoneId());
+        drone.setAtBase(false);
+        drone.setDroneJobStatus(0);
+        drone.setIsComingBack(0);
+        drone.setHasArrived(false);
+        drone.setCompletedJob(false);
+    }
+
     /**
      * Transforms a received string array into a FireIncidentEvent object.
      *
      * @param parts the string array received from the fire incident subsystem
      * @return a new FireIncidentEvent object created from the string data
      */
-    private static FireIncidentEvent getFireIncidentEvent(String[] parts) {
+    static FireIncidentEvent getFireIncidentEvent(String[] parts) {
         int zoneId = Integer.parseInt(parts[1].trim());
         String[] eventDetails = (parts[2].split(","));
         String time = "" + parts[0] + ":" + parts[1] + ":" + eventDetails[0];
@@ -404,63 +748,247 @@ public class Scheduler implements Runnable {
     }
 
     /**
-     * Processes an incoming drone request by parsing the request, performing the necessary
-     * actions, and sending back an appropriate response.
+     * Receives one drone request from a transport into a free {@link #bufferReq} slot and queues it.
+     * The datagram is read straight into the slot's buffer and decoded there, so nothing is allocated.
+     *
+     * @param from the endpoint bound to the drone port
+     * @return true if a request was received; false if a non-blocking endpoint had none queued
+     * @throws IOException if an I/O error occurs while receiving
+     * @throws InterruptedException if the thread is interrupted while waiting for a free slot
+     */
+    boolean receiveDroneRequest(Transport from) throws IOException, InterruptedException {
+        int slot = bufferReq.acquire();
+        SocketAddress sender;
+        try {
+            sender = from.receive(bufferReq.slot(slot));
+        } catch (IOException e) {
+            bufferReq.release(slot);
+            throw e;
+        }
+        if (sender == null) {
+            bufferReq.release(slot);
+            return false;
+        }
+        bufferReq.decode(slot, sender);
+        ByteBuffer frame = bufferReq.request(slot);
+        if (MessageCodec.isValid(frame) && MessageCodec.type(frame) == MessageCodec.HEARTBEAT) {
+            // Heartbeats are counted as they arrive, so a long request queue never makes a drone look dead.
+            drones.heartbeat(MessageCodec.id(frame));
+            bufferReq.release(slot);
+            return true;
+        }
+        if (MessageCodec.isValid(frame) && (MessageCodec.type(frame) == MessageCodec.UPDATE_LOCATION || MessageCodec.type(frame) == MessageCodec.SET_COURSE)) {
+            try {
+                handleLocationUpdate(slot);
+            } finally {
+                bufferReq.release(slot);
+            }
+            return true;
+        }
+        bufferReq.enqueue(slot);
+        return true;
+    }
+
+    /**
+     * Handles a location update or a new course on the receiving thread instead of queueing it with
+     * the control requests: a position goes to the fleet's position board, where it replaces any
+     * earlier position not yet used, a course to the fleet's motion model, and the drone is
+     * acknowledged straight away.
+     *
+     * @param slot the decoded slot holding the update
+     * @throws IOException if an I/O error occurs when sending the acknowledgement
+     */
+    private void handleLocationUpdate(int slot) throws IOException {
+        ByteBuffer frame = bufferReq.request(slot);
+        binaryReply.set(bufferReq.isBinary(slot));
+        replyCorrelation.get()[0] = MessageCodec.correlation(frame);
+        try {
+            if (MessageCodec.type(frame) == MessageCodec.SET_COURSE) {
+                handleSetCourse(MessageCodec.id(frame), MessageCodec.x(frame), MessageCodec.y(frame), bufferReq.address(slot), bufferReq.port(slot));
+            } else {
+                handleUpdateDroneLocation(MessageCodec.id(frame), MessageCodec.x(frame), MessageCodec.y(frame), bufferReq.address(slot), bufferReq.port(slot));
+            }
+        } finally {
+            binaryReply.set(false);
+            replyCorrelation.get()[0] = 0;
+        }
+    }
+
+    /**
+     * Processes the oldest queued drone request.
+     *
+     * @return the response string sent back to the drone
+     * @throws IOException if an I/O error occurs during processing
+     */
+    String handleDroneRequest() throws IOException {
+        return processDroneRequest();
+    }
+
+    /**
+     * Processes a datagram received from the fire incident subsystem.
+     *
+     * @param packet the received datagram
+     * @return the response string sent back to the fire incident subsystem
+     * @throws IOException if an I/O error occurs during processing
+     */
+    String handleFireDatagram(DatagramPacket packet) throws IOException {
+        if (MessageCodec.isBinary(packet.getData(), packet.getLength())) {
+            MESSAGES.debug("received binary request from fire incident");
+            binaryReply.set(true);
+            long start = System.nanoTime();
+            try {
+                return processBinaryFireRequest(packet);
+            } finally {
+                binaryReply.set(false);
+                metricsLogger.recordHandlingTime(System.nanoTime() - start);
+            }
+        }
+        long start = System.nanoTime();
+        try {
+            String request = new String(packet.getData(), 0, packet.getLength());
+            if (MESSAGES.isDebugEnabled()) {
+                MESSAGES.debug("received request from fire incident: " + request);
+            }
+            return processFireRequest(request, packet.getAddress(), packet.getPort());
+        } finally {
+            metricsLogger.recordHandlingTime(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Processes the oldest queued drone request, performing the necessary actions and sending back
+     * an appropriate response in the protocol the request arrived in. The slot is released afterwards.
      *
      * @return the response string to be sent back to the drone
      * @throws IOException if an I/O error occurs during processing
      */
     private String processDroneRequest() throws IOException {
-        if (!bufferReq.isEmpty()) {
-            DatagramPacket packet = bufferReq.removeRequest();
-            String request = new String(packet.getData(), 0, packet.getLength());
-            String[] parts = request.split(":");
-            InetAddress clientAddress = packet.getAddress();
-            int clientPort = packet.getPort();
-            if (!checkCorrupted(parts)) {
-                switch (parts[0]) {
-                    case "INITIALIZE_DRONE":
-                        return handleInitializeDrone(clientAddress, clientPort);
-                    case "GET_TASK":
-                        int droneID = Integer.parseInt(parts[1]);
-                        return handleGetTask(Integer.parseInt(parts[1]));
-                    case "RETURN_TO_SCHEDULER":
-                        return handleReturnToScheduler(Integer.parseInt(parts[1]), clientAddress, clientPort);
-                    case "NOTIFY_ARRIVED":
-                        droneID = Integer.parseInt(parts[1]);
-                        return handleArrivedAtDestination(droneID, clientAddress, clientPort);
-                    case "OPEN_NOZZLE":
-                        droneID = Integer.parseInt(parts[1]);
-                        return handleJobCompleted(droneID, clientAddress, clientPort);
-                    case "UPDATE_LOCATION":
-                        droneID = Integer.parseInt(parts[1]);
-                        return handleUpdateDroneLocation(droneID, parts[2], parts[3], clientAddress, clientPort);
-                    default:
-                        droneID = Integer.parseInt(parts[1]);
-                        System.out.println("[" + Thread.currentThread().getName() + "]: received unfamiliar request: " + request + " from droneID#" + droneID);
-                        stateMachine.getCurrentState().handleFault(stateMachine, this);
-                        requestRetransmission(request, clientAddress, clientPort);
-                }
-            } else {
-                requestRetransmission(request, clientAddress, clientPort);
+        int slot = bufferReq.poll();
+        if (slot < 0) {
+            return "";
+        }
+        long start = System.nanoTime();
+        try {
+            if (logRequests && MESSAGES.isEnabled(Log.Level.DEBUG, bufferReq.port(slot))) {
+                MESSAGES.debug("received request from drone: " + bufferReq.describe(slot));
             }
+            ByteBuffer frame = bufferReq.request(slot);
+            binaryReply.set(bufferReq.isBinary(slot));
+            replyCorrelation.get()[0] = MessageCodec.isValid(frame) ? MessageCodec.correlation(frame) : 0;
+            return processDroneRequest(frame, bufferReq.address(slot), bufferReq.port(slot));
+        } finally {
+            binaryReply.set(false);
+            replyCorrelation.get()[0] = 0;
+            bufferReq.release(slot);
+            metricsLogger.recordHandlingTime(System.nanoTime() - start);
         }
-        return "";
     }
 
     /**
-     * Updates the stored location for a drone and returns an acknowledgement.
+     * Processes a drone request decoded into a {@link MessageCodec} frame.
      *
-     * @param droneID the ID of the drone sending its location
-     * @param x       the new x-coordinate as a string
-     * @param y       the new y-coordinate as a string
+     * @param frame         the request frame
      * @param clientAddress the sender's InetAddress
      * @param clientPort    the sender's port number
+     * @return the text equivalent of the response sent back to the drone
+     * @throws IOException if an I/O error occurs during processing
+     */
+    private String processDroneRequest(ByteBuffer frame, InetAddress clientAddress, int clientPort) throws IOException {
+        if (!MessageCodec.isValid(frame)) {
+            requestRetransmission("", clientAddress, clientPort);
+            return "";
+        }
+        int droneID = MessageCodec.id(frame);
+        switch (MessageCodec.type(frame)) {
+            case MessageCodec.INITIALIZE_DRONE:
+                String assignedID = handleInitializeDrone(clientAddress, clientPort);
+                drones.getADrone(Integer.parseInt(assignedID)).setBinaryProtocol(binaryReply.get());
+                return assignedID;
+            case MessageCodec.GET_TASK:
+                return handleGetTask(droneID);
+            case MessageCodec.RETURN_TO_SCHEDULER:
+                return handleReturnToScheduler(droneID, clientAddress, clientPort);
+            case MessageCodec.NOTIFY_ARRIVED:
+                return handleArrivedAtDestination(droneID, clientAddress, clientPort);
+            case MessageCodec.OPEN_NOZZLE:
+                return handleJobCompleted(droneID, clientAddress, clientPort);
+            case MessageCodec.UPDATE_LOCATION:
+                return handleUpdateDroneLocation(droneID, MessageCodec.x(frame), MessageCodec.y(frame), clientAddress, clientPort);
+            case MessageCodec.SET_COURSE:
+                return handleSetCourse(droneID, MessageCodec.x(frame), MessageCodec.y(frame), clientAddress, clientPort);
+            case MessageCodec.HEARTBEAT:
+                drones.heartbeat(droneID);
+                return "";
+            default:
+                MESSAGES.warn("received unfamiliar request of type " + MessageCodec.type(frame) + " from droneID#" + droneID);
+                stateMachine.getCurrentState().handleFault(stateMachine, this);
+                requestRetransmission("", clientAddress, clientPort);
+        }
+        return "";
+    }
+
+    /**
+     * Processes a binary fire event frame from the fire incident subsystem, the binary counterpart
+     * of {@link #processFireRequest(String, InetAddress, int)}.
+     *
+     * @param packet the datagram holding the frame
+     * @return a response string after handling the fire event
+     * @throws IOException if an I/O error occurs during processing
+     */
+    private String processBinaryFireRequest(DatagramPacket packet) throws IOException {
+        ByteBuffer frame = ByteBuffer.wrap(packet.getData(), 0, packet.getLength());
+        if (!MessageCodec.isValid(frame) || MessageCodec.type(frame) != MessageCodec.FIRE_EVENT) {
+            requestRetransmission("", packet.getAddress(), packet.getPort());
+            return "";
+        }
+        FireIncidentEvent event = MessageCodec.decodeFireEvent(frame);
+        event.setID(getNextEventID());
+        stateMachine.getCurrentState().processFireRequest(stateMachine, this);
+        stateMachine.getCurrentState().assignTask(stateMachine, this);
+        return handleFireEvent(event, packet.getAddress(), packet.getPort());
+    }
+
+    /**
+     * Records the location reported by a drone on the fleet's position board and returns an
+     * acknowledgement. It runs on the receiving thread, so the scheduler's state is left alone.
+     *
+     * @param droneID the ID of the drone sending its location
+     * @param x       the new x-coordinate
+     * @param y       the new y-coordinate
+     * @param address the sender's InetAddress
+     * @param port    the sender's port number
+     * @return a "Location_OK" acknowledgement message
+     * @throws IOException if an I/O error occurs when sending the acknowledgement
+     */
+    private String handleUpdateDroneLocation(int droneID, int x, int y, InetAddress address, int port) throws IOException {
+        drones.reportLocation(droneID, x, y);
+        String response = "Location_OK";
+        deliverResponse(response, address, port);
+        return response;
+    }
+
+    /**
+     * Records a course a drone set off on by itself, such as back to base after a drop, in the
+     * fleet's motion model and returns an acknowledgement. The drone is followed from where it is
+     * estimated to be, so it reports no position on the way. Like a location update, it runs on the
+     * receiving thread and leaves the scheduler's state alone.
+     *
+     * @param droneID the ID of the drone changing course
+     * @param x       the x-coordinate of the new target
+     * @param y       the y-coordinate of the new target
+     * @param address the sender's InetAddress
+     * @param port    the sender's port number
      * @return a "Location_OK" acknowledgement message
+     * @throws IOException if an I/O error occurs when sending the acknowledgement
      */
-    private String handleUpdateDroneLocation(int droneID, String x, String y, InetAddress clientAddress, int clientPort) {
-        drones.updateLocation(droneID, new Point(Integer.parseInt(x), Integer.parseInt(y)));
-        return "Location_OK";
+    private String handleSetCourse(int droneID, int x, int y, InetAddress address, int port) throws IOException {
+        DroneData drone = drones.getADrone(droneID);
+        if (drone != null) {
+            drones.depart(drone, new Point(x, y), DRONE_SPEED);
+        }
+        String response = "Location_OK";
+        deliverResponse(response, address, port);
+        return response;
     }
 
     /**
@@ -487,15 +1015,17 @@ public class Scheduler implements Runnable {
      * @throws IOException if an I/O error occurs when sending a response
      */
     private synchronized String handleArrivedAtDestination(int droneID, InetAddress clientAddress, int clientPort) throws IOException {
-        System.out.println("[" + Thread.currentThread().getName() + "] -> Drone Data: drone#" + droneID + " has arrived at destination");
+        if (DISPATCH.isEnabled(Log.Level.DEBUG, droneID)) {
+            DISPATCH.debug("-> Drone Data: drone#" + droneID + " has arrived at destination");
+        }
         String response = "OPEN_NOZZLE";
         sendResponse(response, clientAddress, clientPort);
         DroneData drone = drones.getADrone(droneID);
+        drones.arrive(droneID);
         drone.setHasArrived(true);
         drone.setDroneJobStatus(-1);
-        int travelTime = drone.getTravelTime();
-        int travelDelay = 3;
-        drones.trackDroneNozzle(travelDelay, drone);
+        drones.confirmArrival(drone);
+        drones.trackDroneNozzle(NOZZLE_CHECK_UP_DELAY, drone);
         return response;
     }
 
@@ -508,7 +1038,7 @@ public class Scheduler implements Runnable {
      * @throws IOException if an I/O error occurs while sending the response
      */
     private synchronized void requestRetransmission(String request, InetAddress clientAddress, int clientPort) throws IOException {
-        System.out.println("[" + Thread.currentThread().getName() + "]: handling corrupted request");
+        MESSAGES.warn("handling corrupted request");
         String response = "CORRUPTED_MESSAGED";
         sendResponse(response, clientAddress, clientPort);
     }
@@ -539,17 +1069,32 @@ public class Scheduler implements Runnable {
      * @throws IOException if an I/O error occurs while sending the response
      */
     public synchronized String handleFireEvent(String[] parts, InetAddress address, int port) throws IOException {
-        FireIncidentEvent event = getFireIncidentEvent(parts);
+        return handleFireEvent(getFireIncidentEvent(parts), address, port);
+    }
+
+    /**
+     * Queues a decoded fire event and sends an acknowledgement.
+     *
+     * @param event   the fire event, with its ID already assigned
+     * @param address the sender's InetAddress
+     * @param port    the sender's port number
+     * @return an acknowledgement message ("FIRE_EVENT:RECEIVED")
+     * @throws IOException if an I/O error occurs while sending the response
+     */
+    public synchronized String handleFireEvent(FireIncidentEvent event, InetAddress address, int port) throws IOException {
         eventList.addEvent(event);
         metricsLogger.logFireReported(event.getID(), event.getZoneId());
-        System.out.println("LOGFIREREPORTED : fireid: " + event.getID() + ", zoneid: " + event.getZoneId());
-        System.out.println("LOGFIREREPORTED : metrics map:" + metricsLogger.getFireEventMetricsMap().toString());
+        if (LOG.isEnabled(Log.Level.INFO)) {
+            LOG.info("LOGFIREREPORTED : fireid: " + event.getID() + ", zoneid: " + event.getZoneId() + ", " + metricsLogger.getFireMetricsStore());
+        }
         numbFireEvents = numbFireEvents + 1;
-        System.out.println("Number of fire events added by now: " + numbFireEvents + " with currently " + eventList.getListSize() + " in processing \n");
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Number of fire events added by now: " + numbFireEvents + " with currently " + eventList.getListSize() + " in processing");
+        }
         String response = "FIRE_EVENT:RECEIVED";
         sendResponse(response, address, port);
         drones.checkEvents();
-        System.out.println("[DEBUG]: NOTIFYALL");
+        LOG.debug("NOTIFYALL");
         return response;
     }
 
@@ -561,14 +1106,14 @@ public class Scheduler implements Runnable {
      * @return the assigned drone ID as a String
      */
     public String handleInitializeDrone(InetAddress address, int port) {
-        System.out.println("[" + Thread.currentThread().getName() + "]: Initializing a drone...");
+        LOG.debug("Initializing a drone...");
         int assignedID = nextDroneID++;
         DroneData drone = new DroneData(assignedID, new Point(0, 0), MAX_PAYLOAD, address, port);
         drones.addDrone(assignedID, drone);
-        System.out.println("[" + Thread.currentThread().getName() + "]: new drone initialized with drone ID #" + assignedID);
+        LOG.info("new drone initialized with drone ID #" + assignedID);
         int droneID = drone.getDroneID();
         String droneIDMsg = Integer.toString(droneID);
-        System.out.println("[Scheduler]: Drone ID sent back as response");
+        LOG.debug("Drone ID sent back as response");
         try {
             sendResponse(droneIDMsg, address, port);
         } catch (IOException e) {
@@ -586,6 +1131,11 @@ public class Scheduler implements Runnable {
      */
     private String handleGetTask(int droneID) throws IOException {
         DroneData drone = drones.getADrone(droneID);
+        // A drone asks for a task once it is where it was heading, e.g. back at base.
+        drones.arrive(droneID);
+        // A drone's tasks follow the protocol of its latest task request.
+        drone.setBinaryProtocol(binaryReply.get());
+        drone.setTaskCorrelation(replyCorrelation.get()[0]);
         drones.isAvailable(droneID);
         drone.setHasRequested(true);
         drones.notifyScheduler();
@@ -594,16 +1144,18 @@ public class Scheduler implements Runnable {
 
     /**
      * Handles a RETURN_TO_SCHEDULER request from a drone, marking it as no longer busy and logging the completed job.
+     * The fire is logged as extinguished only once it is not waiting for more drones and no other drone is still serving it.
      *
      * @param droneID       the ID of the returning drone
      * @param address       the sender's InetAddress
      * @param port          the sender's port number
      * @return an acknowledgement message ("RETURN_TO_SCHEDULER:OK")
      */
-    private String handleReturnToScheduler(int droneID, InetAddress address, int port) {
+    String handleReturnToScheduler(int droneID, InetAddress address, int port) {
         DroneData drone = drones.getADrone(droneID);
         drone.setHasRequested(false);
         drone.setIsComingBack(1);
+        drones.confirmReturn(drone);
         String response = "RETURN_TO_SCHEDULER:OK";
         try {
             sendResponse(response, address, port);
@@ -611,23 +1163,38 @@ public class Scheduler implements Runnable {
             // Handle exception if needed.
         }
         drone.setCompletedJob(true);
-        FireIncidentEvent event = inProgressEvents.getAnEventInProgress(droneID);
-        System.out.println("FIREEXTINGUISHED : " + event.getID());
-        metricsLogger.logFireExtinguished(event.getID());
-        FireEventMetrics fireEventMetrics = metricsLogger.getFireEventMetricsMap().get(event.getID());
-        if (fireEventMetrics.isComplete()) {
-            try {
-                metricsLogger.logFireMetrics(fireEventMetrics.fireID, fireEventMetrics.zoneID, fireEventMetrics.getResponseTime(), fireEventMetrics.getExtinguishTime());
-            } catch (IOException e) {
-                throw new RuntimeException(e);
+        FireIncidentEvent event = inProgressEvents.finishInProgressEvent(droneID);
+        boolean extinguished;
+        // Checked under the dispatch lock, so an event being handed to more drones is never missed.
+        synchronized (this) {
+            extinguished = event != null && !eventList.isQueued(event) && !inProgressEvents.isFireInProgress(event.getID());
+        }
+        if (extinguished) {
+            if (LOG.isEnabled(Log.Level.INFO)) {
+                LOG.info("FIREEXTINGUISHED : " + event.getID());
             }
+            metricsLogger.logFireExtinguished(event.getID());
         }
         stateMachine.getCurrentState().returnToIdle(stateMachine, this);
         return "RETURN_TO_SCHEDULER:OK";
     }
 
     /**
-     * Sends a response message to a given address and port.
+     * Sends an encoded binary frame to a given address and port.
+     *
+     * @param frame         the frame, encoded from index 0
+     * @param address       the recipient's InetAddress
+     * @param port          the recipient's port number
+     * @param correlationId the correlation ID of the request the frame answers, or 0
+     * @throws IOException if an I/O error occurs while sending the frame
+     */
+    private void sendFrame(ByteBuffer frame, InetAddress address, int port, int correlationId) throws IOException {
+        frame.clear().limit(MessageCodec.FRAME_SIZE);
+        transport.send(frame, new InetSocketAddress(address, port), correlationId);
+    }
+
+    /**
+     * Sends a response message to a given address and port and returns the scheduler to Idle.
      *
      * @param response the response message to send
      * @param address  the recipient's InetAddress
@@ -635,13 +1202,45 @@ public class Scheduler implements Runnable {
      * @throws IOException if an I/O error occurs while sending the response
      */
     private void sendResponse(String response, InetAddress address, int port) throws IOException {
-        byte[] arr = response.getBytes();
-        DatagramPacket responsePacket = new DatagramPacket(arr, arr.length, address, port);
-        socket.send(responsePacket);
-        System.out.println("[" + Thread.currentThread().getName() + "]: Sent Response :" + response);
+        deliverResponse(response, address, port);
         stateMachine.getCurrentState().returnToIdle(stateMachine, this);
     }
 
+    /**
+     * Sends a response message to a given address and port without touching the state machine, so
+     * it can be called from the receiving thread while the worker moves between states.
+     *
+     * @param response the response message to send
+     * @param address  the recipient's InetAddress
+     * @param port     the recipient's port number
+     * @throws IOException if an I/O error occurs while sending the response
+     */
+    private void deliverResponse(String response, InetAddress address, int port) throws IOException {
+        if (sink != null) {
+            sink.deliver(response, address, port);
+            if (MESSAGES.isEnabled(Log.Level.DEBUG, port)) {
+                MESSAGES.debug("Sent Response :" + response);
+            }
+            return;
+        }
+        if (binaryReply.get()) {
+            ByteBuffer frame = outFrame.get();
+            if (MessageCodec.encodeResponse(frame, response)) {
+                int correlationId = replyCorrelation.get()[0];
+                MessageCodec.setCorrelation(frame, correlationId);
+                sendFrame(frame, address, port, correlationId);
+                if (MESSAGES.isEnabled(Log.Level.DEBUG, port)) {
+                    MESSAGES.debug("Sent binary Response :" + response);
+                }
+                return;
+            }
+        }
+        transport.send(ByteBuffer.wrap(response.getBytes()), new InetSocketAddress(address, port));
+        if (MESSAGES.isEnabled(Log.Level.DEBUG, port)) {
+            MESSAGES.debug("Sent Response :" + response);
+        }
+    }
+
     /**
      * Sets the current state of the scheduler.
      *
@@ -652,35 +1251,37 @@ public class Scheduler implements Runnable {
     }
 
     /**
-     * Listens for incoming drone requests over the DatagramSocket.
+     * Listens for an incoming drone request and receives it into a pooled slot of the request buffer.
      */
     public void handleIncomingDroneRequests() {
         try {
-            byte[] buffer = new byte[1024];
-            DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
-            socket.receive(packet);
-            bufferReq.addRequest(packet);
-            String request = new String(packet.getData(), 0, packet.getLength());
-            System.out.println("[" + Thread.currentThread().getName() + "]: received request from drone: " + request);
-            processDroneRequest();
+            if (receiveDroneRequest(transport)) {
+                handleDroneRequest();
+            }
         } catch (IOException e) {
-            e.printStackTrace();
+            if (!transport.isClosed()) {
+                e.printStackTrace();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
     }
 
     /**
-     * Listens for incoming fire incident requests over the DatagramSocket.
+     * Listens for incoming fire incident requests over the transport.
      */
     public void handleIncomingFireIncidentRequests() {
         try {
-            byte[] buffer = new byte[1024];
-            DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
-            socket.receive(packet);
-            String request = new String(packet.getData(), 0, packet.getLength());
-            System.out.println("[" + Thread.currentThread().getName() + "]: received request from fire incident: " + request);
-            String response = processFireRequest(request, packet.getAddress(), packet.getPort());
+            ByteBuffer buffer = ByteBuffer.allocate(1024);
+            SocketAddress sender = transport.receive(buffer);
+            if (sender == null) {
+                return;
+            }
+            handleFireDatagram(new DatagramPacket(buffer.array(), buffer.position(), sender));
         } catch (IOException e) {
-            e.printStackTrace();
+            if (!transport.isClosed()) {
+                e.printStackTrace();
+            }
         }
     }
 
@@ -691,13 +1292,17 @@ public class Scheduler implements Runnable {
      */
     @Override
     public void run() {
-        System.out.println("[" + Thread.currentThread().getName() + "]: Online. \n");
-        while (true) {
+        LOG.info("Online.");
+        while (transport == null || !transport.isClosed()) {
             if (Thread.currentThread().getName().equals("Drone listener")) {
                 handleIncomingDroneRequests();
             } else if (Thread.currentThread().getName().equals("Drone Scheduler")) {
                 try {
-                    assignTaskToDrone();
+                    if (batchDispatch) {
+                        assignTasksInBatch();
+                    } else {
+                        assignTaskToDrone();
+                    }
                 } catch (IOException | InterruptedException e) {
                     throw new RuntimeException(e);
                 }
@@ -714,175 +1319,60 @@ public class Scheduler implements Runnable {
     }
 
     /**
-     * Retrieves and returns a FireIncidentEvent object created from the received string parts.
+     * Starts the four Scheduler threads - fire events, drone listener, drone scheduler and drone
+     * tracker - over shared state, each bound to its own port on the selected {@link Transport}.
      *
-     * @param parts the array of string parts representing the fire event data
-     * @return a new FireIncidentEvent object
+     * @return the started Scheduler instances, which {@link #stop()} releases
      */
-    private static FireIncidentEvent getFireIncidentEvent(String[] parts) {
-        int zoneId = Integer.parseInt(parts[1].trim());
-        String[] eventDetails = (parts[2].split(","));
-        String time = "" + parts[0] + ":" + parts[1] + ":" + eventDetails[0];
-
-        int ID = Integer.parseInt(eventDetails[1]);
-        String eventType = eventDetails[2];
-        String severity = eventDetails[3];
-        int waterNeeded = Integer.parseInt(eventDetails[4]);
-        String fault = eventDetails[5];
-        String faultType = eventDetails[6];
-
-        int startX = Integer.parseInt(eventDetails[9].trim());
-        int startY = Integer.parseInt(eventDetails[10].trim());
-        int endX = Integer.parseInt(eventDetails[11].trim());
-        int endY = Integer.parseInt(eventDetails[12].trim());
-
-        Zone zone = new Zone(zoneId, startX, startY, endX, endY);
-        FireIncidentEvent event = new FireIncidentEvent(time, zoneId, eventType, severity, zone, waterNeeded, fault, faultType);
-        event.setID(getNextEventID());
-        return event;
-    }
-
-    /**
-     * Processes an incoming fire incident request, updates fire event metrics, and sends an acknowledgement.
-     *
-     * @param parts   the parsed string parts of the fire incident request
-     * @param address the sender's InetAddress
-     * @param port    the sender's port number
-     * @return an acknowledgement message ("FIRE_EVENT:RECEIVED")
-     * @throws IOException if an I/O error occurs while sending the response
-     */
-    public synchronized String handleFireEvent(String[] parts, InetAddress address, int port) throws IOException {
-        FireIncidentEvent event = getFireIncidentEvent(parts);
-        eventList.addEvent(event);
-        metricsLogger.logFireReported(event.getID(), event.getZoneId());
-        System.out.println("LOGFIREREPORTED : fireid: " + event.getID() + ", zoneid: " + event.getZoneId());
-        System.out.println("LOGFIREREPORTED : metrics map:" + metricsLogger.getFireEventMetricsMap().toString());
-        numbFireEvents = numbFireEvents + 1;
-        System.out.println("Number of fire events added by now: " + numbFireEvents + " with currently " + eventList.getListSize() + " in processing \n");
-        String response = "FIRE_EVENT:RECEIVED";
-        sendResponse(response, address, port);
-        drones.checkEvents();
-        System.out.println("[DEBUG]: NOTIFYALL");
-        return response;
-    }
+    static List<Scheduler> startSchedulerThreads() {
+        FireEventList eventList = new FireEventList();
+        DroneRequestBuffer bufferReq = new DroneRequestBuffer();
+        DroneFleet drones = new DroneFleet(eventList);
+        InProgressEvents inProgressEvents = new InProgressEvents();
 
-    /**
-     * Processes a fire request from the fire incident subsystem.
-     * Transitions the scheduler state and then handles the fire event.
-     *
-     * @param request       the received fire incident request string
-     * @param clientAddress the sender's InetAddress
-     * @param clientPort    the sender's port number
-     * @return a response string after handling the fire event
-     * @throws IOException if an I/O error occurs during processing
-     */
-    private String processFireRequest(String request, InetAddress clientAddress, int clientPort) throws IOException {
-        String[] parts = request.split(":");
-        stateMachine.getCurrentState().processFireRequest(stateMachine, this);
-        stateMachine.getCurrentState().assignTask(stateMachine, this);
-        return handleFireEvent(parts, clientAddress, clientPort);
-    }
-
-    /**
-     * Sends a response back to the original request sender.
-     *
-     * @param response  the response message to send
-     * @param address   the recipient's InetAddress
-     * @param port      the recipient's port number
-     * @throws IOException if an I/O error occurs during sending
-     */
-    private void sendResponse(String response, InetAddress address, int port) throws IOException {
-        byte[] arr = response.getBytes();
-        DatagramPacket responsePacket = new DatagramPacket(arr, arr.length, address, port);
-        socket.send(responsePacket);
-        System.out.println("[" + Thread.currentThread().getName() + "]: Sent Response :" + response);
-        stateMachine.getCurrentState().returnToIdle(stateMachine, this);
-    }
-
-    /**
-     * Processes incoming drone requests and delegates handling based on the message content.
-     *
-     * @throws IOException if an I/O error occurs during processing
-     */
-    public void handleIncomingDroneRequests() {
-        try {
-            byte[] buffer = new byte[1024];
-            DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
-            socket.receive(packet);
-            bufferReq.addRequest(packet);
-            String request = new String(packet.getData(), 0, packet.getLength());
-            System.out.println("[" + Thread.currentThread().getName() + "]: received request from drone: " + request);
-            processDroneRequest();
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-    }
-
-    /**
-     * Processes incoming fire incident requests.
-     */
-    public void handleIncomingFireIncidentRequests() {
-        try {
-            byte[] buffer = new byte[1024];
-            DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
-            socket.receive(packet);
-            String request = new String(packet.getData(), 0, packet.getLength());
-            System.out.println("[" + Thread.currentThread().getName() + "]: received request from fire incident: " + request);
-            String response = processFireRequest(request, packet.getAddress(), packet.getPort());
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-    }
-
-    /**
-     * The main run loop for the Scheduler thread. Depending on the thread's name,
-     * it processes drone requests, assigns tasks, tracks stuck drones, or handles fire incident requests.
-     */
-    @Override
-    public void run() {
-        System.out.println("[" + Thread.currentThread().getName() + "]: Online. \n");
-        while (true) {
-            if (Thread.currentThread().getName().equals("Drone listener")) {
-                handleIncomingDroneRequests();
-            } else if (Thread.currentThread().getName().equals("Drone Scheduler")) {
-                try {
-                    assignTaskToDrone();
-                } catch (IOException | InterruptedException e) {
-                    throw new RuntimeException(e);
-                }
-            } else if (Thread.currentThread().getName().equals("Drone Tracker")) {
-                try {
-                    HandleStuckDrones();
-                } catch (InterruptedException e) {
-                    throw new RuntimeException(e);
-                }
-            } else {
-                handleIncomingFireIncidentRequests();
-            }
+        List<Scheduler> schedulers = List.of(
+                new Scheduler(drones, bufferReq, eventList, inProgressEvents, PORT_NUMBER_FIRE_INCIDENT_SYSTEM),
+                new Scheduler(drones, bufferReq, eventList, inProgressEvents, PORT_NUMBER_DRONE_SYSTEM),
+                new Scheduler(drones, bufferReq, eventList, inProgressEvents, 4000),
+                new Scheduler(drones, bufferReq, eventList, inProgressEvents, 9000));
+        String[] names = {"Event Scheduler", "Drone listener", "Drone Scheduler", "Drone Tracker"};
+        for (int i = 0; i < names.length; i++) {
+            new Thread(schedulers.get(i), names[i]).start();
         }
+        return schedulers;
     }
 
     /**
      * The main entry point of the Scheduler application.
+     * Pass {@code --event-loop} to run a single Scheduler on a {@link SchedulerEventLoop}
+     * instead of the four per-role Scheduler threads, or {@code --simulate [drones]} to play the
+     * sample scenario as a discrete-event {@link ScenarioSimulation} without any networking.
      *
-     * @param args command-line arguments (not used)
+     * @param args command-line arguments
      */
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("--simulate")) {
+            int droneCount = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+            ScenarioSimulation simulation = ScenarioSimulation.fromFiles("src/main/resources/sample_zone_file.csv", "src/main/resources/Sample_event_file.csv", droneCount);
+            simulation.run();
+            simulation.printSummary();
+            return;
+        }
+        if (Arrays.asList(args).contains("--event-loop")) {
+            // One Scheduler instance on one selector loop, with Scheduler logic on a single worker thread.
+            try {
+                SchedulerEventLoop loop = SchedulerEventLoop.open(PORT_NUMBER_DRONE_SYSTEM, PORT_NUMBER_FIRE_INCIDENT_SYSTEM,
+                        Executors.newSingleThreadExecutor(r -> new Thread(r, "Scheduler Worker")));
+                new Thread(loop, "Scheduler Event Loop").start();
+                sharedMetricsLogger().startPeriodicSummaries(METRICS_SUMMARY_PERIOD_MILLIS);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            return;
+        }
         SwingUtilities.invokeLater(() -> {
-            FireEventList eventList = new FireEventList();
-            DroneRequestBuffer bufferReq = new DroneRequestBuffer();
-            DroneFleet drones = new DroneFleet(eventList);
-            InProgressEvents inProgressEvents = new InProgressEvents();
-
-            Thread eventScheduler = new Thread(new Scheduler(drones, bufferReq, eventList, inProgressEvents, PORT_NUMBER_FIRE_INCIDENT_SYSTEM), "Event Scheduler");
-            Thread droneListener = new Thread(new Scheduler(drones, bufferReq, eventList, inProgressEvents, PORT_NUMBER_DRONE_SYSTEM), "Drone listener");
-            Thread droneScheduler = new Thread(new Scheduler(drones, bufferReq, eventList, inProgressEvents, 4000), "Drone Scheduler");
-            Thread droneTracker = new Thread(new Scheduler(drones, bufferReq, eventList, inProgressEvents, 9000), "Drone Tracker");
-
-            eventScheduler.start();
-            droneListener.start();
-            droneScheduler.start();
-            droneTracker.start();
+            startSchedulerThreads();
+            sharedMetricsLogger().startPeriodicSummaries(METRICS_SUMMARY_PERIOD_MILLIS);
         });
     }
 }
@@ -0,0 +1,440 @@
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Iterator;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The {@code SchedulerEventLoop} class drives a single {@link Scheduler} instance from one
+ * non-blocking loop, replacing the four thread-name-dispatched Scheduler threads.
+ *
+ * The loop multiplexes the drone port and the fire incident port with a {@link Selector} and
+ * also serves as the fleet's {@link WatchdogTimer}, so arrival and nozzle check-ups wake the
+ * same loop. Over {@link InMemoryTransport} endpoints, as in embedded mode, there is no selector:
+ * the loop polls both endpoints and parks until one of them is sent to or a timer is due. The loop itself only does I/O and timekeeping: every received datagram and every
+ * due timer is handed to a pluggable worker pool, which runs the Scheduler logic, checks for
+ * stuck drones and dispatches pending events. With the default single worker this keeps all
+ * Scheduler logic on one thread, in arrival order.
+ */
+public class SchedulerEventLoop implements Runnable, WatchdogTimer {
+
+    /** Log for the Scheduler's lifecycle. */
+    private static final Log LOG = Log.category("scheduler");
+
+    /** Size of the receive buffer; matches the buffers of the blocking Scheduler threads. */
+    private static final int MAX_DATAGRAM_SIZE = 1024;
+
+    /** Scheduler instance all events are handed to. */
+    private final Scheduler scheduler;
+    /** Selector multiplexing both channels, or null over in-memory endpoints. */
+    private final Selector selector;
+    /** Channel bound to the drone port, or null over in-memory endpoints. */
+    private final DatagramChannel droneChannel;
+    /** Transport bound to the drone port, which drone requests are received through. */
+    private final Transport droneTransport;
+    /** Transport bound to the fire incident port, which fire events are received through. */
+    private final Transport fireTransport;
+    /** Channel bound to the fire incident port, or null over in-memory endpoints. */
+    private final DatagramChannel fireChannel;
+    /** In-memory endpoints the loop polls instead of selecting, or null over channels. */
+    private final InMemoryTransport[] endpoints;
+    /** Thread running the loop, woken when a timer is scheduled or the loop is stopped. */
+    private volatile Thread loopThread;
+    /** Worker pool running the Scheduler logic. */
+    private final ExecutorService workers;
+    /** Buffer reused for every fire incident receive; drone requests are received into the Scheduler's request slots. */
+    private final ByteBuffer receiveBuffer = ByteBuffer.allocate(MAX_DATAGRAM_SIZE);
+    /** Pending timers ordered by deadline; guarded by its own monitor since any thread may schedule. */
+    private final PriorityQueue<TimerTask> timers = new PriorityQueue<>();
+    /** Sequence number keeping timers with equal deadlines in scheduling order. */
+    private long nextTimerSequence = 0;
+    /** Flag indicating a batch dispatch is already waiting for its window to close. */
+    private boolean batchPending = false;
+    /** Flag indicating the loop should keep running. */
+    private volatile boolean running = true;
+
+    /**
+     * Creates an event loop over two bound channels. The channels are switched to non-blocking mode.
+     *
+     * @param scheduler    the Scheduler to drive; it should send through {@code droneChannel}
+     * @param droneChannel the channel bound to the drone port
+     * @param fireChannel  the channel bound to the fire incident port
+     * @param workers      the pool that runs Scheduler logic
+     * @throws IOException if the selector cannot be opened or the channels cannot be registered
+     */
+    public SchedulerEventLoop(Scheduler scheduler, DatagramChannel droneChannel, DatagramChannel fireChannel, ExecutorService workers) throws IOException {
+        this.scheduler = scheduler;
+        this.droneChannel = droneChannel;
+        this.droneTransport = ReliableTransport.server(new UdpTransport(droneChannel));
+        this.fireChannel = fireChannel;
+        this.fireTransport = ReliableTransport.server(new UdpTransport(fireChannel));
+        this.workers = workers;
+        this.selector = Selector.open();
+        droneChannel.configureBlocking(false);
+        fireChannel.configureBlocking(false);
+        droneChannel.register(selector, SelectionKey.OP_READ);
+        fireChannel.register(selector, SelectionKey.OP_READ);
+        this.endpoints = null;
+    }
+
+    /**
+     * Creates an event loop over two bound in-memory endpoints. The endpoints are switched to
+     * non-blocking mode.
+     *
+     * @param scheduler     the Scheduler to drive; it should send through {@code droneEndpoint}
+     * @param droneEndpoint the endpoint bound to the drone port
+     * @param fireEndpoint  the endpoint bound to the fire incident port
+     * @param workers       the pool that runs Scheduler logic
+     */
+    public SchedulerEventLoop(Scheduler scheduler, InMemoryTransport droneEndpoint, InMemoryTransport fireEndpoint, ExecutorService workers) {
+        this.scheduler = scheduler;
+        this.droneChannel = null;
+        this.droneTransport = ReliableTransport.server(droneEndpoint.configureBlocking(false));
+        this.fireChannel = null;
+        this.fireTransport = ReliableTransport.server(fireEndpoint.configureBlocking(false));
+        this.workers = workers;
+        this.selector = null;
+        this.endpoints = new InMemoryTransport[]{droneEndpoint, fireEndpoint};
+    }
+
+    /**
+     * Binds the drone and fire incident ports and wires up a single Scheduler instance,
+     * using this loop as the fleet's watchdog timer. In embedded mode the ports are bound in memory.
+     *
+     * @param dronePort the port drones send requests to
+     * @param firePort  the port the fire incident subsystem sends events to
+     * @param workers   the pool that runs Scheduler logic
+     * @return the event loop, ready to be run on its own thread
+     * @throws IOException if a port cannot be bound
+     */
+    public static SchedulerEventLoop open(int dronePort, int firePort, ExecutorService workers) throws IOException {
+        FireEventList eventList = new FireEventList();
+        DroneFleet drones = new DroneFleet(eventList);
+        SchedulerEventLoop loop;
+        if (InMemoryTransport.isEmbedded()) {
+            InMemoryTransport droneEndpoint = InMemoryTransport.bind(dronePort);
+            InMemoryTransport fireEndpoint = InMemoryTransport.bind(firePort);
+            Scheduler scheduler = new Scheduler(drones, new DroneRequestBuffer(), eventList, new InProgressEvents(), droneEndpoint);
+            loop = new SchedulerEventLoop(scheduler, droneEndpoint, fireEndpoint, workers);
+        } else {
+            DatagramChannel droneChannel = DatagramChannel.open().bind(new InetSocketAddress(dronePort));
+            DatagramChannel fireChannel = DatagramChannel.open().bind(new InetSocketAddress(firePort));
+            Scheduler scheduler = new Scheduler(drones, new DroneRequestBuffer(), eventList, new InProgressEvents(), droneChannel);
+            loop = new SchedulerEventLoop(scheduler, droneChannel, fireChannel, workers);
+        }
+        // Watchdog delays are in simulated time; play them at the drones' default speed-up.
+        drones.setWatchdogTimer(new SystemClock(SystemClock.DEFAULT_TIME_SCALE, loop));
+        return loop;
+    }
+
+    /**
+     * Returns the Scheduler driven by this loop.
+     *
+     * @return the Scheduler instance
+     */
+    public Scheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Runs the loop until {@link #stop()} is called: waits for a datagram or the next timer
+     * deadline, hands received datagrams and due timers to the workers, and repeats.
+     */
+    @Override
+    public void run() {
+        LOG.info("Online.");
+        loopThread = Thread.currentThread();
+        try {
+            if (selector != null) {
+                select();
+            } else {
+                poll();
+            }
+        } catch (IOException e) {
+            if (running) {
+                e.printStackTrace();
+            }
+        } finally {
+            close();
+        }
+    }
+
+    /**
+     * Runs the loop over channels, waiting in the selector.
+     */
+    private void select() throws IOException {
+        while (running) {
+            long waitMillis = millisUntilNextTimer();
+            if (waitMillis == 0) {
+                selector.selectNow();
+            } else {
+                selector.select(waitMillis < 0 ? 0 : waitMillis);
+            }
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+                if (key.isValid() && key.isReadable()) {
+                    if (key.channel() == droneChannel) {
+                        drainDroneRequests();
+                    } else {
+                        drainFireEvents();
+                    }
+                }
+            }
+            runDueTimers();
+        }
+    }
+
+    /**
+     * Runs the loop over in-memory endpoints: drains both, then parks until one is sent to, a
+     * timer is scheduled or the next timer is due. A send between the drain and the park leaves
+     * the park's permit set, so it is never missed.
+     */
+    private void poll() throws IOException {
+        for (InMemoryTransport endpoint : endpoints) {
+            endpoint.setWatcher(loopThread);
+        }
+        while (running) {
+            drainDroneRequests();
+            drainFireEvents();
+            runDueTimers();
+            long waitMillis = millisUntilNextTimer();
+            if (waitMillis < 0) {
+                LockSupport.park(this);
+            } else if (waitMillis > 0) {
+                LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(waitMillis));
+            }
+        }
+    }
+
+    /**
+     * Stops the loop and releases its channels. The worker pool is shut down once queued work finishes.
+     */
+    public void stop() {
+        running = false;
+        wakeup();
+    }
+
+    /**
+     * Wakes the loop from its wait, so it notices a new timer or that it was stopped.
+     */
+    private void wakeup() {
+        if (selector != null) {
+            selector.wakeup();
+            return;
+        }
+        Thread thread = loopThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * Schedules a task on this loop. The task runs on a worker once the deadline passes,
+     * after which stuck drones are handled and pending events are dispatched.
+     */
+    @Override
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        TimerTask timer;
+        synchronized (timers) {
+            timer = new TimerTask(System.nanoTime() + unit.toNanos(delay), nextTimerSequence++, task);
+            timers.add(timer);
+        }
+        wakeup();
+        return timer;
+    }
+
+    /**
+     * Reads every drone request currently queued on the drone port and hands each one to a worker.
+     * Requests are received straight into the Scheduler's pooled request slots; when every slot is
+     * in use the loop waits for a worker to release one.
+     */
+    private void drainDroneRequests() throws IOException {
+        try {
+            while (scheduler.receiveDroneRequest(droneTransport)) {
+                submit(scheduler::handleDroneRequest);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stop();
+        }
+    }
+
+    /**
+     * Reads every fire event currently queued on the fire incident port and hands each one to a worker.
+     */
+    private void drainFireEvents() throws IOException {
+        while (true) {
+            receiveBuffer.clear();
+            SocketAddress sender = fireTransport.receive(receiveBuffer);
+            if (sender == null) {
+                return;
+            }
+            receiveBuffer.flip();
+            byte[] data = new byte[receiveBuffer.remaining()];
+            receiveBuffer.get(data);
+            DatagramPacket packet = new DatagramPacket(data, data.length, sender);
+            submit(() -> scheduler.handleFireDatagram(packet));
+        }
+    }
+
+    /**
+     * Hands every timer whose deadline has passed to a worker.
+     */
+    private void runDueTimers() {
+        long now = System.nanoTime();
+        while (true) {
+            TimerTask due;
+            synchronized (timers) {
+                TimerTask head = timers.peek();
+                if (head == null || head.deadline - now > 0) {
+                    return;
+                }
+                due = timers.poll();
+            }
+            if (due.finish()) {
+                submit(() -> {
+                    due.task.run();
+                    return null;
+                });
+            }
+        }
+    }
+
+    /**
+     * Returns how long the loop may sleep before the next timer is due.
+     *
+     * @return 0 if a timer is already due, -1 if there are no timers, otherwise the wait in milliseconds
+     */
+    private long millisUntilNextTimer() {
+        synchronized (timers) {
+            while (!timers.isEmpty() && timers.peek().done) {
+                timers.poll();
+            }
+            if (timers.isEmpty()) {
+                return -1;
+            }
+            long nanos = timers.peek().deadline - System.nanoTime();
+            // Round up so the select does not return just before the deadline.
+            return nanos <= 0 ? 0 : Math.max(1, TimeUnit.NANOSECONDS.toMillis(nanos + 999_999));
+        }
+    }
+
+    /**
+     * Runs a unit of Scheduler work on the worker pool, followed by the stuck-drone check and a dispatch attempt.
+     */
+    private void submit(SchedulerWork work) {
+        workers.execute(() -> {
+            try {
+                work.run();
+                scheduler.handleStuckDronesNow();
+                dispatch();
+            } catch (IOException e) {
+                e.printStackTrace();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+
+    /**
+     * Assigns pending events to available drones. In batch mode the first call opens a batch
+     * window and the assignment happens once it closes.
+     */
+    private void dispatch() throws IOException {
+        if (!Scheduler.isBatchDispatch()) {
+            while (scheduler.dispatchPending()) {
+                // Keep assigning until drones or events run out.
+            }
+            return;
+        }
+        synchronized (this) {
+            if (batchPending || !scheduler.hasPendingWork()) {
+                return;
+            }
+            batchPending = true;
+        }
+        schedule(() -> {
+            synchronized (this) {
+                batchPending = false;
+            }
+            try {
+                scheduler.dispatchPending();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }, Scheduler.getBatchWindowMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Closes the selector and channels, or the in-memory endpoints, and shuts the worker pool down.
+     */
+    private void close() {
+        try {
+            if (selector != null) {
+                selector.close();
+            }
+            droneTransport.close();
+            fireTransport.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        workers.shutdown();
+    }
+
+    /**
+     * A unit of Scheduler work that may throw the Scheduler's checked exceptions.
+     */
+    private interface SchedulerWork {
+        Object run() throws IOException, InterruptedException;
+    }
+
+    /**
+     * A timer queued on the loop.
+     */
+    private static class TimerTask implements Comparable<TimerTask>, Timeout {
+        final long deadline;
+        final long sequence;
+        final Runnable task;
+        volatile boolean done = false;
+
+        TimerTask(long deadline, long sequence, Runnable task) {
+            this.deadline = deadline;
+            this.sequence = sequence;
+            this.task = task;
+        }
+
+        @Override
+        public boolean cancel() {
+            return finish();
+        }
+
+        /**
+         * Marks the timer as done, either fired or cancelled, whichever happens first.
+         *
+         * @return true if this call finished the timer; false if it was already done
+         */
+        synchronized boolean finish() {
+            if (done) {
+                return false;
+            }
+            done = true;
+            return true;
+        }
+
+        @Override
+        public int compareTo(TimerTask other) {
+            int byDeadline = Long.compare(deadline - other.deadline, 0);
+            return byDeadline != 0 ? byDeadline : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+/**
+ * The {@code SimulationClock} interface is the single source of time for the drones, the fire
+ * incident subsystem and the Scheduler. All of its times and delays are in simulated time, that
+ * is, in the seconds of the scenario being played.
+ *
+ * {@link SystemClock} plays a scenario against the wall clock, faster by a fixed time scale.
+ * {@link DiscreteEventClock} plays it as a discrete-event simulation, jumping straight from one
+ * pending event to the next.
+ */
+public interface SimulationClock extends WatchdogTimer {
+
+    /**
+     * Returns the current simulated time.
+     *
+     * @return the simulated time in milliseconds
+     */
+    long currentTimeMillis();
+
+    /**
+     * Returns a monotonic reading of simulated time, for measuring intervals. Only differences
+     * between readings of the same clock are meaningful.
+     *
+     * @return the simulated time in nanoseconds, from an arbitrary origin
+     */
+    long nanoTime();
+
+    /**
+     * Blocks the calling thread until the given amount of simulated time has passed.
+     *
+     * @param millis the simulated time to wait, in milliseconds
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    void sleep(long millis) throws InterruptedException;
+}
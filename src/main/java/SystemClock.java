@@ -0,0 +1,112 @@
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code SystemClock} class plays simulated time against the wall clock, sped up by a fixed
+ * time scale: with the default scale of 10, one simulated second lasts 100 real milliseconds.
+ *
+ * Sleeps, timers and {@link #currentTimeMillis()} are all scaled the same way, so drone flight
+ * times and the Scheduler's watchdogs stay consistent with each other whatever the scale.
+ */
+public class SystemClock implements SimulationClock {
+
+    /** Time scale used by the drones and the fire incident subsystem unless configured otherwise. */
+    public static final int DEFAULT_TIME_SCALE = 10;
+
+    /** Clock shared by every component that was not given its own. */
+    private static final SystemClock DEFAULT = new SystemClock(DEFAULT_TIME_SCALE);
+
+    /** Number of simulated milliseconds per real millisecond. */
+    private final int timeScale;
+    /** Wall-clock time at which this clock was created, in milliseconds. */
+    private final long originMillis = System.currentTimeMillis();
+    /** Monotonic time at which this clock was created, in nanoseconds. */
+    private final long originNanos = System.nanoTime();
+    /** Timer running scheduled tasks after their scaled delay; created on first use unless given. */
+    private volatile WatchdogTimer timer;
+
+    /**
+     * Constructs a clock with the given time scale, running its timers on a timing wheel thread.
+     *
+     * @param timeScale the number of simulated milliseconds per real millisecond
+     */
+    public SystemClock(int timeScale) {
+        this(timeScale, null);
+    }
+
+    /**
+     * Constructs a clock with the given time scale, running its timers on the given timer.
+     *
+     * @param timeScale the number of simulated milliseconds per real millisecond
+     * @param timer     the real-time timer to run scheduled tasks on
+     */
+    public SystemClock(int timeScale, WatchdogTimer timer) {
+        if (timeScale < 1) {
+            throw new IllegalArgumentException("Time scale must be at least 1: " + timeScale);
+        }
+        this.timeScale = timeScale;
+        this.timer = timer;
+    }
+
+    /**
+     * Returns the clock shared by every component that was not given its own.
+     *
+     * @return the default clock, with the {@link #DEFAULT_TIME_SCALE}
+     */
+    public static SystemClock getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Returns the number of simulated milliseconds per real millisecond.
+     *
+     * @return the time scale
+     */
+    public int getTimeScale() {
+        return timeScale;
+    }
+
+    /**
+     * Returns the simulated time: the wall-clock time this clock was created at, plus the
+     * real time elapsed since then multiplied by the time scale.
+     */
+    @Override
+    public long currentTimeMillis() {
+        return originMillis + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - originNanos) * timeScale;
+    }
+
+    /**
+     * Returns the real time elapsed since this clock was created, multiplied by the time scale.
+     */
+    @Override
+    public long nanoTime() {
+        return (System.nanoTime() - originNanos) * timeScale;
+    }
+
+    @Override
+    public void sleep(long millis) throws InterruptedException {
+        Thread.sleep(millis / timeScale);
+    }
+
+    @Override
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        return timer().schedule(task, unit.toNanos(delay) / timeScale, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the real-time timer, creating and starting a timing wheel on first use.
+     */
+    private WatchdogTimer timer() {
+        WatchdogTimer current = timer;
+        if (current == null) {
+            synchronized (this) {
+                if (timer == null) {
+                    TimingWheel wheel = new TimingWheel();
+                    wheel.start();
+                    timer = wheel;
+                }
+                current = timer;
+            }
+        }
+        return current;
+    }
+}
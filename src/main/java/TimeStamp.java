@@ -6,11 +6,13 @@ import java.util.concurrent.*;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
 public class TimeStamp {
+    /** Log for drone check-ups. */
+    private static final Log LOG = Log.category("fleet");
     private  boolean lost = false;
     private  final ScheduledExecutorService delayedScheduler = Executors.newScheduledThreadPool(1);
 
     public  void scheduleDroneCheckUp(int delay, DroneData drone) {
-        System.out.println("hey");
+        LOG.debug("scheduling drone check-up");
         final Runnable beeper = new Runnable() {
             TimeStamp timer = new TimeStamp();
             @Override
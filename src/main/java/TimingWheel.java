@@ -0,0 +1,263 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * The {@code TimingWheel} class is a hierarchical timing wheel used to run the drone watchdogs.
+ *
+ * Time advances in 1 ms ticks. Four wheels of 256 slots each cover 256 ms, 65 s, 4.6 h and
+ * 49 days of delay respectively; a timer is filed in the finest wheel whose range covers its delay
+ * and cascades down to finer wheels as its deadline approaches. Every slot is a doubly linked list,
+ * so scheduling and cancelling a timer are both O(1), regardless of how many timers are pending.
+ *
+ * Expired tasks run on the wheel's own thread (see {@link #start()}), outside of the wheel's lock.
+ * Alternatively, the owner can drive the wheel manually by calling {@link #advance()}.
+ */
+public class TimingWheel implements WatchdogTimer {
+
+    /** Number of bits of the tick consumed by each wheel. */
+    private static final int WHEEL_BITS = 8;
+    /** Number of slots per wheel. */
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    /** Mask selecting a slot within a wheel. */
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    /** Number of wheels. */
+    private static final int LEVELS = 4;
+    /** Largest delay, in ticks, that the wheels can represent; longer timers are re-filed as they come due. */
+    private static final long MAX_DELAY = (1L << (WHEEL_BITS * LEVELS)) - 1;
+
+    /** Slot list heads, indexed by wheel then slot. Each head is a sentinel of a circular list. */
+    private final Timer[][] wheels = new Timer[LEVELS][WHEEL_SIZE];
+    /** Source of the current time in milliseconds. */
+    private final LongSupplier clock;
+    /** Clock reading that corresponds to tick 0. */
+    private final long origin;
+    /** Next tick to be processed; every timer due before it has already expired. */
+    private long currentTick = 0;
+    /** Number of pending timers. */
+    private int size = 0;
+    /** Thread advancing the wheel, if started. */
+    private Thread ticker;
+    /** Flag indicating the ticking thread should keep running. */
+    private volatile boolean running = false;
+
+    /**
+     * Constructs a timing wheel driven by the system's monotonic clock.
+     */
+    public TimingWheel() {
+        this(() -> TimeUnit.NANOSECONDS.toMillis(System.nanoTime()));
+    }
+
+    /**
+     * Constructs a timing wheel driven by the given millisecond clock.
+     *
+     * @param clock supplies the current time in milliseconds; must never go backwards
+     */
+    public TimingWheel(LongSupplier clock) {
+        this.clock = clock;
+        this.origin = clock.getAsLong();
+        for (Timer[] wheel : wheels) {
+            for (int slot = 0; slot < WHEEL_SIZE; slot++) {
+                Timer head = new Timer(0, null);
+                head.next = head;
+                head.previous = head;
+                wheel[slot] = head;
+            }
+        }
+    }
+
+    /**
+     * Starts a daemon thread that advances the wheel every millisecond while timers are pending.
+     * Calling this more than once has no effect.
+     */
+    public synchronized void start() {
+        if (ticker != null) {
+            return;
+        }
+        running = true;
+        ticker = new Thread(() -> {
+            while (running) {
+                try {
+                    synchronized (this) {
+                        while (running && size == 0) {
+                            wait();
+                        }
+                    }
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                advance();
+            }
+        }, "Watchdog Wheel");
+        ticker.setDaemon(true);
+        ticker.start();
+    }
+
+    /**
+     * Stops the ticking thread. Pending timers are kept but no longer expire on their own.
+     */
+    public synchronized void stop() {
+        running = false;
+        notifyAll();
+        ticker = null;
+    }
+
+    /**
+     * Schedules a task to run once the delay has elapsed, rounded up to the next millisecond tick.
+     */
+    @Override
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        long delayTicks = unit.toMillis(delay) + (unit.toNanos(delay) % 1_000_000 == 0 ? 0 : 1);
+        synchronized (this) {
+            Timer timer = new Timer(nowTick() + Math.max(0, delayTicks), task);
+            file(timer);
+            size++;
+            if (size == 1) {
+                notifyAll();
+            }
+            return timer;
+        }
+    }
+
+    /**
+     * Expires every timer that is due at the current time and runs its task on the calling thread.
+     *
+     * @return the number of tasks that were run
+     */
+    public int advance() {
+        List<Timer> expired = new ArrayList<>();
+        synchronized (this) {
+            long now = nowTick();
+            if (size == 0) {
+                // Nothing to expire, so skip the idle ticks outright.
+                currentTick = Math.max(currentTick, now + 1);
+            }
+            while (currentTick <= now && size > 0) {
+                int slot = (int) (currentTick & WHEEL_MASK);
+                if (slot == 0) {
+                    cascade(1);
+                }
+                Timer head = wheels[0][slot];
+                while (head.next != head) {
+                    Timer timer = head.next;
+                    unlink(timer);
+                    if (timer.deadline > currentTick) {
+                        // Only possible for a timer longer than MAX_DELAY; file it again.
+                        file(timer);
+                    } else {
+                        size--;
+                        timer.expired = true;
+                        expired.add(timer);
+                    }
+                }
+                currentTick++;
+            }
+            if (size == 0) {
+                currentTick = Math.max(currentTick, now + 1);
+            }
+        }
+        for (Timer timer : expired) {
+            timer.task.run();
+        }
+        return expired.size();
+    }
+
+    /**
+     * Returns the number of pending timers.
+     *
+     * @return the number of timers that have neither expired nor been cancelled
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Returns the tick corresponding to the current time.
+     */
+    private long nowTick() {
+        return clock.getAsLong() - origin;
+    }
+
+    /**
+     * Moves the timers of the current slot of a wheel down into finer wheels, cascading
+     * further up first when that slot is the wheel's first.
+     */
+    private void cascade(int level) {
+        if (level >= LEVELS) {
+            return;
+        }
+        int slot = (int) ((currentTick >> (WHEEL_BITS * level)) & WHEEL_MASK);
+        if (slot == 0) {
+            cascade(level + 1);
+        }
+        Timer head = wheels[level][slot];
+        while (head.next != head) {
+            Timer timer = head.next;
+            unlink(timer);
+            file(timer);
+        }
+    }
+
+    /**
+     * Links a timer into the slot of the finest wheel that covers its remaining delay.
+     */
+    private void file(Timer timer) {
+        long delay = timer.deadline - currentTick;
+        Timer head;
+        if (delay < 0) {
+            // Already due: expire on the next tick processed.
+            head = wheels[0][(int) (currentTick & WHEEL_MASK)];
+        } else {
+            long key = delay > MAX_DELAY ? currentTick + MAX_DELAY : timer.deadline;
+            long remaining = key - currentTick;
+            int level = 0;
+            while (level < LEVELS - 1 && remaining >= (1L << (WHEEL_BITS * (level + 1)))) {
+                level++;
+            }
+            head = wheels[level][(int) ((key >> (WHEEL_BITS * level)) & WHEEL_MASK)];
+        }
+        timer.previous = head.previous;
+        timer.next = head;
+        head.previous.next = timer;
+        head.previous = timer;
+    }
+
+    /**
+     * Unlinks a timer from the slot it is filed in.
+     */
+    private static void unlink(Timer timer) {
+        timer.previous.next = timer.next;
+        timer.next.previous = timer.previous;
+        timer.next = null;
+        timer.previous = null;
+    }
+
+    /**
+     * A pending timer, doubling as a node of its slot's list and as the caller's cancellation handle.
+     */
+    private class Timer implements Timeout {
+        final long deadline;
+        final Runnable task;
+        Timer next, previous;
+        boolean expired = false;
+
+        Timer(long deadline, Runnable task) {
+            this.deadline = deadline;
+            this.task = task;
+        }
+
+        @Override
+        public boolean cancel() {
+            synchronized (TimingWheel.this) {
+                if (expired || next == null) {
+                    return false;
+                }
+                unlink(this);
+                size--;
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+
+/**
+ * The {@code Transport} interface is the datagram endpoint the Scheduler, the drones and the fire
+ * incident subsystem exchange messages through.
+ *
+ * It has the shape of a {@link java.nio.channels.DatagramChannel}: each message is one datagram,
+ * delivered whole or not at all, with no ordering or delivery guarantee beyond what the underlying
+ * transport gives. {@link UdpTransport} sends real UDP datagrams; {@link InMemoryTransport} hands
+ * them between endpoints in the same JVM through lock-free queues, so the whole system can run
+ * embedded in one process without touching the network. {@link #bind(int)} picks one of the two,
+ * as selected at startup.
+ */
+public interface Transport extends Closeable {
+
+    /**
+     * Binds an endpoint to a port on the selected transport: in memory in
+     * {@link InMemoryTransport#isEmbedded() embedded mode}, UDP otherwise.
+     *
+     * @param port the port to bind, or 0 for any free port
+     * @return the bound endpoint
+     * @throws IOException if the port cannot be bound
+     */
+    static Transport bind(int port) throws IOException {
+        return InMemoryTransport.isEmbedded() ? InMemoryTransport.bind(port) : UdpTransport.bind(port);
+    }
+
+    /**
+     * Sends the remaining bytes of a buffer as one datagram.
+     *
+     * @param data   the datagram's contents, from its position to its limit
+     * @param target the address of the receiving endpoint
+     * @throws IOException if the datagram cannot be sent
+     */
+    void send(ByteBuffer data, InetSocketAddress target) throws IOException;
+
+    /**
+     * Sends the remaining bytes of a buffer as one datagram belonging to a numbered request: a
+     * client's request, or a server's response to the request with that number. Transports that
+     * do not track requests ignore the number, which is the default.
+     *
+     * @param data          the datagram's contents, from its position to its limit
+     * @param target        the address of the receiving endpoint
+     * @param correlationId the number of the request, or 0 if the datagram belongs to none
+     * @throws IOException if the datagram cannot be sent
+     */
+    default void send(ByteBuffer data, InetSocketAddress target, int correlationId) throws IOException {
+        send(data, target);
+    }
+
+    /**
+     * Receives one datagram into a buffer, waiting for one to arrive unless the endpoint is
+     * non-blocking. A datagram larger than the buffer's remaining space is truncated.
+     *
+     * @param into the buffer the datagram is written to, from its position
+     * @return the address of the sender, or null if a non-blocking endpoint had nothing queued
+     * @throws IOException if the endpoint is closed or cannot receive
+     */
+    SocketAddress receive(ByteBuffer into) throws IOException;
+
+    /**
+     * Receives one datagram into a buffer, waiting at most the given time for one to arrive.
+     * A non-blocking endpoint does not wait, as with {@link #receive(ByteBuffer)}.
+     *
+     * @param into          the buffer the datagram is written to, from its position
+     * @param timeoutMillis the longest time to wait, in milliseconds; 0 waits indefinitely
+     * @return the address of the sender, or null if a non-blocking endpoint had nothing queued
+     * @throws java.net.SocketTimeoutException if no datagram arrived in time
+     * @throws IOException if the endpoint is closed or cannot receive
+     */
+    SocketAddress receive(ByteBuffer into, long timeoutMillis) throws IOException;
+
+    /**
+     * Returns the port this endpoint is bound to.
+     *
+     * @return the local port
+     */
+    int getLocalPort();
+
+    /**
+     * Returns whether this endpoint has been closed.
+     *
+     * @return true once {@link #close()} has been called
+     */
+    boolean isClosed();
+
+    /**
+     * Closes the endpoint, releasing its port. A thread blocked in {@link #receive(ByteBuffer)}
+     * fails with an {@link java.nio.channels.AsynchronousCloseException}.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,89 @@
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+
+/**
+ * The {@code UdpTransport} class is a {@link Transport} over a UDP {@link DatagramChannel}.
+ */
+public class UdpTransport implements Transport {
+
+    private final DatagramChannel channel;
+
+    /**
+     * Wraps a bound channel. A non-blocking channel gives a non-blocking endpoint.
+     *
+     * @param channel the bound channel
+     */
+    public UdpTransport(DatagramChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Binds a blocking UDP endpoint to a port on every local address.
+     *
+     * @param port the port to bind, or 0 for any free port
+     * @return the bound endpoint
+     * @throws IOException if the port cannot be bound
+     */
+    public static UdpTransport bind(int port) throws IOException {
+        DatagramChannel channel = DatagramChannel.open();
+        try {
+            channel.bind(new InetSocketAddress(port));
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return new UdpTransport(channel);
+    }
+
+    @Override
+    public void send(ByteBuffer data, InetSocketAddress target) throws IOException {
+        channel.send(data, target);
+    }
+
+    @Override
+    public SocketAddress receive(ByteBuffer into) throws IOException {
+        return channel.receive(into);
+    }
+
+    @Override
+    public SocketAddress receive(ByteBuffer into, long timeoutMillis) throws IOException {
+        if (timeoutMillis == 0 || !channel.isBlocking() || !into.hasArray()) {
+            return channel.receive(into);
+        }
+        // A channel's own receive ignores SO_TIMEOUT; its socket adaptor honours it.
+        DatagramSocket socket = channel.socket();
+        socket.setSoTimeout((int) Math.min(timeoutMillis, Integer.MAX_VALUE));
+        DatagramPacket packet = new DatagramPacket(into.array(), into.arrayOffset() + into.position(), into.remaining());
+        try {
+            socket.receive(packet);
+        } finally {
+            socket.setSoTimeout(0);
+        }
+        into.position(into.position() + packet.getLength());
+        return packet.getSocketAddress();
+    }
+
+    @Override
+    public int getLocalPort() {
+        return channel.socket().getLocalPort();
+    }
+
+    @Override
+    public boolean isClosed() {
+        return !channel.isOpen();
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/**
+ * WaitingForDrones state represents the scheduler when it is waiting for drones to return or report.
+ */
+class WaitingForDrones implements SchedulerState {
+    /**
+     * In WaitingForDrones, processing a new fire request is not performed.
+     *
+     * @param context   the state machine context
+     * @param scheduler the scheduler instance
+     */
+    public void processFireRequest(SchedulerStateMachine context, Scheduler scheduler) {}
+
+    /**
+     * In WaitingForDrones, no new task assignment is performed.
+     *
+     * @param context   the state machine context
+     * @param scheduler the scheduler instance
+     */
+    public void assignTask(SchedulerStateMachine context, Scheduler scheduler) {}
+
+    /**
+     * No additional waiting is initiated in WaitingForDrones.
+     *
+     * @param context   the state machine context
+     * @param scheduler the scheduler instance
+     */
+    public void waitForDrones(SchedulerStateMachine context, Scheduler scheduler) {}
+
+    /**
+     * Transitions the scheduler state back to Idle.
+     *
+     * @param context   the state machine context
+     * @param scheduler the scheduler instance
+     */
+    public void returnToIdle(SchedulerStateMachine context, Scheduler scheduler) {
+        context.setState("Idle");
+    }
+
+    /**
+     * Handles faults by transitioning the state machine to HandlingFault.
+     *
+     * @param context   the state machine context
+     * @param scheduler the scheduler instance
+     */
+    public void handleFault(SchedulerStateMachine context, Scheduler scheduler) {
+        context.setState("HandlingFault");
+    }
+
+    /**
+     * Displays the current state as waiting for drones.
+     */
+    public void displayState() {
+        LOG.debug("[State]: Waiting for drones to return or report.");
+    }
+}
@@ -0,0 +1,36 @@
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code WatchdogTimer} interface schedules the one-shot watchdog checks that the
+ * {@link DroneFleet} runs after dispatching a drone (arrival and nozzle check-ups).
+ *
+ * Implementations decide which thread runs the task and how the delay maps to real time: the
+ * fleet's default {@link SystemClock} scales delays and runs them on a timing wheel thread,
+ * {@link SchedulerEventLoop} runs them from its own loop, and {@link DiscreteEventClock} runs
+ * them in simulated time.
+ */
+public interface WatchdogTimer {
+
+    /**
+     * Schedules a task to run once after the given delay.
+     *
+     * @param task  the task to run
+     * @param delay the delay before running the task
+     * @param unit  the unit of the delay
+     * @return a handle that can cancel the task before it runs
+     */
+    Timeout schedule(Runnable task, long delay, TimeUnit unit);
+
+    /**
+     * A handle to a scheduled watchdog task.
+     */
+    interface Timeout {
+
+        /**
+         * Cancels the task if it has not run yet.
+         *
+         * @return true if the task was cancelled; false if it already ran or was already cancelled
+         */
+        boolean cancel();
+    }
+}
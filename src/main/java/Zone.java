@@ -5,6 +5,9 @@ import java.awt.*;
  * an end point and a calculated center point. Each zone has a unique ID.
  */
 public class Zone {
+    /** Log for zone set-up. */
+    private static final Log LOG = Log.category("zone");
+
     private int id;
     private Point start;
     private Point end;
@@ -67,7 +70,9 @@ public class Zone {
      */
     private void calculateCenter() {
         this.center = new Point((start.x + end.x) / 2, (start.y + end.y) / 2);
-        System.out.println("This is the center of the zone: " + this.center);
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("This is the center of the zone: " + this.center);
+        }
     }
 
     @Override
@@ -0,0 +1,107 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncMetricsWriterTest {
+
+    private static File tempFile() throws Exception {
+        File file = File.createTempFile("metrics", ".txt");
+        file.deleteOnExit();
+        return file;
+    }
+
+    @Test
+    void testRowsAreWrittenInOrderOnClose() throws Exception {
+        File file = tempFile();
+        AsyncMetricsWriter writer = new AsyncMetricsWriter(file.getPath());
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(writer.publish(i, i % 4, 10L * i, 20L * i));
+        }
+        writer.close();
+
+        List<String> lines = Files.readAllLines(file.toPath());
+        assertEquals("FireID,ZoneID,ResponseTime(ms),ExtinguishTime(ms)", lines.get(0));
+        assertEquals(1001, lines.size());
+        assertEquals("7,3,70,140", lines.get(8));
+    }
+
+    @Test
+    void testRowsAreFlushedWithinTheInterval() throws Exception {
+        File file = tempFile();
+        AsyncMetricsWriter writer = new AsyncMetricsWriter(file.getPath(), 16, 20);
+        writer.publish(1, 2, 3, 4);
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (Files.readAllLines(file.toPath()).size() < 2) {
+            assertTrue(System.currentTimeMillis() < deadline, "Row was never flushed");
+            Thread.sleep(5);
+        }
+        assertEquals("1,2,3,4", Files.readAllLines(file.toPath()).get(1));
+        writer.close();
+    }
+
+    @Test
+    void testConcurrentProducersLoseNothingUnlessTheRingIsFull() throws Exception {
+        File file = tempFile();
+        AsyncMetricsWriter writer = new AsyncMetricsWriter(file.getPath(), 1024, 10);
+        Thread[] producers = new Thread[4];
+        for (int t = 0; t < producers.length; t++) {
+            int producer = t;
+            producers[t] = new Thread(() -> {
+                for (int i = 0; i < 25_000; i++) {
+                    writer.publish(producer, i, i, i);
+                }
+            });
+            producers[t].start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        writer.close();
+
+        long rows = Files.readAllLines(file.toPath()).size() - 1;
+        assertEquals(100_000, rows + writer.getDropped());
+    }
+
+    @Test
+    void testEveryAcceptedRowIsWrittenWhenCloseRacesProducers() throws Exception {
+        for (int round = 0; round < 20; round++) {
+            File file = tempFile();
+            AsyncMetricsWriter writer = new AsyncMetricsWriter(file.getPath(), 64, 10);
+            AtomicLong accepted = new AtomicLong();
+            Thread[] producers = new Thread[4];
+            for (int t = 0; t < producers.length; t++) {
+                producers[t] = new Thread(() -> {
+                    for (int i = 0; i < 20_000; i++) {
+                        if (writer.publish(i, i, i, i)) {
+                            accepted.incrementAndGet();
+                        }
+                    }
+                });
+                producers[t].start();
+            }
+            Thread.sleep(round % 3);
+            writer.close();
+            for (Thread producer : producers) {
+                producer.join();
+            }
+
+            long rows = Files.readAllLines(file.toPath()).size() - 1;
+            assertEquals(accepted.get(), rows);
+            assertEquals(4 * 20_000, rows + writer.getDropped());
+        }
+    }
+
+    @Test
+    void testPublishAfterCloseIsDropped() throws Exception {
+        AsyncMetricsWriter writer = new AsyncMetricsWriter(tempFile().getPath());
+        writer.close();
+        assertFalse(writer.publish(1, 1, 1, 1));
+        assertEquals(1, writer.getDropped());
+    }
+}
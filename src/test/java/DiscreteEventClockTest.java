@@ -0,0 +1,98 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiscreteEventClockTest {
+
+    private DiscreteEventClock clock;
+    private List<String> ran;
+
+    @BeforeEach
+    void setUp() {
+        clock = new DiscreteEventClock();
+        ran = new ArrayList<>();
+    }
+
+    @Test
+    void testEventsRunInTimeOrderAndJumpTheClock() {
+        clock.schedule(() -> ran.add("late@" + clock.currentTimeMillis()), 3, TimeUnit.HOURS);
+        clock.schedule(() -> ran.add("early@" + clock.currentTimeMillis()), 5, TimeUnit.SECONDS);
+
+        clock.run();
+
+        assertEquals(List.of("early@5000", "late@10800000"), ran);
+        assertEquals(2, clock.getEventsRun());
+    }
+
+    @Test
+    void testSimultaneousEventsRunInSchedulingOrder() {
+        for (int i = 0; i < 5; i++) {
+            String name = "e" + i;
+            clock.schedule(() -> ran.add(name), 1, TimeUnit.SECONDS);
+        }
+        clock.run();
+        assertEquals(List.of("e0", "e1", "e2", "e3", "e4"), ran);
+    }
+
+    @Test
+    void testEventsScheduledWhileRunningAreRunRelativeToTheirTime() {
+        clock.schedule(() -> clock.schedule(() -> ran.add("child@" + clock.currentTimeMillis()), 250, TimeUnit.MILLISECONDS), 1, TimeUnit.SECONDS);
+        clock.run();
+        assertEquals(List.of("child@1250"), ran);
+    }
+
+    @Test
+    void testCancelledEventNeverRuns() {
+        WatchdogTimer.Timeout timeout = clock.schedule(() -> ran.add("cancelled"), 1, TimeUnit.SECONDS);
+        clock.schedule(() -> ran.add("kept"), 2, TimeUnit.SECONDS);
+
+        assertTrue(timeout.cancel());
+        assertFalse(timeout.cancel());
+        clock.run();
+
+        assertEquals(List.of("kept"), ran);
+        assertEquals(2000, clock.currentTimeMillis());
+    }
+
+    @Test
+    void testRunUntilStopsAtTheGivenTime() {
+        clock.schedule(() -> ran.add("a"), 1, TimeUnit.SECONDS);
+        clock.schedule(() -> ran.add("b"), 3, TimeUnit.SECONDS);
+
+        clock.runUntil(2000);
+
+        assertEquals(List.of("a"), ran);
+        assertEquals(2000, clock.currentTimeMillis());
+        assertEquals(1, clock.pending());
+    }
+
+    @Test
+    void testSleepRunsTheEventsDueAndAdvancesTime() {
+        clock.schedule(() -> ran.add("a"), 5, TimeUnit.MILLISECONDS);
+        clock.schedule(() -> ran.add("b"), 20, TimeUnit.MILLISECONDS);
+
+        clock.sleep(10);
+
+        assertEquals(List.of("a"), ran);
+        assertEquals(10, clock.currentTimeMillis());
+        assertEquals(1, clock.pending());
+    }
+
+    @Test
+    void testSleepInsideAnEventResumesAtTheWakeUpTime() {
+        clock.schedule(() -> ran.add("other"), 2, TimeUnit.SECONDS);
+        clock.schedule(() -> {
+            clock.sleep(3000);
+            ran.add("woke at " + clock.currentTimeMillis());
+        }, 1, TimeUnit.SECONDS);
+
+        clock.run();
+
+        assertEquals(List.of("other", "woke at 4000"), ran);
+    }
+}
@@ -0,0 +1,156 @@
+import java.awt.*;
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares the Scheduler's greedy dispatch policy (serve events one at a time in priority order,
+ * each taking the closest free drone) against batch dispatch (min-cost matching of the same slots
+ * with {@link DroneAssignmentSolver}).
+ *
+ * Every scheduling tick gets a random set of fires and a random set of idle drones scattered over the
+ * map. Both policies see the same ticks and fill the same slots, so the only difference is which drone
+ * goes where. A fire's response time is the travel time of the last drone it needs, in the same units
+ * as {@link Scheduler#calculateTravelTime}.
+ *
+ * Run with: java -cp target/classes:target/test-classes DispatchPolicyBenchmark [ticks] [seed]
+ */
+public class DispatchPolicyBenchmark {
+
+    /** Maximum payload capacity of a drone; mirrors the Scheduler. */
+    private static final int MAX_PAYLOAD = 15;
+    /** Drone travel speed; mirrors the Scheduler. */
+    private static final double DRONE_SPEED = 2.8;
+    /** Size of the simulated map. */
+    private static final int MAP_WIDTH = 1000, MAP_HEIGHT = 600;
+    /** Severity levels, sampled uniformly. */
+    private static final String[] SEVERITIES = {"Low", "Moderate", "High"};
+
+    public static void main(String[] args) throws Exception {
+        int ticks = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 3303;
+        Random random = new Random(seed);
+        InetAddress address = InetAddress.getLoopbackAddress();
+
+        List<Double> greedyTimes = new ArrayList<>();
+        List<Double> batchTimes = new ArrayList<>();
+        long greedyNanos = 0, batchNanos = 0;
+
+        for (int tick = 0; tick < ticks; tick++) {
+            List<FireIncidentEvent> events = randomEvents(random, 1 + random.nextInt(6));
+            List<DroneData> drones = new ArrayList<>();
+            int droneCount = 2 + random.nextInt(14);
+            for (int id = 1; id <= droneCount; id++) {
+                drones.add(new DroneData(id, new Point(random.nextInt(MAP_WIDTH), random.nextInt(MAP_HEIGHT)), MAX_PAYLOAD, address, 7000 + id));
+            }
+
+            long start = System.nanoTime();
+            double[] greedy = greedy(events, drones);
+            greedyNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            double[] batch = batch(events, drones);
+            batchNanos += System.nanoTime() - start;
+
+            for (int e = 0; e < events.size(); e++) {
+                if (greedy[e] >= 0) {
+                    greedyTimes.add(greedy[e]);
+                    batchTimes.add(batch[e]);
+                }
+            }
+        }
+
+        System.out.println("Ticks: " + ticks + ", fires served: " + greedyTimes.size() + ", seed: " + seed);
+        report("Greedy", greedyTimes, greedyNanos, ticks);
+        report("Batch ", batchTimes, batchNanos, ticks);
+    }
+
+    /**
+     * Generates fire events ordered the way the FireEventList would hand them out.
+     */
+    private static List<FireIncidentEvent> randomEvents(Random random, int count) {
+        FireEventList list = new FireEventList();
+        for (int i = 0; i < count; i++) {
+            int x = random.nextInt(MAP_WIDTH - 100), y = random.nextInt(MAP_HEIGHT - 100);
+            Zone zone = new Zone(i + 1, x, y, x + 100, y + 100);
+            String time = String.format("14:%02d:%02d", random.nextInt(60), random.nextInt(60));
+            list.addEvent(new FireIncidentEvent(time, i + 1, "FIRE_DETECTED", SEVERITIES[random.nextInt(3)], zone, 5 + random.nextInt(41), "NO_FAULT", "N/A"));
+        }
+        List<FireIncidentEvent> ordered = new ArrayList<>();
+        FireIncidentEvent next;
+        while ((next = list.removeEvent()) != null) {
+            ordered.add(next);
+        }
+        return ordered;
+    }
+
+    /**
+     * Builds the slot list shared by both policies: one entry per drone each event needs,
+     * in priority order, capped at the number of drones.
+     */
+    private static List<Integer> slots(List<FireIncidentEvent> events, int droneCount) {
+        List<Integer> slots = new ArrayList<>();
+        for (int e = 0; e < events.size(); e++) {
+            int required = (int) Math.ceil((double) events.get(e).getWaterNeeded() / MAX_PAYLOAD);
+            for (int i = 0; i < required && slots.size() < droneCount; i++) {
+                slots.add(e);
+            }
+        }
+        return slots;
+    }
+
+    private static double travelTime(DroneData drone, FireIncidentEvent event) {
+        return drone.getLocation().distance(event.getZone().getCenter()) / DRONE_SPEED;
+    }
+
+    /**
+     * Current policy: each slot in turn takes the closest drone that is still free.
+     */
+    private static double[] greedy(List<FireIncidentEvent> events, List<DroneData> drones) {
+        double[] response = new double[events.size()];
+        Arrays.fill(response, -1);
+        boolean[] taken = new boolean[drones.size()];
+        for (int e : slots(events, drones.size())) {
+            int best = -1;
+            for (int d = 0; d < drones.size(); d++) {
+                if (!taken[d] && (best < 0 || travelTime(drones.get(d), events.get(e)) < travelTime(drones.get(best), events.get(e)))) {
+                    best = d;
+                }
+            }
+            taken[best] = true;
+            response[e] = Math.max(response[e], travelTime(drones.get(best), events.get(e)));
+        }
+        return response;
+    }
+
+    /**
+     * Batch policy: the same slots, matched to drones at minimum total travel time.
+     */
+    private static double[] batch(List<FireIncidentEvent> events, List<DroneData> drones) {
+        double[] response = new double[events.size()];
+        Arrays.fill(response, -1);
+        List<Integer> slots = slots(events, drones.size());
+        double[][] cost = new double[slots.size()][drones.size()];
+        for (int slot = 0; slot < slots.size(); slot++) {
+            for (int d = 0; d < drones.size(); d++) {
+                cost[slot][d] = travelTime(drones.get(d), events.get(slots.get(slot)));
+            }
+        }
+        int[] assignment = DroneAssignmentSolver.solve(cost);
+        for (int slot = 0; slot < slots.size(); slot++) {
+            int e = slots.get(slot);
+            response[e] = Math.max(response[e], cost[slot][assignment[slot]]);
+        }
+        return response;
+    }
+
+    private static void report(String policy, List<Double> times, long nanos, int ticks) {
+        double[] sorted = times.stream().mapToDouble(Double::doubleValue).sorted().toArray();
+        double mean = Arrays.stream(sorted).average().orElse(0);
+        double p99 = sorted.length == 0 ? 0 : sorted[Math.min(sorted.length - 1, (int) Math.ceil(0.99 * sorted.length) - 1)];
+        System.out.printf("%s  mean response: %8.2f  p99 response: %8.2f  avg decision time: %6.2f us%n",
+                policy, mean, p99, nanos / 1000.0 / ticks);
+    }
+}
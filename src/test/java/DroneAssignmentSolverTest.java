@@ -0,0 +1,104 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DroneAssignmentSolverTest {
+
+    private static double totalCost(double[][] cost, int[] assignment) {
+        double total = 0;
+        for (int row = 0; row < assignment.length; row++) {
+            if (assignment[row] >= 0) {
+                total += cost[row][assignment[row]];
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Exhaustively finds the cheapest way to give each row (rows <= cols) a distinct column.
+     */
+    private static double bruteForce(double[][] cost, int row, boolean[] used) {
+        if (row == cost.length) {
+            return 0;
+        }
+        double best = Double.POSITIVE_INFINITY;
+        for (int col = 0; col < cost[0].length; col++) {
+            if (!used[col]) {
+                used[col] = true;
+                best = Math.min(best, cost[row][col] + bruteForce(cost, row + 1, used));
+                used[col] = false;
+            }
+        }
+        return best;
+    }
+
+    private static void assertDistinctColumns(int[] assignment) {
+        boolean[] seen = new boolean[64];
+        for (int col : assignment) {
+            if (col >= 0) {
+                assertFalse(seen[col], "Column " + col + " assigned twice");
+                seen[col] = true;
+            }
+        }
+    }
+
+    @Test
+    void testGreedyTrapIsAvoided() {
+        // Greedily giving row 0 its cheapest column forces row 1 onto a very expensive one.
+        double[][] cost = {
+                {1, 2},
+                {2, 100}
+        };
+        assertArrayEquals(new int[]{1, 0}, DroneAssignmentSolver.solve(cost));
+    }
+
+    @Test
+    void testMoreDronesThanSlots() {
+        double[][] cost = {
+                {9, 4, 7, 1},
+                {3, 8, 2, 6}
+        };
+        int[] assignment = DroneAssignmentSolver.solve(cost);
+        assertArrayEquals(new int[]{3, 2}, assignment);
+    }
+
+    @Test
+    void testMoreSlotsThanDrones() {
+        double[][] cost = {
+                {5, 9},
+                {1, 2},
+                {8, 3}
+        };
+        int[] assignment = DroneAssignmentSolver.solve(cost);
+        assertArrayEquals(new int[]{-1, 0, 1}, assignment);
+    }
+
+    @Test
+    void testEmptyMatrix() {
+        assertEquals(0, DroneAssignmentSolver.solve(new double[0][0]).length);
+        assertArrayEquals(new int[]{-1, -1}, DroneAssignmentSolver.solve(new double[2][0]));
+    }
+
+    @Test
+    void testMatchesBruteForce() {
+        Random random = new Random(3303);
+        for (int trial = 0; trial < 200; trial++) {
+            int rows = 1 + random.nextInt(6);
+            int cols = rows + random.nextInt(3);
+            double[][] cost = new double[rows][cols];
+            for (int r = 0; r < rows; r++) {
+                for (int c = 0; c < cols; c++) {
+                    cost[r][c] = random.nextInt(500) / 2.8;
+                }
+            }
+            int[] assignment = DroneAssignmentSolver.solve(cost);
+            assertDistinctColumns(assignment);
+            for (int col : assignment) {
+                assertTrue(col >= 0);
+            }
+            assertEquals(bruteForce(cost, 0, new boolean[cols]), totalCost(cost, assignment), 1e-6);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.Point;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class DroneClientTest {
+
+    private final List<Transport> endpoints = new ArrayList<>();
+    private final List<DroneClient> clients = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        clients.forEach(DroneClient::close);
+        endpoints.forEach(Transport::close);
+        InMemoryTransport.setLossRate(0, 0);
+    }
+
+    private DroneClient client(Transport endpoint, Transport server) {
+        DroneClient client = new DroneClient(endpoint, new InetSocketAddress("127.0.0.1", server.getLocalPort()));
+        clients.add(client);
+        return client;
+    }
+
+    private <T extends Transport> T endpoint(T endpoint) {
+        endpoints.add(endpoint);
+        return endpoint;
+    }
+
+    /**
+     * Receives the given number of requests on a server endpoint and answers them in reverse order,
+     * each with a LOCATION_OK frame echoing the request's x-coordinate and correlation ID.
+     */
+    private static Thread answerInReverse(Transport server, int requests) {
+        Thread thread = new Thread(() -> {
+            List<ByteBuffer> received = new ArrayList<>();
+            List<SocketAddress> senders = new ArrayList<>();
+            try {
+                while (received.size() < requests) {
+                    ByteBuffer request = ByteBuffer.allocate(MessageCodec.FRAME_SIZE);
+                    senders.add(server.receive(request));
+                    received.add(request);
+                }
+                for (int i = requests - 1; i >= 0; i--) {
+                    ByteBuffer response = ByteBuffer.allocate(MessageCodec.FRAME_SIZE);
+                    int correlationId = MessageCodec.correlation(received.get(i));
+                    MessageCodec.encode(response, MessageCodec.LOCATION_OK, 0, 0, MessageCodec.x(received.get(i)), 0);
+                    MessageCodec.setCorrelation(response, correlationId);
+                    server.send(response, (InetSocketAddress) senders.get(i), correlationId);
+                }
+            } catch (IOException e) {
+                // Closed by the test.
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    @Test
+    void testResponsesCompleteTheRequestsTheyAnswer() throws Exception {
+        Transport server = endpoint(InMemoryTransport.bind(0));
+        answerInReverse(server, 3);
+        DroneClient client = client(InMemoryTransport.bind(0), server);
+
+        List<CompletableFuture<DroneClient.Response>> responses = new ArrayList<>();
+        for (int x = 1; x <= 3; x++) {
+            responses.add(client.updateLocation(4, x, 0));
+        }
+        for (int x = 1; x <= 3; x++) {
+            DroneClient.Response response = responses.get(x - 1).get(5, TimeUnit.SECONDS);
+            assertEquals(MessageCodec.LOCATION_OK, response.type());
+            assertEquals("Location_OK", response.text());
+            assertEquals(x, response.x());
+        }
+        assertEquals(0, client.getInFlight());
+    }
+
+    @Test
+    void testPipelinedRequestsAreDeliveredOnceOverALossyLink() throws Exception {
+        Transport server = endpoint(ReliableTransport.server(InMemoryTransport.bind(0)));
+        AtomicInteger delivered = new AtomicInteger();
+        Thread echo = new Thread(() -> {
+            ByteBuffer request = ByteBuffer.allocate(MessageCodec.FRAME_SIZE);
+            ByteBuffer response = ByteBuffer.allocate(MessageCodec.FRAME_SIZE);
+            try {
+                while (true) {
+                    request.clear();
+                    SocketAddress sender = server.receive(request);
+                    delivered.incrementAndGet();
+                    int correlationId = MessageCodec.correlation(request);
+                    MessageCodec.encode(response, MessageCodec.LOCATION_OK, 0, 0, MessageCodec.x(request), 0);
+                    MessageCodec.setCorrelation(response, correlationId);
+                    response.clear();
+                    server.send(response, (InetSocketAddress) sender, correlationId);
+                }
+            } catch (IOException e) {
+                // Closed by the test.
+            }
+        });
+        echo.setDaemon(true);
+        echo.start();
+        DroneClient client = client(ReliableTransport.client(InMemoryTransport.bind(0), ReliableTransport.RETRY_FOREVER), server);
+        InMemoryTransport.setLossRate(0.3, 11);
+
+        List<CompletableFuture<DroneClient.Response>> responses = new ArrayList<>();
+        for (int x = 0; x < 50; x++) {
+            responses.add(client.updateLocation(4, x, 0));
+        }
+        for (int x = 0; x < 50; x++) {
+            assertEquals(x, responses.get(x).get(30, TimeUnit.SECONDS).x());
+        }
+        assertEquals(50, delivered.get());
+    }
+
+    @Test
+    void testCloseFailsRequestsInFlight() throws Exception {
+        Transport nobody = endpoint(InMemoryTransport.bind(0));
+        DroneClient client = client(InMemoryTransport.bind(0), nobody);
+
+        CompletableFuture<DroneClient.Response> task = client.getTask(1);
+        assertFalse(task.isDone());
+        assertEquals(1, client.getInFlight());
+        client.close();
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> task.get(5, TimeUnit.SECONDS));
+        assertTrue(failure.getCause() instanceof IOException);
+        assertTrue(client.request(MessageCodec.GET_TASK, 1, 0, 0, 0).isCompletedExceptionally());
+    }
+
+    @Test
+    void testAbandonedRequestCompletesExceptionally() throws Exception {
+        Transport nobody = endpoint(InMemoryTransport.bind(0));
+        DroneClient client = client(ReliableTransport.client(InMemoryTransport.bind(0), 2), nobody);
+
+        CompletableFuture<DroneClient.Response> location = client.updateLocation(1, 5, 5);
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> location.get(10, TimeUnit.SECONDS));
+        assertTrue(failure.getCause() instanceof ReliableTransport.RequestTimeoutException);
+        assertEquals(0, client.getInFlight());
+    }
+
+    @Test
+    void testLocationUpdatesCompleteWhileTheTaskRequestWaits() throws Exception {
+        InMemoryTransport.setEmbedded(true);
+        try {
+            FireEventList eventList = new FireEventList();
+            DroneFleet drones = new DroneFleet(eventList);
+            DroneRequestBuffer requests = new DroneRequestBuffer();
+            Scheduler scheduler = new Scheduler(drones, requests, eventList, new InProgressEvents(), 7140);
+            Thread listener = new Thread(scheduler, "Drone listener");
+            listener.setDaemon(true);
+            listener.start();
+
+            DroneClient client = new DroneClient("localhost", 7140);
+            clients.add(client);
+            int droneID = client.initialize().get(5, TimeUnit.SECONDS).id();
+            assertNotNull(drones.getADrone(droneID));
+
+            // No fire is reported, so the task request stays in flight while the drone moves.
+            CompletableFuture<DroneClient.Response> task = client.getTask(droneID);
+            for (int x = 10; x <= 50; x += 10) {
+                DroneClient.Response response = client.updateLocation(droneID, x, 2 * x).get(5, TimeUnit.SECONDS);
+                assertEquals(MessageCodec.LOCATION_OK, response.type());
+            }
+            // Location updates skip the request queue and land on the position board.
+            assertTrue(requests.isEmpty());
+            assertEquals(new Point(50, 100), drones.getPositions().position(droneID));
+            drones.publishPositions();
+            assertEquals(new Point(50, 100), drones.getADrone(droneID).getLocation());
+            assertFalse(task.isDone());
+            assertEquals(1, client.getInFlight());
+            scheduler.stop();
+        } finally {
+            InMemoryTransport.setEmbedded(false);
+        }
+    }
+}
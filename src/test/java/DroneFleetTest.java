@@ -0,0 +1,270 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DroneFleetTest {
+
+    private DroneFleet fleet;
+    private InetAddress address;
+
+    @BeforeEach
+    void setUp() {
+        fleet = new DroneFleet(new FireEventList());
+        address = InetAddress.getLoopbackAddress();
+    }
+
+    private DroneData addAvailableDrone(int id, int x, int y) {
+        DroneData drone = new DroneData(id, new Point(x, y), 15, address, 7000 + id);
+        fleet.addDrone(id, drone);
+        drone.setHasRequested(true);
+        return drone;
+    }
+
+    @Test
+    void testReportedLocationsApplyWhenTheFleetIsSearched() {
+        addAvailableDrone(1, 0, 0);
+        DroneData reporting = addAvailableDrone(2, 500, 500);
+
+        fleet.reportLocation(2, 40, 40);
+        fleet.reportLocation(2, 10, 10);
+        assertEquals(new Point(500, 500), reporting.getLocation());
+
+        assertSame(reporting, fleet.findNearestAvailableDrone(new Point(12, 12)));
+        assertEquals(new Point(10, 10), reporting.getLocation());
+        assertEquals(0, fleet.publishPositions());
+    }
+
+    @Test
+    void testLocationsFromUnknownDronesAreDropped() {
+        addAvailableDrone(1, 0, 0);
+        fleet.reportLocation(Integer.MAX_VALUE, 1, 1);
+        fleet.reportLocation(2, 1, 1);
+        assertEquals(0, fleet.publishPositions());
+    }
+
+    @Test
+    void testDronesInFlightAreFollowedWithoutReports() {
+        DiscreteEventClock clock = new DiscreteEventClock();
+        fleet.setClock(clock);
+        addAvailableDrone(1, 0, 0);
+        DroneData flying = addAvailableDrone(2, 0, 0);
+        flying.setAtBase(false);
+        assertEquals(50.0, fleet.depart(flying, new Point(400, 300), 10), 1e-9);
+
+        clock.runUntil(20_000);
+        fleet.publishPositions();
+        assertEquals(new Point(160, 120), flying.getLocation());
+
+        clock.runUntil(45_000);
+        fleet.arrive(2);
+        assertEquals(new Point(400, 300), flying.getLocation());
+        assertEquals(0, fleet.getMotion().getInFlight());
+
+        // Back on standby at the fire it put out, it is the closest drone to the next one nearby.
+        flying.setAtBase(true);
+        assertSame(flying, fleet.findNearestAvailableDrone(new Point(380, 280)));
+        assertEquals(40.0, fleet.depart(flying, new Point(0, 0), 12.5), 1e-9);
+    }
+
+    @Test
+    void testNearestAvailableDrone() {
+        addAvailableDrone(1, 0, 0);
+        DroneData near = addAvailableDrone(2, 290, 110);
+        addAvailableDrone(3, 600, 300);
+
+        assertSame(near, fleet.findNearestAvailableDrone(new Point(300, 100)));
+    }
+
+    @Test
+    void testOnlyAvailableDronesAreIndexed() {
+        DroneData busy = addAvailableDrone(1, 300, 100);
+        DroneData idle = addAvailableDrone(2, 0, 0);
+
+        busy.setAtBase(false);
+        assertSame(idle, fleet.findNearestAvailableDrone(new Point(300, 100)), "Drone away from base should be skipped");
+
+        busy.setAtBase(true);
+        busy.setHasRequested(false);
+        assertSame(idle, fleet.findNearestAvailableDrone(new Point(300, 100)), "Drone without a request should be skipped");
+
+        busy.setHasRequested(true);
+        assertSame(busy, fleet.findNearestAvailableDrone(new Point(300, 100)));
+    }
+
+    @Test
+    void testLocationUpdateMovesDrone() {
+        DroneData first = addAvailableDrone(1, 0, 0);
+        DroneData second = addAvailableDrone(2, 50, 50);
+        assertSame(second, fleet.findNearestAvailableDrone(new Point(700, 300)));
+
+        fleet.updateLocation(1, new Point(690, 310));
+        assertSame(first, fleet.findNearestAvailableDrone(new Point(700, 300)));
+    }
+
+    @Test
+    void testRemovedDroneIsNotReturned() {
+        addAvailableDrone(1, 100, 100);
+        fleet.removeDrone(1);
+        assertNull(fleet.findNearestAvailableDrone(new Point(100, 100)));
+    }
+
+    @Test
+    void testAvailableCountFollowsStateChanges() {
+        DroneData first = addAvailableDrone(1, 0, 0);
+        DroneData second = addAvailableDrone(2, 0, 0);
+        assertEquals(2, fleet.getAvailableDrones());
+
+        first.setAtBase(false);
+        assertEquals(1, fleet.getAvailableDrones());
+        first.setAtBase(false);
+        assertEquals(1, fleet.getAvailableDrones(), "Repeated updates must not double count");
+
+        second.setHasRequested(false);
+        fleet.removeDrone(1);
+        assertEquals(0, fleet.getAvailableDrones());
+        assertTrue(fleet.getAvailableDroneList().isEmpty());
+
+        second.setHasRequested(true);
+        assertEquals(1, fleet.getAvailableDrones());
+        assertEquals(List.of(second), fleet.getAvailableDroneList());
+    }
+
+    @Test
+    void testWaitingSchedulerIsWokenWhenDroneBecomesAvailable() throws InterruptedException {
+        DroneData drone = new DroneData(1, new Point(0, 0), 15, address, 7001);
+        fleet.addDrone(1, drone);
+        Thread waiter = new Thread(fleet::stopAssigningDrones);
+        waiter.start();
+
+        drone.setHasRequested(true);
+        waiter.join(5000);
+        assertFalse(waiter.isAlive(), "stopAssigningDrones should return once a drone is available");
+    }
+
+    @Test
+    void testEarlyArrivalAndReturnCancelWatchdogs() {
+        AtomicLong now = new AtomicLong();
+        TimingWheel wheel = new TimingWheel(now::get);
+        fleet.setWatchdogTimer(wheel);
+        DroneData drone = new DroneData(1, new Point(0, 0), 15, address, 7001);
+        fleet.addDrone(1, drone);
+        drone.setAtBase(false);
+
+        fleet.trackDrones(5, drone);
+        drone.setHasArrived(true);
+        drone.setDroneJobStatus(-1);
+        fleet.confirmArrival(drone);
+        assertEquals(1, drone.getDroneJobStatus(), "Arrival should be confirmed without waiting for the watchdog");
+        assertEquals(0, wheel.size());
+
+        fleet.trackDroneNozzle(3, drone);
+        drone.setIsComingBack(1);
+        fleet.confirmReturn(drone);
+        assertTrue(drone.isAtBase());
+        assertEquals(0, wheel.size());
+
+        now.addAndGet(10_000);
+        assertEquals(0, wheel.advance(), "Cancelled watchdogs must not fire");
+    }
+
+    @Test
+    void testHeartbeatingDronesAreWatchedWithoutMissionTimers() {
+        DiscreteEventClock clock = new DiscreteEventClock();
+        fleet.setClock(clock);
+        fleet.setWatchdogTimer(clock);
+        fleet.setFailureDetector(new FailureDetector(8, 1000, 5000));
+        DroneData drone = new DroneData(1, new Point(0, 0), 15, address, 7001);
+        fleet.addDrone(1, drone);
+        fleet.heartbeat(1);
+        drone.setAtBase(false);
+
+        fleet.trackDrones(2, drone);
+        fleet.trackDroneNozzle(3, drone);
+        assertEquals(1, clock.pending(), "only the liveness sweep is scheduled");
+        drone.setHasArrived(true);
+        drone.setDroneJobStatus(-1);
+        fleet.confirmArrival(drone);
+        assertEquals(1, drone.getDroneJobStatus(), "a live drone's arrival is confirmed");
+
+        // A long flight raises no suspicion while the heartbeats keep coming.
+        for (int second = 1; second <= 60; second++) {
+            clock.runUntil(second * 1000L);
+            fleet.heartbeat(1);
+        }
+        assertNull(fleet.pollFaultedDrone());
+
+        clock.runUntil(70_000);
+        assertEquals(Integer.valueOf(1), fleet.pollFaultedDrone(), "a silent drone is reported within the bound");
+        assertTrue(drone.isLost());
+        assertEquals(-1, drone.getDroneJobStatus());
+        assertFalse(fleet.getFailureDetector().isMonitored(1));
+        assertEquals(0, clock.pending(), "sweeps stop once no drone is monitored");
+    }
+
+    @Test
+    void testIdleDroneHeardFromAgainIsAvailableAgain() {
+        DiscreteEventClock clock = new DiscreteEventClock();
+        fleet.setClock(clock);
+        fleet.setWatchdogTimer(clock);
+        fleet.setFailureDetector(new FailureDetector(8, 1000, 5000));
+        DroneData drone = addAvailableDrone(1, 0, 0);
+        fleet.heartbeat(1);
+
+        clock.runUntil(10_000);
+        assertEquals(0, fleet.getAvailableDrones(), "a silent drone is not dispatched");
+        assertNull(fleet.pollFaultedDrone(), "an idle drone has no event to requeue");
+
+        fleet.heartbeat(1);
+        assertEquals(1, fleet.getAvailableDrones());
+        assertFalse(drone.isLost());
+    }
+
+    @Test
+    void testLateArrivalIsStillReportedByWatchdog() {
+        AtomicLong now = new AtomicLong();
+        TimingWheel wheel = new TimingWheel(now::get);
+        fleet.setWatchdogTimer(wheel);
+        DroneData drone = new DroneData(1, new Point(0, 0), 15, address, 7001);
+        fleet.addDrone(1, drone);
+
+        fleet.trackDrones(2, drone);
+        now.addAndGet(2_000);
+        assertEquals(1, wheel.advance());
+        assertEquals(-1, drone.getDroneJobStatus());
+        assertEquals(Integer.valueOf(1), fleet.pollFaultedDrone(), "Lost drone should be pushed to the requeue handler");
+        assertNull(fleet.pollFaultedDrone());
+
+        drone.setHasArrived(true);
+        fleet.confirmArrival(drone);
+        assertEquals(-1, drone.getDroneJobStatus(), "A watchdog that already fired is not overridden");
+    }
+
+    @Test
+    void testKNearestMatchesLinearScan() {
+        Random random = new Random(3303);
+        List<DroneData> all = new ArrayList<>();
+        for (int id = 1; id <= 500; id++) {
+            all.add(addAvailableDrone(id, random.nextInt(2000) - 500, random.nextInt(1000) - 200));
+        }
+        for (int query = 0; query < 50; query++) {
+            Point target = new Point(random.nextInt(3000) - 1000, random.nextInt(2000) - 600);
+            List<DroneData> expected = new ArrayList<>(all);
+            expected.sort(Comparator.comparingDouble(d -> d.getLocation().distanceSq(target)));
+
+            List<DroneData> actual = fleet.findNearestAvailableDrones(target, 5);
+            assertEquals(5, actual.size());
+            for (int i = 0; i < 5; i++) {
+                assertEquals(expected.get(i).getLocation().distanceSq(target), actual.get(i).getLocation().distanceSq(target), 1e-9);
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DroneRequestBufferTest {
+
+    private final InetSocketAddress sender = new InetSocketAddress(InetAddress.getLoopbackAddress(), 7001);
+
+    private int receive(DroneRequestBuffer buffer, byte[] datagram) throws InterruptedException {
+        int slot = buffer.acquire();
+        buffer.slot(slot).put(datagram);
+        buffer.commit(slot, sender);
+        return slot;
+    }
+
+    @Test
+    void testRequestsAreHandledInArrivalOrder() throws InterruptedException {
+        DroneRequestBuffer buffer = new DroneRequestBuffer(4);
+        assertTrue(buffer.isEmpty());
+        receive(buffer, "GET_TASK:1".getBytes());
+        receive(buffer, "NOTIFY_ARRIVED:2".getBytes());
+
+        int first = buffer.poll();
+        assertEquals(MessageCodec.GET_TASK, MessageCodec.type(buffer.request(first)));
+        assertEquals(1, MessageCodec.id(buffer.request(first)));
+        assertEquals(InetAddress.getLoopbackAddress(), buffer.address(first));
+        assertEquals(7001, buffer.port(first));
+        assertEquals("GET_TASK:1", buffer.describe(first));
+        buffer.release(first);
+
+        int second = buffer.poll();
+        assertEquals(MessageCodec.NOTIFY_ARRIVED, MessageCodec.type(buffer.request(second)));
+        buffer.release(second);
+        assertEquals(-1, buffer.poll());
+        assertTrue(buffer.isEmpty());
+    }
+
+    @Test
+    void testBinaryFramesAreReadFromTheSlot() throws InterruptedException {
+        DroneRequestBuffer buffer = new DroneRequestBuffer(2);
+        ByteBuffer frame = ByteBuffer.allocate(MessageCodec.FRAME_SIZE);
+        MessageCodec.encode(frame, MessageCodec.UPDATE_LOCATION, 5, 0, 40, 60);
+        int slot = receive(buffer, frame.array());
+
+        assertEquals(slot, buffer.poll());
+        assertTrue(buffer.isBinary(slot));
+        assertSame(buffer.slot(slot), buffer.request(slot));
+        assertEquals(40, MessageCodec.x(buffer.request(slot)));
+        assertEquals(60, MessageCodec.y(buffer.request(slot)));
+    }
+
+    @Test
+    void testSlotsAreReused() throws InterruptedException {
+        DroneRequestBuffer buffer = new DroneRequestBuffer(2);
+        int slot = receive(buffer, "GET_TASK:1".getBytes());
+        ByteBuffer memory = buffer.slot(slot);
+        for (int i = 0; i < 100; i++) {
+            buffer.release(buffer.poll());
+            slot = receive(buffer, ("GET_TASK:" + i).getBytes());
+            assertEquals(i, MessageCodec.id(buffer.request(slot)));
+        }
+        assertSame(memory, buffer.slot(slot));
+    }
+
+    @Test
+    void testReceiverWaitsForAFreeSlot() throws InterruptedException {
+        DroneRequestBuffer buffer = new DroneRequestBuffer(1);
+        int held = receive(buffer, "GET_TASK:1".getBytes());
+
+        Thread receiver = new Thread(() -> {
+            try {
+                receive(buffer, "GET_TASK:2".getBytes());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        receiver.start();
+        receiver.join(100);
+        assertTrue(receiver.isAlive());
+
+        buffer.release(buffer.poll());
+        receiver.join(5000);
+        assertFalse(receiver.isAlive());
+        assertEquals(held, buffer.poll());
+        assertEquals(2, MessageCodec.id(buffer.request(held)));
+    }
+}
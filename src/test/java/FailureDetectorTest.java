@@ -0,0 +1,70 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FailureDetectorTest {
+
+    /** Sends heartbeats from a drone every given interval, starting at the given time; returns the last one's time. */
+    private static long beat(FailureDetector detector, int droneID, long start, long interval, int count) {
+        long time = start;
+        for (int i = 0; i < count; i++) {
+            time = start + i * interval;
+            detector.heartbeat(droneID, time);
+        }
+        return time;
+    }
+
+    @Test
+    void testSuspicionGrowsWithSilence() {
+        FailureDetector detector = new FailureDetector(8, 1000, 60_000);
+        assertTrue(detector.heartbeat(1, 0));
+        assertFalse(detector.heartbeat(1, 1000));
+        long last = beat(detector, 1, 2000, 1000, 20);
+
+        double onTime = detector.phi(1, last + 1000);
+        double late = detector.phi(1, last + 2500);
+        double silent = detector.phi(1, last + 5000);
+        assertTrue(onTime < 1, "a heartbeat due now is not suspicious: " + onTime);
+        assertTrue(onTime < late && late < silent);
+        assertTrue(silent >= 8, "five missed heartbeats are: " + silent);
+        assertEquals(0.0, detector.phi(2, last), 1e-9, "a drone that never sent a heartbeat is not monitored");
+    }
+
+    @Test
+    void testIrregularHeartbeatsAreToleratedLonger() {
+        FailureDetector detector = new FailureDetector(8, 1000, 60_000);
+        beat(detector, 1, 0, 1000, 30);
+        long time = 0;
+        for (int i = 0; i < 30; i++) {
+            time += i % 2 == 0 ? 200 : 1800;
+            detector.heartbeat(2, time);
+        }
+        long silence = 3000;
+        assertTrue(detector.phi(2, time + silence) < detector.phi(1, 29_000 + silence));
+    }
+
+    @Test
+    void testSweepDeclaresDeadWithinTheBound() {
+        // A threshold no silence reaches, so only the bound applies.
+        FailureDetector detector = new FailureDetector(1000, 1000, 5000);
+        beat(detector, 1, 0, 1000, 5);
+        beat(detector, 2, 0, 1000, 10);
+        List<Integer> dead = new ArrayList<>();
+
+        assertEquals(0, detector.sweep(8999, dead::add));
+        assertEquals(1, detector.sweep(9000, dead::add));
+        assertEquals(List.of(1), dead);
+        assertFalse(detector.isMonitored(1));
+        assertEquals(1, detector.getMonitored());
+
+        assertEquals(1, detector.sweep(14_000, dead::add));
+        assertEquals(List.of(1, 2), dead);
+        assertEquals(0, detector.sweep(100_000, id -> fail("nothing is monitored")));
+
+        assertTrue(detector.heartbeat(1, 100_000), "a drone heard from again is monitored afresh");
+        assertEquals(0, detector.sweep(100_500, dead::add));
+    }
+}
@@ -0,0 +1,91 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FireEventListTest {
+
+    private FireEventList eventList;
+
+    @BeforeEach
+    void setUp() {
+        eventList = new FireEventList();
+    }
+
+    private FireIncidentEvent event(String time, int zoneId, String severity, int waterNeeded) {
+        return new FireIncidentEvent(time, zoneId, "FIRE_DETECTED", severity, new Zone(zoneId, 0, 0, 200, 200), waterNeeded, "NO_FAULT", "N/A");
+    }
+
+    @Test
+    void testHigherSeverityServedFirst() {
+        FireIncidentEvent low = event("14:00:00", 1, "Low", 10);
+        FireIncidentEvent high = event("14:05:00", 2, "High", 30);
+        FireIncidentEvent moderate = event("14:01:00", 3, "Moderate", 20);
+        eventList.addEvent(low);
+        eventList.addEvent(high);
+        eventList.addEvent(moderate);
+
+        assertSame(high, eventList.removeEvent());
+        assertSame(moderate, eventList.removeEvent());
+        assertSame(low, eventList.removeEvent());
+        assertNull(eventList.removeEvent());
+    }
+
+    @Test
+    void testOlderEventServedFirstWithinSeverity() {
+        FireIncidentEvent later = event("14:10:00", 1, "High", 30);
+        FireIncidentEvent earlier = event("14:02:00", 2, "High", 30);
+        eventList.addEvent(later);
+        eventList.addEvent(earlier);
+
+        assertSame(earlier, eventList.getList().peek());
+        assertSame(earlier, eventList.removeEvent());
+        assertSame(later, eventList.removeEvent());
+    }
+
+    @Test
+    void testMoreWaterServedFirstOnTie() {
+        FireIncidentEvent small = event("14:00:00", 1, "High", 15);
+        FireIncidentEvent large = event("14:00:00", 2, "High", 45);
+        eventList.addEvent(small);
+        eventList.addEvent(large);
+
+        assertSame(large, eventList.removeEvent());
+        assertSame(small, eventList.removeEvent());
+    }
+
+    @Test
+    void testDuplicateZoneReportIsMerged() {
+        FireIncidentEvent first = event("14:00:00", 1, "High", 30);
+        FireIncidentEvent duplicate = event("14:03:00", 1, "Moderate", 20);
+        eventList.addEvent(first);
+        eventList.addEvent(duplicate);
+
+        assertEquals(1, eventList.getListSize());
+        assertEquals(50, first.getWaterNeeded());
+        assertSame(first, eventList.removeEvent());
+    }
+
+    @Test
+    void testReAddingQueuedEventDoesNotMerge() {
+        FireIncidentEvent fire = event("14:00:00", 1, "High", 30);
+        eventList.addEvent(fire);
+        eventList.addEvent(fire);
+
+        assertEquals(1, eventList.getListSize());
+        assertEquals(30, fire.getWaterNeeded());
+    }
+
+    @Test
+    void testZoneCanBeQueuedAgainAfterRemoval() {
+        FireIncidentEvent fire = event("14:00:00", 1, "High", 30);
+        eventList.addEvent(fire);
+        assertSame(fire, eventList.removeEvent());
+
+        FireIncidentEvent next = event("14:20:00", 1, "Low", 10);
+        eventList.addEvent(next);
+        assertEquals(1, eventList.getListSize());
+        assertEquals(30, fire.getWaterNeeded());
+        assertSame(next, eventList.removeEvent());
+    }
+}
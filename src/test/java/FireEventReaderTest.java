@@ -0,0 +1,84 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FireEventReaderTest {
+
+    private final Map<Integer, Zone> zones = Map.of(1, new Zone(1, 0, 0, 700, 600), 2, new Zone(2, 0, 600, 650, 1500));
+
+    private List<FireIncidentEvent> read(String... rows) throws IOException {
+        Path file = Files.createTempFile("events", ".csv");
+        file.toFile().deleteOnExit();
+        List<String> lines = new ArrayList<>();
+        lines.add("Time,Zone ID,Event type,Severity,Fault,Fault Type");
+        lines.addAll(List.of(rows));
+        Files.write(file, lines);
+
+        List<FireIncidentEvent> events = new ArrayList<>();
+        try (FireEventReader reader = new FireEventReader(file.toString(), zones)) {
+            reader.forEachRemaining(events::add);
+        }
+        return events;
+    }
+
+    @Test
+    void testRowsAreParsedLikeTheEagerLoader() throws IOException {
+        List<FireIncidentEvent> events = read(
+                "14:03:15,1,FIRE_DETECTED,High,CORRUPTED_MESSAGE,TRANSIENT_FAULT",
+                "  14:04:20 , 2 , DRONE_REQUEST , Moderate , NO_FAULT , N/A  ");
+
+        assertEquals(2, events.size());
+        FireIncidentEvent first = events.get(0);
+        assertEquals("14:03:15", first.getTime());
+        assertEquals(LocalTime.of(14, 3, 15), first.getEventTime());
+        assertEquals(1, first.getZoneId());
+        assertEquals(30, first.getWaterNeeded());
+        assertEquals("CORRUPTED_MESSAGE", first.getFault());
+
+        FireIncidentEvent second = events.get(1);
+        assertEquals("14:04:20", second.getTime());
+        assertEquals(2, second.getZoneId());
+        assertEquals("DRONE_REQUEST", second.getEventType());
+        assertEquals(20, second.getWaterNeeded());
+        assertEquals("N/A", second.getFaultType());
+    }
+
+    @Test
+    void testKnownValuesAreShared() throws IOException {
+        List<FireIncidentEvent> events = read("14:03:15,1,FIRE_DETECTED,Low,NO_FAULT,N/A", "14:03:16,1,FIRE_DETECTED,Low,NO_FAULT,N/A");
+        assertSame(events.get(0).getFault(), events.get(1).getFault());
+        assertSame(events.get(0).getSeverity(), events.get(1).getSeverity());
+    }
+
+    @Test
+    void testBadRowsAreSkipped() throws IOException {
+        List<FireIncidentEvent> events = read(
+                "",
+                "14:03:15,1,FIRE_DETECTED",
+                "14:03:15,9,FIRE_DETECTED,High,NO_FAULT,N/A",
+                "14:03:15,x,FIRE_DETECTED,High,NO_FAULT,N/A",
+                "25:03:15,1,FIRE_DETECTED,High,NO_FAULT,N/A",
+                "14:05:00,1,FIRE_DETECTED,High,NO_FAULT,N/A");
+
+        assertEquals(1, events.size());
+        assertEquals("14:05:00", events.get(0).getTime());
+    }
+
+    @Test
+    void testTimesAreParsedStrictly() {
+        assertEquals(LocalTime.of(23, 59, 59), FireIncidentEvent.parseTime("23:59:59"));
+        assertEquals(LocalTime.MIDNIGHT, FireIncidentEvent.parseTime("00:00:00"));
+        for (String time : new String[]{"24:00:00", "1:02:03", "12:60:00", "12-30-00", "ab:cd:ef", ""}) {
+            assertThrows(DateTimeParseException.class, () -> FireIncidentEvent.parseTime(time), time);
+        }
+    }
+}
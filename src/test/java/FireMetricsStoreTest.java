@@ -0,0 +1,99 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FireMetricsStoreTest {
+
+    private static FireEventMetrics reportedAt(int fireID, long millis) {
+        FireEventMetrics metrics = new FireEventMetrics(fireID, 1);
+        metrics.fireReportedTime = millis;
+        return metrics;
+    }
+
+    @Test
+    void testOldestFireIsEvictedWhenFull() {
+        FireMetricsStore store = new FireMetricsStore(2, Long.MAX_VALUE);
+        store.put(reportedAt(1, 1));
+        store.put(reportedAt(2, 2));
+        store.put(reportedAt(3, 3));
+
+        assertNull(store.get(1));
+        assertNotNull(store.get(2));
+        assertNotNull(store.get(3));
+        assertEquals(2, store.size());
+        assertEquals(1, store.getEvictedCount());
+    }
+
+    @Test
+    void testOldFiresTimeOutWhenANewFireIsReported() {
+        FireMetricsStore store = new FireMetricsStore(10, 100);
+        store.put(reportedAt(1, 0));
+        store.put(reportedAt(2, 50));
+        store.put(reportedAt(3, 120));
+
+        assertNull(store.get(1));
+        assertNotNull(store.get(2));
+        assertEquals(1, store.getTimedOutCount());
+        assertEquals(0, store.getEvictedCount());
+    }
+
+    @Test
+    void testRemovedFiresAreCountedAsFlushed() {
+        FireMetricsStore store = new FireMetricsStore();
+        store.put(reportedAt(1, 1));
+
+        assertNotNull(store.remove(1));
+        assertNull(store.remove(1));
+        assertEquals(0, store.size());
+        assertEquals(1, store.getFlushedCount());
+        assertEquals("fire metrics: 0 tracked, 1 flushed, 0 evicted, 0 timed out", store.toString());
+    }
+
+    @Test
+    void testLoggerForgetsAFireOnceItsRowIsWritten() throws Exception {
+        File file = File.createTempFile("metrics", ".txt");
+        file.deleteOnExit();
+        DiscreteEventClock clock = new DiscreteEventClock();
+        MetricsLogger logger = new MetricsLogger(file.getPath());
+        logger.setClock(clock);
+
+        clock.runUntil(1_000);
+        logger.logFireReported(7, 3);
+        clock.runUntil(3_000);
+        logger.logDroneDispatched(7);
+        clock.runUntil(10_000);
+        assertNotNull(logger.logFireExtinguished(7));
+        assertNull(logger.logFireExtinguished(7));
+        logger.close();
+
+        assertEquals(0, logger.getFireMetricsStore().size());
+        List<String> lines = Files.readAllLines(file.toPath());
+        assertEquals(List.of("FireID,ZoneID,ResponseTime(ms),ExtinguishTime(ms)", "7,3,2000,9000"), lines);
+    }
+
+    @Test
+    void testConcurrentDispatchesRecordOneResponseTime() throws Exception {
+        File file = File.createTempFile("metrics", ".txt");
+        file.deleteOnExit();
+        MetricsLogger logger = new MetricsLogger(file.getPath());
+        logger.logFireReported(7, 3);
+
+        Thread[] drones = new Thread[8];
+        for (int i = 0; i < drones.length; i++) {
+            drones[i] = new Thread(() -> logger.logDroneDispatched(7));
+            drones[i].start();
+        }
+        for (Thread drone : drones) {
+            drone.join();
+        }
+        logger.close();
+
+        LatencyHistogram[] histograms = logger.histograms();
+        assertEquals(1, histograms[0].snapshot().getCount(), "only the first dispatch is a response");
+        assertEquals(drones.length, histograms[2].snapshot().getCount(), "every dispatch ends a queue wait");
+    }
+}
@@ -0,0 +1,191 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FireWorkloadGeneratorTest {
+
+    private static List<FireIncidentEvent> generate(FireWorkloadGenerator generator, int count) {
+        List<FireIncidentEvent> events = new ArrayList<>();
+        generator.events(count).forEachRemaining(events::add);
+        return events;
+    }
+
+    /**
+     * Returns the seconds from the first event to each event.
+     */
+    private static long[] offsets(List<FireIncidentEvent> events) {
+        long[] offsets = new long[events.size()];
+        for (int i = 1; i < events.size(); i++) {
+            offsets[i] = offsets[i - 1] + ChronoUnit.SECONDS.between(events.get(i - 1).getEventTime(), events.get(i).getEventTime());
+        }
+        return offsets;
+    }
+
+    /**
+     * Returns the variance-to-mean ratio of the number of events per window, which is 1 for a
+     * Poisson process and larger for a bursty one.
+     */
+    private static double dispersion(long[] offsets, long window) {
+        int windows = (int) (offsets[offsets.length - 1] / window);
+        long[] counts = new long[windows];
+        for (long offset : offsets) {
+            if (offset / window < windows) {
+                counts[(int) (offset / window)]++;
+            }
+        }
+        double mean = 0, variance = 0;
+        for (long count : counts) {
+            mean += (double) count / windows;
+        }
+        for (long count : counts) {
+            variance += (count - mean) * (count - mean) / windows;
+        }
+        return variance / mean;
+    }
+
+    @Test
+    void testSameSeedGivesSameEvents() {
+        FireWorkloadGenerator generator = new FireWorkloadGenerator(50, 3303);
+        generator.setFaultRate(0.2);
+        FireWorkloadGenerator other = new FireWorkloadGenerator(50, 3303);
+        other.setFaultRate(0.2);
+        List<FireIncidentEvent> first = generate(generator, 500);
+        List<FireIncidentEvent> second = generate(other, 500);
+        assertEquals(500, first.size());
+        for (int i = 0; i < first.size(); i++) {
+            assertEquals(first.get(i).toString(), second.get(i).toString());
+        }
+    }
+
+    @Test
+    void testStreamEndsAtMidnight() {
+        FireWorkloadGenerator generator = new FireWorkloadGenerator(50, 3303);
+        generator.setStartTime(LocalTime.of(23, 0));
+        List<FireIncidentEvent> events = generate(generator, 1000);
+
+        // At 0.01 events per second the last hour of the day holds about 36 events.
+        assertTrue(events.size() > 10 && events.size() < 100, events.size() + " events");
+        LocalTime previous = LocalTime.of(23, 0);
+        for (FireIncidentEvent event : events) {
+            assertFalse(event.getEventTime().isBefore(previous), "events stay in time order");
+            previous = event.getEventTime();
+        }
+    }
+
+    @Test
+    void testZonesTileASquareGrid() {
+        FireWorkloadGenerator generator = new FireWorkloadGenerator(10, 1);
+        assertEquals(10, generator.getZones().size());
+        // Four columns of 200 m tiles, so zone 5 starts the second row.
+        assertEquals(0, generator.getZones().get(5).getStart().x);
+        assertEquals(200, generator.getZones().get(5).getStart().y);
+        assertEquals(600, generator.getZones().get(4).getStart().x);
+    }
+
+    @Test
+    void testPoissonArrivalsHaveTheConfiguredRate() {
+        FireWorkloadGenerator generator = new FireWorkloadGenerator(100, 3303);
+        generator.setArrivals(FireWorkloadGenerator.ArrivalProcess.POISSON, 0.1);
+        long[] offsets = offsets(generate(generator, 5000));
+
+        double rate = offsets.length / (double) offsets[offsets.length - 1];
+        assertEquals(0.1, rate, 0.005);
+        assertEquals(1, dispersion(offsets, 600), 0.3);
+    }
+
+    @Test
+    void testBurstyArrivalsKeepTheRateButCluster() {
+        FireWorkloadGenerator generator = new FireWorkloadGenerator(100, 3303);
+        generator.setArrivals(FireWorkloadGenerator.ArrivalProcess.BURSTY, 0.5);
+        generator.setBursts(20, 50);
+        long[] offsets = offsets(generate(generator, 20_000));
+
+        double rate = offsets.length / (double) offsets[offsets.length - 1];
+        assertEquals(0.5, rate, 0.05);
+        assertTrue(dispersion(offsets, 600) > 5);
+    }
+
+    @Test
+    void testDiurnalArrivalsPeakInTheAfternoon() {
+        FireWorkloadGenerator generator = new FireWorkloadGenerator(100, 3303);
+        generator.setArrivals(FireWorkloadGenerator.ArrivalProcess.DIURNAL, 0.2);
+        generator.setDiurnalAmplitude(0.8);
+        int afternoon = 0, night = 0;
+        for (FireIncidentEvent event : generate(generator, 20_000)) {
+            int hour = event.getEventTime().getHour();
+            if (hour >= 13 && hour < 17) {
+                afternoon++;
+            } else if (hour >= 1 && hour < 5) {
+                night++;
+            }
+        }
+        assertTrue(afternoon > 4 * night, afternoon + " afternoon vs " + night + " night");
+    }
+
+    @Test
+    void testHotspotsAttractTheirShareOfEvents() {
+        FireWorkloadGenerator generator = new FireWorkloadGenerator(10_000, 3303);
+        generator.setArrivals(FireWorkloadGenerator.ArrivalProcess.POISSON, 0.2);
+        generator.setHotspots(1, 0.5, 0);
+        int[] counts = new int[10_001];
+        for (FireIncidentEvent event : generate(generator, 10_000)) {
+            counts[event.getZoneId()]++;
+        }
+        int busiest = 0;
+        for (int count : counts) {
+            busiest = Math.max(busiest, count);
+        }
+        assertEquals(5000, busiest, 200);
+    }
+
+    @Test
+    void testSeverityMixAndFaultRate() {
+        FireWorkloadGenerator generator = new FireWorkloadGenerator(100, 3303);
+        generator.setArrivals(FireWorkloadGenerator.ArrivalProcess.POISSON, 0.2);
+        generator.setSeverityMix(0, 1, 3);
+        generator.setFaultRate(0.1);
+        int high = 0, low = 0, faulty = 0;
+        for (FireIncidentEvent event : generate(generator, 10_000)) {
+            high += event.getSeverity().equals("High") ? 1 : 0;
+            low += event.getSeverity().equals("Low") ? 1 : 0;
+            faulty += event.getFault().equals("NO_FAULT") ? 0 : 1;
+            assertEquals(FireEventReader.waterNeeded(event.getSeverity()), event.getWaterNeeded());
+        }
+        assertEquals(0, low);
+        assertEquals(7500, high, 300);
+        assertEquals(1000, faulty, 150);
+    }
+
+    @Test
+    void testWrittenFilesLoadBackIntoTheFireIncidentSubsystem() throws Exception {
+        File zoneFile = File.createTempFile("zones", ".csv");
+        File eventFile = File.createTempFile("events", ".csv");
+        try {
+            FireWorkloadGenerator generator = new FireWorkloadGenerator(30, 3303);
+            generator.setFaultRate(0.3);
+            generator.writeZones(zoneFile.getPath());
+            generator.writeEvents(eventFile.getPath(), 200);
+            assertEquals(201, Files.readAllLines(eventFile.toPath()).size());
+
+            FireIncidentSubSystem fireSystem = new FireIncidentSubSystem(zoneFile.getPath(), eventFile.getPath());
+            Iterator<FireIncidentEvent> expected = generator.events(200);
+            assertEquals(200, fireSystem.fireIncidents.size());
+            for (FireIncidentEvent loaded : fireSystem.fireIncidents) {
+                FireIncidentEvent event = expected.next();
+                assertEquals(event.toString(), loaded.toString());
+                assertEquals(event.getZone().getCenter(), loaded.getZone().getCenter());
+            }
+        } finally {
+            zoneFile.delete();
+            eventFile.delete();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.concurrent.Executors;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FleetSimulatorTest {
+
+    private SchedulerEventLoop loop;
+    private Scheduler scheduler;
+    private InetSocketAddress droneAddress;
+    private InetSocketAddress fireAddress;
+    private FleetSimulator simulator;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // The Scheduler and every drone exchange messages in memory instead of over loopback UDP.
+        InMemoryTransport.setEmbedded(true);
+        InMemoryTransport droneEndpoint = InMemoryTransport.bind(0);
+        InMemoryTransport fireEndpoint = InMemoryTransport.bind(0);
+        droneAddress = new InetSocketAddress(InetAddress.getLoopbackAddress(), droneEndpoint.getLocalPort());
+        fireAddress = new InetSocketAddress(InetAddress.getLoopbackAddress(), fireEndpoint.getLocalPort());
+
+        FireEventList eventList = new FireEventList();
+        DroneFleet drones = new DroneFleet(eventList);
+        scheduler = new Scheduler(drones, new DroneRequestBuffer(), eventList, new InProgressEvents(), droneEndpoint);
+        loop = new SchedulerEventLoop(scheduler, droneEndpoint, fireEndpoint, Executors.newSingleThreadExecutor());
+        drones.setWatchdogTimer(loop);
+        new Thread(loop, "Scheduler Event Loop").start();
+
+        // Drones fly a thousand times faster than real time.
+        simulator = new FleetSimulator("127.0.0.1", droneAddress.getPort(), new SystemClock(1000), false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        simulator.stop();
+        loop.stop();
+        InMemoryTransport.setEmbedded(false);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timed out");
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    void testHostedDronesRegisterAndCompleteMissions() throws Exception {
+        simulator.start(50);
+        await(() -> scheduler.getDrones().size() == 50);
+        assertEquals(50, simulator.getDronesRunning());
+
+        try (Transport fireSystem = Transport.bind(0)) {
+            for (int zone = 1; zone <= 3; zone++) {
+                FireIncidentEvent fire = new FireIncidentEvent("14:03:15", zone, "FIRE_DETECTED", "Low", new Zone(zone, 0, 0, 700, 600), 10, "NO_FAULT", "N/A");
+                fireSystem.send(ByteBuffer.wrap(fire.toString().getBytes()), fireAddress);
+            }
+        }
+        await(() -> simulator.getMissionsCompleted() == 3);
+    }
+
+    @Test
+    void testStopReleasesBlockedDrones() throws Exception {
+        simulator.start(20);
+        await(() -> scheduler.getDrones().size() == 20);
+
+        simulator.stop();
+        await(() -> simulator.getDronesRunning() == 0);
+    }
+
+    @Test
+    void testDroneThreadsAreNamedDaemons() throws Exception {
+        Thread thread = FleetSimulator.newDroneThread(() -> { }, "Drone client 7001");
+        assertEquals("Drone client 7001", thread.getName());
+        assertTrue(thread.isDaemon(), "a drone thread must not keep the VM alive");
+        thread.start();
+        thread.join(5000);
+        assertFalse(thread.isAlive());
+    }
+}
@@ -0,0 +1,152 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.BindException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousCloseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+public class InMemoryTransportTest {
+
+    private final List<Transport> endpoints = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        endpoints.forEach(Transport::close);
+        InMemoryTransport.setEmbedded(false);
+    }
+
+    private InMemoryTransport bind(int port) throws BindException {
+        InMemoryTransport endpoint = InMemoryTransport.bind(port);
+        endpoints.add(endpoint);
+        return endpoint;
+    }
+
+    private static InetSocketAddress addressOf(Transport endpoint) {
+        return new InetSocketAddress("127.0.0.1", endpoint.getLocalPort());
+    }
+
+    @Test
+    void testRoundTrip() throws Exception {
+        InMemoryTransport server = bind(0);
+        InMemoryTransport client = bind(0);
+
+        client.send(ByteBuffer.wrap("PING".getBytes()), addressOf(server));
+        ByteBuffer in = ByteBuffer.allocate(16);
+        SocketAddress sender = server.receive(in);
+        assertEquals("PING", new String(in.array(), 0, in.position()));
+        assertEquals(client.getLocalPort(), ((InetSocketAddress) sender).getPort());
+
+        server.send(ByteBuffer.wrap("PONG".getBytes()), (InetSocketAddress) sender);
+        in.clear();
+        client.receive(in);
+        assertEquals("PONG", new String(in.array(), 0, in.position()));
+    }
+
+    @Test
+    void testDatagramsAreCopiedAndTruncated() throws Exception {
+        InMemoryTransport server = bind(0);
+        InMemoryTransport client = bind(0);
+
+        ByteBuffer out = ByteBuffer.wrap("ABCDEFGH".getBytes());
+        client.send(out, addressOf(server));
+        assertEquals(0, out.remaining());
+        out.array()[0] = 'Z';
+
+        ByteBuffer in = ByteBuffer.allocate(4);
+        server.receive(in);
+        assertEquals("ABCD", new String(in.array(), 0, in.position()));
+    }
+
+    @Test
+    void testNonBlockingReceiveWakesTheWatcher() throws Exception {
+        InMemoryTransport server = bind(0).configureBlocking(false);
+        InMemoryTransport client = bind(0);
+        ByteBuffer in = ByteBuffer.allocate(16);
+        assertNull(server.receive(in), "nothing is queued");
+
+        Thread watcher = new Thread(() -> LockSupport.parkNanos(TimeUnit.SECONDS.toNanos(10)));
+        watcher.start();
+        server.setWatcher(watcher);
+        client.send(ByteBuffer.wrap("PING".getBytes()), addressOf(server));
+        watcher.join(5_000);
+        assertFalse(watcher.isAlive(), "the send unparks the watcher");
+
+        assertNotNull(server.receive(in));
+        assertEquals("PING", new String(in.array(), 0, in.position()));
+    }
+
+    @Test
+    void testEphemeralPortsAreDistinct() throws Exception {
+        InMemoryTransport first = bind(0);
+        InMemoryTransport second = bind(0);
+        assertTrue(first.getLocalPort() != second.getLocalPort());
+        assertTrue(first.getLocalPort() >= 49152);
+    }
+
+    @Test
+    void testBindingATakenPortFails() throws Exception {
+        InMemoryTransport endpoint = bind(7123);
+        assertThrows(BindException.class, () -> bind(7123));
+        endpoint.close();
+        bind(7123);
+    }
+
+    @Test
+    void testSendToUnboundPortIsDropped() throws Exception {
+        InMemoryTransport client = bind(0);
+        client.send(ByteBuffer.wrap("LOST".getBytes()), new InetSocketAddress("127.0.0.1", 7124));
+        InMemoryTransport late = bind(7124);
+        client.send(ByteBuffer.wrap("SEEN".getBytes()), addressOf(late));
+        ByteBuffer in = ByteBuffer.allocate(16);
+        late.receive(in);
+        assertEquals("SEEN", new String(in.array(), 0, in.position()));
+    }
+
+    @Test
+    void testCloseReleasesBlockedReceiver() throws Exception {
+        InMemoryTransport endpoint = bind(0);
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        Thread receiver = new Thread(() -> {
+            try {
+                endpoint.receive(ByteBuffer.allocate(16));
+            } catch (Exception e) {
+                failure.set(e);
+            }
+        });
+        receiver.start();
+        Thread.sleep(50);
+        endpoint.close();
+        receiver.join(1000);
+        assertFalse(receiver.isAlive());
+        assertTrue(failure.get() instanceof AsynchronousCloseException);
+        assertTrue(endpoint.isClosed());
+    }
+
+    @Test
+    void testDroneRegistersWithEmbeddedScheduler() throws Exception {
+        InMemoryTransport.setEmbedded(true);
+        FireEventList eventList = new FireEventList();
+        DroneFleet drones = new DroneFleet(eventList);
+        Scheduler scheduler = new Scheduler(drones, new DroneRequestBuffer(), eventList, new InProgressEvents(), 7125);
+        Thread listener = new Thread(scheduler, "Drone listener");
+        listener.setDaemon(true);
+        listener.start();
+
+        DroneSubsystem drone = new DroneSubsystem("localhost", 7125);
+        try {
+            drone.initializeDrone();
+            assertNotNull(drones.getADrone(drone.getDroneID()));
+        } finally {
+            drone.close();
+            scheduler.stop();
+        }
+    }
+}
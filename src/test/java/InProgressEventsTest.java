@@ -0,0 +1,42 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InProgressEventsTest {
+
+    private static FireIncidentEvent fire(int zoneId) {
+        FireIncidentEvent event = new FireIncidentEvent("12:00:00", zoneId, "FIRE_DETECTED", "High", new Zone(zoneId, 0, 0, 100, 100), 30, "NO_FAULT", "N/A");
+        event.setID(zoneId);
+        return event;
+    }
+
+    @Test
+    void testFireIsInProgressUntilItsLastDroneIsReleased() throws InterruptedException {
+        InProgressEvents inProgressEvents = new InProgressEvents();
+        FireIncidentEvent fire = fire(1);
+        FireIncidentEvent other = fire(2);
+        inProgressEvents.addInProgressEvent(1, fire);
+        inProgressEvents.addInProgressEvent(2, fire);
+        inProgressEvents.addInProgressEvent(3, other);
+
+        assertSame(fire, inProgressEvents.finishInProgressEvent(1));
+        assertTrue(inProgressEvents.isFireInProgress(fire.getID()));
+        assertSame(fire, inProgressEvents.removeInProgressEvent(2));
+        assertFalse(inProgressEvents.isFireInProgress(fire.getID()));
+        assertTrue(inProgressEvents.isFireInProgress(other.getID()));
+    }
+
+    @Test
+    void testReassigningADroneMovesItsCount() {
+        InProgressEvents inProgressEvents = new InProgressEvents();
+        FireIncidentEvent fire = fire(1);
+        FireIncidentEvent other = fire(2);
+        inProgressEvents.addInProgressEvent(1, fire);
+        inProgressEvents.addInProgressEvent(1, other);
+
+        assertFalse(inProgressEvents.isFireInProgress(fire.getID()));
+        assertTrue(inProgressEvents.isFireInProgress(other.getID()));
+        assertNull(inProgressEvents.finishInProgressEvent(2), "drone 2 has no event");
+        assertTrue(inProgressEvents.isFireInProgress(other.getID()));
+    }
+}
@@ -0,0 +1,110 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void testSmallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram("test");
+        for (int value = 1; value <= 100; value++) {
+            histogram.record(value);
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(100, snapshot.getCount());
+        assertEquals(50, snapshot.valueAtPercentile(50));
+        assertEquals(99, snapshot.valueAtPercentile(99));
+        assertEquals(100, snapshot.valueAtPercentile(100));
+    }
+
+    @Test
+    void testLargeValuesStayWithinPrecision() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            long value = (random.nextLong() >>> 1) >>> random.nextInt(63);
+            long highest = LatencyHistogram.highestValueIn(LatencyHistogram.bucketOf(value));
+            assertTrue(highest >= value, "bucket below " + value);
+            assertTrue(highest - value <= value / LatencyHistogram.SUB_BUCKETS_PER_POWER, "bucket too wide for " + value);
+        }
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.highestValueIn(LatencyHistogram.bucketOf(Long.MAX_VALUE)));
+    }
+
+    @Test
+    void testPercentilesOfUniformLatencies() {
+        LatencyHistogram histogram = new LatencyHistogram("test");
+        for (long millis = 1; millis <= 1000; millis++) {
+            histogram.record(millis * 1_000_000);
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(500e6, snapshot.valueAtPercentile(50), 500e6 / 64);
+        assertEquals(990e6, snapshot.valueAtPercentile(99), 990e6 / 64);
+        assertEquals(1000e6, snapshot.getMax(), 0);
+        assertEquals(1000e6, snapshot.valueAtPercentile(100), 0);
+    }
+
+    @Test
+    void testIntervalSnapshotsOnlyCountNewValues() {
+        LatencyHistogram histogram = new LatencyHistogram("test");
+        histogram.record(10);
+        LatencyHistogram.Snapshot first = histogram.snapshot();
+        histogram.record(1000);
+        histogram.record(1000);
+
+        LatencyHistogram.Snapshot interval = histogram.snapshot().since(first);
+        assertEquals(2, interval.getCount());
+        assertTrue(interval.valueAtPercentile(50) >= 1000);
+    }
+
+    @Test
+    void testConcurrentRecordingLosesNothing() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram("test");
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            int seed = t;
+            threads[t] = new Thread(() -> {
+                Random random = new Random(seed);
+                for (int i = 0; i < 100_000; i++) {
+                    histogram.record(random.nextInt(1_000_000));
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(400_000, histogram.snapshot().getCount());
+    }
+
+    @Test
+    void testMetricsLoggerRecordsFireLatenciesInSimulatedTime() throws Exception {
+        java.io.File file = java.io.File.createTempFile("metrics", ".txt");
+        file.deleteOnExit();
+        MetricsLogger logger = new MetricsLogger(file.getPath());
+        DiscreteEventClock clock = new DiscreteEventClock();
+        logger.setClock(clock);
+
+        logger.logFireReported(1, 1);
+        clock.runUntil(5_000);
+        logger.logDroneDispatched(1);
+        clock.runUntil(8_000);
+        logger.logFireRequeued(1);
+        clock.runUntil(10_000);
+        logger.logDroneDispatched(1);
+        clock.runUntil(65_000);
+        logger.logFireExtinguished(1);
+        logger.close();
+
+        LatencyHistogram[] histograms = logger.histograms();
+        LatencyHistogram.Snapshot response = histograms[0].snapshot();
+        LatencyHistogram.Snapshot extinguish = histograms[1].snapshot();
+        LatencyHistogram.Snapshot queueWait = histograms[2].snapshot();
+        assertEquals(1, response.getCount());
+        assertEquals(5_000_000_000L, response.getMax());
+        assertEquals(65_000_000_000L, extinguish.getMax());
+        assertEquals(2, queueWait.getCount());
+        assertEquals(2_000_000_000L, queueWait.valueAtPercentile(50), 2e9 / 64);
+        assertTrue(logger.summarize().contains("response time: n=1"));
+    }
+}
@@ -0,0 +1,41 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadHarnessTest {
+
+    private LoadHarness harness;
+
+    @AfterEach
+    void tearDown() {
+        if (harness != null) {
+            harness.close();
+        }
+    }
+
+    @Test
+    void testLightLoadIsServedWithoutBacklog() throws Exception {
+        harness = new LoadHarness(10, 1000, 3303);
+        LoadHarness.StepResult step = harness.runStep(4, 2000);
+
+        assertFalse(step.isSaturated(), step.toString());
+        assertTrue(step.getFiresSent() >= 7 && step.getFiresSent() <= 9, step.toString());
+        assertTrue(step.getMissionsPerSecond() > 0, step.toString());
+        assertTrue(step.getResponseTimes().getCount() > 0, step.toString());
+        assertTrue(harness.awaitDrained(10_000));
+    }
+
+    @Test
+    void testOverloadIsReportedAsSaturation() throws Exception {
+        harness = new LoadHarness(2, 1000, 3303);
+        List<LoadHarness.StepResult> steps = harness.findSaturation(100, 2, 3, 1000);
+
+        LoadHarness.StepResult last = steps.get(steps.size() - 1);
+        assertTrue(last.isSaturated(), last.toString());
+        assertTrue(last.getBacklog() > 0);
+        assertTrue(last.getBacklogGrowth() > 0);
+    }
+}
@@ -0,0 +1,128 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogTest {
+
+    /**
+     * Runs a task with standard output captured, returning everything the log wrote.
+     */
+    private static String capture(Runnable task) {
+        PrintStream original = System.out;
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        Log.flush();
+        System.setOut(new PrintStream(captured, true));
+        try {
+            task.run();
+            Log.flush();
+        } finally {
+            System.setOut(original);
+        }
+        return captured.toString();
+    }
+
+    @Test
+    void testCategoryLevelsFilterMessages() {
+        Log log = Log.category("test-levels");
+        Log.setLevel("test-levels", Log.Level.WARN);
+
+        String output = capture(() -> {
+            log.debug("hidden debug");
+            log.info("hidden info");
+            log.warn("shown warning");
+            log.error("shown error");
+        });
+
+        assertFalse(output.contains("hidden"));
+        assertTrue(output.contains("[" + Thread.currentThread().getName() + "]: shown warning"));
+        assertTrue(output.indexOf("shown warning") < output.indexOf("shown error"));
+        assertFalse(log.isDebugEnabled());
+    }
+
+    @Test
+    void testConfigureSetsDefaultAndCategoryLevels() {
+        Log other = Log.category("test-configure-other");
+        Log.configure("error,test-configure=debug");
+        try {
+            assertTrue(Log.category("test-configure").isDebugEnabled());
+            assertFalse(other.isEnabled(Log.Level.WARN));
+            assertTrue(other.isEnabled(Log.Level.ERROR));
+        } finally {
+            Log.setLevel(Log.Level.INFO);
+        }
+        assertTrue(other.isEnabled(Log.Level.INFO));
+        assertTrue(Log.category("test-configure").isDebugEnabled());
+    }
+
+    @Test
+    void testWriterWakesForNewLines() throws InterruptedException {
+        Log log = Log.category("test-writer");
+        PrintStream original = System.out;
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        Log.flush();
+        System.setOut(new PrintStream(captured, true));
+        try {
+            Thread.sleep(50);
+            log.info("written in the background");
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (!captured.toString().contains("written in the background")
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+        } finally {
+            System.setOut(original);
+        }
+        assertTrue(captured.toString().contains("written in the background"));
+    }
+
+    @Test
+    void testOffDisablesEveryLevel() {
+        Log log = Log.category("test-off");
+        Log.setLevel("test-off", Log.Level.OFF);
+        assertFalse(log.isEnabled(Log.Level.ERROR));
+        assertFalse(log.isEnabled(Log.Level.ERROR, 1));
+        assertEquals("", capture(() -> log.error("never printed")));
+    }
+
+    @Test
+    void testSamplingLimitsMessagesPerKey() {
+        Log log = Log.category("test-sampling");
+        Log.setLevel("test-sampling", Log.Level.DEBUG);
+        log.setSampleRate(3);
+
+        int drone1 = 0, drone2 = 0;
+        for (int i = 0; i < 100; i++) {
+            if (log.isEnabled(Log.Level.DEBUG, 1)) {
+                drone1++;
+            }
+            if (log.isEnabled(Log.Level.DEBUG, 2)) {
+                drone2++;
+            }
+        }
+
+        // Both keys get their own budget; a second boundary mid-loop can allow one more round.
+        assertTrue(drone1 >= 3 && drone1 <= 6, "drone 1 printed " + drone1);
+        assertTrue(drone2 >= 3 && drone2 <= 6, "drone 2 printed " + drone2);
+        assertEquals(200 - drone1 - drone2, log.getSuppressed());
+    }
+
+    @Test
+    void testSynchronousModeWritesOnTheCallingThread() {
+        Log log = Log.category("test-sync");
+        Log.setAsync(false);
+        try {
+            String output = capture(() -> {
+                log.info("first");
+                System.out.println("between");
+                log.info("second");
+            });
+            assertTrue(output.indexOf("first") < output.indexOf("between"));
+            assertTrue(output.indexOf("between") < output.indexOf("second"));
+        } finally {
+            Log.setAsync(true);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures how much console logging slows the Scheduler's dispatch path.
+ *
+ * The same random scenario is run through a {@link ScenarioSimulation} under four logging set-ups:
+ * every category off, the default level with the background writer, debug with the background
+ * writer, and debug written on the calling thread the way {@code System.out.println} used to be.
+ * Standard output goes to a scratch file so the terminal's speed does not decide the result. Each
+ * set-up is run a few times after a shared warm-up, and its fastest run is reported as missions
+ * dispatched per second of wall time.
+ *
+ * Run with: java -cp target/classes:target/test-classes LoggingBenchmark [fires] [drones] [seed]
+ */
+public class LoggingBenchmark {
+
+    /** Timed runs per set-up; the fastest is reported. */
+    private static final int RUNS = 5;
+    /** Severity levels, sampled uniformly. */
+    private static final String[] SEVERITIES = {"Low", "Moderate", "High"};
+
+    public static void main(String[] args) throws Exception {
+        int fires = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int droneCount = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 3303;
+
+        PrintStream report = System.out;
+        File scratch = File.createTempFile("logging-benchmark", ".txt");
+        scratch.deleteOnExit();
+        System.setOut(new PrintStream(new FileOutputStream(scratch), false));
+        try {
+            report.println("Fires: " + fires + ", drones: " + droneCount + ", seed: " + seed);
+            Log.configure("debug");
+            for (int i = 0; i < RUNS; i++) {
+                new ScenarioSimulation(scenario(fires, seed), droneCount).run();
+            }
+            run(report, "off          ", fires, droneCount, seed, "off", true);
+            run(report, "info, async  ", fires, droneCount, seed, "info", true);
+            run(report, "debug, async ", fires, droneCount, seed, "debug", true);
+            run(report, "debug, inline", fires, droneCount, seed, "debug", false);
+        } finally {
+            System.setOut(report);
+            Log.setLevel(Log.Level.INFO);
+            Log.setAsync(true);
+        }
+    }
+
+    private static void run(PrintStream report, String name, int fires, int droneCount, long seed, String level, boolean async) {
+        Log.configure(level);
+        Log.setAsync(async);
+        long nanos = Long.MAX_VALUE;
+        ScenarioSimulation simulation = null;
+        for (int i = 0; i < RUNS; i++) {
+            simulation = new ScenarioSimulation(scenario(fires, seed), droneCount);
+            long start = System.nanoTime();
+            simulation.run();
+            Log.flush();
+            nanos = Math.min(nanos, System.nanoTime() - start);
+        }
+        report.printf("%s  %6d missions in %7.1f ms  %9.0f missions/s  (%d log lines dropped so far)%n", name,
+                simulation.getMissionsCompleted(), nanos / 1e6, simulation.getMissionsCompleted() / (nanos / 1e9), Log.getDropped());
+    }
+
+    /**
+     * Generates fires in distinct zones, about one a minute, so none of them are merged.
+     */
+    private static List<FireIncidentEvent> scenario(int fires, long seed) {
+        Random random = new Random(seed);
+        List<FireIncidentEvent> events = new ArrayList<>();
+        int seconds = 0;
+        for (int i = 0; i < fires; i++) {
+            seconds += random.nextInt(120);
+            int x = random.nextInt(900), y = random.nextInt(500);
+            Zone zone = new Zone(i + 1, x, y, x + 100, y + 100);
+            String time = String.format("%02d:%02d:%02d", seconds / 3600 % 24, seconds / 60 % 60, seconds % 60);
+            events.add(new FireIncidentEvent(time, i + 1, "FIRE_DETECTED", SEVERITIES[random.nextInt(3)], zone, 5 + random.nextInt(26), "NO_FAULT", "N/A"));
+        }
+        return events;
+    }
+}
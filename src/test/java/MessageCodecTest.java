@@ -0,0 +1,142 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MessageCodecTest {
+
+    private ByteBuffer frame;
+
+    @BeforeEach
+    void setUp() {
+        frame = ByteBuffer.allocate(MessageCodec.FRAME_SIZE);
+    }
+
+    @Test
+    void testTaskRoundTrip() {
+        MessageCodec.encodeTask(frame, 7, 15, 350, 300, "NOZZLE_JAM", "HARD_FAULT");
+
+        assertTrue(MessageCodec.isBinary(frame.array(), MessageCodec.FRAME_SIZE));
+        assertTrue(MessageCodec.isValid(frame));
+        assertEquals(MessageCodec.TASK, MessageCodec.type(frame));
+        assertEquals(7, MessageCodec.id(frame));
+        assertEquals(15, MessageCodec.water(frame));
+        assertEquals(350, MessageCodec.x(frame));
+        assertEquals(300, MessageCodec.y(frame));
+        assertEquals("NOZZLE_JAM", MessageCodec.fault(frame));
+        assertEquals("HARD_FAULT", MessageCodec.faultType(frame));
+    }
+
+    @Test
+    void testFireEventRoundTrip() {
+        FireIncidentEvent event = new FireIncidentEvent("14:03:15", 3, "FIRE_DETECTED", "High", new Zone(3, 0, 600, 650, 1500), 30, "DRONE_STUCK", "TRANSIENT_FAULT");
+        MessageCodec.encodeFireEvent(frame, event);
+
+        FireIncidentEvent decoded = MessageCodec.decodeFireEvent(frame);
+        assertEquals("14:03:15", decoded.getTime());
+        assertEquals(3, decoded.getZoneId());
+        assertEquals("FIRE_DETECTED", decoded.getEventType());
+        assertEquals("High", decoded.getSeverity());
+        assertEquals(30, decoded.getWaterNeeded());
+        assertEquals("DRONE_STUCK", decoded.getFault());
+        assertEquals("TRANSIENT_FAULT", decoded.getFaultType());
+        assertEquals(event.getZone().toString(), decoded.getZone().toString());
+    }
+
+    @Test
+    void testResponsesMapToTheirTextEquivalents() {
+        for (String response : new String[]{"OPEN_NOZZLE", "RETURN_TO_SCHEDULER:OK", "FIRE_EVENT:RECEIVED", "Location_OK", "OK", "CORRUPTED_MESSAGED"}) {
+            assertTrue(MessageCodec.encodeResponse(frame, response));
+            assertEquals(response, MessageCodec.responseText(frame));
+        }
+
+        assertTrue(MessageCodec.encodeResponse(frame, "42"));
+        assertEquals(MessageCodec.DRONE_ID, MessageCodec.type(frame));
+        assertEquals(42, MessageCodec.id(frame));
+        assertNull(MessageCodec.responseText(frame));
+
+        assertFalse(MessageCodec.encodeResponse(frame, "1:15:350:300:NO_FAULT:N/A"));
+        assertFalse(MessageCodec.encodeResponse(frame, ""));
+    }
+
+    @Test
+    void testEncodingClearsPreviousFields() {
+        MessageCodec.encodeTask(frame, 7, 15, 350, 300, "NOZZLE_JAM", "HARD_FAULT");
+        MessageCodec.encode(frame, MessageCodec.GET_TASK, 7, 0, 0, 0);
+
+        assertEquals("NO_FAULT", MessageCodec.fault(frame));
+        assertEquals("N/A", MessageCodec.faultType(frame));
+        assertEquals(0, MessageCodec.water(frame));
+    }
+
+    @Test
+    void testCorrelationIdIsCarriedAndClearedOnEncode() {
+        MessageCodec.encode(frame, MessageCodec.UPDATE_LOCATION, 7, 0, 120, 80);
+        assertEquals(0, MessageCodec.correlation(frame));
+        MessageCodec.setCorrelation(frame, 123456);
+        assertEquals(123456, MessageCodec.correlation(frame));
+        assertEquals(80, MessageCodec.y(frame));
+
+        MessageCodec.encodeResponse(frame, "Location_OK");
+        assertEquals(0, MessageCodec.correlation(frame));
+        decodeText("GET_TASK:7");
+        assertEquals(0, MessageCodec.correlation(frame));
+    }
+
+    private ByteBuffer decodeText(String request) {
+        MessageCodec.decodeText(ByteBuffer.wrap(request.getBytes()), frame);
+        return frame;
+    }
+
+    @Test
+    void testTextRequestsDecodeToFrames() {
+        assertEquals(MessageCodec.INITIALIZE_DRONE, MessageCodec.type(decodeText("INITIALIZE_DRONE")));
+
+        decodeText("GET_TASK:12");
+        assertEquals(MessageCodec.GET_TASK, MessageCodec.type(frame));
+        assertEquals(12, MessageCodec.id(frame));
+
+        decodeText("RETURN_TO_SCHEDULER:4:9");
+        assertEquals(MessageCodec.RETURN_TO_SCHEDULER, MessageCodec.type(frame));
+        assertEquals(4, MessageCodec.id(frame));
+        assertEquals(9, MessageCodec.water(frame));
+
+        decodeText("UPDATE_LOCATION:3:120:80");
+        assertEquals(MessageCodec.UPDATE_LOCATION, MessageCodec.type(frame));
+        assertEquals(3, MessageCodec.id(frame));
+        assertEquals(120, MessageCodec.x(frame));
+        assertEquals(80, MessageCodec.y(frame));
+        assertTrue(MessageCodec.isValid(frame));
+
+        decodeText("SET_COURSE:5:0:0");
+        assertEquals(MessageCodec.SET_COURSE, MessageCodec.type(frame));
+        assertEquals(5, MessageCodec.id(frame));
+        assertEquals(0, MessageCodec.x(frame));
+
+        decodeText("HEARTBEAT:6");
+        assertEquals(MessageCodec.HEARTBEAT, MessageCodec.type(frame));
+        assertEquals(6, MessageCodec.id(frame));
+    }
+
+    @Test
+    void testMalformedTextRequestsDecodeToUnknownType() {
+        for (String request : new String[]{"22:33:33", "GET_TASK", "GET_TASK:", "NOTIFY_ARRIVED:x", "UPDATE_LOCATION:3:120", "SET_COURSE:5", "OPEN_NOZZLE:99999999999", "NOFHIS_FNKSS:3", ""}) {
+            assertEquals(0, MessageCodec.type(decodeText(request)), request);
+        }
+    }
+
+    @Test
+    void testTextAndMalformedFramesAreRejected() {
+        byte[] text = "GET_TASK:1".getBytes();
+        assertFalse(MessageCodec.isBinary(text, text.length));
+        assertFalse(MessageCodec.isBinary(new byte[0], 0));
+
+        MessageCodec.encode(frame, MessageCodec.GET_TASK, 1, 0, 0, 0);
+        frame.put(1, (byte) (MessageCodec.VERSION + 1));
+        assertFalse(MessageCodec.isValid(frame));
+
+        assertFalse(MessageCodec.isValid(ByteBuffer.wrap(new byte[]{MessageCodec.MAGIC, MessageCodec.VERSION})));
+    }
+}
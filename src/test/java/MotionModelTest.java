@@ -0,0 +1,66 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Point;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MotionModelTest {
+
+    private DiscreteEventClock clock;
+    private MotionModel motion;
+
+    @BeforeEach
+    void setUp() {
+        clock = new DiscreteEventClock();
+        motion = new MotionModel();
+        motion.setClock(clock);
+    }
+
+    @Test
+    void testPositionIsInterpolatedAlongTheLeg() {
+        assertEquals(50.0, motion.depart(1, new Point(0, 0), new Point(300, 400), 10), 1e-9);
+        assertEquals(new Point(0, 0), motion.position(1));
+
+        clock.runUntil(25_000);
+        assertEquals(new Point(150, 200), motion.position(1));
+
+        clock.runUntil(80_000);
+        assertEquals(new Point(300, 400), motion.position(1), "a late drone is held at its target");
+        assertEquals(new Point(300, 400), motion.arrive(1));
+        assertNull(motion.position(1));
+        assertNull(motion.arrive(1));
+    }
+
+    @Test
+    void testFixReanchorsTheLeg() {
+        motion.depart(1, new Point(0, 0), new Point(100, 0), 2);
+        clock.runUntil(10_000);
+        assertEquals(new Point(20, 0), motion.position(1));
+
+        // Held up by a head wind, the drone reports it has only got half as far.
+        assertTrue(motion.fix(1, 10, 0));
+        assertEquals(new Point(10, 0), motion.position(1));
+        clock.runUntil(20_000);
+        assertEquals(new Point(30, 0), motion.position(1));
+        assertEquals(new Point(30, 0), motion.stop(1));
+        assertEquals(0, motion.getInFlight());
+
+        assertFalse(motion.fix(2, 5, 5), "a drone on no leg is not followed");
+        assertNull(motion.position(2));
+    }
+
+    @Test
+    void testPublishReportsEveryDroneInFlight() {
+        motion.depart(1, new Point(0, 0), new Point(0, 100), 1);
+        motion.depart(2, new Point(100, 100), new Point(0, 0), 1);
+        motion.depart(2, new Point(50, 50), new Point(50, 0), 1);
+        clock.runUntil(20_000);
+
+        Map<Integer, Point> reported = new HashMap<>();
+        assertEquals(2, motion.publish((droneID, x, y) -> assertNull(reported.put(droneID, new Point(x, y)))));
+        assertEquals(Map.of(1, new Point(0, 20), 2, new Point(50, 30)), reported);
+    }
+}
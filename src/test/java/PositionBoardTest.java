@@ -0,0 +1,103 @@
+import org.junit.jupiter.api.Test;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PositionBoardTest {
+
+    @Test
+    void testLaterUpdatesReplaceUnpublishedOnes() {
+        PositionBoard board = new PositionBoard();
+        for (int i = 0; i < 1000; i++) {
+            board.update(3, i, 2 * i);
+        }
+        List<Point> reported = new ArrayList<>();
+        assertEquals(1, board.publish((droneID, x, y) -> reported.add(new Point(x, y))));
+        assertEquals(List.of(new Point(999, 1998)), reported);
+        assertEquals(1000, board.getUpdates());
+        assertEquals(999, board.getCoalesced());
+        assertEquals(0, board.publish((droneID, x, y) -> fail("nothing moved")));
+    }
+
+    @Test
+    void testEachMovedDroneIsReportedOnce() {
+        PositionBoard board = new PositionBoard();
+        board.update(1, 10, 10);
+        board.update(2, -20, 30);
+        board.update(1, 15, 12);
+        board.update(5000, 7, 8);
+
+        Map<Integer, Point> reported = new HashMap<>();
+        board.publish((droneID, x, y) -> assertNull(reported.put(droneID, new Point(x, y))));
+        assertEquals(Map.of(1, new Point(15, 12), 2, new Point(-20, 30), 5000, new Point(7, 8)), reported);
+        assertEquals(new Point(7, 8), board.position(5000));
+        assertNull(board.position(4));
+        assertNull(board.position(100_000));
+    }
+
+    @Test
+    void testOutOfRangeIdsAreIgnored() {
+        PositionBoard board = new PositionBoard();
+        board.update(Integer.MAX_VALUE, 1, 1);
+        board.update(PositionBoard.MAX_DRONE_ID + 1, 1, 1);
+        board.update(-1, 1, 1);
+        assertEquals(0, board.publish((droneID, x, y) -> fail("no drone has a slot")));
+
+        board.update(PositionBoard.MAX_DRONE_ID, 4, 5);
+        assertEquals(new Point(4, 5), board.position(PositionBoard.MAX_DRONE_ID));
+        assertNull(board.position(1), "only the chunk used is allocated");
+        assertEquals(1, board.publish((droneID, x, y) -> assertEquals(PositionBoard.MAX_DRONE_ID, droneID)));
+    }
+
+    @Test
+    void testConcurrentUpdatesArePublishedConsistentlyAndNoneIsLost() throws Exception {
+        PositionBoard board = new PositionBoard();
+        int drones = 8;
+        int updates = 20_000;
+        AtomicInteger torn = new AtomicInteger();
+        int[] latest = new int[drones];
+        PositionBoard.Listener check = (droneID, x, y) -> {
+            // Every update has y == -x, so a mixed pair would show up here.
+            if (y != -x || x < latest[droneID]) {
+                torn.incrementAndGet();
+            }
+            latest[droneID] = x;
+        };
+        AtomicBoolean writing = new AtomicBoolean(true);
+        Thread publisher = new Thread(() -> {
+            while (writing.get()) {
+                board.publish(check);
+            }
+        });
+        publisher.start();
+        List<Thread> writers = new ArrayList<>();
+        for (int d = 0; d < drones; d++) {
+            int droneID = d;
+            Thread writer = new Thread(() -> {
+                for (int i = 1; i <= updates; i++) {
+                    board.update(droneID, i, -i);
+                }
+            });
+            writers.add(writer);
+            writer.start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        writing.set(false);
+        publisher.join();
+        board.publish(check);
+
+        assertEquals(0, torn.get());
+        for (int d = 0; d < drones; d++) {
+            assertEquals(updates, latest[d]);
+        }
+    }
+}
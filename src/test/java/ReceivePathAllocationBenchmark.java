@@ -0,0 +1,141 @@
+import java.lang.management.ManagementFactory;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+
+/**
+ * Measures the heap allocated per received drone request by the Scheduler's receive path.
+ *
+ * The legacy path allocates a {@code byte[1024]} and a {@code DatagramPacket} per datagram and
+ * decodes it by building a {@code String} and splitting it. The pooled path receives into a
+ * {@link DroneRequestBuffer} slot and decodes the request in place. Both paths receive the same
+ * mix of text and binary requests over loopback and read the same fields from each. Allocation
+ * is read from the receiving thread's allocation counter, after a warm-up so the JIT has settled,
+ * and the counter's own allocation is subtracted.
+ *
+ * Run with: java -cp target/classes:target/test-classes ReceivePathAllocationBenchmark [messages]
+ */
+public class ReceivePathAllocationBenchmark {
+
+    /** Requests sent by the drones, cycled through in order. */
+    private static final String[] TEXT_REQUESTS = {"GET_TASK:3", "NOTIFY_ARRIVED:3", "UPDATE_LOCATION:3:120:80", "RETURN_TO_SCHEDULER:3:0"};
+    /** Requests sent in a burst before waiting for the receiver to catch up, so nothing is dropped. */
+    private static final int BURST = 32;
+    /** Bytes allocated by reading the allocation counter twice, subtracted from every measurement. */
+    private static long overhead = 0;
+
+    public static void main(String[] args) throws Exception {
+        int messages = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+
+        try (DatagramChannel channel = DatagramChannel.open().bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+             DatagramSocket sender = new DatagramSocket(0, InetAddress.getLoopbackAddress())) {
+            InetSocketAddress target = (InetSocketAddress) channel.getLocalAddress();
+            DatagramPacket[] requests = requests(target);
+            DroneRequestBuffer buffer = new DroneRequestBuffer();
+
+            // Warm both paths up first so neither measurement includes JIT or class-loading garbage.
+            run(channel, sender, requests, buffer, messages / 4, false);
+            run(channel, sender, requests, buffer, messages / 4, true);
+
+            overhead = measurementOverhead();
+            long legacy = run(channel, sender, requests, buffer, messages, false);
+            long pooled = run(channel, sender, requests, buffer, messages, true);
+            System.out.printf("legacy path: %.1f bytes/message%n", (double) legacy / messages);
+            System.out.printf("pooled path: %.1f bytes/message%n", (double) pooled / messages);
+        }
+    }
+
+    /**
+     * Sends and receives the given number of requests and returns the bytes allocated by the receiver.
+     */
+    private static long run(DatagramChannel channel, DatagramSocket sender, DatagramPacket[] requests, DroneRequestBuffer buffer, int messages, boolean pooled) throws Exception {
+        long checksum = 0;
+        long allocated = 0;
+        for (int sent = 0; sent < messages; sent += BURST) {
+            int burst = Math.min(BURST, messages - sent);
+            for (int i = 0; i < burst; i++) {
+                sender.send(requests[(sent + i) % requests.length]);
+            }
+            // Only the receiving side is counted.
+            long before = allocatedBytes();
+            for (int i = 0; i < burst; i++) {
+                checksum += pooled ? receivePooled(channel, buffer) : receiveLegacy(channel);
+            }
+            allocated += allocatedBytes() - before - overhead;
+        }
+        if (checksum == 42) {
+            System.out.println("Keeping the decoded fields alive");
+        }
+        return allocated;
+    }
+
+    /**
+     * Receives and decodes one request the way the Scheduler did before pooling.
+     */
+    private static long receiveLegacy(DatagramChannel channel) throws Exception {
+        byte[] data = new byte[1024];
+        DatagramPacket packet = new DatagramPacket(data, data.length);
+        channel.socket().receive(packet);
+        if (MessageCodec.isBinary(packet.getData(), packet.getLength())) {
+            ByteBuffer frame = ByteBuffer.wrap(packet.getData(), 0, packet.getLength());
+            return MessageCodec.type(frame) + MessageCodec.id(frame) + MessageCodec.x(frame) + packet.getPort();
+        }
+        String request = new String(packet.getData(), 0, packet.getLength());
+        String[] parts = request.split(":");
+        long fields = parts[0].length() + Integer.parseInt(parts[1]);
+        if (parts.length > 3) {
+            fields += Integer.parseInt(parts[2]);
+        }
+        return fields + packet.getPort();
+    }
+
+    /**
+     * Receives and decodes one request through the pooled slots.
+     */
+    private static long receivePooled(DatagramChannel channel, DroneRequestBuffer buffer) throws Exception {
+        int slot = buffer.acquire();
+        buffer.commit(slot, channel.receive(buffer.slot(slot)));
+        slot = buffer.poll();
+        ByteBuffer frame = buffer.request(slot);
+        long fields = MessageCodec.type(frame) + MessageCodec.id(frame) + MessageCodec.x(frame) + buffer.port(slot);
+        buffer.release(slot);
+        return fields;
+    }
+
+    /**
+     * Builds the requests sent to the receiver: every text request, plus its binary equivalent.
+     */
+    private static DatagramPacket[] requests(InetSocketAddress target) {
+        DatagramPacket[] requests = new DatagramPacket[TEXT_REQUESTS.length * 2];
+        for (int i = 0; i < TEXT_REQUESTS.length; i++) {
+            byte[] text = TEXT_REQUESTS[i].getBytes();
+            requests[2 * i] = new DatagramPacket(text, text.length, target);
+            ByteBuffer frame = ByteBuffer.allocate(MessageCodec.FRAME_SIZE);
+            MessageCodec.decodeText(ByteBuffer.wrap(text), frame);
+            requests[2 * i + 1] = new DatagramPacket(frame.array(), MessageCodec.FRAME_SIZE, target);
+        }
+        return requests;
+    }
+
+    /**
+     * Returns the smallest number of bytes allocated by a pair of reads of the allocation counter.
+     */
+    private static long measurementOverhead() {
+        long smallest = Long.MAX_VALUE;
+        for (int i = 0; i < 10_000; i++) {
+            long before = allocatedBytes();
+            smallest = Math.min(smallest, allocatedBytes() - before);
+        }
+        return smallest;
+    }
+
+    /**
+     * Returns the number of bytes allocated so far by the current thread.
+     */
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+    }
+}
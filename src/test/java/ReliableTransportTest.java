@@ -0,0 +1,239 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ReliableTransportTest {
+
+    private final List<Transport> endpoints = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        endpoints.forEach(Transport::close);
+        InMemoryTransport.setLossRate(0, 0);
+    }
+
+    private Transport client(int maxRetransmissions) throws IOException {
+        Transport endpoint = ReliableTransport.client(InMemoryTransport.bind(0), maxRetransmissions);
+        endpoints.add(endpoint);
+        return endpoint;
+    }
+
+    private Transport server() throws IOException {
+        Transport endpoint = ReliableTransport.server(InMemoryTransport.bind(0));
+        endpoints.add(endpoint);
+        return endpoint;
+    }
+
+    private static InetSocketAddress addressOf(Transport endpoint) {
+        return new InetSocketAddress("127.0.0.1", endpoint.getLocalPort());
+    }
+
+    /**
+     * Answers every request delivered by a server endpoint with "ECHO:" and the request,
+     * counting the requests delivered.
+     */
+    private static Thread echo(Transport server, AtomicInteger delivered) {
+        Thread thread = new Thread(() -> {
+            ByteBuffer in = ByteBuffer.allocate(1024);
+            try {
+                while (true) {
+                    in.clear();
+                    SocketAddress sender = server.receive(in);
+                    delivered.incrementAndGet();
+                    String request = new String(in.array(), 0, in.position());
+                    server.send(ByteBuffer.wrap(("ECHO:" + request).getBytes()), (InetSocketAddress) sender);
+                }
+            } catch (IOException e) {
+                // Closed by the test.
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    private static String request(Transport client, Transport server, String request) throws IOException {
+        client.send(ByteBuffer.wrap(request.getBytes()), addressOf(server));
+        ByteBuffer in = ByteBuffer.allocate(1024);
+        client.receive(in);
+        return new String(in.array(), 0, in.position());
+    }
+
+    @Test
+    void testEveryRequestIsAnsweredExactlyOnceOverALossyLink() throws Exception {
+        Transport server = server();
+        AtomicInteger delivered = new AtomicInteger();
+        echo(server, delivered);
+        Transport client = client(ReliableTransport.RETRY_FOREVER);
+        InMemoryTransport.setLossRate(0.3, 42);
+
+        for (int i = 0; i < 200; i++) {
+            assertEquals("ECHO:REQ" + i, request(client, server, "REQ" + i));
+        }
+        assertEquals(200, delivered.get());
+        assertTrue(((ReliableTransport) client).getRetransmissions() > 0);
+    }
+
+    @Test
+    void testRetransmissionTimeoutAdaptsToTheRoundTrip() throws Exception {
+        Transport server = server();
+        echo(server, new AtomicInteger());
+        ReliableTransport client = (ReliableTransport) client(ReliableTransport.RETRY_FOREVER);
+        assertEquals(ReliableTransport.INITIAL_RTO_MILLIS, client.getRetransmissionTimeoutMillis());
+
+        for (int i = 0; i < 50; i++) {
+            request(client, server, "PING");
+        }
+        assertTrue(client.getSmoothedRttMillis() >= 0);
+        assertTrue(client.getRetransmissionTimeoutMillis() < ReliableTransport.INITIAL_RTO_MILLIS);
+        assertTrue(client.getRetransmissionTimeoutMillis() >= ReliableTransport.MIN_RTO_MILLIS);
+    }
+
+    @Test
+    void testDuplicateRequestIsAnsweredFromTheRememberedResponse() throws Exception {
+        Transport server = server();
+        AtomicInteger delivered = new AtomicInteger();
+        echo(server, delivered);
+        InMemoryTransport raw = InMemoryTransport.bind(0);
+        endpoints.add(raw);
+
+        ByteBuffer request = ByteBuffer.allocate(64);
+        request.put(ReliableTransport.MARKER).put(ReliableTransport.REQUEST).putInt(7).putInt(1).put("ONCE".getBytes()).flip();
+        ByteBuffer in = ByteBuffer.allocate(64);
+        List<String> responses = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            raw.send(request.duplicate(), addressOf(server));
+            in.clear();
+            raw.receive(in, 1000);
+            in.flip();
+            assertEquals(ReliableTransport.RESPONSE, in.get(1));
+            assertEquals(1, in.getInt(6));
+            responses.add(new String(in.array(), ReliableTransport.HEADER_SIZE, in.limit() - ReliableTransport.HEADER_SIZE));
+        }
+        assertEquals(List.of("ECHO:ONCE", "ECHO:ONCE"), responses);
+        assertEquals(1, delivered.get());
+    }
+
+    @Test
+    void testPendingRequestIsAcknowledgedNotRedelivered() throws Exception {
+        Transport server = server();
+        InMemoryTransport raw = InMemoryTransport.bind(0);
+        endpoints.add(raw);
+
+        ByteBuffer request = ByteBuffer.allocate(64);
+        request.put(ReliableTransport.MARKER).put(ReliableTransport.REQUEST).putInt(9).putInt(1).put("WAIT".getBytes()).flip();
+        raw.send(request.duplicate(), addressOf(server));
+        ByteBuffer in = ByteBuffer.allocate(64);
+        server.receive(in);
+
+        // The request is not answered yet, so its retransmission is acknowledged and not delivered again.
+        raw.send(request.duplicate(), addressOf(server));
+        AtomicInteger redelivered = new AtomicInteger();
+        Thread receiver = new Thread(() -> {
+            try {
+                server.receive(ByteBuffer.allocate(64), 300);
+                redelivered.incrementAndGet();
+            } catch (IOException e) {
+                // Timed out as expected.
+            }
+        });
+        receiver.start();
+        ByteBuffer ack = ByteBuffer.allocate(64);
+        raw.receive(ack, 1000);
+        ack.flip();
+        assertEquals(ReliableTransport.ACK, ack.get(1));
+        receiver.join();
+        assertEquals(0, redelivered.get());
+    }
+
+    @Test
+    void testIdleClientsAreForgottenButNotPendingOnes() throws Exception {
+        Transport server = server();
+        echo(server, new AtomicInteger());
+        InMemoryTransport answered = InMemoryTransport.bind(0);
+        InMemoryTransport waiting = InMemoryTransport.bind(0);
+        endpoints.add(answered);
+        endpoints.add(waiting);
+
+        ByteBuffer request = ByteBuffer.allocate(64);
+        request.put(ReliableTransport.MARKER).put(ReliableTransport.REQUEST).putInt(11).putInt(1).put("IDLE".getBytes()).flip();
+        answered.send(request.duplicate(), addressOf(server));
+        answered.receive(ByteBuffer.allocate(64), 1000);
+
+        Transport busy = server();
+        request.clear();
+        request.put(ReliableTransport.MARKER).put(ReliableTransport.REQUEST).putInt(12).putInt(1).put("BUSY".getBytes()).flip();
+        waiting.send(request.duplicate(), addressOf(busy));
+        busy.receive(ByteBuffer.allocate(64));
+
+        InetSocketAddress idleClient = addressOf(answered);
+        InetSocketAddress busyClient = addressOf(waiting);
+        assertTrue(ReliableTransport.remembers(idleClient));
+        ReliableTransport.evictIdlePeers(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(2 * ReliableTransport.RETAIN_MILLIS));
+        assertFalse(ReliableTransport.remembers(idleClient), "an answered client is forgotten once idle");
+        assertTrue(ReliableTransport.remembers(busyClient), "a client whose request is still being handled is kept");
+    }
+
+    @Test
+    void testPlainDatagramsPassThrough() throws Exception {
+        Transport server = server();
+        echo(server, new AtomicInteger());
+        InMemoryTransport raw = InMemoryTransport.bind(0);
+        endpoints.add(raw);
+
+        raw.send(ByteBuffer.wrap("PLAIN".getBytes()), addressOf(server));
+        ByteBuffer in = ByteBuffer.allocate(64);
+        raw.receive(in, 1000);
+        assertEquals("ECHO:PLAIN", new String(in.array(), 0, in.position()));
+    }
+
+    @Test
+    void testClientGivesUpWithoutAServer() throws Exception {
+        Transport client = client(2);
+        client.send(ByteBuffer.wrap("ANYONE".getBytes()), new InetSocketAddress("127.0.0.1", 7130));
+        long start = System.nanoTime();
+        assertThrows(SocketTimeoutException.class, () -> client.receive(ByteBuffer.allocate(64)));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        // 200 ms, then 400 ms, then 800 ms before giving up.
+        assertTrue(elapsedMillis >= 1000, "gave up after " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void testDronesRegisterOnceOverALossyEmbeddedLink() throws Exception {
+        InMemoryTransport.setEmbedded(true);
+        try {
+            FireEventList eventList = new FireEventList();
+            DroneFleet drones = new DroneFleet(eventList);
+            Scheduler scheduler = new Scheduler(drones, new DroneRequestBuffer(), eventList, new InProgressEvents(), 7131);
+            Thread listener = new Thread(scheduler, "Drone listener");
+            listener.setDaemon(true);
+            listener.start();
+            InMemoryTransport.setLossRate(0.2, 7);
+
+            List<DroneSubsystem> fleet = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                DroneSubsystem drone = new DroneSubsystem("localhost", 7131);
+                fleet.add(drone);
+                drone.initializeDrone();
+            }
+            for (DroneSubsystem drone : fleet) {
+                assertNotNull(drones.getADrone(drone.getDroneID()));
+            }
+            assertEquals(5, drones.getDrones().size());
+            fleet.forEach(DroneSubsystem::close);
+            scheduler.stop();
+        } finally {
+            InMemoryTransport.setEmbedded(false);
+        }
+    }
+}
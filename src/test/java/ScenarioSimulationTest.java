@@ -0,0 +1,52 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScenarioSimulationTest {
+
+    private static List<FireIncidentEvent> scenario() {
+        Zone near = new Zone(1, 0, 0, 700, 600);
+        Zone far = new Zone(2, 0, 600, 650, 1500);
+        return List.of(
+                new FireIncidentEvent("14:03:15", 1, "FIRE_DETECTED", "High", near, 30, "NO_FAULT", "N/A"),
+                new FireIncidentEvent("14:04:20", 2, "DRONE_REQUEST", "Moderate", far, 20, "NO_FAULT", "N/A"),
+                new FireIncidentEvent("14:06:10", 1, "FIRE_DETECTED", "Low", near, 10, "CORRUPTED_MESSAGE", "TRANSIENT_FAULT"),
+                new FireIncidentEvent("14:40:00", 2, "FIRE_DETECTED", "High", far, 30, "NO_FAULT", "N/A"));
+    }
+
+    @Test
+    void testScenarioRunsToCompletionInSimulatedTime() {
+        ScenarioSimulation simulation = new ScenarioSimulation(scenario(), 3);
+        long start = System.nanoTime();
+        simulation.run();
+        long wallMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(4, simulation.getFiresReported());
+        assertEquals(0, simulation.getFiresQueued());
+        assertEquals(0, simulation.getFailedRequests());
+        assertTrue(simulation.getMissionsCompleted() >= 4);
+        // The last fire is reported 37 minutes in, far longer than the run takes.
+        assertTrue(simulation.getClock().currentTimeMillis() > 36 * 60 * 1000);
+        assertTrue(wallMillis < 30_000);
+    }
+
+    @Test
+    void testRunsOfTheSameScenarioAreIdentical() {
+        ScenarioSimulation first = new ScenarioSimulation(scenario(), 2);
+        ScenarioSimulation second = new ScenarioSimulation(scenario(), 2);
+        first.run();
+        second.run();
+
+        assertEquals(first.getClock().currentTimeMillis(), second.getClock().currentTimeMillis());
+        assertEquals(first.getClock().getEventsRun(), second.getClock().getEventsRun());
+        assertEquals(first.getMissionsCompleted(), second.getMissionsCompleted());
+    }
+
+    @Test
+    void testMissingZoneFileIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> ScenarioSimulation.fromFiles(
+                "src/main/resources/no_such_zone_file.csv", "src/main/resources/Sample_event_file.csv", 2));
+    }
+}
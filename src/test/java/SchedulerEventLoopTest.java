@@ -0,0 +1,145 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchedulerEventLoopTest {
+
+    private SchedulerEventLoop loop;
+    private DatagramSocket client;
+    private InetSocketAddress droneAddress;
+    private InetSocketAddress fireAddress;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        DatagramChannel droneChannel = DatagramChannel.open().bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        DatagramChannel fireChannel = DatagramChannel.open().bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        droneAddress = (InetSocketAddress) droneChannel.getLocalAddress();
+        fireAddress = (InetSocketAddress) fireChannel.getLocalAddress();
+
+        FireEventList eventList = new FireEventList();
+        DroneFleet drones = new DroneFleet(eventList);
+        Scheduler scheduler = new Scheduler(drones, new DroneRequestBuffer(), eventList, new InProgressEvents(), droneChannel);
+        loop = new SchedulerEventLoop(scheduler, droneChannel, fireChannel, Executors.newSingleThreadExecutor());
+        drones.setWatchdogTimer(loop);
+        new Thread(loop, "Scheduler Event Loop").start();
+
+        client = new DatagramSocket(0, InetAddress.getLoopbackAddress());
+        client.setSoTimeout(5000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        loop.stop();
+        client.close();
+    }
+
+    private String request(String message, InetSocketAddress target) throws IOException {
+        send(message, target);
+        return receive();
+    }
+
+    private void send(String message, InetSocketAddress target) throws IOException {
+        byte[] data = message.getBytes();
+        client.send(new DatagramPacket(data, data.length, target));
+    }
+
+    private String receive() throws IOException {
+        DatagramPacket packet = new DatagramPacket(new byte[1024], 1024);
+        client.receive(packet);
+        return new String(packet.getData(), 0, packet.getLength());
+    }
+
+    @Test
+    void testDroneAndFireRequestsShareOneLoop() throws IOException {
+        String droneID = request("INITIALIZE_DRONE", droneAddress);
+        assertTrue(Integer.parseInt(droneID) > 0);
+
+        FireIncidentEvent fire = new FireIncidentEvent("14:03:15", 1, "FIRE_DETECTED", "High", new Zone(1, 0, 0, 700, 600), 10, "NO_FAULT", "N/A");
+        assertEquals("FIRE_EVENT:RECEIVED", request(fire.toString(), fireAddress));
+
+        // Requesting a task makes the drone available, so the pending fire is dispatched to it.
+        send("GET_TASK:" + droneID, droneAddress);
+        String task = receive();
+        assertTrue(task.startsWith(droneID + ":10:350:300:"), "Unexpected task: " + task);
+
+        assertEquals("OPEN_NOZZLE", request("NOTIFY_ARRIVED:" + droneID, droneAddress));
+    }
+
+    private ByteBuffer requestFrame(ByteBuffer frame, InetSocketAddress target) throws IOException {
+        client.send(new DatagramPacket(frame.array(), MessageCodec.FRAME_SIZE, target));
+        return receiveFrame();
+    }
+
+    private ByteBuffer receiveFrame() throws IOException {
+        DatagramPacket packet = new DatagramPacket(new byte[1024], 1024);
+        client.receive(packet);
+        return ByteBuffer.wrap(packet.getData(), 0, packet.getLength());
+    }
+
+    @Test
+    void testBinaryDroneAndFireRequests() throws IOException {
+        ByteBuffer frame = ByteBuffer.allocate(MessageCodec.FRAME_SIZE);
+        MessageCodec.encode(frame, MessageCodec.INITIALIZE_DRONE, 0, 0, 0, 0);
+        ByteBuffer response = requestFrame(frame, droneAddress);
+        assertTrue(MessageCodec.isValid(response));
+        assertEquals(MessageCodec.DRONE_ID, MessageCodec.type(response));
+        int droneID = MessageCodec.id(response);
+
+        FireIncidentEvent fire = new FireIncidentEvent("14:03:15", 1, "FIRE_DETECTED", "High", new Zone(1, 0, 0, 700, 600), 10, "NO_FAULT", "N/A");
+        MessageCodec.encodeFireEvent(frame, fire);
+        assertEquals("FIRE_EVENT:RECEIVED", MessageCodec.responseText(requestFrame(frame, fireAddress)));
+
+        MessageCodec.encode(frame, MessageCodec.GET_TASK, droneID, 0, 0, 0);
+        ByteBuffer task = requestFrame(frame, droneAddress);
+        assertEquals(MessageCodec.TASK, MessageCodec.type(task));
+        assertEquals(droneID, MessageCodec.id(task));
+        assertEquals(10, MessageCodec.water(task));
+        assertEquals(350, MessageCodec.x(task));
+        assertEquals(300, MessageCodec.y(task));
+        assertEquals("NO_FAULT", MessageCodec.fault(task));
+
+        MessageCodec.encode(frame, MessageCodec.NOTIFY_ARRIVED, droneID, 0, 0, 0);
+        assertEquals("OPEN_NOZZLE", MessageCodec.responseText(requestFrame(frame, droneAddress)));
+
+        // The same drone can fall back to text at any time.
+        assertEquals("RETURN_TO_SCHEDULER:OK", request("RETURN_TO_SCHEDULER:" + droneID + ":0", droneAddress));
+    }
+
+    @Test
+    void testCorruptedRequestIsAnswered() throws IOException {
+        assertEquals("CORRUPTED_MESSAGED", request("22", droneAddress));
+    }
+
+    @Test
+    void testTimersFireInDeadlineOrder() throws InterruptedException {
+        CountDownLatch fired = new CountDownLatch(2);
+        StringBuilder order = new StringBuilder();
+        loop.schedule(() -> {
+            order.append("late");
+            fired.countDown();
+        }, 60, TimeUnit.MILLISECONDS);
+        loop.schedule(() -> {
+            order.append("early,");
+            fired.countDown();
+        }, 10, TimeUnit.MILLISECONDS);
+        WatchdogTimer.Timeout cancelled = loop.schedule(() -> order.append("cancelled"), 30, TimeUnit.MILLISECONDS);
+        assertTrue(cancelled.cancel());
+
+        assertTrue(fired.await(5, TimeUnit.SECONDS));
+        assertEquals("early,late", order.toString());
+        assertFalse(cancelled.cancel());
+    }
+}
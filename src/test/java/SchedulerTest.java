@@ -6,20 +6,19 @@ import static org.junit.jupiter.api.Assertions.*;
 import java.awt.*;
 import java.io.IOException;
 import java.net.*;
+import java.nio.ByteBuffer;
 import java.util.Map;
 import java.util.Queue;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class SchedulerTest {
 
     private Scheduler scheduler;
-    DatagramSocket socket = new DatagramSocket();
-    DroneRequestBuffer bufferReq;
-
-    public SchedulerTest() throws SocketException {
-    }
 
     @BeforeEach
-    void setUp() throws SocketException {
+    void setUp() {
+        // Every endpoint, the Scheduler's included, is bound in memory instead of on a real port.
+        InMemoryTransport.setEmbedded(true);
         FireEventList eventList = new FireEventList();
         DroneRequestBuffer buffer = new DroneRequestBuffer();
         DroneFleet drones = new DroneFleet(eventList);
@@ -32,9 +31,7 @@ public class SchedulerTest {
         if (scheduler != null) {
             scheduler.stop();
         }
-        if (socket != null && !socket.isClosed()) {
-            socket.close(); // Ensure socket is closed after each test to avoid address binding issues
-        }
+        InMemoryTransport.setEmbedded(false);
     }
 
     @Test
@@ -101,6 +98,48 @@ public class SchedulerTest {
         }
     }
 
+    @Test
+    void testDroneAssignmentClaimsEveryRequiredDrone() throws IOException, InterruptedException {
+        InetAddress address = InetAddress.getLoopbackAddress();
+        for (int id = 1; id <= 4; id++) {
+            DroneData drone = new DroneData(id, new Point(0, 0), 15, address, 7000 + id);
+            scheduler.drones.addDrone(id, drone);
+            drone.setHasRequested(true);
+        }
+        FireIncidentEvent fireEvent = new FireIncidentEvent("12:00:00", 1, "FIRE_DETECTED", "High", new Zone(1, 0, 0, 200, 200), 45, "NO_FAULT", "N/A");
+        scheduler.handleFireEvent(fireEvent.toString().split(":"), address, 5000);
+
+        scheduler.assignTaskToDrone();
+
+        assertEquals(1, scheduler.drones.getAvailableDrones(), "45L needs three drones out of four");
+        assertTrue(scheduler.eventList.isListEmpty());
+    }
+
+    @Test
+    void testBatchDispatchMatchesByTotalTravelTime() throws IOException {
+        InetAddress address = InetAddress.getLoopbackAddress();
+        // Greedily serving zone 1 first would take the drone near both fires and send the far one to zone 2.
+        DroneData nearBoth = new DroneData(1, new Point(400, 100), 15, address, 7001);
+        DroneData farAway = new DroneData(2, new Point(0, 100), 15, address, 7002);
+        scheduler.drones.addDrone(1, nearBoth);
+        scheduler.drones.addDrone(2, farAway);
+        nearBoth.setHasRequested(true);
+        farAway.setHasRequested(true);
+
+        FireIncidentEvent first = new FireIncidentEvent("12:00:00", 1, "FIRE_DETECTED", "High", new Zone(1, 250, 50, 350, 150), 10, "NO_FAULT", "N/A");
+        FireIncidentEvent second = new FireIncidentEvent("12:05:00", 2, "FIRE_DETECTED", "High", new Zone(2, 450, 50, 550, 150), 10, "NO_FAULT", "N/A");
+        scheduler.handleFireEvent(first.toString().split(":"), address, 5000);
+        scheduler.handleFireEvent(second.toString().split(":"), address, 5000);
+
+        String task = scheduler.dispatchBatch();
+
+        assertFalse(task.isEmpty());
+        assertEquals(new Point(300, 100), scheduler.inProgressEvents.getAnEventInProgress(2).getZone().getCenter());
+        assertEquals(new Point(500, 100), scheduler.inProgressEvents.getAnEventInProgress(1).getZone().getCenter());
+        assertEquals(0, scheduler.drones.getAvailableDrones());
+        assertTrue(scheduler.eventList.isListEmpty());
+    }
+
     @Test
     void testHandleStuckDrones() throws InterruptedException {
         int droneId = 1;
@@ -118,6 +157,7 @@ public class SchedulerTest {
 
         FireIncidentEvent fireEvent = new FireIncidentEvent("12:00:00", droneId, "FIRE", "HIGH", new Zone(1, 10, 10, 20, 20), 50, "", "");
         scheduler.inProgressEvents.addInProgressEvent(droneId, fireEvent);
+        scheduler.drones.reportFaultedDrone(droneId);
 
         scheduler.HandleStuckDrones();
 
@@ -130,41 +170,90 @@ public class SchedulerTest {
         assertEquals("N/A", requeuedEvent.getFaultType());
     }
     @Test
-    void testFaultHandlingCorruptedMessage() {
-        try {
-            tearDown();
-            DroneRequestBuffer bufferReq = new DroneRequestBuffer();
-            FireEventList events = new FireEventList();
-            InProgressEvents inProgressEvents = new InProgressEvents();
-            Thread droneListener = new Thread(new Scheduler(new DroneFleet(events), bufferReq, events, inProgressEvents, 5555), "Drone listener");
-            droneListener.start();
-            int port = 6000;
-            // Create a DatagramSocket bound to the port
-            DatagramSocket socket = new DatagramSocket(port);
-
-            // Prepare data to send
-            String message = "22:33:33";
-            byte[] sendData = message.getBytes();
-            InetAddress address = InetAddress.getByName("127.0.0.1");
-            // Send packet to self
-            DatagramPacket sendPacket = new DatagramPacket(sendData, sendData.length, address, 5555);
-            socket.send(sendPacket);
-            System.out.println("Sent: " + message);
-
-            // Receive the packet
-            byte[] receiveData = new byte[1024];
-            DatagramPacket receivePacket = new DatagramPacket(receiveData, receiveData.length);
-            socket.receive(receivePacket);
-
-            // Process received data
-            String receivedMessage = new String(receivePacket.getData(), 0, receivePacket.getLength());
-            System.out.println("Received: " + receivedMessage);
-            assertEquals( "CORRUPTED_MESSAGED", receivedMessage);
-
-            // Close the socket
-            socket.close();
-        } catch (Exception e) {
-            fail("Exception thrown: " + e.getMessage());
+    void testNozzleJamRequeuesOnlyTheFaultedDrone() throws InterruptedException {
+        AtomicLong now = new AtomicLong();
+        TimingWheel wheel = new TimingWheel(now::get);
+        scheduler.drones.setWatchdogTimer(wheel);
+        InetAddress address = InetAddress.getLoopbackAddress();
+        for (int id = 1; id <= 2; id++) {
+            scheduler.drones.addDrone(id, new DroneData(id, new Point(0, 0), 15, address, 7000 + id));
+            scheduler.inProgressEvents.addInProgressEvent(id, new FireIncidentEvent("12:00:00", id, "FIRE", "High", new Zone(id, 10, 10, 20, 20), 15, "NOZZLE_JAM", "HARD_FAULT"));
+            scheduler.drones.trackDroneNozzle(3, scheduler.drones.getADrone(id));
+        }
+        // Drone 2 reports back in time; drone 1 never does.
+        scheduler.drones.getADrone(2).setIsComingBack(1);
+        scheduler.drones.confirmReturn(scheduler.drones.getADrone(2));
+
+        now.addAndGet(3_000);
+        wheel.advance();
+        scheduler.handleStuckDronesNow();
+
+        assertFalse(scheduler.getDrones().containsKey(1));
+        assertTrue(scheduler.getDrones().containsKey(2));
+        assertNull(scheduler.inProgressEvents.getAnEventInProgress(1));
+        assertNotNull(scheduler.inProgressEvents.getAnEventInProgress(2));
+        assertEquals(1, scheduler.eventList.getListSize());
+        assertEquals("NO_FAULT", scheduler.eventList.getList().peek().getFault());
+    }
+
+    @Test
+    void testFireIsExtinguishedWhenItsLastDroneReturns() throws IOException {
+        InetAddress address = InetAddress.getLoopbackAddress();
+        FireIncidentEvent fireEvent = new FireIncidentEvent("12:00:00", 1, "FIRE_DETECTED", "High", new Zone(1, 0, 0, 200, 200), 30, "NO_FAULT", "N/A");
+        scheduler.getMetricsLogger().logFireReported(fireEvent.getID(), 1);
+        scheduler.getMetricsLogger().logDroneDispatched(fireEvent.getID());
+        for (int id = 1; id <= 3; id++) {
+            scheduler.drones.addDrone(id, new DroneData(id, new Point(0, 0), 15, address, 7000 + id));
+        }
+        scheduler.inProgressEvents.addInProgressEvent(1, fireEvent);
+        scheduler.inProgressEvents.addInProgressEvent(2, fireEvent);
+        FireMetricsStore store = scheduler.getMetricsLogger().getFireMetricsStore();
+
+        scheduler.handleReturnToScheduler(1, address, 7001);
+        assertNotNull(store.get(fireEvent.getID()), "drone 2 is still dropping water on the fire");
+        assertNull(scheduler.inProgressEvents.getAnEventInProgress(1));
+
+        // Drone 2 is lost on the way back, so the fire waits for another drone.
+        scheduler.eventList.addEvent(fireEvent);
+        scheduler.handleReturnToScheduler(2, address, 7002);
+        assertNotNull(store.get(fireEvent.getID()), "the fire is still waiting for a drone");
+
+        assertSame(fireEvent, scheduler.eventList.removeEvent());
+        scheduler.inProgressEvents.addInProgressEvent(3, fireEvent);
+        scheduler.handleReturnToScheduler(3, address, 7003);
+        assertNull(store.get(fireEvent.getID()), "the fire is extinguished once its last drone returns");
+    }
+
+    @Test
+    void testLocationUpdatesAndCoursesLeaveTheStateMachineAlone() throws IOException, InterruptedException {
+        InetAddress address = InetAddress.getLoopbackAddress();
+        scheduler.drones.addDrone(1, new DroneData(1, new Point(0, 0), 15, address, 7001));
+        scheduler.stateMachine.setState("WaitingForDrones");
+        SchedulerState waiting = scheduler.stateMachine.getCurrentState();
+
+        try (Transport drone = InMemoryTransport.bind(0); Transport droneRequests = InMemoryTransport.bind(0)) {
+            drone.send(ByteBuffer.wrap("UPDATE_LOCATION:1:120:80".getBytes()), new InetSocketAddress(address, droneRequests.getLocalPort()));
+            assertTrue(scheduler.receiveDroneRequest(droneRequests));
+            drone.send(ByteBuffer.wrap("SET_COURSE:1:0:0".getBytes()), new InetSocketAddress(address, droneRequests.getLocalPort()));
+            assertTrue(scheduler.receiveDroneRequest(droneRequests));
+        }
+        assertSame(waiting, scheduler.stateMachine.getCurrentState(), "the receiving thread does not move the state machine");
+    }
+
+    @Test
+    void testFaultHandlingCorruptedMessage() throws IOException {
+        FireEventList events = new FireEventList();
+        Scheduler listener = new Scheduler(new DroneFleet(events), new DroneRequestBuffer(), events, new InProgressEvents(), 5555);
+        Thread droneListener = new Thread(listener, "Drone listener");
+        droneListener.start();
+        try (Transport drone = Transport.bind(0)) {
+            drone.send(ByteBuffer.wrap("22:33:33".getBytes()), new InetSocketAddress(InetAddress.getLoopbackAddress(), 5555));
+
+            ByteBuffer received = ByteBuffer.allocate(1024);
+            drone.receive(received, 10_000);
+            assertEquals("CORRUPTED_MESSAGED", new String(received.array(), 0, received.position()));
+        } finally {
+            listener.stop();
         }
     }
 }
@@ -0,0 +1,110 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+    private AtomicLong now;
+    private TimingWheel wheel;
+
+    @BeforeEach
+    void setUp() {
+        now = new AtomicLong(1_000);
+        wheel = new TimingWheel(now::get);
+    }
+
+    @Test
+    void testTimerFiresAtItsDeadline() {
+        List<String> fired = new ArrayList<>();
+        wheel.schedule(() -> fired.add("a"), 5, TimeUnit.MILLISECONDS);
+
+        now.addAndGet(4);
+        assertEquals(0, wheel.advance());
+        now.addAndGet(1);
+        assertEquals(1, wheel.advance());
+        assertEquals(List.of("a"), fired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testSubMillisecondDelayRoundsUp() {
+        List<String> fired = new ArrayList<>();
+        wheel.schedule(() -> fired.add("a"), 300, TimeUnit.MICROSECONDS);
+        assertEquals(0, wheel.advance());
+        now.addAndGet(1);
+        assertEquals(1, wheel.advance());
+    }
+
+    @Test
+    void testCancelledTimerNeverFires() {
+        List<String> fired = new ArrayList<>();
+        WatchdogTimer.Timeout timeout = wheel.schedule(() -> fired.add("cancelled"), 3, TimeUnit.SECONDS);
+        wheel.schedule(() -> fired.add("kept"), 3, TimeUnit.SECONDS);
+
+        assertTrue(timeout.cancel());
+        assertFalse(timeout.cancel());
+        assertEquals(1, wheel.size());
+
+        now.addAndGet(3_000);
+        wheel.advance();
+        assertEquals(List.of("kept"), fired);
+    }
+
+    @Test
+    void testExpiredTimerCannotBeCancelled() {
+        WatchdogTimer.Timeout timeout = wheel.schedule(() -> { }, 1, TimeUnit.MILLISECONDS);
+        now.addAndGet(1);
+        wheel.advance();
+        assertFalse(timeout.cancel());
+    }
+
+    @Test
+    void testTimersCascadeThroughEveryWheel() {
+        Random random = new Random(3303);
+        long start = now.get();
+        long[] firedAt = new long[300];
+        long[] deadlines = new long[firedAt.length];
+        for (int i = 0; i < firedAt.length; i++) {
+            // Spread delays across all four wheels: up to 256 ms, 65 s, 4.6 h and beyond.
+            long delay = (long) Math.pow(2, random.nextInt(26)) + random.nextInt(1000);
+            deadlines[i] = start + delay;
+            final int index = i;
+            wheel.schedule(() -> firedAt[index] = now.get(), delay, TimeUnit.MILLISECONDS);
+        }
+
+        // Jump between deadlines with advance() after each step so every timer's exact tick is observed.
+        long[] sorted = deadlines.clone();
+        java.util.Arrays.sort(sorted);
+        for (long deadline : sorted) {
+            now.set(deadline - 1);
+            wheel.advance();
+            now.set(deadline);
+            wheel.advance();
+        }
+        for (int i = 0; i < firedAt.length; i++) {
+            assertEquals(deadlines[i], firedAt[i], "Timer " + i + " fired at the wrong time");
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testStartedWheelFiresOnItsOwnThread() throws InterruptedException {
+        TimingWheel realTime = new TimingWheel();
+        realTime.start();
+        try {
+            CountDownLatch fired = new CountDownLatch(1);
+            realTime.schedule(fired::countDown, 20, TimeUnit.MILLISECONDS);
+            assertTrue(fired.await(5, TimeUnit.SECONDS));
+        } finally {
+            realTime.stop();
+        }
+    }
+}